@@ -0,0 +1,84 @@
+package nl.hva.ict.sm3.backend.api;
+
+import nl.hva.ict.sm3.backend.service.ElectionWarmupService;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheStats;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionWarmupStatus;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshotStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for inspecting and clearing the cache of parsed elections.
+ */
+@RestController
+@RequestMapping("cache")
+public class CacheController {
+    private final ElectionCache electionCache;
+    private final ElectionWarmupService warmupService;
+    private final ElectionSnapshotStore snapshotStore;
+
+    /**
+     * Constructor for CacheController
+     *
+     * @param electionCache the shared cache of parsed elections
+     * @param warmupService the service that fills the cache at startup
+     * @param snapshotStore the on-disk snapshots of parsed elections
+     */
+    public CacheController(ElectionCache electionCache, ElectionWarmupService warmupService,
+                           ElectionSnapshotStore snapshotStore) {
+        this.electionCache = electionCache;
+        this.warmupService = warmupService;
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Retrieves the hit, miss and load-time counters of the election cache.
+     * Example: GET /cache/stats
+     *
+     * @return the current statistics of the cache
+     */
+    @GetMapping("/stats")
+    public ElectionCacheStats getStats() {
+        return electionCache.getStats();
+    }
+
+    /**
+     * Retrieves the progress of the warm-up at startup, including the time each election year took.
+     * Example: GET /cache/warmup
+     *
+     * @return the current status of the warm-up
+     */
+    @GetMapping("/warmup")
+    public ElectionWarmupStatus getWarmupStatus() {
+        return warmupService.getStatus();
+    }
+
+    /**
+     * Readiness check for the load balancer: 200 once the configured elections have been parsed at startup,
+     * 503 while the warm-up is still running.
+     * Example: GET /cache/ready
+     *
+     * @return the status of the warm-up, with 200 OK or 503 Service Unavailable
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<ElectionWarmupStatus> getReadiness() {
+        HttpStatus status = warmupService.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(warmupService.getStatus());
+    }
+
+    /**
+     * Removes all parsed elections from the cache and their snapshots from disk, so they are parsed again from the
+     * XML files on the next request.
+     * Example: DELETE /cache
+     */
+    @DeleteMapping
+    public void invalidateAll() {
+        snapshotStore.deleteAll();
+        electionCache.invalidateAll();
+    }
+}
@@ -2,8 +2,14 @@ package nl.hva.ict.sm3.backend.api;
 
 import nl.hva.ict.sm3.backend.model.Election;
 import nl.hva.ict.sm3.backend.service.DutchElectionService;
+import nl.hva.ict.sm3.backend.utils.export.ElectionRecordWriter;
 import nl.hva.ict.sm3.backend.utils.types.LevelType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Demo controller for showing how you could load the election data in the backend.
@@ -37,4 +43,37 @@ public class ElectionController {
             return electionService.readResults(electionId, folderName);
         }
     }
+
+    /**
+     * Streams the results of a specific election as newline-delimited JSON, see {@link ElectionRecordWriter} for the
+     * records. The records are written while the response is sent, so the election is never serialized as a whole.<br/>
+     * The ETag of the response is a fingerprint of the XML files. When the request sends the same fingerprint in
+     * If-None-Match the election isn't exported again and 304 Not Modified is returned.
+     * Example: GET /elections/TK2023/export?folderName=TK2023_HvA_UvA
+     * @param electionId the id of the election, e.g. the value of the Id attribute from the ElectionIdentifier tag.
+     * @param folderName the name of the folder that contains the XML result files. If none is provided the value from
+     *                   the electionId is used.
+     * @param ifNoneMatch the ETag of an earlier export the client already has, if any.
+     * @return the records of the election, 304 if the files haven't changed or 404 if the results could not be
+     * processed.
+     */
+    @GetMapping(value = "{electionId}/export", produces = ElectionRecordWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportResults(@PathVariable String electionId, @RequestParam(required = false) String folderName,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String folder = folderName == null ? electionId : folderName;
+        String fingerprint = electionService.getFingerprint(folder);
+        String eTag = fingerprint == null ? null : "\"" + fingerprint + "\"";
+        if (eTag != null && eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        Election election = electionService.readResults(electionId, folder);
+        if (election == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.parseMediaType(ElectionRecordWriter.MEDIA_TYPE))
+                .body(output -> new ElectionRecordWriter(output).write(election));
+    }
 }
@@ -27,13 +27,15 @@ public class MunicipalityController {
     /**
      * Get party votes for a specific municipality and year
      * @param municipality - the name of the municipality
+     * @param pollingStation - the id of a single polling station (e.g., "0363::SB1"), optional
      * @param year - the year of the election, defaults to 2023
      * @return - a list of PartyVote objects
      */
     @GetMapping
     public Election getMunicipalityVotes(@RequestParam(name = "municipality", required = false) String municipality,
-                                               @RequestParam(defaultValue = "2023") int year) {
-        return municipalityService.getPartyVotes(municipality, year);
+                                         @RequestParam(name = "pollingStation", required = false) String pollingStation,
+                                         @RequestParam(defaultValue = "2023") int year) {
+        return municipalityService.getPartyVotes(municipality, pollingStation, year);
     }
 
 }
\ No newline at end of file
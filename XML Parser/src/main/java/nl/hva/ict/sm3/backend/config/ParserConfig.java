@@ -0,0 +1,59 @@
+package nl.hva.ict.sm3.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration of the XML parser.
+ */
+@Configuration
+public class ParserConfig {
+
+    /**
+     * The executor on which the election files are parsed in parallel.
+     * The number of threads is set with {@code election.parser.threads}. When it is 0 or less the number of
+     * available processors is used.
+     *
+     * @param threads the number of parser threads
+     * @return the executor used by the {@link nl.hva.ict.sm3.backend.utils.xml.DutchElectionParser}
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService electionParserExecutor(@Value("${election.parser.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "election-parser-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(poolSize, threadFactory);
+    }
+
+    /**
+     * The executor on which the elections are parsed in the background at startup, one election year per task.
+     * The number of years that is parsed at the same time is set with {@code election.warmup.threads}.<br/>
+     * <br/>
+     * This is a separate pool on purpose: the parsers of the warm-up submit their files to the
+     * {@link #electionParserExecutor(int)} and wait for them. Running the warm-up on that same pool could leave all
+     * its threads waiting for files that never get a thread.
+     *
+     * @param threads the number of warm-up threads
+     * @return the executor used by the {@link nl.hva.ict.sm3.backend.service.ElectionWarmupService}
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService electionWarmupExecutor(@Value("${election.warmup.threads:2}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "election-warmup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, threads), threadFactory);
+    }
+}
@@ -23,8 +23,9 @@ public class Constituency extends Region {
     private List<PartyVote> partyVoteList = new ArrayList<>();
 
     @JsonIgnore // temporary for testing
-    private final List<RegionCandidateVote> candidateVotes = new ArrayList<>();
+    private List<RegionCandidateVote> candidateVotes = new ArrayList<>();
     private final List<Municipality>  municipalityList = new ArrayList<>();
+    private final ListIndex<Integer, Municipality> municipalityIndex = new ListIndex<>(municipalityList, Municipality::getId);
 
     /**
      * Default constructor for Constituency.
@@ -98,12 +99,7 @@ public class Constituency extends Region {
      * @return a Municipality class
      */
     public Municipality getMunicipalityById(int id) {
-        for (Municipality m : municipalityList) {
-            if (m.getId() == id) {
-                return m;
-            }
-        }
-        return null;
+        return municipalityIndex.get(id);
     }
 
     /**
@@ -119,7 +115,7 @@ public class Constituency extends Region {
      * @param m a Municipality class
      */
     public void addMunicipality(Municipality m) {
-        if (!municipalityList.contains(m)) {
+        if (!municipalityIndex.contains(m)) {
             municipalityList.add(m);
         }
     }
@@ -185,6 +181,15 @@ public class Constituency extends Region {
         return candidateVotes;
     }
 
+    /**
+     * Sets the candidate vote records of the constituency.
+     *
+     * @param candidateVotes the list of {@link RegionCandidateVote} objects to set
+     */
+    public void setCandidateVotes(List<RegionCandidateVote> candidateVotes) {
+        this.candidateVotes = candidateVotes;
+    }
+
     /**
      * Adds a candidate vote record to the constituency if it doesn't already exist.
      *
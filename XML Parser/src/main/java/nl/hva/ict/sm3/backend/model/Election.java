@@ -10,6 +10,7 @@ public class Election {
     private final String id;
     private State state;
     private final List<Party> partyList = new ArrayList<>();
+    private final ListIndex<Integer, Party> partyIndex = new ListIndex<>(partyList, Party::getId);
 
     /**
      * Constructor method of the election class
@@ -47,12 +48,7 @@ public class Election {
      * @return int id
      */
     public Party getParty(int id) {
-        for (Party party : partyList) {
-            if (party.getId() == id) {
-                return party;
-            }
-        }
-        return null;
+        return partyIndex.get(id);
     }
 
     /**
@@ -72,7 +68,7 @@ public class Election {
      */
     public void addParty(Party party) {
         // Add validation so no duplicate party can be in the list
-        if (!partyList.contains(party)) {
+        if (!partyIndex.contains(party)) {
             partyList.add(party);
         }
     }
@@ -96,15 +92,18 @@ public class Election {
     }
 
     // --- Municipality ---
+
+    /**
+     * Gets a single municipality from any of the constituencies
+     *
+     * @param municipalityId The id of the municipality
+     * @return the municipality, or null if it is not found
+     */
     public Municipality getMunicipality(int municipalityId) {
-        List<Constituency> constituencyList = this.getState().getConstituencyList();
-
-        for  (Constituency constituency : constituencyList) {
-            List<Municipality> municipalityList = constituency.getMunicipalityList();
-            for (Municipality municipality : municipalityList) {
-                if (municipality.getId() == municipalityId) {
-                    return municipality;
-                }
+        for (Constituency constituency : this.getState().getConstituencyList()) {
+            Municipality municipality = constituency.getMunicipalityById(municipalityId);
+            if (municipality != null) {
+                return municipality;
             }
         }
         return null;
@@ -0,0 +1,72 @@
+package nl.hva.ict.sm3.backend.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A hash index on a list of the model, so an element can be found by its id without scanning the list.<br/>
+ * <br/>
+ * The index follows the list instead of the other way around: elements that are appended to the list, also
+ * directly through its getter, are added to the index on the next lookup. When several elements have the same key
+ * the first one is found, just like a scan of the list would, and all of them are kept for {@link #contains}.
+ *
+ * @param <K> the type of the key.
+ * @param <V> the type of the elements of the list.
+ */
+class ListIndex<K, V> {
+    private final List<V> list;
+    private final Function<V, K> key;
+    private final Map<K, List<V>> index = new HashMap<>();
+    private int indexed;
+
+    /**
+     * Creates an index.
+     * @param list the list that is indexed.
+     * @param key returns the key of an element.
+     */
+    ListIndex(List<V> list, Function<V, K> key) {
+        this.list = list;
+        this.key = key;
+    }
+
+    /**
+     * Finds an element by its key.
+     * @param key the key of the element.
+     * @return the first element with the key, or <code>null</code> when there is none.
+     */
+    synchronized V get(K key) {
+        List<V> elements = lookup(key);
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    /**
+     * Checks if the list contains an element, like {@link List#contains} but only comparing the elements with the
+     * same key. The equals method of the elements must therefore include the key.
+     * @param element the element to look for.
+     * @return <code>true</code> when an element with the same key equals the element.
+     */
+    synchronized boolean contains(V element) {
+        return lookup(key.apply(element)).contains(element);
+    }
+
+    /**
+     * Indexes the elements that were added to the list since the last lookup and finds the elements with a key.
+     * @param key the key of the elements.
+     * @return the elements with the key in the order of the list.
+     */
+    private List<V> lookup(K key) {
+        if (indexed > list.size()) {
+            // Elements have been removed from the list, start over.
+            index.clear();
+            indexed = 0;
+        }
+        while (indexed < list.size()) {
+            V element = list.get(indexed++);
+            index.computeIfAbsent(this.key.apply(element), k -> new ArrayList<>()).add(element);
+        }
+        return index.getOrDefault(key, List.of());
+    }
+}
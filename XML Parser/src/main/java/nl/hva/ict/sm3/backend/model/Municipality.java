@@ -16,9 +16,11 @@ public class Municipality extends Region {
     private List<PartyVote> partyVoteList = new ArrayList<>();
 
     @JsonIgnore // temporary for testing
-    private final List<RegionCandidateVote> candidateVotes = new ArrayList<>();
+    private List<RegionCandidateVote> candidateVotes = new ArrayList<>();
 
     private final List<PollingStation> pollingStationList = new ArrayList<>();
+    private final ListIndex<String, PollingStation> pollingStationIndex =
+            new ListIndex<>(pollingStationList, PollingStation::getPollingStationId);
     /**
      * Default constructor for Municipality.
      * Calls the no-argument constructor of the Region class.
@@ -91,13 +93,7 @@ public class Municipality extends Region {
      * @return PollingStation - the polling station with the specified id, or null if not found
      */
     public PollingStation getPollingStation(String id) {
-        for (PollingStation pollingStation : pollingStationList) {
-            if (pollingStation.getPollingStationId().equals(id)) {
-                return pollingStation;
-            }
-        }
-
-        return null;
+        return pollingStationIndex.get(id);
     }
 
     /**
@@ -115,7 +111,7 @@ public class Municipality extends Region {
      * @param pollingStation - a polling station entity to add
      */
     public void addPollingStation(PollingStation pollingStation) {
-        if (!pollingStationList.contains(pollingStation)) {
+        if (!pollingStationIndex.contains(pollingStation)) {
             this.pollingStationList.add(pollingStation);
         }
     }
@@ -174,6 +170,15 @@ public class Municipality extends Region {
         return candidateVotes;
     }
 
+    /**
+     * Sets the candidate votes
+     *
+     * @param candidateVotes List<RegionCandidateVote>
+     */
+    public void setCandidateVotes(List<RegionCandidateVote> candidateVotes) {
+        this.candidateVotes = candidateVotes;
+    }
+
     /**
      * Adds a RegionCandidateVote.
      *
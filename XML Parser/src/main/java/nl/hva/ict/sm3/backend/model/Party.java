@@ -11,6 +11,7 @@ public class Party {
     private int id;
     private String name;
     private final List<Candidate> candidateList = new ArrayList<>();
+    private final ListIndex<Integer, Candidate> candidateIndex = new ListIndex<>(candidateList, Candidate::getId);
     private int seats = 0; // number of seats in the party
 
     /**
@@ -113,11 +114,21 @@ public class Party {
      */
     public void addCandidate(Candidate candidate) {
         // Add validation so no duplicate candidate can be in the list
-        if (!candidateList.contains(candidate)) {
+        if (!candidateIndex.contains(candidate)) {
             this.candidateList.add(candidate);
         }
     }
 
+    /**
+     * Gets a candidate of the party by its id
+     *
+     * @param id The id of the candidate
+     * @return Candidate The candidate, or null if the party has no candidate with this id
+     */
+    public Candidate getCandidate(int id) {
+        return candidateIndex.get(id);
+    }
+
     /**
      * Gets the number of seats in the party
      * @return int - The number of seats
@@ -126,6 +137,14 @@ public class Party {
         return seats;
     }
 
+    /**
+     * Sets the number of seats in the party
+     * @param seats The number of seats
+     */
+    public void setSeats(int seats) {
+        this.seats = seats;
+    }
+
     /**
      * Increases the number of seats by one
      * Called when a seat is parsed in DutchResultTransformer for each candidate
@@ -17,7 +17,7 @@ public class PollingStation {
     private List<PartyVote> partyVoteList = new ArrayList<>();
 
     @JsonIgnore // temporary for testing
-    private final List<RegionCandidateVote> regionCandidateVotes = new ArrayList<>();
+    private List<RegionCandidateVote> regionCandidateVotes = new ArrayList<>();
 
     private Metadata metadata;
 
@@ -110,6 +110,15 @@ public class PollingStation {
         return regionCandidateVotes;
     }
 
+    /**
+     * Sets the list of PollingStationCandidateVote objects
+     *
+     * @param regionCandidateVotes - list of PollingStationCandidateVote objects to set
+     */
+    public void setRegionCandidateVotes(List<RegionCandidateVote> regionCandidateVotes) {
+        this.regionCandidateVotes = regionCandidateVotes;
+    }
+
     /**
      * Adds a PollingStationCandidateVote to the list if it doesn't already exist
      *
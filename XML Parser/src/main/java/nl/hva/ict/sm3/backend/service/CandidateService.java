@@ -3,15 +3,20 @@ package nl.hva.ict.sm3.backend.service;
 import nl.hva.ict.sm3.backend.model.Election;
 import nl.hva.ict.sm3.backend.model.Party;
 import nl.hva.ict.sm3.backend.utils.PathUtils;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheKey;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshotStore;
 import nl.hva.ict.sm3.backend.utils.types.KieskringType;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
 import nl.hva.ict.sm3.backend.utils.xml.DutchElectionParser;
-import nl.hva.ict.sm3.backend.utils.xml.transformers.*;
+import nl.hva.ict.sm3.backend.utils.xml.ParsePlan;
 import org.springframework.stereotype.Service;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -19,6 +24,23 @@ import java.util.List;
  */
 @Service
 public class CandidateService {
+    private final ElectionCache electionCache;
+    private final ElectionParserFactory parserFactory;
+    private final ElectionSnapshotStore snapshotStore;
+
+    /**
+     * The constructor method of this class which sets the shared election cache, parser factory and snapshot store
+     * @param electionCache the shared cache of parsed elections
+     * @param parserFactory the factory that creates the election parsers
+     * @param snapshotStore the on-disk snapshots of parsed elections
+     */
+    public CandidateService(ElectionCache electionCache, ElectionParserFactory parserFactory,
+                            ElectionSnapshotStore snapshotStore) {
+        this.electionCache = electionCache;
+        this.parserFactory = parserFactory;
+        this.snapshotStore = snapshotStore;
+    }
+
     /**
      * Retrieves the candidates in a list of parties
      * @param kieskring District of the Dutch Election
@@ -27,26 +49,30 @@ public class CandidateService {
      */
     public List<Party> getCandidates(KieskringType kieskring, int year) {
         String location = "TK" + year;
+        ElectionCacheKey key = new ElectionCacheKey(location, ParseLevel.CANDIDATES,
+                kieskring != null ? kieskring.name() : null);
+        List<String> sources = Arrays.asList(PathUtils.getResourcePath("/%s".formatted(location + "_HvA_UvA")));
+        return electionCache.getOrLoad(key, () -> snapshotStore.loadOrParse(key, sources,
+                () -> parseCandidates(kieskring, location))).getPartyList();
+    }
+
+    /**
+     * Parses the candidate lists and results into a new election
+     * @param kieskring District of the Dutch Election, or null for all districts
+     * @param location The id of the election (e.g. "TK2023")
+     * @return Election the parsed election
+     */
+    private Election parseCandidates(KieskringType kieskring, String location) {
         Election election = new Election(location);
 
-        DutchElectionParser electionParser = new DutchElectionParser(
-                new DutchDefinitionTransformer(election),
-                new DutchCandidateTransformer(election),
-                new DutchResultTransformer(election),
-                new DutchNationalVotesTransformer(election),
-                new DutchConstituencyVotesTransformer(election),
-                new DutchMunicipalityVotesTransformer(election)
-        );
+        // If kieskring in undefined get all the candidates else get the candidates per kieskring
+        ParsePlan plan = ParsePlan.of(ParseLevel.CANDIDATES, kieskring != null ? kieskring.toString() : null);
+        DutchElectionParser electionParser = parserFactory.create(election, plan);
 
         try {
-            // If kieskring in undefined get all the candidates else get the candidates per kieskring
-            if (kieskring != null) {
-                electionParser.parseResults(location + "_" + kieskring, PathUtils.getResourcePath("/%s".formatted(location + "_HvA_UvA")));
-            } else {
-                electionParser.parseResults(location, PathUtils.getResourcePath("/%s".formatted(location + "_HvA_UvA")));
-            }
-
-            return election.getPartyList();
+            electionParser.parse(location, PathUtils.getResourcePath("/%s".formatted(location + "_HvA_UvA")), plan);
+
+            return election;
         } catch (IOException | XMLStreamException | NullPointerException | ParserConfigurationException | SAXException e) {
             throw new RuntimeException(e);
         }
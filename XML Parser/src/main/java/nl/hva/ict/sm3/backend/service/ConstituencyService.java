@@ -3,9 +3,13 @@ package nl.hva.ict.sm3.backend.service;
 
 import nl.hva.ict.sm3.backend.model.*;
 import nl.hva.ict.sm3.backend.utils.PathUtils;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheKey;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshotStore;
 import nl.hva.ict.sm3.backend.utils.types.KieskringType;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
 import nl.hva.ict.sm3.backend.utils.xml.DutchElectionParser;
-import nl.hva.ict.sm3.backend.utils.xml.transformers.*;
+import nl.hva.ict.sm3.backend.utils.xml.ParsePlan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -13,8 +17,9 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -26,41 +31,45 @@ import java.util.stream.Collectors;
 @Service
 public class ConstituencyService {
     private static final Logger logger = LoggerFactory.getLogger(ConstituencyService.class);
+    private final ElectionCache electionCache;
+    private final ElectionParserFactory parserFactory;
+    private final ElectionSnapshotStore snapshotStore;
 
-
-    // Helper method to create a DutchElectionParser with all necessary transformers
-    private DutchElectionParser createDutchElectionParser(Election election) {
-        return new DutchElectionParser(
-                new DutchDefinitionTransformer(election),
-                new DutchCandidateTransformer(election),
-                new DutchResultTransformer(election),
-                new DutchNationalVotesTransformer(election),
-                new DutchConstituencyVotesTransformer(election),
-                new DutchMunicipalityVotesTransformer(election)
-        );
+    /**
+     * Constructor for ConstituencyService
+     *
+     * @param electionCache the shared cache of parsed elections
+     * @param parserFactory the factory that creates the election parsers
+     * @param snapshotStore the on-disk snapshots of parsed elections
+     */
+    public ConstituencyService(ElectionCache electionCache, ElectionParserFactory parserFactory,
+                               ElectionSnapshotStore snapshotStore) {
+        this.electionCache = electionCache;
+        this.parserFactory = parserFactory;
+        this.snapshotStore = snapshotStore;
     }
 
     /**
-     * Builds the full resource path to the XML files for the specified constituency and election location.
-     * If no constituency is specified, returns the path to the Constituency folder, instead of a specific file.
+     * Resolves the location of the results of the constituency, or of the Constituency folder when no
+     * constituency is specified.
      *
-     * @param constituency the name of the constituency
+     * @param constituency the name of the constituency (can be null for all constituencies)
      * @param location the electionId (for example, "TK2023")
-     * @return a path to the election data files
-     * @throws IOException if the resource path cannot be found
+     * @return the absolute path, or {@code null} when it can't be found
      */
-    private Path buildResourcePath(KieskringType constituency, String location) throws IOException {
+    private String resourcePath(KieskringType constituency, String location) {
         String basePath = "/%s_HvA_UvA/Constituency".formatted(location);
         if (constituency != null) {
             // Specific constituency, use the full path to the file
             basePath += "/Telling_%s_kieskring_%s.eml.xml".formatted(location, constituency);
         }
-        return Path.of(PathUtils.getResourcePath(basePath));
+        return PathUtils.getResourcePath(basePath);
     }
 
     /**
-     * Generic helper method that parses election data and extracts a specific type of list from the
-     * {@link Election} object using the provided extractor function.
+     * Generic helper method that returns the parsed election data for the constituency. The election is
+     * parsed only once and served from the shared {@link ElectionCache} afterwards. After a restart it is
+     * read from its snapshot, as long as the XML files haven't changed.
      *
      * @param constituency the name of the constituency (can be null to get all constituencies)
      * @param year the election year
@@ -69,21 +78,39 @@ public class ConstituencyService {
      */
     private Election getElectionData(KieskringType constituency, int year) {
         String location = "TK" + year; // electionId
+        ElectionCacheKey key = new ElectionCacheKey(location, ParseLevel.CONSTITUENCY,
+                constituency != null ? constituency.name() : null);
+        List<String> sources = Arrays.asList(
+                PathUtils.getResourcePath("/%s_HvA_UvA/Verkiezingsdefinitie_%s.eml.xml".formatted(location, location)),
+                resourcePath(constituency, location));
+        return electionCache.getOrLoad(key, () -> snapshotStore.loadOrParse(key, sources,
+                () -> parseElectionData(constituency, location)));
+    }
+
+    /**
+     * Parses the definition and the constituency results into a new {@link Election}.
+     *
+     * @param constituency the name of the constituency (can be null to parse all constituencies)
+     * @param location the electionId (for example, "TK2023")
+     * @return the parsed election
+     * @throws RuntimeException if any IO or XML parsing error occurs
+     */
+    private Election parseElectionData(KieskringType constituency, String location) {
         Election election = new Election(location);
-        DutchElectionParser parser = createDutchElectionParser(election);
+        ParsePlan plan = ParsePlan.of(ParseLevel.CONSTITUENCY, constituency != null ? constituency.toString() : null);
+        DutchElectionParser parser = parserFactory.create(election, plan);
 
         try {
-            // build the skeleton for data
-            String definitionPath = "/%s_HvA_UvA/Verkiezingsdefinitie_%s.eml.xml".formatted(location, location);
-            parser.parseResults(location, PathUtils.getResourcePath(definitionPath));
-
-            Path path = buildResourcePath(constituency, location);
-            parser.parseResults(location, String.valueOf(path));
+            if (resourcePath(constituency, location) == null) {
+                throw new FileNotFoundException("No results found for constituency " + constituency);
+            }
+            // the definition builds the skeleton for the data, followed by the constituency results
+            parser.parse(location, PathUtils.getResourcePath("/%s_HvA_UvA".formatted(location)), plan);
 
             // election
             return election;
         } catch (IOException | XMLStreamException | NullPointerException | ParserConfigurationException | SAXException e) {
-            logger.error("Failed to process election data for constituency={} year={}", constituency, year, e);
+            logger.error("Failed to process election data for constituency={} election={}", constituency, location, e);
             throw new RuntimeException("Failed to process election data for constituency " + constituency, e);
         }
 
@@ -2,14 +2,22 @@ package nl.hva.ict.sm3.backend.service;
 
 import nl.hva.ict.sm3.backend.model.Election;
 import nl.hva.ict.sm3.backend.utils.PathUtils;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheKey;
+import nl.hva.ict.sm3.backend.utils.export.ElectionRecordWriter;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshot;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshotStore;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
 import nl.hva.ict.sm3.backend.utils.xml.DutchElectionParser;
-import nl.hva.ict.sm3.backend.utils.xml.transformers.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * A demo service for demonstrating how an EML-XML parser can be used inside a backend application.<br/>
@@ -18,21 +26,52 @@ import java.io.IOException;
  */
 @Service
 public class DutchElectionService {
+    private final ElectionCache electionCache;
+    private final ElectionParserFactory parserFactory;
+    private final ElectionSnapshotStore snapshotStore;
+    private final String exportVersion;
 
+    public DutchElectionService(ElectionCache electionCache, ElectionParserFactory parserFactory,
+                                ElectionSnapshotStore snapshotStore,
+                                @Value("${election.cache.columnar:true}") boolean columnar) {
+        this.electionCache = electionCache;
+        this.parserFactory = parserFactory;
+        this.snapshotStore = snapshotStore;
+        // Everything besides the files that changes the export, so a new version is never answered as unchanged
+        this.exportVersion = "export=%d;snapshot=%d;columnar=%b".formatted(
+                ElectionRecordWriter.FORMAT_VERSION, ElectionSnapshot.FORMAT_VERSION, columnar);
+    }
+
+    /**
+     * Returns the results of the election in the folder. The folder is parsed only once, after that the
+     * election is served from the shared {@link ElectionCache}, or from its snapshot after a restart.
+     * @param electionId the id of the election.
+     * @param folderName the folder that contains the XML result files.
+     * @return the parsed election or <code>null</code> if the files could not be processed.
+     */
     public Election readResults(String electionId, String folderName) {
+        ElectionCacheKey key = new ElectionCacheKey(electionId, ParseLevel.ALL, folderName);
+        List<String> sources = Arrays.asList(PathUtils.getResourcePath("/%s".formatted(folderName)));
+        return electionCache.getOrLoad(key, () -> snapshotStore.loadOrParse(key, sources,
+                () -> parseResults(electionId, folderName)));
+    }
+
+    /**
+     * Returns a fingerprint of the export of the election in the folder, which changes whenever the XML files change
+     * and whenever a new version of the parser or another {@code election.cache.columnar} setting changes the export.
+     * @param folderName the folder that contains the XML result files.
+     * @return the fingerprint or <code>null</code> if the files could not be read.
+     */
+    public String getFingerprint(String folderName) {
+        return snapshotStore.fingerprint(Arrays.asList(PathUtils.getResourcePath("/%s".formatted(folderName))),
+                exportVersion);
+    }
+
+    private Election parseResults(String electionId, String folderName) {
         System.out.println("Processing files...");
 
         Election election = new Election(electionId);
-        // TODO This lengthy construction of the parser should be replaced with a fitting design pattern!
-        //  And refactoring the constructor while your at it is also a good idea.
-        DutchElectionParser electionParser = new DutchElectionParser(
-                new DutchDefinitionTransformer(election),
-                new DutchCandidateTransformer(election),
-                new DutchResultTransformer(election),
-                new DutchNationalVotesTransformer(election),
-                new DutchConstituencyVotesTransformer(election),
-                new DutchMunicipalityVotesTransformer(election)
-        );
+        DutchElectionParser electionParser = parserFactory.create(election);
 
         try {
             // Assuming the election data is somewhere on the class-path it should be found.
@@ -0,0 +1,89 @@
+package nl.hva.ict.sm3.backend.service;
+
+import nl.hva.ict.sm3.backend.model.Election;
+import nl.hva.ict.sm3.backend.utils.types.ElectionFileType;
+import nl.hva.ict.sm3.backend.utils.types.ParserEngine;
+import nl.hva.ict.sm3.backend.utils.xml.DutchElectionParser;
+import nl.hva.ict.sm3.backend.utils.xml.ParsePlan;
+import nl.hva.ict.sm3.backend.utils.xml.transformers.*;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Factory that creates a {@link DutchElectionParser} with all the Dutch transformers writing into one Election.
+ * All services use this factory so the parsers are configured in one place.
+ */
+@Component
+public class ElectionParserFactory {
+    private final ExecutorService executor;
+    private final boolean parallel;
+    private final ParserEngine engine;
+
+    /**
+     * Creates the factory.
+     *
+     * @param executor the executor used for parsing files in parallel
+     * @param parallel whether the files are parsed in parallel ({@code election.parser.parallel}, defaults to true)
+     * @param engine   the XML engine used by the parsers ({@code election.parser.engine}, defaults to SAX)
+     */
+    public ElectionParserFactory(@Qualifier("electionParserExecutor") ExecutorService executor,
+                                 @Value("${election.parser.parallel:true}") boolean parallel,
+                                 @Value("${election.parser.engine:SAX}") ParserEngine engine) {
+        this.executor = executor;
+        this.parallel = parallel;
+        this.engine = engine;
+    }
+
+    /**
+     * Creates a parser that stores everything it parses in the provided election.
+     *
+     * @param election the Election object to store the parsed results
+     * @return a DutchElectionParser instance configured with all transformers
+     */
+    public DutchElectionParser create(Election election) {
+        return create(election, ParsePlan.all());
+    }
+
+    /**
+     * Creates a parser that stores what it parses in the provided election. Only the transformers for the file types
+     * in the plan are created, so the parser has to be used with {@link DutchElectionParser#parse} and the same plan.
+     *
+     * @param election the Election object to store the parsed results
+     * @param plan     the files that will be parsed
+     * @return a DutchElectionParser instance configured with the transformers of the plan
+     */
+    public DutchElectionParser create(Election election, ParsePlan plan) {
+        DutchElectionParser parser = new DutchElectionParser(
+                plan.includes(ElectionFileType.DEFINITION) ? new DutchDefinitionTransformer(election) : null,
+                plan.includes(ElectionFileType.CANDIDATE_LISTS) ? new DutchCandidateTransformer(election) : null,
+                plan.includes(ElectionFileType.RESULT) ? new DutchResultTransformer(election) : null,
+                plan.includes(ElectionFileType.NATIONAL_VOTES) ? new DutchNationalVotesTransformer(election) : null,
+                plan.includes(ElectionFileType.CONSTITUENCY_VOTES) ? new DutchConstituencyVotesTransformer(election) : null,
+                plan.includes(ElectionFileType.MUNICIPALITY_VOTES) ? new DutchMunicipalityVotesTransformer(election) : null
+        );
+        if (parallel) {
+            parser.setExecutor(executor);
+        }
+        parser.setEngine(engine);
+        return parser;
+    }
+
+    /**
+     * Creates a parser that only processes a single reporting unit of the votes files, using the StAX engine so the
+     * rest of each file can be skipped.
+     *
+     * @param election        the Election object to store the parsed results
+     * @param plan            the files that will be parsed
+     * @param reportingUnitId the Id of the reporting unit, e.g. a polling station
+     * @return a DutchElectionParser instance configured with the transformers of the plan
+     */
+    public DutchElectionParser create(Election election, ParsePlan plan, String reportingUnitId) {
+        DutchElectionParser parser = create(election, plan);
+        parser.setEngine(ParserEngine.STAX);
+        parser.setReportingUnitId(reportingUnitId);
+        return parser;
+    }
+}
@@ -0,0 +1,138 @@
+package nl.hva.ict.sm3.backend.service;
+
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionWarmupStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Parses the configured election years in the background once the application has started, so the first requests
+ * after a deployment are served from the {@link ElectionCache} instead of waiting for the parser.<br/>
+ * <br/>
+ * The years are set with {@code election.warmup.years} (defaults to 2023) and are parsed on the
+ * {@code electionWarmupExecutor}, at most {@code election.warmup.threads} years at the same time. For each year the
+ * national results, all constituencies, all municipalities and all candidates are loaded, which are the data sets the
+ * frontend asks for, and the complete results of the {@code TK<year>_HvA_UvA} folder that the seeder of the election
+ * backend exports through <code>GET /elections/TK&lt;year&gt;/export</code>. The warm-up can be turned off with
+ * {@code election.warmup.enabled=false}.<br/>
+ * <br/>
+ * {@link #isReady()} is <code>false</code> until every year has been parsed or has failed, a load balancer can use it
+ * through <code>GET /cache/ready</code> to only send traffic to warm instances. A year that fails doesn't keep the
+ * instance out of service, it is parsed again on the first request like before.
+ */
+@Service
+public class ElectionWarmupService {
+    private static final Logger logger = LoggerFactory.getLogger(ElectionWarmupService.class);
+
+    private final NationalService nationalService;
+    private final ConstituencyService constituencyService;
+    private final MunicipalityService municipalityService;
+    private final CandidateService candidateService;
+    private final DutchElectionService electionService;
+    private final ExecutorService executor;
+    private final List<Integer> years;
+
+    private final Map<Integer, Long> durationMillis = new ConcurrentHashMap<>();
+    private final Map<Integer, String> failures = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Creates the warm-up service.
+     *
+     * @param nationalService     the service that loads the national results
+     * @param constituencyService the service that loads the constituency results
+     * @param municipalityService the service that loads the municipality results
+     * @param candidateService    the service that loads the candidates
+     * @param electionService     the service that loads the complete results for the export
+     * @param executor            the executor on which the years are parsed
+     * @param enabled             whether the elections are parsed at startup ({@code election.warmup.enabled})
+     * @param years               the election years to parse ({@code election.warmup.years})
+     */
+    public ElectionWarmupService(NationalService nationalService, ConstituencyService constituencyService,
+                                 MunicipalityService municipalityService, CandidateService candidateService,
+                                 DutchElectionService electionService,
+                                 @Qualifier("electionWarmupExecutor") ExecutorService executor,
+                                 @Value("${election.warmup.enabled:true}") boolean enabled,
+                                 @Value("${election.warmup.years:2023}") List<Integer> years) {
+        this.nationalService = nationalService;
+        this.constituencyService = constituencyService;
+        this.municipalityService = municipalityService;
+        this.candidateService = candidateService;
+        this.electionService = electionService;
+        this.executor = executor;
+        this.years = List.copyOf(years);
+        this.ready = !enabled || this.years.isEmpty();
+    }
+
+    /**
+     * Starts parsing the configured years in the background when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (ready) {
+            return;
+        }
+        logger.info("Warming up the election cache for {}", years);
+        long start = System.nanoTime();
+        CompletableFuture<?>[] tasks = years.stream()
+                .map(year -> CompletableFuture.runAsync(() -> warmUp(year), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).whenComplete((result, error) -> {
+            ready = true;
+            logger.info("Election cache warm-up finished in {} ms, durations per year {}, failures {}",
+                    (System.nanoTime() - start) / 1_000_000, new TreeMap<>(durationMillis), failures.keySet());
+        });
+    }
+
+    /**
+     * Loads all the data sets of a single year into the cache.
+     */
+    private void warmUp(int year) {
+        long start = System.nanoTime();
+        try {
+            nationalService.getNationalPartyResults(year);
+            constituencyService.getElection(null, year);
+            municipalityService.getPartyVotes(null, year);
+            candidateService.getCandidates(null, year);
+            String electionId = "TK" + year;
+            electionService.readResults(electionId, electionId + "_HvA_UvA");
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            durationMillis.put(year, millis);
+            logger.info("Warmed up election {} in {} ms", year, millis);
+        } catch (RuntimeException e) {
+            failures.put(year, String.valueOf(e.getMessage()));
+            logger.warn("Failed to warm up election {}", year, e);
+        }
+    }
+
+    /**
+     * Whether the warm-up has finished.
+     *
+     * @return <code>true</code> when all configured years have been parsed or have failed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Gets the progress of the warm-up.
+     *
+     * @return a snapshot of the readiness, and the duration or failure per year
+     */
+    public ElectionWarmupStatus getStatus() {
+        return new ElectionWarmupStatus(ready, years, new TreeMap<>(durationMillis), new TreeMap<>(failures));
+    }
+}
@@ -2,8 +2,11 @@ package nl.hva.ict.sm3.backend.service;
 
 import nl.hva.ict.sm3.backend.model.*;
 import nl.hva.ict.sm3.backend.utils.xml.*;
-import nl.hva.ict.sm3.backend.utils.xml.transformers.*;
 import nl.hva.ict.sm3.backend.utils.PathUtils;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheKey;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshotStore;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
 
 import org.springframework.stereotype.Service;
 
@@ -11,10 +14,11 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -22,31 +26,35 @@ import java.util.List;
  */
 @Service
 public class MunicipalityService {
-    // Helper method to create a DutchElectionParser with all necessary transformers
-    private DutchElectionParser createDutchElectionParser(Election election) {
-        return new DutchElectionParser(
-                new DutchDefinitionTransformer(election),
-                new DutchCandidateTransformer(election),
-                new DutchResultTransformer(election),
-                new DutchNationalVotesTransformer(election),
-                new DutchConstituencyVotesTransformer(election),
-                new DutchMunicipalityVotesTransformer(election)
-        );
+    private final ElectionCache electionCache;
+    private final ElectionParserFactory parserFactory;
+    private final ElectionSnapshotStore snapshotStore;
+
+    /**
+     * Constructor for MunicipalityService
+     * @param electionCache - the shared cache of parsed elections
+     * @param parserFactory - the factory that creates the election parsers
+     * @param snapshotStore - the on-disk snapshots of parsed elections
+     */
+    public MunicipalityService(ElectionCache electionCache, ElectionParserFactory parserFactory,
+                               ElectionSnapshotStore snapshotStore) {
+        this.electionCache = electionCache;
+        this.parserFactory = parserFactory;
+        this.snapshotStore = snapshotStore;
     }
 
     /**
-     * Builds the resource path for the election data based on location and municipality
+     * Resolves the location of the results of a municipality, or of the folder with all municipalities
      * @param location - location string (e.g., "TK2023")
-     * @param municipality - municipality name
-     * @return - the constructed Path object
+     * @param municipality - municipality name, or null for all municipalities
+     * @return - the absolute path, or null when it can't be found
      */
-    private Path buildResourcePath(String location, String municipality) {
+    private String resourcePath(String location, String municipality) {
         if (municipality != null) {
-            return Path.of(PathUtils.getResourcePath(
-                    "/%s_HvA_UvA/Municipality/Telling_%s_gemeente_%s.eml.xml".formatted(location, location, municipality))
-            );
+            return PathUtils.getResourcePath(
+                    "/%s_HvA_UvA/Municipality/Telling_%s_gemeente_%s.eml.xml".formatted(location, location, municipality));
         } else {
-            return Path.of(PathUtils.getResourcePath("/%s_HvA_UvA/Municipality".formatted(location)));
+            return PathUtils.getResourcePath("/%s_HvA_UvA/Municipality".formatted(location));
         }
     }
 
@@ -58,14 +66,49 @@ public class MunicipalityService {
      * @return - a list of PartyVote objects
      */
     public Election getPartyVotes(String municipality, int year) {
+        return getPartyVotes(municipality, null, year);
+    }
+
+    /**
+     * Get party votes for a specific municipality and year, optionally limited to a single polling station.
+     * When a polling station is given only that polling station is read from the file, the rest is skipped.
+     *
+     * @param municipality   - the name of the municipality
+     * @param pollingStation - the id of the polling station (e.g., "0363::SB1"), or null for all polling stations
+     * @param year           - the year of the election, defaults to 2023
+     * @return - the election containing the requested votes
+     */
+    public Election getPartyVotes(String municipality, String pollingStation, int year) {
         String location = "TK" + year;
+        String region = pollingStation == null ? municipality : municipality + "/" + pollingStation;
+        ElectionCacheKey key = new ElectionCacheKey(location, ParseLevel.MUNICIPALITY, region);
+        List<String> sources = Arrays.asList(
+                PathUtils.getResourcePath("/%s_HvA_UvA/Verkiezingsdefinitie_%s.eml.xml".formatted(location, location)),
+                resourcePath(location, municipality));
+        return electionCache.getOrLoad(key, () -> snapshotStore.loadOrParse(key, sources,
+                () -> parsePartyVotes(location, municipality, pollingStation)));
+    }
+
+    /**
+     * Parses the definition and the municipality results into a new Election
+     *
+     * @param location       - location string (e.g., "TK2023")
+     * @param municipality   - the name of the municipality, or null for all municipalities
+     * @param pollingStation - the id of the polling station, or null for all polling stations
+     * @return - the parsed election
+     */
+    private Election parsePartyVotes(String location, String municipality, String pollingStation) {
         Election election = new Election(location);
-        DutchElectionParser electionParser = createDutchElectionParser(election);
+        ParsePlan plan = ParsePlan.of(ParseLevel.MUNICIPALITY, municipality);
+        DutchElectionParser electionParser = pollingStation == null
+                ? parserFactory.create(election, plan)
+                : parserFactory.create(election, plan, pollingStation);
 
         try {
-            String definitionPath = "/%s_HvA_UvA/Verkiezingsdefinitie_%s.eml.xml".formatted(location, location);
-            electionParser.parseResults(location, PathUtils.getResourcePath(definitionPath));
-            electionParser.parseResults(location, buildResourcePath(location, municipality).toString());
+            if (resourcePath(location, municipality) == null) {
+                throw new FileNotFoundException("No results found for municipality " + municipality);
+            }
+            electionParser.parse(location, PathUtils.getResourcePath("/%s_HvA_UvA".formatted(location)), plan);
 
             return election;
         } catch (IOException | XMLStreamException | NullPointerException | ParserConfigurationException |
@@ -2,15 +2,20 @@ package nl.hva.ict.sm3.backend.service;
 
 import nl.hva.ict.sm3.backend.model.*;
 import nl.hva.ict.sm3.backend.utils.PathUtils;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheKey;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshotStore;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
 import nl.hva.ict.sm3.backend.utils.xml.DutchElectionParser;
-import nl.hva.ict.sm3.backend.utils.xml.transformers.*;
+import nl.hva.ict.sm3.backend.utils.xml.ParsePlan;
 import org.springframework.stereotype.Service;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
-import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Service class that handles the retrieval of national election results,
@@ -18,34 +23,22 @@ import java.nio.file.Path;
  */
 @Service
 public class NationalService {
+    private final ElectionCache electionCache;
+    private final ElectionParserFactory parserFactory;
+    private final ElectionSnapshotStore snapshotStore;
 
     /**
-     * Creates a DutchElectionParser with all the necessary transformers.
+     * Creates the service.
      *
-     * @param election the Election object to store the parsed results
-     * @return a DutchElectionParser instance configured with all transformers
+     * @param electionCache the shared cache of parsed elections
+     * @param parserFactory the factory that creates the election parsers
+     * @param snapshotStore the on-disk snapshots of parsed elections
      */
-    private DutchElectionParser createElectionParser(Election election) {
-        return new DutchElectionParser(
-                new DutchDefinitionTransformer(election),
-                new DutchCandidateTransformer(election),
-                new DutchResultTransformer(election),
-                new DutchNationalVotesTransformer(election),
-                new DutchConstituencyVotesTransformer(election),
-                new DutchMunicipalityVotesTransformer(election)
-        );
-    }
-
-    /**
-     * Builds the resource path for the national election data.
-     *
-     * @param location the election location string (e.g., "TK2023")
-     * @return the constructed Path object for the national results file
-     */
-    private Path buildResourcePath(String location) {
-        return Path.of(PathUtils.getResourcePath(
-                "/%s_HvA_UvA/National/Totaaltelling_%s.eml.xml".formatted(location, location)
-        ));
+    public NationalService(ElectionCache electionCache, ElectionParserFactory parserFactory,
+                           ElectionSnapshotStore snapshotStore) {
+        this.electionCache = electionCache;
+        this.parserFactory = parserFactory;
+        this.snapshotStore = snapshotStore;
     }
 
     /**
@@ -57,16 +50,28 @@ public class NationalService {
      */
     public Election getNationalPartyResults(int year) {
         String location = "TK" + year;
+        ElectionCacheKey key = new ElectionCacheKey(location, ParseLevel.NATIONAL, null);
+        List<String> sources = Arrays.asList(
+                PathUtils.getResourcePath("/%s_HvA_UvA/Verkiezingsdefinitie_%s.eml.xml".formatted(location, location)),
+                PathUtils.getResourcePath("/%s_HvA_UvA/National/Totaaltelling_%s.eml.xml".formatted(location, location)));
+        return electionCache.getOrLoad(key, () -> snapshotStore.loadOrParse(key, sources,
+                () -> parseNationalPartyResults(location)));
+    }
+
+    /**
+     * Parses the definition and the national total results into a new Election object.
+     *
+     * @param location the election location string (e.g., "TK2023")
+     * @return an Election object containing the parsed national results
+     */
+    private Election parseNationalPartyResults(String location) {
         Election election = new Election(location);
-        DutchElectionParser electionParser = createElectionParser(election);
+        ParsePlan plan = ParsePlan.of(ParseLevel.NATIONAL, null);
+        DutchElectionParser electionParser = parserFactory.create(election, plan);
 
         try {
-            // Parse the election definition file
-            String definitionPath = "/%s_HvA_UvA/Verkiezingsdefinitie_%s.eml.xml".formatted(location, location);
-            electionParser.parseResults(location, PathUtils.getResourcePath(definitionPath));
-
-            // Parse the national total results
-            electionParser.parseResults(location, buildResourcePath(location).toString());
+            // Parse the election definition file and the national total results
+            electionParser.parse(location, PathUtils.getResourcePath("/%s_HvA_UvA".formatted(location)), plan);
 
             return election;
         } catch (IOException | XMLStreamException | NullPointerException |
@@ -0,0 +1,196 @@
+package nl.hva.ict.sm3.backend.utils.cache;
+
+import nl.hva.ict.sm3.backend.model.Election;
+import nl.hva.ict.sm3.backend.utils.columnar.ElectionCompactor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide cache of parsed {@link Election} models, shared by all services of the parser.
+ * <p>
+ * The cache holds at most {@code election.cache.max-size} elections and evicts the least recently used one
+ * when it is full. When several requests ask for the same missing election at the same time, only one of them
+ * parses the files and the others wait for its result.
+ * <p>
+ * Cached elections are shared between requests, so callers must treat them as read-only. Unless
+ * {@code election.cache.columnar} is disabled, the vote lists of a cached election are moved into int columns by the
+ * {@link ElectionCompactor} and really are read-only.
+ */
+@Component
+public class ElectionCache {
+    private final int maxSize;
+    private final boolean columnar;
+    private final Map<ElectionCacheKey, Election> entries;
+    private final Map<ElectionCacheKey, Load> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize  the maximum number of parsed elections that are kept in memory
+     * @param columnar whether the votes of cached elections are stored in int columns instead of vote objects
+     */
+    public ElectionCache(@Value("${election.cache.max-size:16}") int maxSize,
+                         @Value("${election.cache.columnar:true}") boolean columnar) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("election.cache.max-size must be at least 1, got " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.columnar = columnar;
+        // access-ordered so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ElectionCacheKey, Election> eldest) {
+                if (size() > ElectionCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached election for the key, or parses it with the loader when it is not cached yet.
+     * Elections for which the loader returns {@code null}, or that are invalidated while they are parsed, are not
+     * cached. When the loader fails, also with an {@link Error}, the requests that wait for the same election fail
+     * with it.
+     *
+     * @param key    the election, level and region to look up
+     * @param loader parses the election when it is not in the cache
+     * @return the parsed election
+     */
+    public Election getOrLoad(ElectionCacheKey key, Supplier<Election> loader) {
+        Election cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        Load load = new Load();
+        Load inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return await(inFlight.future);
+        }
+
+        try {
+            // another request may have finished loading between the lookup and claiming the key
+            Election election = lookup(key);
+            if (election == null) {
+                long start = System.nanoTime();
+                election = loader.get();
+                if (election != null && columnar) {
+                    ElectionCompactor.compact(election);
+                }
+                loadTimeNanos.add(System.nanoTime() - start);
+                loads.increment();
+
+                if (election != null) {
+                    synchronized (entries) {
+                        // the election was invalidated while it was parsed, the files may have changed
+                        if (!load.stale) {
+                            entries.put(key, election);
+                        }
+                    }
+                }
+            }
+            load.future.complete(election);
+            return election;
+        } catch (RuntimeException | Error e) {
+            // an Error such as an OutOfMemoryError must also release the requests waiting for this load
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key);
+        }
+    }
+
+    /**
+     * Removes a single election from the cache. When the election is being parsed, the result isn't cached.
+     *
+     * @param key the election to remove
+     */
+    public void invalidate(ElectionCacheKey key) {
+        synchronized (entries) {
+            entries.remove(key);
+            Load load = loading.get(key);
+            if (load != null) {
+                load.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Removes all elections from the cache. Elections that are being parsed aren't cached either.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            loading.values().forEach(load -> load.stale = true);
+        }
+    }
+
+    /**
+     * Gets a snapshot of the cache counters.
+     *
+     * @return the current statistics of the cache
+     */
+    public ElectionCacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new ElectionCacheStats(
+                hits.sum(),
+                misses.sum(),
+                loads.sum(),
+                evictions.sum(),
+                loadTimeNanos.sum() / 1_000_000,
+                size,
+                maxSize
+        );
+    }
+
+    private Election lookup(ElectionCacheKey key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private Election await(CompletableFuture<Election> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A running load of an election, shared with the requests that ask for the same election in the meantime.
+     */
+    private static final class Load {
+        private final CompletableFuture<Election> future = new CompletableFuture<>();
+        // set when the election is invalidated during the load, the parsed election is then not cached
+        private volatile boolean stale;
+    }
+}
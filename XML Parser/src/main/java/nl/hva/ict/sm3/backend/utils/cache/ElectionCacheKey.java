@@ -0,0 +1,78 @@
+package nl.hva.ict.sm3.backend.utils.cache;
+
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
+
+import java.util.Objects;
+
+/**
+ * Identifies a parsed Election in the {@link ElectionCache}.
+ * Two keys are equal when they refer to the same election, level and region.
+ */
+public class ElectionCacheKey {
+    private final String electionId;
+    private final ParseLevel level;
+    private final String region;
+
+    /**
+     * Creates a new cache key.
+     *
+     * @param electionId the id of the election (e.g. "TK2023")
+     * @param level      the level of the results that are parsed
+     * @param region     the region that is parsed, or {@code null} when all regions of the level are parsed
+     */
+    public ElectionCacheKey(String electionId, ParseLevel level, String region) {
+        this.electionId = electionId;
+        this.level = level;
+        this.region = region;
+    }
+
+    /**
+     * Gets the id of the election
+     *
+     * @return the election id
+     */
+    public String getElectionId() {
+        return electionId;
+    }
+
+    /**
+     * Gets the level of the parsed results
+     *
+     * @return the parse level
+     */
+    public ParseLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the region of the parsed results
+     *
+     * @return the region, or {@code null} for all regions
+     */
+    public String getRegion() {
+        return region;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ElectionCacheKey that)) return false;
+        return Objects.equals(electionId, that.electionId)
+                && level == that.level
+                && Objects.equals(region, that.region);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(electionId, level, region);
+    }
+
+    @Override
+    public String toString() {
+        return "ElectionCacheKey{" +
+                "electionId='" + electionId + '\'' +
+                ", level=" + level +
+                ", region='" + region + '\'' +
+                '}';
+    }
+}
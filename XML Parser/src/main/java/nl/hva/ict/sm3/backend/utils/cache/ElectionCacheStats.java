@@ -0,0 +1,73 @@
+package nl.hva.ict.sm3.backend.utils.cache;
+
+/**
+ * A snapshot of the counters of the {@link ElectionCache}.
+ */
+public class ElectionCacheStats {
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long evictions;
+    private final long totalLoadTimeMillis;
+    private final int size;
+    private final int maxSize;
+
+    /**
+     * Creates a new snapshot of the cache counters.
+     *
+     * @param hits                the number of lookups that were served from the cache
+     * @param misses              the number of lookups that had to parse the election
+     * @param loads               the number of completed parses
+     * @param evictions           the number of elections removed because the cache was full
+     * @param totalLoadTimeMillis the total time spent parsing, in milliseconds
+     * @param size                the number of elections currently cached
+     * @param maxSize             the maximum number of elections that can be cached
+     */
+    public ElectionCacheStats(long hits, long misses, long loads, long evictions,
+                              long totalLoadTimeMillis, int size, int maxSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.evictions = evictions;
+        this.totalLoadTimeMillis = totalLoadTimeMillis;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getTotalLoadTimeMillis() {
+        return totalLoadTimeMillis;
+    }
+
+    /**
+     * Gets the average time a parse took
+     *
+     * @return the average load time in milliseconds, or 0 when nothing has been loaded yet
+     */
+    public long getAverageLoadTimeMillis() {
+        return loads == 0 ? 0 : totalLoadTimeMillis / loads;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,46 @@
+package nl.hva.ict.sm3.backend.utils.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the progress of the warm-up of the {@link ElectionCache} at startup.
+ */
+public class ElectionWarmupStatus {
+    private final boolean ready;
+    private final List<Integer> years;
+    private final Map<Integer, Long> durationMillis;
+    private final Map<Integer, String> failures;
+
+    /**
+     * Creates a new snapshot of the warm-up.
+     *
+     * @param ready          whether the warm-up has finished, successfully or not
+     * @param years          the election years that are warmed up
+     * @param durationMillis the time it took to warm up each finished year, in milliseconds
+     * @param failures       the error message of each year that couldn't be warmed up
+     */
+    public ElectionWarmupStatus(boolean ready, List<Integer> years, Map<Integer, Long> durationMillis,
+                                Map<Integer, String> failures) {
+        this.ready = ready;
+        this.years = years;
+        this.durationMillis = durationMillis;
+        this.failures = failures;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Integer> getYears() {
+        return years;
+    }
+
+    public Map<Integer, Long> getDurationMillis() {
+        return durationMillis;
+    }
+
+    public Map<Integer, String> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,69 @@
+package nl.hva.ict.sm3.backend.utils.columnar;
+
+import nl.hva.ict.sm3.backend.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the vote lists of a parsed {@link Election} with views on {@link VoteColumns}, one set of columns per
+ * region level (constituencies, municipalities and polling stations). This turns the millions of small vote objects
+ * of a complete election into a handful of <code>int[]</code> arrays.<br/>
+ * <br/>
+ * <b>Only compact an election once it is completely parsed:</b> afterwards the vote lists are read-only.
+ */
+public class ElectionCompactor {
+
+    private ElectionCompactor() {
+    }
+
+    /**
+     * Moves the party and candidate votes of all regions of the election into columns.
+     * @param election the parsed election, it is changed in place.
+     * @return the same election.
+     */
+    public static Election compact(Election election) {
+        State state = election.getState();
+        if (state == null) {
+            return election;
+        }
+
+        List<Constituency> constituencies = state.getConstituencyList();
+        List<Municipality> municipalities = new ArrayList<>();
+        List<PollingStation> pollingStations = new ArrayList<>();
+        for (Constituency constituency : constituencies) {
+            for (Municipality municipality : constituency.getMunicipalityList()) {
+                municipalities.add(municipality);
+                pollingStations.addAll(municipality.getPollingStationList());
+            }
+        }
+
+        VoteColumns<PartyVote> partyVotes = VoteColumns.ofPartyVotes(
+                constituencies.stream().map(Constituency::getPartyVoteList).toList());
+        VoteColumns<RegionCandidateVote> candidateVotes = VoteColumns.ofCandidateVotes(
+                constituencies.stream().map(Constituency::getCandidateVotes).toList());
+        for (int i = 0; i < constituencies.size(); i++) {
+            constituencies.get(i).setPartyVoteList(partyVotes.view(i));
+            constituencies.get(i).setCandidateVotes(candidateVotes.view(i));
+        }
+
+        partyVotes = VoteColumns.ofPartyVotes(
+                municipalities.stream().map(Municipality::getPartyVoteList).toList());
+        candidateVotes = VoteColumns.ofCandidateVotes(
+                municipalities.stream().map(Municipality::getCandidateVotes).toList());
+        for (int i = 0; i < municipalities.size(); i++) {
+            municipalities.get(i).setPartyVoteList(partyVotes.view(i));
+            municipalities.get(i).setCandidateVotes(candidateVotes.view(i));
+        }
+
+        partyVotes = VoteColumns.ofPartyVotes(
+                pollingStations.stream().map(PollingStation::getPartyVoteList).toList());
+        candidateVotes = VoteColumns.ofCandidateVotes(
+                pollingStations.stream().map(PollingStation::getRegionCandidateVotes).toList());
+        for (int i = 0; i < pollingStations.size(); i++) {
+            pollingStations.get(i).setPartyVoteList(partyVotes.view(i));
+            pollingStations.get(i).setRegionCandidateVotes(candidateVotes.view(i));
+        }
+        return election;
+    }
+}
@@ -0,0 +1,141 @@
+package nl.hva.ict.sm3.backend.utils.columnar;
+
+import nl.hva.ict.sm3.backend.model.PartyVote;
+import nl.hva.ict.sm3.backend.model.RegionCandidateVote;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The votes of all regions of one level (for example all polling stations of an election), stored as parallel
+ * <code>int[]</code> columns instead of one object per vote.<br/>
+ * <br/>
+ * The votes of region <code>i</code> are stored at the positions <code>offsets[i]</code> up to
+ * <code>offsets[i + 1]</code> of the columns. {@link #view(int)} exposes them as a read-only {@link List} of
+ * {@link PartyVote} or {@link RegionCandidateVote} objects, which are created when an element is read. Code that
+ * iterates the lists, like the services and Jackson, doesn't notice the difference with an <code>ArrayList</code>.
+ *
+ * @param <T> the type of vote that is exposed by the views.
+ */
+public abstract class VoteColumns<T> {
+    private final int[] offsets;
+    final int[] partyIds;
+    final int[] votes;
+
+    private VoteColumns(int[] offsets, int[] partyIds, int[] votes) {
+        this.offsets = offsets;
+        this.partyIds = partyIds;
+        this.votes = votes;
+    }
+
+    /**
+     * Copies the party votes of all regions of a level into columns.
+     * @param regions the party votes per region, the index in this list is the region index of the views.
+     * @return the columns.
+     */
+    public static VoteColumns<PartyVote> ofPartyVotes(List<List<PartyVote>> regions) {
+        int[] offsets = offsets(regions);
+        int[] partyIds = new int[offsets[regions.size()]];
+        int[] votes = new int[partyIds.length];
+        int position = 0;
+        for (List<PartyVote> region : regions) {
+            for (PartyVote partyVote : region) {
+                partyIds[position] = partyVote.getPartyId();
+                votes[position] = partyVote.getVotes();
+                position++;
+            }
+        }
+        return new VoteColumns<>(offsets, partyIds, votes) {
+            @Override
+            PartyVote get(int position) {
+                return new PartyVote(this.partyIds[position], this.votes[position]);
+            }
+        };
+    }
+
+    /**
+     * Copies the candidate votes of all regions of a level into columns.
+     * @param regions the candidate votes per region, the index in this list is the region index of the views.
+     * @return the columns.
+     */
+    public static VoteColumns<RegionCandidateVote> ofCandidateVotes(List<List<RegionCandidateVote>> regions) {
+        int[] offsets = offsets(regions);
+        int[] candidateIds = new int[offsets[regions.size()]];
+        int[] partyIds = new int[candidateIds.length];
+        int[] votes = new int[candidateIds.length];
+        int position = 0;
+        for (List<RegionCandidateVote> region : regions) {
+            for (RegionCandidateVote candidateVote : region) {
+                candidateIds[position] = candidateVote.getCandidateId();
+                partyIds[position] = candidateVote.getPartyId();
+                votes[position] = candidateVote.getVotes();
+                position++;
+            }
+        }
+        return new VoteColumns<>(offsets, partyIds, votes) {
+            @Override
+            RegionCandidateVote get(int position) {
+                return new RegionCandidateVote(candidateIds[position], this.partyIds[position], this.votes[position]);
+            }
+        };
+    }
+
+    /**
+     * Returns the votes of a single region.
+     * @param regionIndex the index of the region in the list the columns were created from.
+     * @return a read-only list of the votes of the region.
+     */
+    public List<T> view(int regionIndex) {
+        int from = offsets[regionIndex];
+        int size = offsets[regionIndex + 1] - from;
+        return new View(from, size);
+    }
+
+    /**
+     * @return the total number of votes in the columns.
+     */
+    public int size() {
+        return votes.length;
+    }
+
+    /**
+     * Creates the vote that is stored at a position in the columns.
+     */
+    abstract T get(int position);
+
+    private static int[] offsets(List<? extends List<?>> regions) {
+        int[] offsets = new int[regions.size() + 1];
+        for (int i = 0; i < regions.size(); i++) {
+            offsets[i + 1] = offsets[i] + regions.get(i).size();
+        }
+        return offsets;
+    }
+
+    /**
+     * The read-only list of the votes of one region. Changing methods like <code>add</code> throw an
+     * {@link UnsupportedOperationException}.
+     */
+    private class View extends AbstractList<T> implements RandomAccess {
+        private final int from;
+        private final int size;
+
+        private View(int from, int size) {
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return VoteColumns.this.get(from + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
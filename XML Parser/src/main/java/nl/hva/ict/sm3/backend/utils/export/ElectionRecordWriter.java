@@ -0,0 +1,184 @@
+package nl.hva.ict.sm3.backend.utils.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import nl.hva.ict.sm3.backend.model.*;
+import nl.hva.ict.sm3.backend.utils.types.RecordType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes an {@link Election} as newline-delimited JSON (NDJSON): one small JSON object per line instead of one
+ * document holding the whole election. Every record has a <code>type</code> (see {@link RecordType}) and is written
+ * directly to the output stream, so the export never holds more than a single record in memory.<br/>
+ * <br/>
+ * The records are written top-down, a region is always written before its votes, metadata and subregions:
+ * <pre>
+ * {"type":"ELECTION","id":"TK2023"}
+ * {"type":"PARTY","id":1,"name":"VVD","seats":24,"candidates":[...]}
+ * {"type":"STATE","name":"Nederland"}
+ * {"type":"METADATA","region":"STATE","totalCast":...,"totalCounted":...,"invalid":...,"blank":...}
+ * {"type":"PARTY_VOTE","region":"STATE","partyId":1,"votes":2261850}
+ * {"type":"CONSTITUENCY","id":1,"name":"Groningen"}
+ * {"type":"MUNICIPALITY","id":14,"name":"Groningen","constituencyId":1}
+ * {"type":"POLLING_STATION","id":"0014::SB1","name":"...","municipalityId":14}
+ * {"type":"PARTY_VOTE","region":"POLLING_STATION","regionId":"0014::SB1","partyId":1,"votes":120}
+ * </pre>
+ * The records contain the same data as the JSON of the election, candidate votes are left out.
+ */
+public class ElectionRecordWriter {
+    /**
+     * The media type of the export.
+     */
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+    /**
+     * The version of the records. <b>Increase it whenever the records change</b>, it is part of the fingerprint of
+     * the export so clients don't keep an export of an older version.
+     */
+    public static final int FORMAT_VERSION = 1;
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final JsonGenerator generator;
+
+    /**
+     * Creates a writer.
+     * @param output the stream the records are written to, it is flushed but not closed.
+     * @throws IOException when the stream can't be written to.
+     */
+    public ElectionRecordWriter(OutputStream output) throws IOException {
+        this.generator = factory.createGenerator(output);
+        // The records are separated by the newline written after each of them
+        this.generator.setRootValueSeparator(null);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writes all the records of the election.
+     * @param election the election to write.
+     * @throws IOException when the stream can't be written to, for example because the client went away.
+     */
+    public void write(Election election) throws IOException {
+        start(RecordType.ELECTION);
+        generator.writeStringField("id", election.getId());
+        end();
+
+        for (Party party : election.getPartyList()) {
+            party(party);
+        }
+
+        State state = election.getState();
+        if (state != null) {
+            start(RecordType.STATE);
+            generator.writeStringField("name", state.getName());
+            end();
+            metadata(RecordType.STATE, null, state.getMetadata());
+            partyVotes(RecordType.STATE, null, state.getPartyVoteList());
+
+            for (Constituency constituency : state.getConstituencyList()) {
+                constituency(constituency);
+                // Send each constituency as soon as it has been written
+                generator.flush();
+            }
+        }
+        generator.flush();
+    }
+
+    private void party(Party party) throws IOException {
+        start(RecordType.PARTY);
+        generator.writeNumberField("id", party.getId());
+        generator.writeStringField("name", party.getName());
+        generator.writeNumberField("seats", party.getSeats());
+        generator.writeArrayFieldStart("candidates");
+        for (Candidate candidate : party.getCandidates()) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", candidate.getId());
+            generator.writeStringField("initials", candidate.getInitials());
+            generator.writeStringField("firstName", candidate.getFirstName());
+            generator.writeStringField("lastName", candidate.getLastName());
+            generator.writeStringField("gender", candidate.getGender());
+            generator.writeStringField("locality", candidate.getLocality());
+            generator.writeBooleanField("elected", candidate.isElected());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        end();
+    }
+
+    private void constituency(Constituency constituency) throws IOException {
+        String id = String.valueOf(constituency.getId());
+        start(RecordType.CONSTITUENCY);
+        generator.writeNumberField("id", constituency.getId());
+        generator.writeStringField("name", constituency.getName());
+        end();
+        metadata(RecordType.CONSTITUENCY, id, constituency.getMetadata());
+        partyVotes(RecordType.CONSTITUENCY, id, constituency.getPartyVoteList());
+
+        for (Municipality municipality : constituency.getMunicipalityList()) {
+            municipality(municipality, constituency.getId());
+        }
+    }
+
+    private void municipality(Municipality municipality, int constituencyId) throws IOException {
+        String id = String.valueOf(municipality.getId());
+        start(RecordType.MUNICIPALITY);
+        generator.writeNumberField("id", municipality.getId());
+        generator.writeStringField("name", municipality.getName());
+        generator.writeNumberField("constituencyId", constituencyId);
+        end();
+        metadata(RecordType.MUNICIPALITY, id, municipality.getMetadata());
+        partyVotes(RecordType.MUNICIPALITY, id, municipality.getPartyVoteList());
+
+        for (PollingStation pollingStation : municipality.getPollingStationList()) {
+            String pollingStationId = pollingStation.getPollingStationId();
+            start(RecordType.POLLING_STATION);
+            generator.writeStringField("id", pollingStationId);
+            generator.writeStringField("name", pollingStation.getName());
+            generator.writeNumberField("municipalityId", municipality.getId());
+            end();
+            metadata(RecordType.POLLING_STATION, pollingStationId, pollingStation.getMetadata());
+            partyVotes(RecordType.POLLING_STATION, pollingStationId, pollingStation.getPartyVoteList());
+        }
+    }
+
+    private void metadata(RecordType region, String regionId, Metadata metadata) throws IOException {
+        if (metadata == null) {
+            return;
+        }
+        start(RecordType.METADATA);
+        region(region, regionId);
+        generator.writeNumberField("totalCast", metadata.getTotalCast());
+        generator.writeNumberField("totalCounted", metadata.getTotalCounted());
+        generator.writeNumberField("invalid", metadata.getInvalid());
+        generator.writeNumberField("blank", metadata.getBlank());
+        end();
+    }
+
+    private void partyVotes(RecordType region, String regionId, List<PartyVote> partyVotes) throws IOException {
+        for (PartyVote partyVote : partyVotes) {
+            start(RecordType.PARTY_VOTE);
+            region(region, regionId);
+            generator.writeNumberField("partyId", partyVote.getPartyId());
+            generator.writeNumberField("votes", partyVote.getVotes());
+            end();
+        }
+    }
+
+    private void region(RecordType region, String regionId) throws IOException {
+        generator.writeStringField("region", region.name());
+        if (regionId != null) {
+            generator.writeStringField("regionId", regionId);
+        }
+    }
+
+    private void start(RecordType type) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type.name());
+    }
+
+    private void end() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
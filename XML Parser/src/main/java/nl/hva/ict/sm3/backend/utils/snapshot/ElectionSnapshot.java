@@ -0,0 +1,376 @@
+package nl.hva.ict.sm3.backend.utils.snapshot;
+
+import nl.hva.ict.sm3.backend.model.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot format of a parsed {@link Election}.<br/>
+ * <br/>
+ * A snapshot consists of:
+ * <ul>
+ *     <li>a header: the magic number, the {@link #FORMAT_VERSION} and the checksum of the source files;</li>
+ *     <li>a string table holding every distinct string (names, ids) once, as UTF-8;</li>
+ *     <li>a body of plain ints describing the hierarchy, votes and metadata. Strings are stored as their index in
+ *     the string table, <code>-1</code> meaning <code>null</code>.</li>
+ * </ul>
+ * Reading a snapshot back only decodes the string table and walks the ints, there is no XML involved.<br/>
+ * <br/>
+ * <b>Increase {@link #FORMAT_VERSION} whenever the layout changes</b>, snapshots with another version are never
+ * loaded.
+ */
+public final class ElectionSnapshot {
+    /**
+     * The version of the layout written by this class.
+     */
+    public static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x454C534E; // "ELSN"
+    private static final int NULL = -1;
+
+    private ElectionSnapshot() {
+    }
+
+    /**
+     * Writes the election as a snapshot.
+     * @param election the election to write.
+     * @param checksum the checksum of the files the election has been parsed from.
+     * @param output the stream to write the snapshot to, it is not closed.
+     * @throws IOException when writing fails.
+     */
+    public static void write(Election election, long checksum, OutputStream output) throws IOException {
+        Encoder encoder = new Encoder();
+        encoder.election(election);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeLong(checksum);
+        data.writeInt(encoder.strings.size());
+        int position = 20;
+        for (String string : encoder.strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+            position += 4 + bytes.length;
+        }
+        // Align the body so it can be read as ints directly
+        while (position % 4 != 0) {
+            data.writeByte(0);
+            position++;
+        }
+        data.writeInt(encoder.length);
+        for (int i = 0; i < encoder.length; i++) {
+            data.writeInt(encoder.body[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads the checksum from the header of a snapshot.
+     * @param snapshot the contents of the snapshot.
+     * @return the checksum of the source files, or <code>null</code> when it isn't a snapshot of the current
+     * {@link #FORMAT_VERSION}.
+     */
+    public static Long checksum(ByteBuffer snapshot) {
+        if (snapshot.limit() < 16 || snapshot.getInt(0) != MAGIC || snapshot.getInt(4) != FORMAT_VERSION) {
+            return null;
+        }
+        return snapshot.getLong(8);
+    }
+
+    /**
+     * Reads an election from a snapshot.
+     * @param snapshot the contents of the snapshot, for example a memory-mapped file.
+     * @return the election.
+     * @throws IllegalArgumentException when the buffer doesn't contain a snapshot of the current
+     * {@link #FORMAT_VERSION}.
+     */
+    public static Election read(ByteBuffer snapshot) {
+        if (checksum(snapshot) == null) {
+            throw new IllegalArgumentException("Not an election snapshot of version " + FORMAT_VERSION);
+        }
+        ByteBuffer buffer = snapshot.duplicate();
+        buffer.position(16);
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        while (buffer.position() % 4 != 0) {
+            buffer.get();
+        }
+        int length = buffer.getInt();
+        IntBuffer body = buffer.slice(buffer.position(), length * 4).order(buffer.order()).asIntBuffer();
+        return new Decoder(strings, body).election();
+    }
+
+    /**
+     * Turns the model into the string table and the int body.
+     */
+    private static class Encoder {
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private int[] body = new int[1024];
+        private int length;
+
+        private void put(int value) {
+            if (length == body.length) {
+                body = Arrays.copyOf(body, length * 2);
+            }
+            body[length++] = value;
+        }
+
+        private void put(boolean value) {
+            put(value ? 1 : 0);
+        }
+
+        private void put(String value) {
+            if (value == null) {
+                put(NULL);
+                return;
+            }
+            Integer index = stringIndexes.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                stringIndexes.put(value, index);
+            }
+            put(index);
+        }
+
+        private void election(Election election) {
+            put(election.getId());
+
+            put(election.getPartyList().size());
+            for (Party party : election.getPartyList()) {
+                put(party.getId());
+                put(party.getName());
+                put(party.getSeats());
+                put(party.getCandidates().size());
+                for (Candidate candidate : party.getCandidates()) {
+                    put(candidate.getId());
+                    put(candidate.getInitials());
+                    put(candidate.getFirstName());
+                    put(candidate.getLastName());
+                    put(candidate.getGender());
+                    put(candidate.getLocality());
+                    put(candidate.isElected());
+                }
+            }
+
+            State state = election.getState();
+            put(state != null);
+            if (state != null) {
+                state(state);
+            }
+        }
+
+        private void state(State state) {
+            put(state.getRegionNumber());
+            put(state.getName());
+            metadata(state.getMetadata());
+            partyVotes(state.getPartyVoteList());
+
+            put(state.getNationalCandidateList().size());
+            for (CandidateNationalVote candidate : state.getNationalCandidateList()) {
+                put(candidate.getShortCode());
+                put(candidate.getVotes());
+                put(candidate.getVotesPerConstituency().size());
+                for (NationalCandidateConstituencyVote vote : candidate.getVotesPerConstituency()) {
+                    put(vote.getConstituencyName());
+                    put(vote.getVotes());
+                }
+            }
+
+            put(state.getConstituencyList().size());
+            for (Constituency constituency : state.getConstituencyList()) {
+                put(constituency.getId());
+                put(constituency.getName());
+                metadata(constituency.getMetadata());
+                partyVotes(constituency.getPartyVoteList());
+                candidateVotes(constituency.getCandidateVotes());
+
+                put(constituency.getMunicipalityList().size());
+                for (Municipality municipality : constituency.getMunicipalityList()) {
+                    put(municipality.getId());
+                    put(municipality.getName());
+                    metadata(municipality.getMetadata());
+                    partyVotes(municipality.getPartyVoteList());
+                    candidateVotes(municipality.getCandidateVotes());
+
+                    put(municipality.getPollingStationList().size());
+                    for (PollingStation pollingStation : municipality.getPollingStationList()) {
+                        put(pollingStation.getPollingStationId());
+                        put(pollingStation.getName());
+                        metadata(pollingStation.getMetadata());
+                        partyVotes(pollingStation.getPartyVoteList());
+                        candidateVotes(pollingStation.getRegionCandidateVotes());
+                    }
+                }
+            }
+        }
+
+        private void metadata(Metadata metadata) {
+            put(metadata != null);
+            if (metadata != null) {
+                put(metadata.getTotalCast());
+                put(metadata.getTotalCounted());
+                put(metadata.getInvalid());
+                put(metadata.getBlank());
+            }
+        }
+
+        private void partyVotes(List<PartyVote> partyVotes) {
+            put(partyVotes.size());
+            for (PartyVote partyVote : partyVotes) {
+                put(partyVote.getPartyId());
+                put(partyVote.getVotes());
+            }
+        }
+
+        private void candidateVotes(List<RegionCandidateVote> candidateVotes) {
+            put(candidateVotes.size());
+            for (RegionCandidateVote candidateVote : candidateVotes) {
+                put(candidateVote.getCandidateId());
+                put(candidateVote.getPartyId());
+                put(candidateVote.getVotes());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the model from the string table and the int body, in the same order as the Encoder wrote it.
+     * The lists are filled directly, the entries have already been checked for duplicates when they were parsed.
+     */
+    private static class Decoder {
+        private final String[] strings;
+        private final IntBuffer body;
+
+        private Decoder(String[] strings, IntBuffer body) {
+            this.strings = strings;
+            this.body = body;
+        }
+
+        private int nextInt() {
+            return body.get();
+        }
+
+        private boolean nextBoolean() {
+            return body.get() != 0;
+        }
+
+        private String nextString() {
+            int index = body.get();
+            return index == NULL ? null : strings[index];
+        }
+
+        private Election election() {
+            Election election = new Election(nextString());
+
+            int parties = nextInt();
+            for (int p = 0; p < parties; p++) {
+                Party party = new Party(nextInt());
+                party.setName(nextString());
+                party.setSeats(nextInt());
+                int candidates = nextInt();
+                for (int c = 0; c < candidates; c++) {
+                    Candidate candidate = new Candidate(nextInt(), nextString(), nextString(), nextString(),
+                            nextString(), nextString());
+                    candidate.setElected(nextBoolean());
+                    party.getCandidates().add(candidate);
+                }
+                election.getPartyList().add(party);
+            }
+
+            if (nextBoolean()) {
+                election.setState(state());
+            }
+            return election;
+        }
+
+        private State state() {
+            int regionNumber = nextInt();
+            State state = new State(nextString());
+            state.setRegionNumber(regionNumber);
+            state.setMetadata(metadata());
+            state.getPartyVoteList().addAll(partyVotes());
+
+            int candidates = nextInt();
+            for (int c = 0; c < candidates; c++) {
+                CandidateNationalVote candidate = new CandidateNationalVote(nextString());
+                candidate.setVotes(nextInt());
+                int votes = nextInt();
+                for (int v = 0; v < votes; v++) {
+                    candidate.addConstituencyVote(new NationalCandidateConstituencyVote(nextString(), nextInt()));
+                }
+                state.getNationalCandidateList().add(candidate);
+            }
+
+            int constituencies = nextInt();
+            for (int c = 0; c < constituencies; c++) {
+                Constituency constituency = new Constituency(nextInt(), nextString());
+                constituency.setMetadata(metadata());
+                constituency.setPartyVoteList(partyVotes());
+                constituency.getCandidateVotes().addAll(candidateVotes());
+
+                int municipalities = nextInt();
+                for (int m = 0; m < municipalities; m++) {
+                    Municipality municipality = new Municipality(nextInt(), nextString());
+                    municipality.setMetadata(metadata());
+                    municipality.setPartyVoteList(partyVotes());
+                    municipality.getCandidateVotes().addAll(candidateVotes());
+
+                    int pollingStations = nextInt();
+                    for (int s = 0; s < pollingStations; s++) {
+                        PollingStation pollingStation = new PollingStation(nextString(), nextString());
+                        pollingStation.setMetadata(metadata());
+                        pollingStation.setPartyVoteList(partyVotes());
+                        pollingStation.getRegionCandidateVotes().addAll(candidateVotes());
+                        municipality.getPollingStationList().add(pollingStation);
+                    }
+                    constituency.getMunicipalityList().add(municipality);
+                }
+                state.getConstituencyList().add(constituency);
+            }
+            return state;
+        }
+
+        private Metadata metadata() {
+            if (!nextBoolean()) {
+                return null;
+            }
+            return new Metadata(nextInt(), nextInt(), nextInt(), nextInt());
+        }
+
+        private List<PartyVote> partyVotes() {
+            int size = nextInt();
+            List<PartyVote> partyVotes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                partyVotes.add(new PartyVote(nextInt(), nextInt()));
+            }
+            return partyVotes;
+        }
+
+        private List<RegionCandidateVote> candidateVotes() {
+            int size = nextInt();
+            List<RegionCandidateVote> candidateVotes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                candidateVotes.add(new RegionCandidateVote(nextInt(), nextInt(), nextInt()));
+            }
+            return candidateVotes;
+        }
+    }
+}
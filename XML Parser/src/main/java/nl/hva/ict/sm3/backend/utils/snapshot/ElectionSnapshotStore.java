@@ -0,0 +1,256 @@
+package nl.hva.ict.sm3.backend.utils.snapshot;
+
+import nl.hva.ict.sm3.backend.model.Election;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps a binary {@link ElectionSnapshot} of every parsed election on disk, so a restarted parser doesn't have to
+ * parse the XML files again.
+ * <p>
+ * Every snapshot records a checksum of the XML files it was parsed from. A snapshot is only used when the checksum
+ * still matches the files and it was written with the current {@link ElectionSnapshot#FORMAT_VERSION}, otherwise the
+ * files are parsed and the snapshot is replaced. Snapshots are read through a memory-mapped file.
+ * <p>
+ * The checksum of every XML file is kept in memory with the size and modification time of the file, so a file is only
+ * read again when it changed. Checking whether an election is up-to-date only lists its files after the first time.
+ * <p>
+ * Snapshots are an optimization only: when one can't be read or written the election is parsed as usual.
+ */
+@Component
+public class ElectionSnapshotStore {
+    private static final Logger logger = LoggerFactory.getLogger(ElectionSnapshotStore.class);
+    private static final String EXTENSION = ".snapshot";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Map<Path, FileChecksum> fileChecksums = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new snapshot store.
+     *
+     * @param enabled   whether snapshots are read and written at all
+     * @param directory the folder the snapshots are kept in, it is created when needed
+     */
+    public ElectionSnapshotStore(@Value("${election.snapshot.enabled:true}") boolean enabled,
+                                 @Value("${election.snapshot.dir:${java.io.tmpdir}/election-snapshots}") String directory) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Returns the election from its snapshot when the snapshot is up-to-date with the source files. Otherwise, the
+     * election is parsed with the parser and a new snapshot is written for the next time.
+     *
+     * @param key     the election, level and region, used to name the snapshot
+     * @param sources the XML files and folders the election is parsed from, entries are {@code null} when a file
+     *                can't be found
+     * @param parser  parses the election from the source files
+     * @return the election
+     */
+    public Election loadOrParse(ElectionCacheKey key, List<String> sources, Supplier<Election> parser) {
+        if (!enabled || sources.stream().anyMatch(Objects::isNull)) {
+            // Let the parser report the missing files
+            return parser.get();
+        }
+
+        Path snapshot = directory.resolve(fileName(key));
+        long checksum;
+        try {
+            checksum = checksum(sources);
+        } catch (IOException e) {
+            logger.warn("Could not compute the checksum of {}, parsing without a snapshot", sources, e);
+            return parser.get();
+        }
+
+        Election election = read(snapshot, checksum);
+        if (election != null) {
+            logger.debug("Loaded {} from snapshot {}", key, snapshot);
+            return election;
+        }
+
+        election = parser.get();
+        if (election != null) {
+            write(snapshot, election, checksum);
+        }
+        return election;
+    }
+
+    /**
+     * Computes a fingerprint of the XML files an election is parsed from and the version of the data made from them.
+     * It only changes when the files or the version change, so clients can use it to find out whether they already
+     * have the current data of an election.
+     *
+     * @param sources the XML files and folders the election is parsed from
+     * @param version the version of the parser and the settings that change the data made from the files
+     * @return the fingerprint, or {@code null} when a file is missing or can't be read
+     */
+    public String fingerprint(List<String> sources, String version) {
+        if (sources.stream().anyMatch(Objects::isNull)) {
+            return null;
+        }
+        try {
+            CRC32C crc = new CRC32C();
+            crc.update(version.getBytes(StandardCharsets.UTF_8));
+            crc.update(ByteBuffer.allocate(Long.BYTES).putLong(checksum(sources)).flip());
+            return "%08x".formatted(crc.getValue());
+        } catch (IOException e) {
+            logger.warn("Could not compute the checksum of {}", sources, e);
+            return null;
+        }
+    }
+
+    /**
+     * Removes all snapshots, so every election is parsed again the next time it is requested.
+     */
+    public void deleteAll() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(EXTENSION)).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete the snapshots in {}", directory, e);
+        }
+    }
+
+    /**
+     * @return the snapshot, or <code>null</code> when there is no usable snapshot.
+     */
+    private Election read(Path snapshot, long checksum) {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Long snapshotChecksum = ElectionSnapshot.checksum(buffer);
+            if (snapshotChecksum == null || snapshotChecksum != checksum) {
+                logger.info("Snapshot {} is outdated, parsing the election again", snapshot);
+                return null;
+            }
+            return ElectionSnapshot.read(buffer);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read snapshot {}, parsing the election again", snapshot, e);
+            return null;
+        }
+    }
+
+    private void write(Path snapshot, Election election, long checksum) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            // Write to a temporary file first, so no other process can see a half written snapshot
+            temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                ElectionSnapshot.write(election, checksum, output);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write snapshot {}", snapshot, e);
+            try {
+                if (temporary != null) {
+                    Files.deleteIfExists(temporary);
+                }
+            } catch (IOException ignored) {
+                // Nothing left to do, the file is in the temp folder
+            }
+        }
+    }
+
+    /**
+     * Computes a checksum over the names and contents of all the XML files, folders are searched recursively. The
+     * files are processed in a fixed order, so the checksum doesn't depend on the order of the directory listing.
+     */
+    private long checksum(List<String> sources) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String source : sources) {
+            Path path = Path.of(source);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(Files::isRegularFile)
+                            .filter(f -> f.getFileName().toString().endsWith(".xml"))
+                            .sorted()
+                            .forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+
+        CRC32C crc = new CRC32C();
+        ByteBuffer fileCrc = ByteBuffer.allocate(Long.BYTES);
+        for (Path file : files) {
+            crc.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            crc.update(fileCrc.clear().putLong(checksum(file)).flip());
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Returns the checksum of the contents of a file, from memory when the size and modification time of the file
+     * didn't change since it was computed.
+     */
+    private long checksum(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        FileChecksum cached = fileChecksums.get(key);
+        if (cached != null && cached.size() == size && cached.modified() == modified) {
+            return cached.crc();
+        }
+
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(key, StandardOpenOption.READ)) {
+            long length = channel.size();
+            // Map in chunks, a single mapping is limited to 2GB
+            for (long position = 0; position < length; position += Integer.MAX_VALUE) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(Integer.MAX_VALUE, length - position)));
+            }
+        }
+        fileChecksums.put(key, new FileChecksum(size, modified, crc.getValue()));
+        return crc.getValue();
+    }
+
+    private static String fileName(ElectionCacheKey key) {
+        String name = "%s_%s_%s".formatted(key.getElectionId(), key.getLevel(),
+                key.getRegion() != null ? key.getRegion() : "all");
+        // Regions can contain characters like '/' and ':' that aren't allowed in file names. Different regions can
+        // end up with the same name that way, so a checksum of the original name is added.
+        CRC32C crc = new CRC32C();
+        crc.update(name.getBytes(StandardCharsets.UTF_8));
+        return "%s_%08x%s".formatted(name.replaceAll("[^A-Za-z0-9_.-]", "_"), crc.getValue(), EXTENSION);
+    }
+
+    /**
+     * The checksum of the contents of a file with the size and modification time it was computed for.
+     */
+    private record FileChecksum(long size, long modified, long crc) {
+    }
+}
@@ -0,0 +1,28 @@
+package nl.hva.ict.sm3.backend.utils.types;
+
+/**
+ * The types of files provided by the Kiesraad for an election, in the order in which they are parsed
+ */
+public enum ElectionFileType {
+    DEFINITION("Verkiezingsdefinitie_%s"),
+    CANDIDATE_LISTS("Kandidatenlijsten_%s"),
+    RESULT("Resultaat_%s"),
+    NATIONAL_VOTES("Totaaltelling_%s"),
+    CONSTITUENCY_VOTES("Telling_%s_kieskring"),
+    MUNICIPALITY_VOTES("Telling_%s_gemeente");
+
+    private final String prefix;
+
+    ElectionFileType(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Gets the start of the names of the files of this type
+     * @param electionId the id of the election, for example TK2023
+     * @return the prefix of the file names, for example Telling_TK2023_gemeente
+     */
+    public String getPrefix(String electionId) {
+        return prefix.formatted(electionId);
+    }
+}
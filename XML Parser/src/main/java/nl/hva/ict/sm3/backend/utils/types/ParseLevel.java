@@ -0,0 +1,12 @@
+package nl.hva.ict.sm3.backend.utils.types;
+
+/**
+ * The level of election results that has been parsed into an Election
+ */
+public enum ParseLevel {
+    ALL,
+    NATIONAL,
+    CONSTITUENCY,
+    MUNICIPALITY,
+    CANDIDATES
+}
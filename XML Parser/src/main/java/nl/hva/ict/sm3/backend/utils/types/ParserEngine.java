@@ -0,0 +1,9 @@
+package nl.hva.ict.sm3.backend.utils.types;
+
+/**
+ * The XML engine used for reading the election files
+ */
+public enum ParserEngine {
+    SAX,
+    STAX
+}
@@ -0,0 +1,15 @@
+package nl.hva.ict.sm3.backend.utils.types;
+
+/**
+ * The type of a record in the newline-delimited JSON export of an election
+ */
+public enum RecordType {
+    ELECTION,
+    PARTY,
+    STATE,
+    CONSTITUENCY,
+    MUNICIPALITY,
+    POLLING_STATION,
+    PARTY_VOTE,
+    METADATA
+}
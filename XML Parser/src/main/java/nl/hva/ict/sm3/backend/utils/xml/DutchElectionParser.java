@@ -1,6 +1,8 @@
 package nl.hva.ict.sm3.backend.utils.xml;
 
 import nl.hva.ict.sm3.backend.utils.PathUtils;
+import nl.hva.ict.sm3.backend.utils.types.ElectionFileType;
+import nl.hva.ict.sm3.backend.utils.types.ParserEngine;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -11,9 +13,16 @@ import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Processes the XML data files for the Dutch elections. It is completely model agnostic. This means that it
@@ -31,6 +40,20 @@ import java.util.Map;
  * <em>It assumes that filenames have NOT been changed and that the content has not been altered!</em><br>
  * <em>Most likely you don't have to alter this class, but if you feel you need to, please feel free :-)</em><br/>
  * <br/>
+ * When an {@link ExecutorService} has been set through {@link #setExecutor(ExecutorService)} the files of a single
+ * file type are parsed in parallel, each file with its own {@link EMLHandler}. The transformers are still called from
+ * the calling thread only, in the same order and with the same data as when the files are parsed one after the other:
+ * every file starts from a clean handler in both cases. At most twice as many files as the executor has threads are
+ * parsed or waiting to be replayed at the same time, so the recorded calls kept in memory don't grow with the number
+ * of files.<br/>
+ * <br/>
+ * The files are read with SAX by default. With {@link #setEngine(ParserEngine)} a StAX pull parser can be used
+ * instead, which also makes it possible to process just a single reporting unit, see
+ * {@link #setReportingUnitId(String)}.<br/>
+ * <br/>
+ * With {@link #parse(String, String, ParsePlan)} only the files that are needed for the levels and regions in the
+ * {@link ParsePlan} are parsed.<br/>
+ * <br/>
  * <i><b>NOTE: </b>There are some TODO's present that need fixing!</i>
  */
 public class DutchElectionParser {
@@ -40,6 +63,12 @@ public class DutchElectionParser {
     private final VotesTransformer nationalVotesTransformer;
     private final VotesTransformer constituencyVotesTransformer;
     private final VotesTransformer municipalityVotesTransformer;
+    // When set, the files are parsed in parallel on this executor. Otherwise, they are parsed one after the other.
+    private ExecutorService executor;
+    // The XML engine used for reading the files.
+    private ParserEngine engine = ParserEngine.SAX;
+    // When set, only the ReportingUnitVotes with this ReportingUnitIdentifier Id are processed.
+    private String reportingUnitId;
 
     /**
      * Creates a new instance that will use the provided transformers for transforming the data into the
@@ -50,6 +79,7 @@ public class DutchElectionParser {
      * @param nationalVotesTransformer the transformer that will be called while processing the national votes file.
      * @param constituencyVotesTransformer the transformer that will be called while processing the constituency votes files.
      * @param municipalityVotesTransformer the transformer that will be called while processing the municipality votes files.
+     * A transformer can be <code>null</code> when its files are never part of the {@link ParsePlan}.
      */
     // TODO See the DutchElectionService for some refactoring hints for this constructor.
     public DutchElectionParser(DefinitionTransformer definitionTransformer,
@@ -66,6 +96,35 @@ public class DutchElectionParser {
         this.municipalityVotesTransformer = municipalityVotesTransformer;
     }
 
+    /**
+     * Sets the executor that is used for parsing multiple files in parallel. Passing <code>null</code> switches back
+     * to parsing the files one after the other on the calling thread, which is the default.
+     * @param executor the executor on which the files are parsed, or <code>null</code> for sequential parsing.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Selects the XML engine used for reading the files. The transformers are called in exactly the same way by both
+     * engines.
+     * @param engine the engine to use, SAX is the default.
+     */
+    public void setEngine(ParserEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Limits the votes files to a single reporting unit, for example a single polling station in a municipality file.
+     * Only the TotalVotes and the ReportingUnitVotes with this Id are passed to the transformers, and a file is not
+     * read any further once that reporting unit has been processed. This requires the {@link ParserEngine#STAX} engine.
+     * @param reportingUnitId the Id of the ReportingUnitIdentifier, e.g. <i>0363::SB1</i>, or <code>null</code> to
+     *                        process all the reporting units.
+     */
+    public void setReportingUnitId(String reportingUnitId) {
+        this.reportingUnitId = reportingUnitId;
+    }
+
     /**
      * Traverses all the folders within the specified folder and calls the appropriate methods of the transformer.
      * While processing the files it will skip any file that has a different election-id than the one specified.
@@ -77,29 +136,134 @@ public class DutchElectionParser {
      * @throws XMLStreamException when a file has not the expected format.
      */
     public void parseResults(String electionId, String folderName) throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
-        // TODO replace with proper usage of a logging framework
-        parseFiles(folderName, "Verkiezingsdefinitie_%s".formatted(electionId), new EMLHandler(definitionTransformer));
-
-        parseFiles(folderName, "Kandidatenlijsten_%s".formatted(electionId), new EMLHandler(candidateTransformer));
+        parse(electionId, folderName, ParsePlan.all());
+    }
 
-        parseFiles(folderName, "Resultaat_%s".formatted(electionId), new EMLHandler(resultTransformer));
-        parseFiles(folderName, "Totaaltelling_%s".formatted(electionId), new EMLHandler(nationalVotesTransformer));
+    /**
+     * Parses the files in the folder that are part of the plan, in the order of the {@link ElectionFileType}s. The
+     * folder is traversed once and only the file types in the plan are processed.
+     *
+     * @param electionId the identifier for the of the files that should be processed, for example <i>TK2023</i>.
+     * @param folderName The name of the folder that contains the files containing the election data, or a single file.
+     * @param plan the levels and regions that are needed.
+     * @throws IOException in case something goes wrong while reading the file.
+     * @throws XMLStreamException when a file has not the expected format.
+     * @throws IllegalStateException when the plan needs a transformer that hasn't been provided.
+     */
+    public void parse(String electionId, String folderName, ParsePlan plan) throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        if (reportingUnitId != null && engine != ParserEngine.STAX) {
+            throw new IllegalStateException("Processing a single reporting unit requires the STAX engine");
+        }
+        List<Path> files = PathUtils.findFilesToScan(folderName, "");
+        for (ElectionFileType type : ElectionFileType.values()) {
+            if (!plan.includes(type)) {
+                continue;
+            }
+            List<Path> filesOfType = new ArrayList<>();
+            for (Path file : files) {
+                if (plan.includes(type, electionId, file.getFileName().toString())) {
+                    filesOfType.add(file);
+                }
+            }
+            if (!filesOfType.isEmpty()) {
+                parseFiles(filesOfType, handler(type));
+            }
+        }
+    }
 
-        parseFiles(folderName, "Telling_%s_kieskring".formatted(electionId), new EMLHandler(constituencyVotesTransformer));
-        parseFiles(folderName, "Telling_%s_gemeente".formatted(electionId), new EMLHandler(municipalityVotesTransformer));
+    /**
+     * Creates the handler that passes the files of the type to their transformer.
+     */
+    private EMLHandler handler(ElectionFileType type) {
+        EMLHandler handler = switch (type) {
+            case DEFINITION -> definitionTransformer == null ? null : new EMLHandler(definitionTransformer);
+            case CANDIDATE_LISTS -> candidateTransformer == null ? null : new EMLHandler(candidateTransformer);
+            case RESULT -> resultTransformer == null ? null : new EMLHandler(resultTransformer);
+            case NATIONAL_VOTES -> nationalVotesTransformer == null ? null : new EMLHandler(nationalVotesTransformer);
+            case CONSTITUENCY_VOTES -> constituencyVotesTransformer == null ? null : new EMLHandler(constituencyVotesTransformer);
+            case MUNICIPALITY_VOTES -> municipalityVotesTransformer == null ? null : new EMLHandler(municipalityVotesTransformer);
+        };
+        if (handler == null) {
+            throw new IllegalStateException("No transformer has been provided for the " + type + " files");
+        }
+        return handler;
     }
 
-    private void parseFiles(String folderName, String fileFilter, EMLHandler emlHandler) throws IOException, ParserConfigurationException, SAXException {
-        List<Path> files = PathUtils.findFilesToScan(folderName, fileFilter);
+    private void parseFiles(List<Path> files, EMLHandler emlHandler) throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
         files.sort(Comparator.comparing(Path::getFileName));
+        if (executor != null && files.size() > 1) {
+            parseFilesInParallel(files, emlHandler);
+            return;
+        }
         for (Path electionFile : files) {
-            // TODO replace with proper usage of a logging framework
-            System.out.printf("Processing: %s\n", electionFile);
-            try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(electionFile.toString()), 64 * 1024)) {
+            parseFile(electionFile, emlHandler);
+        }
+    }
+
+    /**
+     * Parses every file on the executor into its own {@link RecordingTransformer} and replays the recorded calls on
+     * the transformer of <code>emlHandler</code> in the order of <code>files</code>. A file is replayed as soon as it,
+     * and all the files before it, have been parsed. Only a window of files is submitted at a time, the next file is
+     * submitted as soon as the oldest one has been replayed.
+     */
+    private void parseFilesInParallel(List<Path> files, EMLHandler emlHandler) throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        int window = 2 * parallelism();
+        Deque<Future<RecordingTransformer>> parsedFiles = new ArrayDeque<>(window);
+        int next = 0;
+
+        try {
+            while (next < files.size() || !parsedFiles.isEmpty()) {
+                // Keep the window full before waiting for the oldest file
+                while (next < files.size() && parsedFiles.size() < window) {
+                    Path electionFile = files.get(next++);
+                    parsedFiles.add(executor.submit(() -> {
+                        RecordingTransformer recorder = new RecordingTransformer();
+                        parseFile(electionFile, emlHandler.forWorker(recorder));
+                        return recorder;
+                    }));
+                }
+                emlHandler.replay(parsedFiles.peek().get());
+                parsedFiles.poll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing the election files", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) throw ioException;
+            if (cause instanceof XMLStreamException streamException) throw streamException;
+            if (cause instanceof SAXException saxException) throw saxException;
+            if (cause instanceof ParserConfigurationException configurationException) throw configurationException;
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IOException("Failed to parse the election files", cause);
+        } finally {
+            // Don't leave any work behind when one of the files failed
+            parsedFiles.forEach(parsedFile -> parsedFile.cancel(true));
+        }
+    }
+
+    /**
+     * Gets the number of files the executor parses at the same time.
+     */
+    private int parallelism() {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            return Math.max(1, pool.getMaximumPoolSize());
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private void parseFile(Path electionFile, EMLHandler emlHandler) throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+        // TODO replace with proper usage of a logging framework
+        System.out.printf("Processing: %s\n", electionFile);
+        try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(electionFile.toString()), 64 * 1024)) {
+            emlHandler.reset();
+            emlHandler.setFileName(electionFile.toString());
+            if (engine == ParserEngine.STAX) {
+                new EMLStreamProcessor().process(bis, emlHandler, reportingUnitId);
+            } else {
                 SAXParserFactory factory = SAXParserFactory.newInstance();
                 factory.setNamespaceAware(true);
                 SAXParser parser = factory.newSAXParser();
-                emlHandler.setFileName(electionFile.toString());
                 parser.parse(bis, emlHandler);
             }
         }
@@ -24,9 +24,12 @@ import java.util.*;
  * <br/>
  * Some tags need special processing. This can be done as soon as the start-tag is being parsed or when the closing-tag
  * is parsed. If and what exactly depends on the specific tag. Some tags are repeated in which case just as soon as the
- * open tag is parsed the current state of <code>electionData</code> is saved on a stack. And once the closing tag is
- * being parsed the state is popped off the stack. This ensures that each repeated tag has a clean sleight when it is
- * being processed.
+ * open tag is parsed a new frame is pushed on <code>electionData</code>. And once the closing tag is being parsed the
+ * frame is popped, which undoes every change made since. This ensures that each repeated tag has a clean sleight when it
+ * is being processed, without copying the data for every repeated tag. See {@link ElectionDataStore} for the details.
+ * <br/>
+ * The transformers receive a live, read-only view on <code>electionData</code>. It is only valid during the call, so a
+ * transformer that needs the data afterwards must copy it.
  * <br/>
  * Incase an unknown tag or attribute is being processed this will be reported through standard error
  * <a href="https://en.wikipedia.org/wiki/Standard_streams">stream</a>.<br/>
@@ -38,14 +41,27 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
     private static final Set<String> tagsWithoutAttributes = new HashSet<>();
     // The attributes will be combined with the tag-name and serve as the key for the map containing all the data.
     private static final Map<String, Set<String>> tagsWithAttributes = new HashMap<>();
+    // All the keys that are known up front. The index of a key in this list is its slot in the ElectionDataStore.
+    private static final List<String> knownKeys = new ArrayList<>();
+    // The slot that holds the value of a tag.
+    private static final Map<String, Integer> tagSlots = new HashMap<>();
+    // For each tag with attributes, the names of its known attributes and the slots holding their values.
+    private static final Map<String, String[]> attributeNames = new HashMap<>();
+    private static final Map<String, int[]> attributeSlots = new HashMap<>();
+    private static final String FILE_NAME = "fileName";
+    private static final int FILE_NAME_SLOT;
     // Temporary storage of characters like tag values and whitespace between tags.
     private final StringBuilder text = new StringBuilder();
-    // Holds the information found throughout the XML files as key-value pairs.
-    private Map<String, String> electionData = new HashMap<>();
-    // When processing repeating tags the current state of electionData is being preserved on this stack, and a copy is
-    // being made. Once the closing tag is processed the saved 'state' of electionData is popped of the stack in order
-    // to be able to start with a clean sleight when the next repeating tag is being processed.
-    private final Deque<Map<String, String>> savedElectionData = new LinkedList<>();
+    // Holds the information found throughout the XML files as key-value pairs. When processing repeating tags a new
+    // frame is pushed, once the closing tag is processed the frame is popped in order to be able to start with a clean
+    // sleight when the next repeating tag is being processed.
+    private final ElectionDataStore electionData = new ElectionDataStore(knownKeys);
+    // The read-only view on electionData that is handed to the transformers.
+    private final Map<String, String> electionDataView = electionData.asMap();
+    // The slots for the RejectedVotes and UncountedVotes counts, per reason code.
+    private final Map<String, Map<String, Integer>> reasonSlots = Map.of(
+            REJECTED_VOTES, new HashMap<>(),
+            UNCOUNTED_VOTES, new HashMap<>());
     // The files containing the results start with the aggregated data and are followed by their respective parts.
     // When processing the results it is set to true by the constructor and once the closing tag of the
     // aggregated part is processed, it is set to false.
@@ -135,6 +151,27 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
         tagsWithAttributes.put(REJECTED_VOTES, Set.of(REASON_CODE));
         tagsWithAttributes.put(REPORTING_UNIT_IDENTIFIER, Set.of(ID));
         tagsWithAttributes.put(UNCOUNTED_VOTES, Set.of(REASON_CODE));
+
+        // Reserve a slot for every key that can be derived from the known tags and attributes.
+        for (String tag : tagsWithoutAttributes) {
+            tagSlots.put(tag, knownKey(tag));
+        }
+        tagsWithAttributes.forEach((tag, attributes) -> {
+            tagSlots.computeIfAbsent(tag, EMLHandler::knownKey);
+            String[] names = attributes.toArray(new String[0]);
+            int[] slots = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                slots[i] = knownKey("%s-%s".formatted(tag, names[i]));
+            }
+            attributeNames.put(tag, names);
+            attributeSlots.put(tag, slots);
+        });
+        FILE_NAME_SLOT = knownKey(FILE_NAME);
+    }
+
+    private static int knownKey(String key) {
+        knownKeys.add(key);
+        return knownKeys.size() - 1;
     }
 
     /**
@@ -177,22 +214,22 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
         switch (localName) {
             case REGION:
             case COMMITTEE:
-                savedElectionData.push(electionData);
-                electionData = new HashMap<>(electionData);
+                electionData.push();
                 registerRegion = REGION.equals(localName);
         }
 
         // Tag processing
-        if (tagsWithAttributes.containsKey(localName)) {
+        String[] knownAttributes = attributeNames.get(localName);
+        if (knownAttributes != null) {
             // Save all the attributes and their values.
-            Set<String> knownAttributes = tagsWithAttributes.get(localName);
-            validateAttributes(localName, attributes, knownAttributes);
-            knownAttributes.forEach(name -> {
-                String attributeValue = attributes.getValue(name);
+            validateAttributes(localName, attributes, tagsWithAttributes.get(localName));
+            int[] slots = attributeSlots.get(localName);
+            for (int i = 0; i < knownAttributes.length; i++) {
+                String attributeValue = attributes.getValue(knownAttributes[i]);
                 if (attributeValue != null) {
-                    electionData.put(String.format("%s-%s", localName, name).intern(), attributeValue.intern());
+                    electionData.put(slots[i], attributeValue);
                 }
-            });
+            }
         } else if (!tagsWithoutAttributes.contains(localName)) {
             // TODO replace with proper usage of a logging framework or exceptions
             System.err.println("Ignoring unknown start tag: " + localName);
@@ -202,14 +239,13 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
         // Depending on the exact tag different transformer methods might be called and/or the current state is saved.
         switch (localName) {
             case COMMITTEE:
-                definitionTransformer.registerRegion(electionData);
-                electionData = savedElectionData.pop();
+                definitionTransformer.registerRegion(electionDataView);
+                electionData.pop();
                 break;
             case CANDIDATE:
                 // Ignore this when processing votes
                 if (candidateTransformer != null) {
-                    savedElectionData.push(electionData);
-                    electionData = new HashMap<>(electionData);
+                    electionData.push();
                 }
                 break;
             // Fall-through is used on purpose!
@@ -220,10 +256,9 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
             case AFFILIATION: // Only appears in candidates lists
             case SELECTION: // Only appears in vote lists
             case REPORTING_UNIT_VOTES:
-                // Save the current state of the information so far and create a copy that will be used
-                // until it's closing tag is found.
-                savedElectionData.push(electionData);
-                electionData = new HashMap<>(electionData);
+                // Start a new frame that will be used until it's closing tag is found. Closing the frame restores
+                // the current state of the information so far.
+                electionData.push();
                 break;
         }
     }
@@ -239,29 +274,21 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
         // Tag processing
         if (tagsWithoutAttributes.contains(localName)) {
             // Just register the value and the tag
-            String value = text.toString().trim();
-            if (!value.isBlank()) {
-                electionData.put(localName.intern(), value.intern());
-            }
+            putText(tagSlots.get(localName));
         } else if (tagsWithAttributes.containsKey(localName)) {
             // Some tags need special processing
             switch (localName) {
                 case REJECTED_VOTES:
                 case UNCOUNTED_VOTES:
                     // We need the value of the attribute ReasonCode as part of the actual key
-                    String reasonCode = String.format("%s-%s", localName, REASON_CODE);
-                    String reasonCodeKey = electionData.remove(reasonCode);
-                    String count = text.toString().trim();
-                    if (!count.isBlank()) {
-                        electionData.put(String.format("%s-%s", localName, reasonCodeKey).intern(), count.intern());
+                    String reasonCode = electionData.remove(attributeSlot(localName, REASON_CODE));
+                    if (!isBlank(text)) {
+                        putText(reasonSlot(localName, reasonCode));
                     }
                     break;
                 default:
                     // Add the value using the tag name
-                    String value = text.toString().trim();
-                    if (!value.isBlank()) {
-                        electionData.put(localName.intern(), value.intern());
-                    }
+                    putText(tagSlots.get(localName));
             }
         } else {
             // TODO replace with proper usage of a logging framework or exceptions
@@ -276,42 +303,87 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
         switch (localName) {
             case REGION:
                 if (registerRegion) {
-                    definitionTransformer.registerRegion(electionData);
+                    definitionTransformer.registerRegion(electionDataView);
                     registerRegion = false;
                 }
-                electionData = savedElectionData.pop();
+                electionData.pop();
                 break;
             case REGISTERED_PARTY:
-                definitionTransformer.registerParty(electionData);
-                electionData = savedElectionData.pop();
+                definitionTransformer.registerParty(electionDataView);
+                electionData.pop();
                 break;
             case CANDIDATE:
                 // Ignore this when processing votes
                 if (candidateTransformer != null) {
-                    candidateTransformer.registerCandidate(electionData);
-                    electionData = savedElectionData.pop();
+                    candidateTransformer.registerCandidate(electionDataView);
+                    electionData.pop();
                 }
                 break;
             case SELECTION:
                 // Only appears in votes lists
-                if (electionData.containsKey(CANDIDATE_IDENTIFIER_ID) || electionData.containsKey(CANDIDATE_IDENTIFIER_SHORT_CODE)) {
-                    votesTransformer.registerCandidateVotes(aggregated, electionData);
+                if (electionDataView.containsKey(CANDIDATE_IDENTIFIER_ID) || electionDataView.containsKey(CANDIDATE_IDENTIFIER_SHORT_CODE)) {
+                    votesTransformer.registerCandidateVotes(aggregated, electionDataView);
                 } else {
-                    votesTransformer.registerPartyVotes(aggregated, electionData);
+                    votesTransformer.registerPartyVotes(aggregated, electionDataView);
                 }
-                electionData = savedElectionData.pop();
+                electionData.pop();
                 break;
             case TOTAL_VOTES:
             case REPORTING_UNIT_VOTES:
-                votesTransformer.registerMetadata(aggregated, electionData);
+                votesTransformer.registerMetadata(aggregated, electionDataView);
                 if (TOTAL_VOTES.equals(localName)) {
                     aggregated = false;
                 }
-                electionData = savedElectionData.pop();
+                electionData.pop();
                 break;
         }
     }
 
+    /**
+     * Stores the trimmed text of the current tag in the slot, unless the text is blank.
+     */
+    private void putText(int slot) {
+        if (!isBlank(text)) {
+            electionData.put(slot, text.toString().trim());
+        }
+    }
+
+    /**
+     * Checks for blank text without turning it into a String first, most tags only contain whitespace.
+     */
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int attributeSlot(String tag, String attribute) {
+        String[] names = attributeNames.get(tag);
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(attribute)) {
+                return attributeSlots.get(tag)[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown attribute %s of tag %s".formatted(attribute, tag));
+    }
+
+    /**
+     * Gets the slot for the count of a RejectedVotes or UncountedVotes tag with the provided reason code. The key of
+     * that slot is the tag name combined with the reason code, like <code>RejectedVotes-blanco</code>.
+     */
+    private int reasonSlot(String tag, String reasonCode) {
+        Map<String, Integer> slots = reasonSlots.get(tag);
+        Integer slot = slots.get(reasonCode);
+        if (slot == null) {
+            slot = electionData.slot("%s-%s".formatted(tag, reasonCode));
+            slots.put(reasonCode, slot);
+        }
+        return slot;
+    }
+
     private void validateAttributes(String localName, Attributes attributes, Set<String> knownAttributes) {
         for (int i = 0; i < attributes.getLength(); i++) {
             if (!knownAttributes.contains(attributes.getLocalName(i))) {
@@ -321,7 +393,49 @@ public class EMLHandler extends DefaultHandler implements TagAndAttributeNames{
         }
     }
 
+    /**
+     * Resets the handler to the state it was created in, before a file is processed. This way nothing of a previous
+     * file leaks into the next one, and a file is processed exactly the same whether it follows other files on this
+     * handler or is parsed on its own by a worker.
+     */
+    void reset() {
+        electionData.clear();
+        text.setLength(0);
+        aggregated = votesTransformer != null;
+        registerRegion = false;
+    }
+
+    /**
+     * Creates a fresh handler for the same kind of file as this handler, but that records the calls on the provided
+     * <code>recorder</code> instead of calling the transformer of this handler. It is used for parsing a single file on
+     * a worker thread.
+     *
+     * @param recorder the transformer that records all the calls made while processing the file.
+     * @return a handler in the state this handler was created in.
+     */
+    EMLHandler forWorker(RecordingTransformer recorder) {
+        EMLHandler worker;
+        if (definitionTransformer != null) {
+            worker = new EMLHandler((DefinitionTransformer) recorder);
+        } else if (candidateTransformer != null) {
+            worker = new EMLHandler((CandidateTransformer) recorder);
+        } else {
+            worker = new EMLHandler((VotesTransformer) recorder);
+        }
+        return worker;
+    }
+
+    /**
+     * Replays the calls recorded by a handler created with {@link #forWorker(RecordingTransformer)} on the transformer
+     * of this handler.
+     *
+     * @param recorder the transformer containing the recorded calls.
+     */
+    void replay(RecordingTransformer recorder) {
+        recorder.replay(definitionTransformer, candidateTransformer, votesTransformer);
+    }
+
     public void setFileName(String fileName) {
-        electionData.put("fileName", fileName.substring(fileName.lastIndexOf(File.separatorChar) + 1));
+        electionData.put(FILE_NAME_SLOT, fileName.substring(fileName.lastIndexOf(File.separatorChar) + 1));
     }
 }
@@ -0,0 +1,133 @@
+package nl.hva.ict.sm3.backend.utils.xml;
+
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * Reads an EML-XML file with a StAX pull parser and feeds the events to an {@link EMLHandler}, so the same handler
+ * and transformers can be used as with the SAX parser.<br/>
+ * <br/>
+ * Because the file is pulled instead of pushed it can be limited to a single reporting unit. All the other
+ * ReportingUnitVotes tags are skipped without being passed to the handler, and the file is not read any further once
+ * the requested reporting unit has been processed. The TotalVotes at the start of a votes file are always processed.
+ */
+class EMLStreamProcessor implements TagAndAttributeNames {
+    private final XMLInputFactory factory;
+    // Reused for every tag, the handler only reads the attributes while processing the start tag.
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    EMLStreamProcessor() {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        // The election files don't use DTD's, so don't allow them to pull in anything else.
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Processes the file.
+     * @param input the contents of the file.
+     * @param emlHandler the handler that receives the tags and their values.
+     * @param reportingUnitId the Id of the only ReportingUnitIdentifier that needs to be processed, or
+     *                        <code>null</code> to process all the reporting units.
+     * @throws XMLStreamException when the file isn't valid XML.
+     */
+    void process(InputStream input, EMLHandler emlHandler, String reportingUnitId) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(input);
+        try {
+            boolean reportingUnitFound = false;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (reportingUnitId != null && REPORTING_UNIT_VOTES.equals(reader.getLocalName())) {
+                            if (!enterReportingUnit(reader, emlHandler, reportingUnitId)) {
+                                continue;
+                            }
+                            reportingUnitFound = true;
+                        }
+                        startElement(reader, emlHandler);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        emlHandler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        emlHandler.endElement(reader.getNamespaceURI(), reader.getLocalName(), qName(reader));
+                        if (reportingUnitFound && REPORTING_UNIT_VOTES.equals(reader.getLocalName())) {
+                            // Everything that has been asked for is processed, no need to read the rest of the file.
+                            return;
+                        }
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Called when the reader is positioned at a ReportingUnitVotes start tag. Looks ahead to the ReportingUnitIdentifier
+     * that follows it. When it is the requested reporting unit, the ReportingUnitVotes start tag is passed on to the
+     * handler and the reader is left at the ReportingUnitIdentifier start tag. Otherwise, the whole ReportingUnitVotes
+     * is skipped.
+     * @return <code>true</code> when the requested reporting unit has been entered, <code>false</code> when it has
+     * been skipped.
+     */
+    private boolean enterReportingUnit(XMLStreamReader reader, EMLHandler emlHandler, String reportingUnitId) throws XMLStreamException {
+        String uri = reader.getNamespaceURI();
+        String localName = reader.getLocalName();
+        String qName = qName(reader);
+
+        int event = reader.nextTag();
+        if (event == XMLStreamConstants.END_ELEMENT) {
+            // An empty ReportingUnitVotes, there is nothing to process.
+            return false;
+        }
+        if (REPORTING_UNIT_IDENTIFIER.equals(reader.getLocalName())
+                && reportingUnitId.equals(reader.getAttributeValue(null, ID))) {
+            attributes.clear();
+            emlHandler.startElement(uri, localName, qName, attributes);
+            return true;
+        }
+
+        // Skip the rest of this ReportingUnitVotes, the reader is positioned one level deeper than its start tag.
+        int depth = 2;
+        while (depth > 0) {
+            event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return false;
+    }
+
+    private void startElement(XMLStreamReader reader, EMLHandler emlHandler) {
+        attributes.clear();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String prefix = reader.getAttributePrefix(i);
+            String localName = reader.getAttributeLocalName(i);
+            String namespace = reader.getAttributeNamespace(i);
+            attributes.addAttribute(
+                    namespace == null ? "" : namespace,
+                    localName,
+                    prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName,
+                    "CDATA",
+                    reader.getAttributeValue(i));
+        }
+        emlHandler.startElement(reader.getNamespaceURI(), reader.getLocalName(), qName(reader), attributes);
+    }
+
+    private static String qName(XMLStreamReader reader) {
+        String prefix = reader.getPrefix();
+        return prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+    }
+}
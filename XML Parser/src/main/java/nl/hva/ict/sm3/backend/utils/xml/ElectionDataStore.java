@@ -0,0 +1,254 @@
+package nl.hva.ict.sm3.backend.utils.xml;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The key/value store used by the {@link EMLHandler} to keep track of the values of the tags and attributes it has
+ * seen so far.<br/>
+ * <br/>
+ * Every key gets a fixed slot number the first time it is used, after which its value is stored in an array at that
+ * slot. Instead of saving a copy of all the values whenever a repeated tag is opened, {@link #push()} just marks the
+ * start of a new frame. Every change made after that is written to an undo log, and {@link #pop()} rolls those changes
+ * back. Opening and closing a tag therefore doesn't allocate anything once all the keys have been seen.<br/>
+ * <br/>
+ * The transformers get the values through {@link #asMap()}, a read-only {@link Map} view on the current values. The
+ * view is live: it always shows the current state of the store, so a transformer that wants to hold on to the data
+ * after its register method has returned must copy it.
+ */
+public class ElectionDataStore {
+    // Maps each key to its slot number.
+    private final Map<String, Integer> slots = new HashMap<>();
+    // The key belonging to each slot number.
+    private String[] keys = new String[128];
+    // The current value of each slot, null if it has no value.
+    private String[] values = new String[128];
+    private int slotCount;
+    // The number of slots that currently have a value.
+    private int size;
+
+    // The undo log: each entry holds a slot and the value it had before it was changed.
+    private int[] undoSlots = new int[256];
+    private String[] undoValues = new String[256];
+    private int undoLength;
+    // For each open frame, the length of the undo log when it was pushed.
+    private int[] frames = new int[32];
+    private int depth;
+
+    private final Map<String, String> view = new View();
+
+    /**
+     * Creates a store that has a slot reserved for each of the provided keys.
+     * @param knownKeys the keys that are known up front.
+     */
+    public ElectionDataStore(Iterable<String> knownKeys) {
+        for (String key : knownKeys) {
+            slot(key);
+        }
+    }
+
+    /**
+     * Returns the slot number of the key, reserving a new slot if the key hasn't been used before.
+     * @param key the key.
+     * @return the slot number of the key.
+     */
+    public int slot(String key) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        if (slotCount == keys.length) {
+            keys = Arrays.copyOf(keys, slotCount * 2);
+            values = Arrays.copyOf(values, slotCount * 2);
+        }
+        keys[slotCount] = key;
+        slots.put(key, slotCount);
+        return slotCount++;
+    }
+
+    /**
+     * Gets the value stored in a slot.
+     * @param slot the slot number.
+     * @return the value, or <code>null</code> when the slot has no value.
+     */
+    public String get(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Stores a value in a slot. When a frame is open, the previous value is saved so it can be restored by
+     * {@link #pop()}.
+     * @param slot the slot number.
+     * @param value the new value, or <code>null</code> to remove the value.
+     * @return the previous value of the slot.
+     */
+    public String put(int slot, String value) {
+        String previous = values[slot];
+        if (previous == value) {
+            return previous;
+        }
+        if (depth > 0) {
+            log(slot, previous);
+        }
+        values[slot] = value;
+        if (previous == null) {
+            size++;
+        } else if (value == null) {
+            size--;
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the value from a slot.
+     * @param slot the slot number.
+     * @return the value that was removed.
+     */
+    public String remove(int slot) {
+        return put(slot, null);
+    }
+
+    /**
+     * Opens a new frame. All the changes made from now on are undone by the matching {@link #pop()}.
+     */
+    public void push() {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        frames[depth++] = undoLength;
+    }
+
+    /**
+     * Closes the current frame and restores all the values to what they were when the frame was opened.
+     */
+    public void pop() {
+        if (depth == 0) {
+            throw new IllegalStateException("There is no frame to pop");
+        }
+        int start = frames[--depth];
+        while (undoLength > start) {
+            undoLength--;
+            int slot = undoSlots[undoLength];
+            String restored = undoValues[undoLength];
+            undoValues[undoLength] = null;
+
+            String current = values[slot];
+            values[slot] = restored;
+            if (current == null && restored != null) {
+                size++;
+            } else if (current != null && restored == null) {
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Removes all the values and closes all the frames. The slots of the keys are kept.
+     */
+    public void clear() {
+        Arrays.fill(values, 0, slotCount, null);
+        Arrays.fill(undoValues, 0, undoLength, null);
+        size = 0;
+        undoLength = 0;
+        depth = 0;
+    }
+
+    /**
+     * Gets the number of frames that are currently open.
+     * @return the depth of the store.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Gives a read-only, live {@link Map} view on the current values.
+     * @return the view.
+     */
+    public Map<String, String> asMap() {
+        return view;
+    }
+
+    private void log(int slot, String previous) {
+        if (undoLength == undoSlots.length) {
+            undoSlots = Arrays.copyOf(undoSlots, undoLength * 2);
+            undoValues = Arrays.copyOf(undoValues, undoLength * 2);
+        }
+        undoSlots[undoLength] = slot;
+        undoValues[undoLength] = previous;
+        undoLength++;
+    }
+
+    /**
+     * The read-only map handed to the transformers. Lookups go straight to the slots, only iterating over it creates
+     * objects.
+     */
+    private class View extends AbstractMap<String, String> {
+        @Override
+        public String get(Object key) {
+            Integer slot = slots.get(key);
+            return slot == null ? null : values[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public String getOrDefault(Object key, String defaultValue) {
+            String value = get(key);
+            return value != null ? value : defaultValue;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < slotCount && values[from] == null) {
+                                from++;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < slotCount;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, String> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+                            next = advance(next + 1);
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package nl.hva.ict.sm3.backend.utils.xml;
+
+import nl.hva.ict.sm3.backend.utils.types.ElectionFileType;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes which files of an election a {@link DutchElectionParser} has to parse. A caller declares the levels and
+ * regions it needs and the plan works out the minimal set of file types, and the files within those types, for them.
+ * File types that are not in the plan are not looked at and their transformers are not needed.<br/>
+ * <br/>
+ * Per level:
+ * <ul>
+ *     <li>{@link ParseLevel#ALL}: every file.</li>
+ *     <li>{@link ParseLevel#NATIONAL}: the definition and the national totals.</li>
+ *     <li>{@link ParseLevel#CONSTITUENCY}: the definition and the votes file of the constituency (the region), or all
+ *     constituency votes files when no region is given.</li>
+ *     <li>{@link ParseLevel#MUNICIPALITY}: the definition and the votes file of the municipality (the region), or all
+ *     municipality votes files when no region is given.</li>
+ *     <li>{@link ParseLevel#CANDIDATES}: the candidate lists and the result. With a region only the candidate list of
+ *     that constituency is parsed, the result covers the whole country.</li>
+ * </ul>
+ * Plans can be combined with {@link #and(ParseLevel, String)}.
+ */
+public class ParsePlan {
+    // The regions per file type. An empty set means all the files of that type.
+    private final Map<ElectionFileType, Set<String>> files = new EnumMap<>(ElectionFileType.class);
+
+    private ParsePlan() {
+    }
+
+    /**
+     * Creates a plan that parses every file, like {@link DutchElectionParser#parseResults(String, String)} does.
+     * @return the plan.
+     */
+    public static ParsePlan all() {
+        return of(ParseLevel.ALL, null);
+    }
+
+    /**
+     * Creates a plan for a single level.
+     * @param level the level that is needed.
+     * @param region the name of the region as used in the file names, e.g. <i>Groningen</i>, or <code>null</code> for
+     *               all regions of the level.
+     * @return the plan.
+     */
+    public static ParsePlan of(ParseLevel level, String region) {
+        return new ParsePlan().and(level, region);
+    }
+
+    /**
+     * Adds a level to the plan.
+     * @param level the level that is needed.
+     * @param region the name of the region as used in the file names, or <code>null</code> for all regions of the
+     *               level.
+     * @return this plan.
+     */
+    public ParsePlan and(ParseLevel level, String region) {
+        switch (level) {
+            case ALL -> {
+                for (ElectionFileType type : ElectionFileType.values()) {
+                    add(type, null);
+                }
+            }
+            case NATIONAL -> {
+                add(ElectionFileType.DEFINITION, null);
+                add(ElectionFileType.NATIONAL_VOTES, null);
+            }
+            case CONSTITUENCY -> {
+                add(ElectionFileType.DEFINITION, null);
+                add(ElectionFileType.CONSTITUENCY_VOTES, region);
+            }
+            case MUNICIPALITY -> {
+                add(ElectionFileType.DEFINITION, null);
+                add(ElectionFileType.MUNICIPALITY_VOTES, region);
+            }
+            case CANDIDATES -> {
+                add(ElectionFileType.CANDIDATE_LISTS, region);
+                if (region == null) {
+                    add(ElectionFileType.RESULT, null);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether any file of the type has to be parsed.
+     * @param type the type of file.
+     * @return <code>true</code> when the plan includes files of this type.
+     */
+    public boolean includes(ElectionFileType type) {
+        return files.containsKey(type);
+    }
+
+    /**
+     * Checks whether a file has to be parsed as a file of the type.
+     * @param type the type of file.
+     * @param electionId the id of the election, for example TK2023.
+     * @param fileName the name of the file, without the folder.
+     * @return <code>true</code> when the plan includes the file.
+     */
+    public boolean includes(ElectionFileType type, String electionId, String fileName) {
+        Set<String> regions = files.get(type);
+        if (regions == null || !fileName.endsWith(".xml")) {
+            return false;
+        }
+        String prefix = type.getPrefix(electionId);
+        if (!fileName.startsWith(prefix)) {
+            return false;
+        }
+        if (regions.isEmpty()) {
+            return true;
+        }
+        for (String region : regions) {
+            // For example Telling_TK2023_gemeente_Utrecht.eml.xml, but not Telling_TK2023_gemeente_Utrechtse_Heuvelrug.eml.xml
+            if (fileName.startsWith(prefix + "_" + region + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the file types in the plan
+     * @return the file types that have to be parsed.
+     */
+    public Set<ElectionFileType> getFileTypes() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    private void add(ElectionFileType type, String region) {
+        Set<String> regions = files.get(type);
+        if (regions == null) {
+            regions = new HashSet<>();
+            if (region != null) {
+                regions.add(region);
+            }
+            files.put(type, regions);
+        } else if (!regions.isEmpty()) {
+            if (region == null) {
+                // One of the levels needs all the files of this type
+                regions.clear();
+            } else {
+                regions.add(region);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package nl.hva.ict.sm3.backend.utils.xml;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A transformer that doesn't transform anything, it just records every call in the order they are made so they can
+ * be replayed on the actual transformer later on.<br/>
+ * <br/>
+ * It is used by the {@link DutchElectionParser} when files are parsed in parallel. Each file is parsed on a worker
+ * thread into its own <code>RecordingTransformer</code>, after which the recorded calls are replayed file by file, in
+ * the same order as the sequential parser would have made them. That way the transformers, and the model they write
+ * to, are only ever called from one thread and the result is identical to parsing the files one after the other.
+ */
+class RecordingTransformer implements DefinitionTransformer, CandidateTransformer, VotesTransformer {
+    private enum Kind {
+        REGION, PARTY, CANDIDATE, PARTY_VOTES, CANDIDATE_VOTES, METADATA
+    }
+
+    /**
+     * A single recorded call. The election data is copied because the EMLHandler keeps changing its own map.
+     */
+    private static class Call {
+        private final Kind kind;
+        private final boolean aggregated;
+        private final Map<String, String> electionData;
+
+        private Call(Kind kind, boolean aggregated, Map<String, String> electionData) {
+            this.kind = kind;
+            this.aggregated = aggregated;
+            this.electionData = new HashMap<>(electionData);
+        }
+    }
+
+    private final List<Call> calls = new ArrayList<>();
+
+    @Override
+    public void registerRegion(Map<String, String> electionData) {
+        calls.add(new Call(Kind.REGION, false, electionData));
+    }
+
+    @Override
+    public void registerParty(Map<String, String> electionData) {
+        calls.add(new Call(Kind.PARTY, false, electionData));
+    }
+
+    @Override
+    public void registerCandidate(Map<String, String> electionData) {
+        calls.add(new Call(Kind.CANDIDATE, false, electionData));
+    }
+
+    @Override
+    public void registerPartyVotes(boolean aggregated, Map<String, String> electionData) {
+        calls.add(new Call(Kind.PARTY_VOTES, aggregated, electionData));
+    }
+
+    @Override
+    public void registerCandidateVotes(boolean aggregated, Map<String, String> electionData) {
+        calls.add(new Call(Kind.CANDIDATE_VOTES, aggregated, electionData));
+    }
+
+    @Override
+    public void registerMetadata(boolean aggregated, Map<String, String> electionData) {
+        calls.add(new Call(Kind.METADATA, aggregated, electionData));
+    }
+
+    /**
+     * Replays all the recorded calls, in the order they were recorded, on the provided transformers. Only the
+     * transformer matching the kind of file that has been recorded has to be provided, the others may be
+     * <code>null</code>.
+     * @param definitionTransformer receives the recorded region and party calls.
+     * @param candidateTransformer receives the recorded candidate calls.
+     * @param votesTransformer receives the recorded votes and metadata calls.
+     */
+    void replay(DefinitionTransformer definitionTransformer,
+                CandidateTransformer candidateTransformer,
+                VotesTransformer votesTransformer) {
+        for (Call call : calls) {
+            switch (call.kind) {
+                case REGION -> definitionTransformer.registerRegion(call.electionData);
+                case PARTY -> definitionTransformer.registerParty(call.electionData);
+                case CANDIDATE -> candidateTransformer.registerCandidate(call.electionData);
+                case PARTY_VOTES -> votesTransformer.registerPartyVotes(call.aggregated, call.electionData);
+                case CANDIDATE_VOTES -> votesTransformer.registerCandidateVotes(call.aggregated, call.electionData);
+                case METADATA -> votesTransformer.registerMetadata(call.aggregated, call.electionData);
+            }
+        }
+        calls.clear();
+    }
+}
@@ -135,13 +135,7 @@ public class DutchMunicipalityVotesTransformer implements VotesTransformer, TagA
      * @return - the Municipality object if found, null otherwise
      */
     private Municipality findMunicipality(int municipalityId) {
-        for (Constituency c : election.getState().getConstituencyList()) {
-            Municipality m = c.getMunicipalityById(municipalityId); // O(1) lookup
-            if (m != null) {
-                return m;
-            }
-        }
-        return null;
+        return election.getMunicipality(municipalityId);
     }
 
     /**
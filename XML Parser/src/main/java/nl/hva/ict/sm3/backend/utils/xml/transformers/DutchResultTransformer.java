@@ -67,11 +67,7 @@ public class DutchResultTransformer implements VotesTransformer, TagAndAttribute
 
         // Find candidate inside currentParty
         assert currentParty != null;
-        Candidate candidate = currentParty.getCandidates()
-                .stream()
-                .filter(c -> c.getId() == candidateId)
-                .findFirst()
-                .orElse(null);
+        Candidate candidate = currentParty.getCandidate(candidateId);
 
         if (candidate == null) {
             System.out.printf(
@@ -0,0 +1,62 @@
+package nl.hva.ict.sm3.backend.api;
+
+import nl.hva.ict.sm3.backend.model.Election;
+import nl.hva.ict.sm3.backend.service.ElectionWarmupService;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCache;
+import nl.hva.ict.sm3.backend.utils.cache.ElectionCacheKey;
+import nl.hva.ict.sm3.backend.utils.snapshot.ElectionSnapshotStore;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CacheController
+ */
+@ExtendWith(MockitoExtension.class)
+public class CacheControllerTest {
+    private static final ElectionCacheKey KEY = new ElectionCacheKey("TK2023", ParseLevel.ALL, "TK2023");
+
+    @TempDir
+    private Path snapshots;
+
+    @Mock
+    private ElectionWarmupService warmupService;
+
+    /**
+     * Verifies that clearing the cache also removes the snapshots, so the elections are parsed again instead of
+     * being read back from disk.
+     */
+    @Test
+    void invalidateAll_shouldDeleteSnapshots() throws Exception {
+        // Arrange
+        ElectionCache electionCache = new ElectionCache(16, false);
+        CacheController controller = new CacheController(electionCache, warmupService,
+                new ElectionSnapshotStore(true, snapshots.toString()));
+        Path snapshot = Files.createFile(snapshots.resolve("TK2023_ALL_TK2023_00000000.snapshot"));
+        AtomicInteger loads = new AtomicInteger();
+        electionCache.getOrLoad(KEY, () -> {
+            loads.incrementAndGet();
+            return new Election("TK2023");
+        });
+
+        // Act
+        controller.invalidateAll();
+
+        // Assert
+        assertFalse(Files.exists(snapshot));
+        electionCache.getOrLoad(KEY, () -> {
+            loads.incrementAndGet();
+            return new Election("TK2023");
+        });
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,30 @@
+package nl.hva.ict.sm3.backend.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Constituency
+ */
+public class ConstituencyTest {
+    private final Constituency constituency = new Constituency(1, "Amsterdam");
+
+    /**
+     * Verifies that a municipality that is already in the list is not added again, also when another municipality
+     * with the same id was added before it.
+     */
+    @Test
+    void addMunicipality_shouldNotAddDuplicate_whenIdHasSeveralMunicipalities() {
+        // Arrange
+        constituency.addMunicipality(new Municipality(363, "Amsterdam"));
+        constituency.addMunicipality(new Municipality(363, "Gemeente Amsterdam"));
+
+        // Act
+        constituency.addMunicipality(new Municipality(363, "Gemeente Amsterdam"));
+
+        // Assert
+        assertEquals(2, constituency.getMunicipalityList().size());
+        assertEquals("Amsterdam", constituency.getMunicipalityById(363).getName());
+    }
+}
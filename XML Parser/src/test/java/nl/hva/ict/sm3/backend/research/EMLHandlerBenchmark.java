@@ -0,0 +1,194 @@
+package nl.hva.ict.sm3.backend.research;
+
+import nl.hva.ict.sm3.backend.utils.xml.EMLHandler;
+import nl.hva.ict.sm3.backend.utils.xml.VotesTransformer;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Measures how much memory the {@link EMLHandler} allocates while processing a municipality votes file, compared to
+ * the previous approach of copying the whole <code>electionData</code> map for every repeated tag.<br/>
+ * <br/>
+ * Both handlers parse the same generated file with the same SAX parser, so the difference in allocated bytes is caused
+ * by the handlers only. It lives with the tests so it isn't part of the application, run it after the test classes
+ * are compiled with:<br/>
+ * <code>java -cp target/classes:target/test-classes nl.hva.ict.sm3.backend.research.EMLHandlerBenchmark
+ * [reportingUnits] [rounds]</code>
+ */
+public class EMLHandlerBenchmark {
+    private static final int PARTIES = 26;
+    private static final int CANDIDATES_PER_PARTY = 30;
+
+    public static void main(String[] args) throws Exception {
+        int reportingUnits = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        byte[] file = generateMunicipalityFile(reportingUnits);
+        int selections = (reportingUnits + 1) * PARTIES * (CANDIDATES_PER_PARTY + 1);
+        System.out.printf("File: %,d bytes, %,d reporting units, %,d selections%n", file.length, reportingUnits, selections);
+
+        VotesTransformer ignore = new VotesTransformer() {
+            @Override
+            public void registerPartyVotes(boolean aggregated, Map<String, String> electionData) {
+            }
+
+            @Override
+            public void registerCandidateVotes(boolean aggregated, Map<String, String> electionData) {
+            }
+
+            @Override
+            public void registerMetadata(boolean aggregated, Map<String, String> electionData) {
+            }
+        };
+
+        // Warm up both handlers before measuring
+        for (int i = 0; i < 5; i++) {
+            parse(file, new CopyingHandler());
+            parse(file, new EMLHandler(ignore));
+        }
+
+        long[] copying = measure(file, rounds, () -> new CopyingHandler());
+        long[] store = measure(file, rounds, () -> new EMLHandler(ignore));
+
+        System.out.printf("%-22s %,15d bytes/file %,8d bytes/selection %,6d ms/file%n",
+                "map copy per tag", copying[0], copying[0] / selections, copying[1]);
+        System.out.printf("%-22s %,15d bytes/file %,8d bytes/selection %,6d ms/file%n",
+                "ElectionDataStore", store[0], store[0] / selections, store[1]);
+        System.out.printf("Allocation reduced by %.1f%%%n", 100.0 * (copying[0] - store[0]) / copying[0]);
+    }
+
+    private interface HandlerFactory {
+        DefaultHandler create();
+    }
+
+    /**
+     * Parses the file <code>rounds</code> times.
+     * @return the average number of allocated bytes and the average time in milliseconds per parse.
+     */
+    private static long[] measure(byte[] file, int rounds, HandlerFactory handlers) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long bytes = 0;
+        long nanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            DefaultHandler handler = handlers.create();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            parse(file, handler);
+            nanos += System.nanoTime() - start;
+            bytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        return new long[]{bytes / rounds, nanos / rounds / 1_000_000};
+    }
+
+    private static void parse(byte[] file, DefaultHandler handler) throws Exception {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        SAXParser parser = factory.newSAXParser();
+        parser.parse(new ByteArrayInputStream(file), handler);
+    }
+
+    private static byte[] generateMunicipalityFile(int reportingUnits) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<EML xmlns=\"urn:oasis:names:tc:evs:schema:eml\" Id=\"510b\" SchemaVersion=\"5\">")
+                .append("<ManagingAuthority><AuthorityIdentifier Id=\"0363\">Amsterdam</AuthorityIdentifier></ManagingAuthority>")
+                .append("<Count><Election><ElectionIdentifier Id=\"TK2023\"><ElectionName>Tweede Kamer</ElectionName></ElectionIdentifier>")
+                .append("<Contests><Contest><ContestIdentifier Id=\"geen\"/>");
+        xml.append("<TotalVotes>");
+        appendSelections(xml);
+        xml.append("</TotalVotes>");
+        for (int unit = 1; unit <= reportingUnits; unit++) {
+            xml.append("<ReportingUnitVotes><ReportingUnitIdentifier Id=\"0363::SB").append(unit)
+                    .append("\">Stembureau ").append(unit).append("</ReportingUnitIdentifier>");
+            appendSelections(xml);
+            xml.append("</ReportingUnitVotes>");
+        }
+        xml.append("</Contest></Contests></Election></Count></EML>");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendSelections(StringBuilder xml) {
+        for (int party = 1; party <= PARTIES; party++) {
+            xml.append("<Selection><AffiliationIdentifier Id=\"").append(party)
+                    .append("\"><RegisteredName>Party ").append(party).append("</RegisteredName></AffiliationIdentifier>")
+                    .append("<ValidVotes>").append(party * 17).append("</ValidVotes></Selection>");
+            for (int candidate = 1; candidate <= CANDIDATES_PER_PARTY; candidate++) {
+                xml.append("<Selection><Candidate><CandidateIdentifier Id=\"").append(candidate)
+                        .append("\"/></Candidate><ValidVotes>").append(candidate).append("</ValidVotes></Selection>");
+            }
+        }
+        xml.append("<Cast>1200</Cast><TotalCounted>1190</TotalCounted>")
+                .append("<RejectedVotes ReasonCode=\"ongeldig\">4</RejectedVotes>")
+                .append("<RejectedVotes ReasonCode=\"blanco\">6</RejectedVotes>")
+                .append("<UncountedVotes ReasonCode=\"geldige stempassen\">1100</UncountedVotes>");
+    }
+
+    /**
+     * The way the <code>EMLHandler</code> used to keep its state: the whole map is copied whenever a repeated tag is
+     * opened and the keys are created with <code>String.format</code>. Only the parts that matter for a votes file
+     * are included.
+     */
+    private static class CopyingHandler extends DefaultHandler {
+        private static final Set<String> repeatedTags = Set.of("Selection", "ReportingUnitVotes", "TotalVotes");
+        private static final Map<String, String> attributes = Map.of(
+                "AffiliationIdentifier", "Id",
+                "CandidateIdentifier", "Id",
+                "ReportingUnitIdentifier", "Id",
+                "AuthorityIdentifier", "Id",
+                "ContestIdentifier", "Id",
+                "ElectionIdentifier", "Id",
+                "RejectedVotes", "ReasonCode",
+                "UncountedVotes", "ReasonCode");
+
+        private final StringBuilder text = new StringBuilder();
+        private final Deque<Map<String, String>> saved = new ArrayDeque<>();
+        private Map<String, String> electionData = new HashMap<>();
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            String attribute = attributes.get(localName);
+            if (attribute != null && attrs.getValue(attribute) != null) {
+                electionData.put(String.format("%s-%s", localName, attribute).intern(), attrs.getValue(attribute).intern());
+            }
+            if (repeatedTags.contains(localName)) {
+                saved.push(electionData);
+                electionData = new HashMap<>(electionData);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            text.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            String value = text.toString().trim();
+            if (localName.equals("RejectedVotes") || localName.equals("UncountedVotes")) {
+                String reasonCode = electionData.remove(String.format("%s-%s", localName, "ReasonCode"));
+                if (!value.isBlank()) {
+                    electionData.put(String.format("%s-%s", localName, reasonCode).intern(), value.intern());
+                }
+            } else if (!value.isBlank()) {
+                electionData.put(localName.intern(), value.intern());
+            }
+            text.setLength(0);
+            if (repeatedTags.contains(localName)) {
+                electionData = saved.pop();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package nl.hva.ict.sm3.backend.utils.cache;
+
+import nl.hva.ict.sm3.backend.model.Election;
+import nl.hva.ict.sm3.backend.utils.types.ParseLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ElectionCache
+ */
+public class ElectionCacheTest {
+    private static final ElectionCacheKey KEY = new ElectionCacheKey("TK2023", ParseLevel.ALL, "TK2023");
+
+    private final ElectionCache cache = new ElectionCache(16, false);
+
+    /**
+     * Verifies that a request waiting for a parse that fails with an Error fails with it too, instead of waiting
+     * forever.
+     */
+    @Test
+    void getOrLoad_shouldReleaseWaitingRequests_whenLoaderThrowsError() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Election> first = CompletableFuture.supplyAsync(() -> cache.getOrLoad(KEY, () -> {
+            loading.countDown();
+            awaitQuietly(release);
+            throw new StackOverflowError("too deep");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Election> second = CompletableFuture.supplyAsync(
+                () -> cache.getOrLoad(KEY, () -> new Election("TK2023")));
+
+        // Act
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        ExecutionException error = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, error.getCause());
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Verifies that an election that is invalidated while it is parsed isn't cached, so the next request parses the
+     * files again.
+     */
+    @Test
+    void getOrLoad_shouldNotCacheElection_whenInvalidatedDuringLoad() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Election stale = new Election("TK2023");
+        CompletableFuture<Election> load = CompletableFuture.supplyAsync(() -> cache.getOrLoad(KEY, () -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return stale;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // Act
+        cache.invalidateAll();
+        release.countDown();
+
+        // Assert
+        assertSame(stale, load.get(5, TimeUnit.SECONDS));
+        Election fresh = new Election("TK2023");
+        assertSame(fresh, cache.getOrLoad(KEY, () -> fresh));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
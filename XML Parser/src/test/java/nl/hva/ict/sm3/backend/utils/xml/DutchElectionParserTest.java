@@ -0,0 +1,109 @@
+package nl.hva.ict.sm3.backend.utils.xml;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DutchElectionParser
+ */
+public class DutchElectionParserTest {
+    private static final String MUNICIPALITY_FILE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <EML xmlns="urn:oasis:names:tc:evs:schema:eml" Id="510b" SchemaVersion="5">
+              <TransactionId>1</TransactionId>
+              %s
+              <Count>
+                <Election>
+                  <ElectionIdentifier Id="TK2023"><ElectionName>Tweede Kamer</ElectionName></ElectionIdentifier>
+                  <Contests>
+                    <Contest>
+                      <ContestIdentifier Id="geen"/>
+                      <TotalVotes>
+                        <Selection><AffiliationIdentifier Id="1"><RegisteredName>Party A</RegisteredName></AffiliationIdentifier><ValidVotes>%d</ValidVotes></Selection>
+                        <Cast>%d</Cast>
+                        <TotalCounted>%d</TotalCounted>
+                      </TotalVotes>
+                      <ReportingUnitVotes>
+                        <ReportingUnitIdentifier Id="%s::SB1">Stembureau 1</ReportingUnitIdentifier>
+                        <Selection><AffiliationIdentifier Id="1"><RegisteredName>Party A</RegisteredName></AffiliationIdentifier><ValidVotes>%d</ValidVotes></Selection>
+                        <Cast>%d</Cast>
+                        <TotalCounted>%d</TotalCounted>
+                      </ReportingUnitVotes>
+                    </Contest>
+                  </Contests>
+                </Election>
+              </Count>
+            </EML>
+            """;
+
+    @TempDir
+    private Path folder;
+
+    /**
+     * Verifies that parsing the files in parallel calls the transformer in the same order and with the same data as
+     * parsing them one after the other, also when a file has a tag that the next files don't have and when there are
+     * more files than fit in the window of submitted files
+     */
+    @Test
+    void parseResults_shouldMatchSequentialParse_whenParsedInParallel() throws Exception {
+        // Arrange
+        for (int i = 1; i <= 6; i++) {
+            String extra = i == 1 ? "<IssueDate>2023-11-29</IssueDate>" : "";
+            Files.writeString(folder.resolve("Telling_TK2023_gemeente_Gemeente" + i + ".eml.xml"),
+                    MUNICIPALITY_FILE.formatted(extra, 10 * i, 20 * i, 19 * i, "%04d".formatted(i), i, 2 * i, 2 * i));
+        }
+        List<String> sequential = new ArrayList<>();
+        List<String> parallel = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            parser(sequential).parseResults("TK2023", folder.toString());
+            DutchElectionParser parallelParser = parser(parallel);
+            parallelParser.setExecutor(executor);
+            parallelParser.parseResults("TK2023", folder.toString());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(24, sequential.size());
+        assertEquals(sequential, parallel);
+        assertTrue(sequential.get(0).contains("IssueDate=2023-11-29"));
+        assertFalse(sequential.get(4).contains("IssueDate"));
+    }
+
+    /**
+     * Creates a parser for the municipality votes files that records every call of the transformer as a line
+     */
+    private DutchElectionParser parser(List<String> calls) {
+        VotesTransformer recorder = new VotesTransformer() {
+            @Override
+            public void registerPartyVotes(boolean aggregated, Map<String, String> electionData) {
+                calls.add("party " + aggregated + " " + new TreeMap<>(electionData));
+            }
+
+            @Override
+            public void registerCandidateVotes(boolean aggregated, Map<String, String> electionData) {
+                calls.add("candidate " + aggregated + " " + new TreeMap<>(electionData));
+            }
+
+            @Override
+            public void registerMetadata(boolean aggregated, Map<String, String> electionData) {
+                calls.add("metadata " + aggregated + " " + new TreeMap<>(electionData));
+            }
+        };
+        return new DutchElectionParser(null, null, null, null, null, recorder);
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.electionbackend.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A cache with a maximum number of entries that evicts the least recently used entry when it is full, and expires
+ * entries a fixed time after they were written. It keeps the hits, misses, evictions and load times of the cache,
+ * see {@link #getStats()}.
+ * <p>
+ * The entries are kept in an access-ordered map behind a single lock. Loading a missing value happens outside the
+ * lock, so a slow query doesn't block the readers of other keys. Concurrent loads of the same key are coalesced:
+ * one caller loads the value and the others wait for it. A load that overlaps an invalidation or update of its key
+ * is returned to its callers but not cached, so it can't replace newer data. Null values are never cached.
+ * Caches are created by the {@link CacheRegistry}, which can also invalidate them by name.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Load<V>> loading = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    /**
+     * Constructor for the BoundedCache class.
+     *
+     * @param name    the name of the cache, used in the statistics
+     * @param maxSize the maximum number of entries
+     * @param ttl     how long an entry stays valid after it was written, zero or null to never expire
+     */
+    public BoundedCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * Constructor for the BoundedCache class with a custom clock, for tests.
+     */
+    BoundedCache(String name, int maxSize, Duration ttl, LongSupplier ticker) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size of cache " + name + " must be at least 1");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl == null || ttl.isZero() || ttl.isNegative() ? 0 : ttl.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Gets the name of the cache.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets a cached value.
+     *
+     * @param key the key of the value
+     * @return the value, or null if it isn't cached or has expired
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            return lookup(key);
+        }
+    }
+
+    /**
+     * Gets a cached value, or loads and caches it when it isn't cached. When the key is already being loaded, waits
+     * for that load instead of loading it again.
+     *
+     * @param key    the key of the value
+     * @param loader loads the value of a key, exceptions are passed on to the caller and to the waiting callers
+     * @return the value, or null if the loader returned null
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Load<V> load;
+        boolean owner;
+        synchronized (entries) {
+            V value = lookup(key);
+            if (value != null) {
+                return value;
+            }
+            load = loading.get(key);
+            owner = load == null;
+            if (owner) {
+                load = new Load<>();
+                loading.put(key, load);
+            } else {
+                coalescedLoads.increment();
+            }
+        }
+        if (!owner) {
+            return await(load);
+        }
+
+        long start = ticker.getAsLong();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                loading.remove(key);
+            }
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.increment();
+            loadNanos.add(ticker.getAsLong() - start);
+        }
+
+        synchronized (entries) {
+            loading.remove(key);
+            if (value != null && !load.stale) {
+                store(key, value, ticker.getAsLong());
+            }
+        }
+        load.future.complete(value);
+        return value;
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry when the cache is full.
+     *
+     * @param key   the key of the value
+     * @param value the value, ignored when null
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        synchronized (entries) {
+            store(key, value, ticker.getAsLong());
+            markStale(key);
+        }
+    }
+
+    /**
+     * Replaces a cached value with an updated copy, for a write-through cache. The entry keeps the time it was
+     * written, so it still expires and is loaded fresh after the time to live. When the value isn't cached nothing
+     * is updated, and a running load of the key isn't cached because it may not contain the update.
+     *
+     * @param key    the key of the value
+     * @param update returns the updated value, it must not modify the cached value
+     */
+    public void update(K key, UnaryOperator<V> update) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || isExpired(entry)) {
+                markStale(key);
+                return;
+            }
+            V value = update.apply(entry.value);
+            if (value == null) {
+                entries.remove(key);
+            } else {
+                entries.put(key, new Entry<>(value, entry.writtenAt));
+            }
+            markStale(key);
+        }
+    }
+
+    /**
+     * Removes a value from the cache.
+     *
+     * @param key the key of the value
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            markStale(key);
+        }
+    }
+
+    /**
+     * Removes all values from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            loading.values().forEach(load -> load.stale = true);
+        }
+    }
+
+    /**
+     * Gets the number of cached values, including expired values that haven't been removed yet.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the statistics of the cache since it was created.
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(name, size(), maxSize, hits.sum(), misses.sum(), evictions.sum(), loads.sum(),
+                loadNanos.sum(), coalescedLoads.sum());
+    }
+
+    /**
+     * Gets a value that isn't expired, counting the hit or miss. Called with the lock held.
+     */
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            entries.remove(key);
+            evictions.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Stores a value, evicting the least recently used entries when the cache is full. Called with the lock held.
+     */
+    private void store(K key, V value, long writtenAt) {
+        entries.put(key, new Entry<>(value, writtenAt));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Makes sure a running load of a key isn't cached. Called with the lock held.
+     */
+    private void markStale(K key) {
+        Load<V> load = loading.get(key);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    private V await(Load<V> load) {
+        try {
+            return load.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && ticker.getAsLong() - entry.writtenAt >= ttlNanos;
+    }
+
+    /**
+     * A load of a value that other callers can wait for.
+     */
+    private static final class Load<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private boolean stale;
+    }
+
+    /**
+     * A cached value with the time it was written.
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long writtenAt;
+
+        private Entry(V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.electionbackend.cache;
+
+import com.example.electionbackend.model.CacheInvalidation;
+import com.example.electionbackend.repository.interfaces.CacheInvalidationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Broadcasts cache invalidations to the other nodes of the backend through the {@code cache_invalidation} outbox
+ * table.
+ * <p>
+ * A service updates its own caches and then publishes the keys it changed; the invalidation is written in the
+ * transaction of the change, so it is only seen once the change is visible. Every node polls the outbox every
+ * {@code app.cache.invalidation.poll-interval} (one second by default) and removes the keys that other nodes
+ * published from its caches in the {@link CacheRegistry}. Other nodes may serve the old value for at most about one
+ * poll interval; the lag of every invalidation is measured and warned about when it exceeds
+ * {@code app.cache.invalidation.max-lag}.
+ * <p>
+ * Every poll reads the rows after the highest ID it has seen, in batches until it has caught up. Rows with a lower ID
+ * can be committed after rows with a higher ID, so the rows up to that ID written in the last
+ * {@code app.cache.invalidation.overlap} are read again in a separate query; the IDs that were seen are remembered
+ * for that window. The overlap should be longer than the longest transaction that publishes invalidations.
+ * Rows older than {@code app.cache.invalidation.retention} are purged. A node that starts has empty caches, so it
+ * only applies the invalidations written after it started.
+ */
+@Component
+public class CacheInvalidationBus {
+    private static final int BATCH_SIZE = 5_000;
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final CacheRegistry cacheRegistry;
+    private final String nodeId;
+    private final boolean enabled;
+    private final Duration overlap;
+    private final Duration retention;
+    private final Duration maxLag;
+
+    private final Map<Long, LocalDateTime> seen = new HashMap<>();
+    private long lastId;
+    private volatile LocalDateTime lastPolledAt;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder lagWarnings = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    /**
+     * Constructor for the CacheInvalidationBus class.
+     *
+     * @param cacheInvalidationRepository The repository of the outbox.
+     * @param cacheRegistry               The caches of this node.
+     * @param nodeId                      The unique ID of this node, a random ID when it is blank.
+     * @param enabled                     Whether invalidations are published and polled at all.
+     * @param overlap                     How long the rows that were already read are read again.
+     * @param retention                   How long the rows are kept in the outbox.
+     * @param maxLag                      The lag after which an invalidation is warned about.
+     */
+    public CacheInvalidationBus(CacheInvalidationRepository cacheInvalidationRepository,
+                                CacheRegistry cacheRegistry,
+                                @Value("${app.cache.node-id:}") String nodeId,
+                                @Value("${app.cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${app.cache.invalidation.overlap:PT5S}") String overlap,
+                                @Value("${app.cache.invalidation.retention:PT1H}") String retention,
+                                @Value("${app.cache.invalidation.max-lag:PT5S}") String maxLag) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.cacheRegistry = cacheRegistry;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.enabled = enabled;
+        this.overlap = Duration.parse(overlap);
+        this.retention = Duration.parse(retention);
+        this.maxLag = Duration.parse(maxLag);
+    }
+
+    /**
+     * Gets the unique ID of this node.
+     *
+     * @return The ID of the node.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Tells the other nodes to remove a key from a cache, in the current transaction. This node updates its own
+     * cache itself.
+     *
+     * @param cacheName The name of the cache.
+     * @param key       The key of the value.
+     */
+    public void publish(String cacheName, Object key) {
+        if (!enabled) {
+            return;
+        }
+        cacheInvalidationRepository.append(cacheName, key == null ? null : String.valueOf(key), nodeId);
+        published.increment();
+    }
+
+    /**
+     * Tells the other nodes to remove all values from a cache, in the current transaction.
+     *
+     * @param cacheName The name of the cache.
+     */
+    public void publishAll(String cacheName) {
+        publish(cacheName, null);
+    }
+
+    /**
+     * Applies the invalidations that other nodes wrote since the last poll to the caches of this node.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval:PT1S}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = cacheInvalidationRepository.now();
+        if (lastPolledAt == null) {
+            lastId = cacheInvalidationRepository.findLastId();
+            lastPolledAt = now;
+            return;
+        }
+
+        LocalDateTime since = lastPolledAt.minus(overlap);
+        cacheInvalidationRepository.findRecent(lastId, since).forEach(invalidation -> receive(invalidation, now));
+
+        List<CacheInvalidation> invalidations;
+        do {
+            invalidations = cacheInvalidationRepository.findAfter(lastId, BATCH_SIZE);
+            invalidations.forEach(invalidation -> receive(invalidation, now));
+        } while (invalidations.size() == BATCH_SIZE);
+
+        seen.values().removeIf(createdAt -> createdAt.isBefore(since));
+        lastPolledAt = now;
+    }
+
+    /**
+     * Deletes the invalidations that every node has applied long ago from the outbox.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.purge-interval:PT10M}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        cacheInvalidationRepository.deleteBefore(cacheInvalidationRepository.now().minus(retention));
+    }
+
+    /**
+     * Gets the statistics of the invalidations of this node.
+     *
+     * @return The statistics.
+     */
+    public CacheInvalidationStats getStats() {
+        return new CacheInvalidationStats(nodeId, published.sum(), received.sum(), applied.sum(), lastId,
+                lastLagMillis.get(), maxLagMillis.get(), lagWarnings.sum(), lastPolledAt);
+    }
+
+    /**
+     * Applies an invalidation of another node, unless it was seen before.
+     */
+    private void receive(CacheInvalidation invalidation, LocalDateTime now) {
+        if (seen.putIfAbsent(invalidation.getId(), invalidation.getCreatedAt()) != null) {
+            return;
+        }
+        lastId = Math.max(lastId, invalidation.getId());
+        if (!nodeId.equals(invalidation.getOriginNode())) {
+            apply(invalidation, now);
+        }
+    }
+
+    private void apply(CacheInvalidation invalidation, LocalDateTime now) {
+        received.increment();
+        boolean exists = invalidation.getCacheKey() == null
+                ? cacheRegistry.invalidateAll(invalidation.getCacheName())
+                : cacheRegistry.invalidate(invalidation.getCacheName(), invalidation.getCacheKey());
+        if (exists) {
+            applied.increment();
+        }
+
+        long lag = Math.max(0, Duration.between(invalidation.getCreatedAt(), now).toMillis());
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        if (lag > maxLag.toMillis()) {
+            lagWarnings.increment();
+            System.out.println("Cache invalidation " + invalidation.getId() + " of " + invalidation.getCacheName()
+                    + " was applied " + lag + " ms after it was written");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.electionbackend.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * The statistics of the {@link CacheInvalidationBus} of this node at the moment they were taken.
+ */
+public class CacheInvalidationStats {
+    private final String nodeId;
+    private final long published;
+    private final long received;
+    private final long applied;
+    private final long lastId;
+    private final long lastLagMillis;
+    private final long maxLagMillis;
+    private final long lagWarnings;
+    private final LocalDateTime lastPolledAt;
+
+    /**
+     * Constructor for CacheInvalidationStats.
+     *
+     * @param nodeId        - the ID of this node
+     * @param published     - the number of invalidations this node wrote to the outbox
+     * @param received      - the number of invalidations of other nodes this node read
+     * @param applied       - the number of received invalidations of a cache that exists on this node
+     * @param lastId        - the highest ID in the outbox this node has seen
+     * @param lastLagMillis - the time between writing and applying the last received invalidation
+     * @param maxLagMillis  - the longest time between writing and applying a received invalidation
+     * @param lagWarnings   - the number of received invalidations that took longer than the maximum lag
+     * @param lastPolledAt  - the time of the database when the outbox was last read, or null if it hasn't been read
+     */
+    public CacheInvalidationStats(String nodeId, long published, long received, long applied, long lastId,
+                                  long lastLagMillis, long maxLagMillis, long lagWarnings,
+                                  LocalDateTime lastPolledAt) {
+        this.nodeId = nodeId;
+        this.published = published;
+        this.received = received;
+        this.applied = applied;
+        this.lastId = lastId;
+        this.lastLagMillis = lastLagMillis;
+        this.maxLagMillis = maxLagMillis;
+        this.lagWarnings = lagWarnings;
+        this.lastPolledAt = lastPolledAt;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getApplied() {
+        return applied;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    public long getLagWarnings() {
+        return lagWarnings;
+    }
+
+    public LocalDateTime getLastPolledAt() {
+        return lastPolledAt;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.electionbackend.cache;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Creates the caches of the application and keeps track of them by name, so they can be inspected and invalidated
+ * in one place.
+ * <p>
+ * A service asks for a cache with a default maximum size, which can be overridden per cache with
+ * {@code app.cache.<name>.max-size}. Entries expire after {@code app.cache.<name>.ttl}, or after
+ * {@code app.cache.ttl} (ten minutes by default), as an ISO-8601 duration such as {@code PT10M}.
+ * <p>
+ * Every cache has a parser for the text form of its keys, so the {@link CacheInvalidationBus} can invalidate the
+ * entries that other nodes changed. Data that isn't kept in a {@link BoundedCache}, such as a search index, can be
+ * invalidated by name too by adding a listener.
+ */
+@Component
+public class CacheRegistry {
+    private final Environment environment;
+    private final Map<String, BoundedCache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final Map<String, Function<String, ?>> keyParsers = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for the CacheRegistry class.
+     *
+     * @param environment The environment the sizes and expiry times of the caches are read from.
+     */
+    public CacheRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Creates a cache and registers it under its name.
+     *
+     * @param name           The unique name of the cache.
+     * @param defaultMaxSize The maximum number of entries, unless it is configured.
+     * @param keyParser      Converts the text form of a key, {@code String.valueOf(key)}, back to the key.
+     * @return The new cache.
+     * @throws IllegalStateException If a cache with the name already exists.
+     */
+    public <K, V> BoundedCache<K, V> create(String name, int defaultMaxSize, Function<String, K> keyParser) {
+        int maxSize = environment.getProperty("app.cache." + name + ".max-size", Integer.class, defaultMaxSize);
+        String ttl = environment.getProperty("app.cache." + name + ".ttl",
+                environment.getProperty("app.cache.ttl", "PT10M"));
+
+        BoundedCache<K, V> cache = new BoundedCache<>(name, maxSize, Duration.parse(ttl));
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("A cache named " + name + " already exists");
+        }
+        keyParsers.put(name, keyParser);
+        return cache;
+    }
+
+    /**
+     * Adds a listener that is called when a key of a name is invalidated through the registry.
+     *
+     * @param name     The name the listener is invalidated by, which may also be the name of a cache.
+     * @param listener Called with the text form of the key, or with null when all values are invalidated.
+     */
+    public void addListener(String name, Consumer<String> listener) {
+        listeners.computeIfAbsent(name, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Removes a value from a cache.
+     *
+     * @param name The name of the cache.
+     * @param key  The text form of the key of the value.
+     * @return True if the cache or a listener of the name exists.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean invalidate(String name, String key) {
+        BoundedCache<Object, ?> cache = (BoundedCache<Object, ?>) caches.get(name);
+        if (cache != null) {
+            cache.invalidate(keyParsers.get(name).apply(key));
+        }
+        return notifyListeners(name, key) || cache != null;
+    }
+
+    /**
+     * Removes all values from a cache.
+     *
+     * @param name The name of the cache.
+     * @return True if the cache or a listener of the name exists.
+     */
+    public boolean invalidateAll(String name) {
+        BoundedCache<?, ?> cache = caches.get(name);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+        return notifyListeners(name, null) || cache != null;
+    }
+
+    /**
+     * Removes all values from all caches and tells all listeners.
+     */
+    public void invalidateAll() {
+        caches.values().forEach(BoundedCache::invalidateAll);
+        listeners.keySet().forEach(name -> notifyListeners(name, null));
+    }
+
+    /**
+     * Gets the statistics of all caches.
+     *
+     * @return The statistics ordered by the name of the cache.
+     */
+    public List<CacheStats> getStats() {
+        return caches.values().stream()
+                .map(BoundedCache::getStats)
+                .sorted(Comparator.comparing(CacheStats::getName))
+                .toList();
+    }
+
+    private boolean notifyListeners(String name, String key) {
+        List<Consumer<String>> nameListeners = listeners.get(name);
+        if (nameListeners == null) {
+            return false;
+        }
+        nameListeners.forEach(listener -> listener.accept(key));
+        return true;
+    }
+}
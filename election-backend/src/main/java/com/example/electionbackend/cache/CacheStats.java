@@ -0,0 +1,93 @@
+package com.example.electionbackend.cache;
+
+/**
+ * The statistics of a {@link BoundedCache} at the moment they were taken.
+ */
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long loads;
+    private final long loadNanos;
+    private final long coalescedLoads;
+
+    /**
+     * Constructor for CacheStats.
+     *
+     * @param name           - the name of the cache
+     * @param size           - the number of entries
+     * @param maxSize        - the maximum number of entries
+     * @param hits           - the number of lookups that found a value
+     * @param misses         - the number of lookups that found no value
+     * @param evictions      - the number of entries removed because the cache was full or the entry had expired
+     * @param loads          - the number of values loaded after a miss
+     * @param loadNanos      - the total time spent loading values, in nanoseconds
+     * @param coalescedLoads - the number of lookups that waited for a load of the same key instead of loading it
+     */
+    public CacheStats(String name, int size, int maxSize, long hits, long misses, long evictions, long loads,
+                      long loadNanos, long coalescedLoads) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.loads = loads;
+        this.loadNanos = loadNanos;
+        this.coalescedLoads = coalescedLoads;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getCoalescedLoads() {
+        return coalescedLoads;
+    }
+
+    /**
+     * Gets the share of the lookups that found a value.
+     *
+     * @return - the hit rate between 0 and 1, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the average time it took to load a value.
+     *
+     * @return - the average load time in milliseconds, or 0 if no values were loaded
+     */
+    public double getAverageLoadMillis() {
+        return loads == 0 ? 0 : loadNanos / 1_000_000.0 / loads;
+    }
+}
@@ -7,6 +7,10 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class APIConfig implements WebMvcConfigurer {
+    /**
+     * Response header with the total number of results of a paged list endpoint.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
 
     @Value("${app.frontend.url}")
     private String frontendURL;
@@ -16,6 +20,7 @@ public class APIConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOrigins(frontendURL) // replace when deployed
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
+                .exposedHeaders(TOTAL_COUNT_HEADER)
                 .allowCredentials(true);
     }
 }
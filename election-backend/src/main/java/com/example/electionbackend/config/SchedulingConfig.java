@@ -0,0 +1,12 @@
+package com.example.electionbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled tasks of the application, such as polling the cache invalidations of other nodes.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
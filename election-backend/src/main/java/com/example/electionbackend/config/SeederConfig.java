@@ -1,34 +1,46 @@
 package com.example.electionbackend.config;
 
-import com.example.electionbackend.seeder.ElectionDefinitionSeeder;
+import com.example.electionbackend.readmodel.ElectionReadModel;
+import com.example.electionbackend.seeder.ElectionSeedPipeline;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 public class SeederConfig {
 
-    private final ElectionDefinitionSeeder electionDefinitionSeeder;
+    private final ElectionSeedPipeline electionSeedPipeline;
+    private final ElectionReadModel electionReadModel;
+
+    @Value("${app.seeder.years:2021,2023,2025}")
+    private List<Integer> electionYears;
 
     /**
      * Constructor method
-     * @param electionDefinitionSeeder ElectionSeeder
+     * @param electionSeedPipeline ElectionSeedPipeline
+     * @param electionReadModel ElectionReadModel
      */
-    public SeederConfig(ElectionDefinitionSeeder electionDefinitionSeeder) {
-        this.electionDefinitionSeeder = electionDefinitionSeeder;
+    public SeederConfig(ElectionSeedPipeline electionSeedPipeline, ElectionReadModel electionReadModel) {
+        this.electionSeedPipeline = electionSeedPipeline;
+        this.electionReadModel = electionReadModel;
     }
 
     /**
      * Runs after Spring Boot startup, ensuring JPA repositories are ready.
-     * Seeds election data for the given years.
+     * Seeds election data for the given years, fetching the next years while the current one is persisted.
+     * The elections that were unchanged are loaded into the read model afterwards.
      */
     @Bean
     public CommandLineRunner runSeeder() {
         return args -> {
-            int[] electionYears = {2021, 2023, 2025}; // add more years if needed
+            electionSeedPipeline.run(electionYears); // add more years with app.seeder.years
             for (int year : electionYears) {
-                System.out.println("Running election seeder for year: " + year);
-                electionDefinitionSeeder.seedElectionDefinition(year);
+                if (electionReadModel.get(year) == null) {
+                    electionReadModel.publish("TK" + year);
+                }
             }
         };
     }
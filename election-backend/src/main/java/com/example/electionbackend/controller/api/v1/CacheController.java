@@ -0,0 +1,56 @@
+package com.example.electionbackend.controller.api.v1;
+
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheInvalidationStats;
+import com.example.electionbackend.cache.CacheRegistry;
+import com.example.electionbackend.cache.CacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for the statistics of the caches of the application.
+ */
+@RestController
+@RequestMapping("/v1/caches")
+public class CacheController {
+    private final CacheRegistry cacheRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * Constructor for CacheController.
+     *
+     * @param cacheRegistry        - the registry of the caches
+     * @param cacheInvalidationBus - the bus that invalidates the caches of the other nodes
+     */
+    public CacheController(CacheRegistry cacheRegistry, CacheInvalidationBus cacheInvalidationBus) {
+        this.cacheRegistry = cacheRegistry;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    /**
+     * Get the statistics of all caches
+     *
+     * @return - the size, hits, misses, evictions and load times of every cache
+     */
+    @Operation(summary = "Get the statistics of all caches")
+    @GetMapping
+    public ResponseEntity<List<CacheStats>> getStats() {
+        return ResponseEntity.ok(cacheRegistry.getStats());
+    }
+
+    /**
+     * Get the statistics of the cache invalidations of this node
+     *
+     * @return - the number of published and applied invalidations and the lag of the applied invalidations
+     */
+    @Operation(summary = "Get the statistics of the cache invalidations of this node")
+    @GetMapping("/invalidations")
+    public ResponseEntity<CacheInvalidationStats> getInvalidationStats() {
+        return ResponseEntity.ok(cacheInvalidationBus.getStats());
+    }
+}
@@ -30,10 +30,10 @@ public class PartyController {
     }
 
     /**
-     * Get paged parties, optionally filtered by election.
+     * Get paged parties of an election.
      *
      * @param pageable   Spring Data pagination & sorting params (page, size, sort)
-     * @param electionId optional election identifier to filter parties
+     * @param electionId the election identifier to filter parties, without it the list is empty
      * @return a page of parties
      */
     @GetMapping
@@ -1,11 +1,13 @@
 package com.example.electionbackend.controller.api.v1;
 
+import com.example.electionbackend.config.APIConfig;
 import com.example.electionbackend.dto.PartyVoteDTO;
 import com.example.electionbackend.dto.PartyVoteDetailDTO;
 import com.example.electionbackend.model.PartyVote;
 import com.example.electionbackend.service.PartyVoteService;
 import com.example.electionbackend.type.RegionType;
 import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
@@ -35,7 +37,9 @@ public class PartyVoteController {
      * Get Party Votes by Party ID
      *
      * @param partyId - the ID of the Party
-     * @return - the list of PartyVote associated with the Party ID
+     * @param lastVotes - the votes of the last vote of the previous page, continues after it instead of using the page
+     * @param lastId    - the ID of the last vote of the previous page, breaks ties between equal votes
+     * @return - the list of PartyVote associated with the Party ID, the total number of votes is in the X-Total-Count header
      */
     @Operation(summary = "Get the party votes by party id")
     @GetMapping("/party/{partyId}")
@@ -46,16 +50,20 @@ public class PartyVoteController {
                     size = 500,
                     sort = "votes",
                     direction = Sort.Direction.DESC
-            ) Pageable pageable) {
-        List<PartyVoteDetailDTO> votes = partyVoteService.getByPartyId(partyId, pageable);
-        return ResponseEntity.ok(votes);
+            ) Pageable pageable,
+            @RequestParam(required = false) Integer lastVotes,
+            @RequestParam(required = false) Integer lastId) {
+        Page<PartyVoteDetailDTO> votes = partyVoteService.getByPartyId(partyId, pageable, lastVotes, lastId);
+        return withTotalCount(votes);
     }
 
     /**
      * Get Party Votes by Region Type
      *
      * @param regionType - the type of the Region
-     * @return - the list of PartyVote associated with the Region Type
+     * @param lastVotes - the votes of the last vote of the previous page, continues after it instead of using the page
+     * @param lastId    - the ID of the last vote of the previous page, breaks ties between equal votes
+     * @return - the list of PartyVote associated with the Region Type, the total number of votes is in the X-Total-Count header
      */
     @Operation(summary = "Get the party votes by region type")
     @GetMapping("/region/{regionType}")
@@ -66,9 +74,11 @@ public class PartyVoteController {
                     size = 500,
                     sort = "votes",
                     direction = Sort.Direction.DESC
-            ) Pageable pageable) {
-        List<PartyVoteDetailDTO> votes = partyVoteService.getByRegionType(regionType, pageable);
-        return ResponseEntity.ok(votes);
+            ) Pageable pageable,
+            @RequestParam(required = false) Integer lastVotes,
+            @RequestParam(required = false) Integer lastId) {
+        Page<PartyVoteDetailDTO> votes = partyVoteService.getByRegionType(regionType, pageable, lastVotes, lastId);
+        return withTotalCount(votes);
     }
 
     /**
@@ -76,7 +86,9 @@ public class PartyVoteController {
      *
      * @param regionType - the type of the Region (e.g., MUNICIPALITY, NATIONAL)
      * @param regionId   - the ID of the Region
-     * @return - the list of PartyVote associated with the Region Type and ID
+     * @param lastVotes - the votes of the last vote of the previous page, continues after it instead of using the page
+     * @param lastId    - the ID of the last vote of the previous page, breaks ties between equal votes
+     * @return - the list of PartyVote associated with the Region Type and ID, the total number of votes is in the X-Total-Count header
      */
     @Operation(summary = "Get the party votes by region type and region id")
     @GetMapping("/region/{regionType}/{regionId}")
@@ -88,9 +100,12 @@ public class PartyVoteController {
                     size = 500,
                     sort = "votes",
                     direction = Sort.Direction.DESC
-            ) Pageable pageable) {
-        List<PartyVoteDetailDTO> votes = partyVoteService.getByRegionTypeAndId(regionType, regionId, pageable);
-        return ResponseEntity.ok(votes);
+            ) Pageable pageable,
+            @RequestParam(required = false) Integer lastVotes,
+            @RequestParam(required = false) Integer lastId) {
+        Page<PartyVoteDetailDTO> votes = partyVoteService.getByRegionTypeAndId(
+                regionType, regionId, pageable, lastVotes, lastId);
+        return withTotalCount(votes);
     }
 
     /**
@@ -99,7 +114,9 @@ public class PartyVoteController {
      * @param regionType - the type of the Region (e.g., MUNICIPALITY, NATIONAL)
      * @param regionId   - the ID of the Region
      * @param partyId    - the ID of the Party
-     * @return - the list of PartyVote associated with the Region Type, ID and Party
+     * @param lastVotes - the votes of the last vote of the previous page, continues after it instead of using the page
+     * @param lastId    - the ID of the last vote of the previous page, breaks ties between equal votes
+     * @return - the list of PartyVote associated with the Region Type, ID and Party, the total number of votes is in the X-Total-Count header
      */
     @GetMapping("/region/{regionType}/{regionId}/party/{partyId}")
     public ResponseEntity<List<PartyVoteDetailDTO>> getPartyVotesByRegionTypeAndIdAndPartyId(
@@ -111,10 +128,12 @@ public class PartyVoteController {
                     size = 500,
                     sort = "votes",
                     direction = Sort.Direction.DESC
-            ) Pageable pageable) {
-        List<PartyVoteDetailDTO> votes = partyVoteService.getByRegionTypeAndIdAndPartyId(
-                regionType, regionId, partyId, pageable);
-        return ResponseEntity.ok(votes);
+            ) Pageable pageable,
+            @RequestParam(required = false) Integer lastVotes,
+            @RequestParam(required = false) Integer lastId) {
+        Page<PartyVoteDetailDTO> votes = partyVoteService.getByRegionTypeAndIdAndPartyId(
+                regionType, regionId, partyId, pageable, lastVotes, lastId);
+        return withTotalCount(votes);
     }
 
     /**
@@ -171,4 +190,16 @@ public class PartyVoteController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Returns the votes of a page, with the total number of votes in the X-Total-Count header
+     *
+     * @param votes - the page of votes
+     * @return - ResponseEntity with the votes of the page
+     */
+    private ResponseEntity<List<PartyVoteDetailDTO>> withTotalCount(Page<PartyVoteDetailDTO> votes) {
+        return ResponseEntity.ok()
+                .header(APIConfig.TOTAL_COUNT_HEADER, String.valueOf(votes.getTotalElements()))
+                .body(votes.getContent());
+    }
 }
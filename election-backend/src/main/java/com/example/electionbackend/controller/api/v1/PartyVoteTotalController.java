@@ -0,0 +1,81 @@
+package com.example.electionbackend.controller.api.v1;
+
+import com.example.electionbackend.config.APIConfig;
+import com.example.electionbackend.dto.PartyVoteTotalDTO;
+import com.example.electionbackend.service.PartyVoteTotalService;
+import com.example.electionbackend.type.RegionType;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller for the precomputed party vote totals per region.
+ */
+@RestController
+@RequestMapping("/v1/partyVoteTotals")
+public class PartyVoteTotalController {
+    private final PartyVoteTotalService partyVoteTotalService;
+
+    /**
+     * Constructor for PartyVoteTotalController.
+     *
+     * @param partyVoteTotalService - the party vote total service
+     */
+    public PartyVoteTotalController(PartyVoteTotalService partyVoteTotalService) {
+        this.partyVoteTotalService = partyVoteTotalService;
+    }
+
+    /**
+     * Get the party vote totals of all regions of a type
+     *
+     * @param regionType - the type of the regions (NATIONAL, CONSTITUENCY or MUNICIPALITY)
+     * @param year       - the year of the election
+     * @return - the totals ordered by region and rank, the total number of totals is in the X-Total-Count header
+     */
+    @Operation(summary = "Get the party vote totals of all regions of a type")
+    @GetMapping("/{regionType}")
+    public ResponseEntity<List<PartyVoteTotalDTO>> getByRegionType(
+            @PathVariable RegionType regionType,
+            @PageableDefault(page = 0, size = 500) Pageable pageable,
+            @RequestParam(defaultValue = "2025") int year) {
+        Page<PartyVoteTotalDTO> totals = partyVoteTotalService.getByRegionType(year, regionType, pageable);
+        return ResponseEntity.ok()
+                .header(APIConfig.TOTAL_COUNT_HEADER, String.valueOf(totals.getTotalElements()))
+                .body(totals.getContent());
+    }
+
+    /**
+     * Get the party vote totals of a single region
+     *
+     * @param regionType - the type of the region (NATIONAL, CONSTITUENCY or MUNICIPALITY)
+     * @param regionId   - the ID of the region
+     * @param year       - the year of the election
+     * @return - the totals of the parties in the region, ordered by rank
+     */
+    @Operation(summary = "Get the party vote totals of a region")
+    @GetMapping("/{regionType}/{regionId}")
+    public ResponseEntity<List<PartyVoteTotalDTO>> getByRegion(
+            @PathVariable RegionType regionType,
+            @PathVariable int regionId,
+            @RequestParam(defaultValue = "2025") int year) {
+        return ResponseEntity.ok(partyVoteTotalService.getByRegion(year, regionType, regionId));
+    }
+
+    /**
+     * Rebuild the party vote totals of an election from its party votes
+     *
+     * @param year - the year of the election
+     * @return - ResponseEntity with no content
+     */
+    @Operation(summary = "Rebuild the party vote totals of an election")
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild(@RequestParam(defaultValue = "2025") int year) {
+        partyVoteTotalService.rebuild("TK" + year);
+        return ResponseEntity.noContent().build();
+    }
+}
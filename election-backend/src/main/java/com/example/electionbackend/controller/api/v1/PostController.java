@@ -1,20 +1,26 @@
 package com.example.electionbackend.controller.api.v1;
 
+import com.example.electionbackend.config.APIConfig;
 import com.example.electionbackend.dto.PageResponse;
 import com.example.electionbackend.dto.PostDTO;
 import com.example.electionbackend.dto.PostDetailDTO;
+import com.example.electionbackend.exception.NotLoggedInException;
 import com.example.electionbackend.interfaces.IPostService;
+import com.example.electionbackend.model.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Controller for managing posts.
  */
@@ -33,21 +39,47 @@ public class PostController {
     }
 
     /**
-     * Get all posts
+     * Get all posts. Without a sort the posts are newest first and the results of a search are ordered by relevance,
+     * a client that sorts on createdAt gets the results of a search by date.
      *
      * @return list of PostDetailDTOs
      */
     @Operation(summary = "Get all posts")
     @GetMapping
     public ResponseEntity<PageResponse<PostDetailDTO>> getAll(
-            @PageableDefault(
-                    sort = "createdAt",
-                    direction = Sort.Direction.DESC) Pageable pageable,
+            @PageableDefault Pageable pageable,
             @RequestParam(required = false) String query) {
         Page<PostDetailDTO> posts = postService.getAll(pageable, query);
         return ResponseEntity.ok(new PageResponse<>(posts));
     }
 
+    /**
+     * Get a page of the post feed, newest first. The next page is requested with the createdAt and ID of the last
+     * post of the page, without a total count unless it is asked for.
+     *
+     * @param size          - the number of posts, at most 100
+     * @param lastCreatedAt - the createdAt of the last post of the previous page, continues after it
+     * @param lastId        - the ID of the last post of the previous page, breaks ties between equal createdAt values
+     * @param includeCount  - whether to add the approximate number of posts in the X-Total-Count header
+     * @return - list of PostDetailDTOs
+     */
+    @Operation(summary = "Get a page of the post feed")
+    @GetMapping("/feed")
+    public ResponseEntity<List<PostDetailDTO>> getFeed(
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime lastCreatedAt,
+            @RequestParam(required = false) Integer lastId,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        List<PostDetailDTO> posts = postService.getFeed(size, lastCreatedAt, lastId);
+        if (!includeCount) {
+            return ResponseEntity.ok(posts);
+        }
+        return ResponseEntity.ok()
+                .header(APIConfig.TOTAL_COUNT_HEADER, String.valueOf(postService.getApproximateCount()))
+                .body(posts);
+    }
+
     /**
      * Creates a new post.
      *
@@ -100,4 +132,73 @@ public class PostController {
         return ResponseEntity.ok(post);
     }
 
+    /**
+     * Likes a post as the logged in user. Liking a post that the user already likes doesn't change its like count.
+     *
+     * @param id   The ID of the post to like.
+     * @param user The logged in user, from the session.
+     * @return A ResponseEntity containing the post with its new like count and HTTP 200 status.
+     */
+    @Operation(
+            summary = "Like a post",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Post liked",
+                            content = @Content(schema = @Schema(implementation = PostDetailDTO.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Not logged in"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Post not found"
+                    )
+            }
+    )
+    @PostMapping("/{id}/likes")
+    public ResponseEntity<PostDetailDTO> like(@PathVariable int id,
+                                              @SessionAttribute(name = "user", required = false) User user) {
+        return ResponseEntity.ok(postService.like(id, requireUser(user).getId()));
+    }
+
+    /**
+     * Removes the like of the logged in user from a post. The likes of other users are kept.
+     *
+     * @param id   The ID of the post to unlike.
+     * @param user The logged in user, from the session.
+     * @return A ResponseEntity containing the post with its new like count and HTTP 200 status.
+     */
+    @Operation(
+            summary = "Unlike a post",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Like removed",
+                            content = @Content(schema = @Schema(implementation = PostDetailDTO.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Not logged in"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Post not found"
+                    )
+            }
+    )
+    @DeleteMapping("/{id}/likes")
+    public ResponseEntity<PostDetailDTO> unlike(@PathVariable int id,
+                                                @SessionAttribute(name = "user", required = false) User user) {
+        return ResponseEntity.ok(postService.unlike(id, requireUser(user).getId()));
+    }
+
+    private User requireUser(User user) {
+        if (user == null) {
+            throw new NotLoggedInException();
+        }
+        return user;
+    }
+
 }
@@ -0,0 +1,288 @@
+package com.example.electionbackend.counter;
+
+import com.example.electionbackend.dto.PostCountsDTO;
+import com.example.electionbackend.model.Post;
+import com.example.electionbackend.repository.interfaces.PostCounterRepository;
+import com.example.electionbackend.type.PostCounter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the likes and comments of the posts in memory and writes them behind to the {@code post} table.
+ * <p>
+ * A like only adds to a striped {@link LongAdder} of the post, so concurrent likes of a popular post don't contend
+ * on one lock, neither in the JVM nor on the row in the database. Every {@code app.posts.counters.flush-interval}
+ * (one second by default) the pending deltas of all posts are added to the database in one batch, one
+ * {@code UPDATE} per changed post. The live count of a post is the count that was last read from the database plus
+ * the delta of this node that wasn't flushed yet.
+ * <p>
+ * The counts that were read from the database are refreshed every {@code app.posts.counters.refresh-interval}, so
+ * the likes that other nodes flushed show up within that interval. Pending deltas are flushed when the application
+ * stops; the deltas of a node that crashes are lost, at most one flush interval of likes.
+ * <p>
+ * Only the posts that are in use are kept: a post without pending deltas that hasn't been read for
+ * {@code app.posts.counters.idle} (ten minutes by default) is dropped by the next refresh, and so are the least
+ * recently read posts beyond {@code app.posts.counters.max-size}. A refresh only reads the posts that are kept, and a
+ * dropped post is read again when it is needed. Counts never drop below zero, neither in memory nor in the database,
+ * so concurrent unlikes of a post with one like can't make its count negative.
+ */
+@Component
+public class PostCounters {
+    private static final int BATCH_SIZE = 1_000;
+
+    private final PostCounterRepository postCounterRepository;
+    private final int maxSize;
+    private final long idleNanos;
+    private final Map<Integer, Counts> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for the PostCounters class.
+     *
+     * @param postCounterRepository The repository the counts are read from and flushed to.
+     * @param maxSize               The number of posts that are kept, more when they have pending deltas.
+     * @param idle                  How long a post is kept after it was last read, as an ISO-8601 duration.
+     */
+    public PostCounters(PostCounterRepository postCounterRepository,
+                        @Value("${app.posts.counters.max-size:10000}") int maxSize,
+                        @Value("${app.posts.counters.idle:PT10M}") String idle) {
+        this.postCounterRepository = postCounterRepository;
+        this.maxSize = Math.max(1, maxSize);
+        this.idleNanos = Duration.parse(idle).toNanos();
+    }
+
+    /**
+     * Remembers the counts of a post that was read from the database, so they don't have to be read again. The
+     * counts of a post that is already known are kept, they are refreshed periodically. When the maximum number of
+     * posts is kept already the counts aren't remembered, they are read when the post is shown.
+     *
+     * @param post The post.
+     */
+    public void seed(Post post) {
+        if (counts.size() < maxSize) {
+            counts.putIfAbsent(post.getId(), new Counts(post.getLikeCount(), post.getCommentCount()));
+        }
+    }
+
+    /**
+     * Adds to a counter of a post. The change is written to the database by the next flush.
+     *
+     * @param postId  The ID of the post.
+     * @param counter The counter.
+     * @param delta   The change, negative to subtract.
+     */
+    public void add(int postId, PostCounter counter, int delta) {
+        while (true) {
+            Counts postCounts = get(postId);
+            if (postCounts == null) {
+                return;
+            }
+            postCounts.pending(counter).add(delta);
+            if (!postCounts.dropped) {
+                return;
+            }
+            // The post was dropped while the delta was added, add it to the counts that replace them instead
+            postCounts.pending(counter).add(-delta);
+        }
+    }
+
+    /**
+     * Gets the live value of a counter of a post, including the changes that weren't flushed yet.
+     *
+     * @param postId  The ID of the post.
+     * @param counter The counter.
+     * @return The value of the counter, 0 if the post doesn't exist.
+     */
+    public int getCount(int postId, PostCounter counter) {
+        Counts postCounts = get(postId);
+        if (postCounts == null) {
+            return 0;
+        }
+        long persisted = counter == PostCounter.LIKES ? postCounts.likes : postCounts.comments;
+        return (int) Math.max(0, persisted + postCounts.pending(counter).sum());
+    }
+
+    /**
+     * Adds the pending changes of all posts to the database in one batch. The flushed deltas are subtracted from the
+     * pending deltas instead of resetting them, so changes made during the flush are kept for the next one. When
+     * the batch fails the deltas stay pending and are flushed again.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.counters.flush-interval:PT1S}")
+    public synchronized void flush() {
+        List<PostCountsDTO> deltas = new ArrayList<>();
+        counts.forEach((id, postCounts) -> {
+            int likes = (int) postCounts.pendingLikes.sum();
+            int comments = (int) postCounts.pendingComments.sum();
+            if (likes != 0 || comments != 0) {
+                deltas.add(new PostCountsDTO(id, likes, comments));
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            postCounterRepository.addCounts(deltas);
+        } catch (RuntimeException e) {
+            System.out.println("Flushing the counts of " + deltas.size() + " posts failed: " + e.getMessage());
+            return;
+        }
+
+        Map<Integer, PostCountsDTO> persisted = read(deltas.stream().map(PostCountsDTO::getPostId).toList());
+        for (PostCountsDTO delta : deltas) {
+            // The flushed delta is part of the persisted count now, it is subtracted after that count is set
+            Counts postCounts = counts.get(delta.getPostId());
+            boolean exists = update(delta.getPostId(), postCounts, persisted);
+            postCounts.pendingLikes.add(-delta.getLikeCount());
+            postCounts.pendingComments.add(-delta.getCommentCount());
+            if (!exists && postCounts.isFlushed()) {
+                counts.remove(delta.getPostId(), postCounts);
+            }
+        }
+    }
+
+    /**
+     * Drops the posts that aren't in use anymore, and reads the counts of the kept posts from the database again to
+     * pick up the changes of other nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.counters.refresh-interval:PT30S}")
+    public synchronized void refresh() {
+        evict();
+        List<Integer> ids = new ArrayList<>(counts.keySet());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Integer> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            Map<Integer, PostCountsDTO> persisted = read(batch);
+            for (Integer id : batch) {
+                Counts postCounts = counts.get(id);
+                if (postCounts != null && !update(id, postCounts, persisted) && postCounts.isFlushed()) {
+                    counts.remove(id, postCounts);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of posts whose counts are kept.
+     *
+     * @return The number of posts.
+     */
+    public int size() {
+        return counts.size();
+    }
+
+    /**
+     * Flushes the pending changes before the application stops.
+     */
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Gets the counts of a post, reading them from the database when the post isn't known yet.
+     */
+    private Counts get(int postId) {
+        Counts postCounts = counts.get(postId);
+        if (postCounts != null) {
+            postCounts.lastRead = System.nanoTime();
+            return postCounts;
+        }
+        PostCountsDTO persisted = read(List.of(postId)).get(postId);
+        if (persisted == null) {
+            return null;
+        }
+        return counts.computeIfAbsent(postId, id -> new Counts(persisted.getLikeCount(), persisted.getCommentCount()));
+    }
+
+    /**
+     * Drops the posts without pending deltas that weren't read within the idle time, and then the least recently
+     * read ones until at most the maximum number of posts is kept.
+     */
+    private void evict() {
+        long idleSince = System.nanoTime() - idleNanos;
+        counts.forEach((id, postCounts) -> {
+            if (postCounts.lastRead - idleSince <= 0) {
+                drop(id, postCounts);
+            }
+        });
+
+        int excess = counts.size() - maxSize;
+        if (excess > 0) {
+            counts.entrySet()
+                    .stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastRead))
+                    .limit(excess)
+                    .toList()
+                    .forEach(entry -> drop(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Drops a post unless it has pending deltas. The post is marked as dropped before the deltas are checked, so a
+     * delta that is added at the same time is either seen here or moved to new counts by {@link #add}.
+     */
+    private void drop(int postId, Counts postCounts) {
+        postCounts.dropped = true;
+        if (postCounts.isFlushed()) {
+            counts.remove(postId, postCounts);
+        } else {
+            postCounts.dropped = false;
+        }
+    }
+
+    private Map<Integer, PostCountsDTO> read(List<Integer> postIds) {
+        Map<Integer, PostCountsDTO> persisted = new HashMap<>();
+        postCounterRepository.findCounts(postIds).forEach(row -> persisted.put(row.getPostId(), row));
+        return persisted;
+    }
+
+    /**
+     * Replaces the persisted counts of a post with the counts that were read.
+     *
+     * @return False if the post was deleted.
+     */
+    private boolean update(int postId, Counts postCounts, Map<Integer, PostCountsDTO> persisted) {
+        PostCountsDTO row = persisted.get(postId);
+        if (row == null) {
+            return false;
+        }
+        postCounts.likes = row.getLikeCount();
+        postCounts.comments = row.getCommentCount();
+        return true;
+    }
+
+    /**
+     * The counts of a post: the values last read from the database and the deltas that weren't flushed yet.
+     */
+    private static final class Counts {
+        private volatile int likes;
+        private volatile int comments;
+        private final LongAdder pendingLikes = new LongAdder();
+        private final LongAdder pendingComments = new LongAdder();
+        private volatile long lastRead = System.nanoTime();
+        private volatile boolean dropped;
+
+        private Counts(int likes, int comments) {
+            this.likes = likes;
+            this.comments = comments;
+        }
+
+        private boolean isFlushed() {
+            return pendingLikes.sum() == 0 && pendingComments.sum() == 0;
+        }
+
+        private LongAdder pending(PostCounter counter) {
+            return counter == PostCounter.LIKES ? pendingLikes : pendingComments;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.electionbackend.dto;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object representing the generated ids of an election that was inserted, so its constituencies can be
+ * added without reading them from the database again.
+ */
+public class InsertedElectionDTO {
+    private final String electionId;
+    private final Integer stateId;
+    private final Map<Integer, Integer> partyIds;
+
+    /**
+     * Parameterized constructor for InsertedElectionDTO.
+     *
+     * @param electionId - the ID of the election
+     * @param stateId    - the generated ID of the state, or null if the election has no state
+     * @param partyIds   - the generated ID of each party by the ID of the party in the election
+     */
+    public InsertedElectionDTO(String electionId, Integer stateId, Map<Integer, Integer> partyIds) {
+        this.electionId = electionId;
+        this.stateId = stateId;
+        this.partyIds = Map.copyOf(partyIds);
+    }
+
+    public String getElectionId() {
+        return electionId;
+    }
+
+    public Integer getStateId() {
+        return stateId;
+    }
+
+    public Map<Integer, Integer> getPartyIds() {
+        return partyIds;
+    }
+}
@@ -8,6 +8,7 @@ import com.example.electionbackend.type.RegionType;
  * Extends PartyVoteDTO to include additional details.
  */
 public class PartyVoteDetailDTO extends PartyVoteDTO {
+    private int id;
     private String partyName;
     private String regionName;
     private int seats;
@@ -36,6 +37,42 @@ public class PartyVoteDetailDTO extends PartyVoteDTO {
         this.seats = seats;
     }
 
+    /**
+     * Parameterized constructor for PartyVoteDetailDTO, used to project the details of a vote in a query.
+     *
+     * @param id         - the ID of the party vote
+     * @param partyId    - the ID of the party
+     * @param votes      - the number of votes received
+     * @param regionType - the type of the region
+     * @param regionId   - the ID of the region
+     * @param partyName  - the name of the party
+     * @param regionName - the name of the region
+     * @param seats      - the number of seats of the party
+     */
+    public PartyVoteDetailDTO(int id, int partyId, int votes, RegionType regionType, int regionId, String partyName,
+                              String regionName, int seats) {
+        this(partyId, votes, regionType, regionId, partyName, regionName, seats);
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the party vote, used with the votes as the position for keyset pagination.
+     *
+     * @return the ID of the party vote
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the party vote.
+     *
+     * @param id the ID of the party vote
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Gets the party name.
      *
@@ -0,0 +1,101 @@
+package com.example.electionbackend.dto;
+
+import com.example.electionbackend.type.RegionType;
+
+/**
+ * Data Transfer Object representing the precomputed total of the votes of a party in a region,
+ * with its share of the votes and its rank in the region.
+ */
+public class PartyVoteTotalDTO {
+    private RegionType regionType;
+    private int regionId;
+    private int partyId;
+    private String partyName;
+    private int votes;
+    private double share;
+    private int rank;
+
+    /**
+     * Default constructor.
+     */
+    public PartyVoteTotalDTO() {
+    }
+
+    /**
+     * Parameterized constructor for PartyVoteTotalDTO.
+     *
+     * @param regionType - the type of the region
+     * @param regionId   - the ID of the region
+     * @param partyId    - the ID of the party
+     * @param partyName  - the name of the party
+     * @param votes      - the total number of votes of the party in the region
+     * @param share      - the share of the votes in the region, between 0 and 1
+     * @param rank       - the rank of the party in the region, starting at 1
+     */
+    public PartyVoteTotalDTO(RegionType regionType, int regionId, int partyId, String partyName, int votes,
+                             double share, int rank) {
+        this.regionType = regionType;
+        this.regionId = regionId;
+        this.partyId = partyId;
+        this.partyName = partyName;
+        this.votes = votes;
+        this.share = share;
+        this.rank = rank;
+    }
+
+    public RegionType getRegionType() {
+        return regionType;
+    }
+
+    public void setRegionType(RegionType regionType) {
+        this.regionType = regionType;
+    }
+
+    public int getRegionId() {
+        return regionId;
+    }
+
+    public void setRegionId(int regionId) {
+        this.regionId = regionId;
+    }
+
+    public int getPartyId() {
+        return partyId;
+    }
+
+    public void setPartyId(int partyId) {
+        this.partyId = partyId;
+    }
+
+    public String getPartyName() {
+        return partyName;
+    }
+
+    public void setPartyName(String partyName) {
+        this.partyName = partyName;
+    }
+
+    public int getVotes() {
+        return votes;
+    }
+
+    public void setVotes(int votes) {
+        this.votes = votes;
+    }
+
+    public double getShare() {
+        return share;
+    }
+
+    public void setShare(double share) {
+        this.share = share;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.electionbackend.dto;
+
+/**
+ * Data Transfer Object representing the like and comment counts of a post, or the changes to them.
+ */
+public class PostCountsDTO {
+    private int postId;
+    private int likeCount;
+    private int commentCount;
+
+    /**
+     * Default constructor.
+     */
+    public PostCountsDTO() {
+    }
+
+    /**
+     * Parameterized constructor for PostCountsDTO.
+     *
+     * @param postId       - the ID of the post
+     * @param likeCount    - the number of likes of the post
+     * @param commentCount - the number of comments on the post
+     */
+    public PostCountsDTO(int postId, int likeCount, int commentCount) {
+        this.postId = postId;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+    }
+
+    public int getPostId() {
+        return postId;
+    }
+
+    public void setPostId(int postId) {
+        this.postId = postId;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+}
@@ -65,6 +65,21 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    /**
+     * Handles NotLoggedInException.
+     * <p>
+     * Thrown when an action needs a logged in user, such as liking a post.
+     *
+     * @param ex the thrown NotLoggedInException
+     * @return HTTP 401 Unauthorized with an explanation message
+     */
+    @ExceptionHandler(NotLoggedInException.class)
+    public ResponseEntity<Object> handleNotLoggedIn(NotLoggedInException ex) {
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ex.getMessage());
+    }
+
     /**
      * Handles InvalidSeachQueryException.
      *
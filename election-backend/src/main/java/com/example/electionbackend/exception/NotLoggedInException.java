@@ -0,0 +1,10 @@
+package com.example.electionbackend.exception;
+
+/**
+ * Exception thrown when an action needs a logged in user and the session has none.
+ */
+public class NotLoggedInException extends RuntimeException {
+    public NotLoggedInException() {
+        super("You need to be logged in");
+    }
+}
@@ -4,6 +4,7 @@ import com.example.electionbackend.dto.PartyVoteDTO;
 import com.example.electionbackend.dto.PartyVoteDetailDTO;
 import com.example.electionbackend.model.PartyVote;
 import com.example.electionbackend.type.RegionType;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -12,10 +13,12 @@ import java.util.List;
  * Interface for PartyVote service operations.
  */
 public interface IPartyVoteService {
-    List<PartyVoteDetailDTO> getByPartyId(int partyId, Pageable pageable);
-    List<PartyVoteDetailDTO> getByRegionType(RegionType regionType, Pageable pageable);
-    List<PartyVoteDetailDTO> getByRegionTypeAndId(RegionType regionType, String regionId, Pageable pageable);
-    List<PartyVoteDetailDTO> getByRegionTypeAndIdAndPartyId(RegionType regionType, String regionId, int partyId, Pageable pageable);
+    Page<PartyVoteDetailDTO> getByPartyId(int partyId, Pageable pageable, Integer lastVotes, Integer lastId);
+    Page<PartyVoteDetailDTO> getByRegionType(RegionType regionType, Pageable pageable, Integer lastVotes, Integer lastId);
+    Page<PartyVoteDetailDTO> getByRegionTypeAndId(RegionType regionType, String regionId, Pageable pageable,
+                                                  Integer lastVotes, Integer lastId);
+    Page<PartyVoteDetailDTO> getByRegionTypeAndIdAndPartyId(RegionType regionType, String regionId, int partyId,
+                                                            Pageable pageable, Integer lastVotes, Integer lastId);
     PartyVote create(PartyVote partyVote);
     PartyVote update(PartyVote partyVote);
     void delete(int id);
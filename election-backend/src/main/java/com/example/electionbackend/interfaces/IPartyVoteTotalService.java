@@ -0,0 +1,21 @@
+package com.example.electionbackend.interfaces;
+
+import com.example.electionbackend.dto.PartyVoteTotalDTO;
+import com.example.electionbackend.model.PartyVote;
+import com.example.electionbackend.type.RegionType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Interface for the precomputed party vote totals service operations.
+ */
+public interface IPartyVoteTotalService {
+    Page<PartyVoteTotalDTO> getByRegionType(int year, RegionType regionType, Pageable pageable);
+    List<PartyVoteTotalDTO> getByRegion(int year, RegionType regionType, int regionId);
+    void rebuild(String electionId);
+    void add(PartyVote vote);
+    void remove(PartyVote vote);
+    void replace(PartyVote old, PartyVote updated);
+}
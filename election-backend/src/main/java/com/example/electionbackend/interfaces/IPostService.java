@@ -6,12 +6,19 @@ import com.example.electionbackend.model.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Service interface for managing Post entities.
  */
 public interface IPostService {
     PostDetailDTO getById(int id);
+    PostDetailDTO like(int id, int userId);
+    PostDetailDTO unlike(int id, int userId);
     Page<PostDetailDTO> getAll(Pageable pageable, String query);
+    List<PostDetailDTO> getFeed(int size, LocalDateTime lastCreatedAt, Integer lastId);
+    long getApproximateCount();
     PostDTO create(PostDTO postDTO);
     Post update(Post postDTO);
     void delete(int id);
@@ -1,7 +1,6 @@
 package com.example.electionbackend.mapper;
 
 import com.example.electionbackend.dto.PartyVoteDTO;
-import com.example.electionbackend.dto.PartyVoteDetailDTO;
 import com.example.electionbackend.model.Election;
 import com.example.electionbackend.model.Party;
 import com.example.electionbackend.model.PartyVote;
@@ -51,29 +50,4 @@ public class PartyVoteMapper {
         );
         return dto;
     }
-
-    /**
-     * Convert to PartyVoteDetailDTO
-     *
-     * @param partyVote  - the PartyVote entity
-     * @param regionName - the name of the region
-     * @param partyName  - the name of the party
-     * @return - the PartyVoteDetailDTO
-     */
-    public PartyVoteDetailDTO toPartyVoteDetailDTO(
-            PartyVote partyVote,
-            String regionName,
-            String partyName,
-            int seats
-    ) {
-        return new PartyVoteDetailDTO(
-                partyVote.getPartyId(),
-                partyVote.getVotes(),
-                partyVote.getRegionType(),
-                partyVote.getRegionId(),
-                partyName,
-                regionName,
-                seats
-        );
-    }
-}
\ No newline at end of file
+}
@@ -56,8 +56,8 @@ public class PostMapper {
                 entity.getContent(),
                 entity.getCreatedAt().toString(),
                 entity.getUser().getUsername(),
-                likesCount,
-                commentCount
+                commentCount,
+                likesCount
         );
     }
 }
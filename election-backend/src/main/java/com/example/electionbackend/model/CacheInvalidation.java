@@ -0,0 +1,72 @@
+package com.example.electionbackend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an invalidation of a cache entry, written to the {@code cache_invalidation} outbox by the
+ * node that changed the data and applied by every other node, see
+ * {@link com.example.electionbackend.cache.CacheInvalidationBus}. The rows are written and read by
+ * {@link com.example.electionbackend.repository.CacheInvalidationJdbcRepository}.
+ */
+@Entity
+@Table(name = "cache_invalidation", indexes = @Index(columnList = "created_at"))
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "cache_name", nullable = false, length = 100)
+    private String cacheName;
+
+    @Column(name = "cache_key")
+    private String cacheKey;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public CacheInvalidation() {
+        // Default constructor for JPA
+    }
+
+    /**
+     * Constructor for CacheInvalidation
+     *
+     * @param id         - the id of the invalidation, increasing in the order they were written
+     * @param cacheName  - the name of the cache
+     * @param cacheKey   - the key of the entry, or null to invalidate the whole cache
+     * @param originNode - the node that wrote the invalidation
+     * @param createdAt  - the time the invalidation was written, by the clock of the database
+     */
+    public CacheInvalidation(long id, String cacheName, String cacheKey, String originNode, LocalDateTime createdAt) {
+        this.id = id;
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.originNode = originNode;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
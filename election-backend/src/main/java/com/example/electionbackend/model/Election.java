@@ -26,6 +26,12 @@ public class Election {
     @JoinColumn(name = "state_id", referencedColumnName = "id")
     private State state;
 
+    /**
+     * Fingerprint of the source files the election was seeded from, used to skip seeding unchanged elections
+     */
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
     /**
      * List of parties in the election
      */
@@ -64,6 +70,22 @@ public class Election {
         this.id = id;
     }
 
+    /**
+     * Gets the fingerprint of the source files the election was seeded from
+     * @return the fingerprint, or null if it is unknown
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Sets the fingerprint of the source files the election was seeded from
+     * @param fingerprint the fingerprint
+     */
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     // --- Party ---
 
     /**
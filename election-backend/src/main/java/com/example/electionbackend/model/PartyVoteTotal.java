@@ -0,0 +1,117 @@
+package com.example.electionbackend.model;
+
+import com.example.electionbackend.type.RegionType;
+import jakarta.persistence.*;
+
+/**
+ * Entity representing the precomputed total of the votes of a party in a region of an election, with its share of
+ * the votes in the region and its rank. The totals are rebuilt from the party votes by
+ * {@link com.example.electionbackend.repository.PartyVoteTotalJdbcRepository}, they are never edited directly.
+ */
+@Entity
+@Table(name = "party_vote_total",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"election_id", "region_type", "region_id", "party_id"}),
+        indexes = @Index(columnList = "election_id, region_type, region_id, party_rank"))
+public class PartyVoteTotal {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "election_id", nullable = false)
+    private String electionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "region_type", nullable = false)
+    private RegionType regionType;
+
+    @Column(name = "region_id", nullable = false)
+    private int regionId;
+
+    @Column(name = "party_id", nullable = false)
+    private int partyId;
+
+    private int votes;
+
+    private double share;
+
+    @Column(name = "party_rank")
+    private int rank;
+
+    public PartyVoteTotal() {
+        // Default constructor for JPA
+    }
+
+    // --- Getters ---
+
+    /**
+     * Gets the ID of the total.
+     *
+     * @return - the ID of the total
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the ID of the election, for example TK2023.
+     *
+     * @return - the ID of the election
+     */
+    public String getElectionId() {
+        return electionId;
+    }
+
+    /**
+     * Gets the type of the region.
+     *
+     * @return - the type of the region
+     */
+    public RegionType getRegionType() {
+        return regionType;
+    }
+
+    /**
+     * Gets the ID of the region.
+     *
+     * @return - the ID of the region
+     */
+    public int getRegionId() {
+        return regionId;
+    }
+
+    /**
+     * Gets the ID of the party.
+     *
+     * @return - the ID of the party
+     */
+    public int getPartyId() {
+        return partyId;
+    }
+
+    /**
+     * Gets the total number of votes of the party in the region.
+     *
+     * @return - the number of votes
+     */
+    public int getVotes() {
+        return votes;
+    }
+
+    /**
+     * Gets the share of the votes in the region that went to the party.
+     *
+     * @return - the share, between 0 and 1
+     */
+    public double getShare() {
+        return share;
+    }
+
+    /**
+     * Gets the rank of the party in the region, parties with the same number of votes share a rank.
+     *
+     * @return - the rank, starting at 1
+     */
+    public int getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.electionbackend.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity representing the like of a user on a post, a user likes a post at most once. The rows are written and
+ * removed by {@link com.example.electionbackend.repository.PostLikeJdbcRepository}, the number of likes of a post is
+ * kept in the {@code like_count} column of the post.
+ */
+@Entity
+@Table(name = "post_like", indexes = @Index(columnList = "user_id"))
+@IdClass(PostLike.Key.class)
+public class PostLike {
+    @Id
+    @Column(name = "post_id")
+    private int postId;
+
+    @Id
+    @Column(name = "user_id")
+    private int userId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public PostLike() {
+        // Default constructor for JPA
+    }
+
+    /**
+     * Constructor for PostLike
+     *
+     * @param postId    - the ID of the liked post
+     * @param userId    - the ID of the user that liked the post
+     * @param createdAt - the time of the like
+     */
+    public PostLike(int postId, int userId, LocalDateTime createdAt) {
+        this.postId = postId;
+        this.userId = userId;
+        this.createdAt = createdAt;
+    }
+
+    public int getPostId() {
+        return postId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * The primary key of a like: the post and the user.
+     */
+    public static class Key implements Serializable {
+        private int postId;
+        private int userId;
+
+        public Key() {
+            // Default constructor for JPA
+        }
+
+        public Key(int postId, int userId) {
+            this.postId = postId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && postId == key.postId && userId == key.userId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(postId, userId);
+        }
+    }
+}
@@ -35,10 +35,11 @@ public class State extends Region {
 
     /**
      * List of party votes in this state.
-     * Mapped as a one-to-many relationship with PartyVote
+     * Mapped as a one-to-many relationship with PartyVote.
+     * The region_id of a party vote can refer to a region of any level, so it has no foreign key.
      */
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    @JoinColumn(name = "region_id", referencedColumnName = "id")
+    @JoinColumn(name = "region_id", referencedColumnName = "id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     public List<PartyVote> partyVoteList = new ArrayList<>();
 
     /**
@@ -0,0 +1,227 @@
+package com.example.electionbackend.readmodel;
+
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
+import com.example.electionbackend.repository.interfaces.ElectionSnapshotRepository;
+import com.example.electionbackend.type.RegionType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Holds the published {@link ElectionSnapshot} of every seeded election, so the read endpoints can serve the
+ * results without querying the database.
+ * <p>
+ * The snapshots are kept in an immutable map that is replaced as a whole when a snapshot is published: readers
+ * never lock and always see either the old or the new snapshot of an election, never a mix. A snapshot is
+ * published after an election has been seeded and rebuilt after a region or party vote of it has been changed.
+ * <p>
+ * Rebuilding after a change doesn't hold up the request that made it: the election is queued for a single background
+ * thread, and the previous snapshot keeps serving reads until the new one is swapped in. Changes to an election that
+ * come in while it is queued share one rebuild, a change that comes in while it is being rebuilt queues it once
+ * more, so a burst of changes costs at most two loads and the last change is always included.
+ * <p>
+ * The other nodes are told through the {@link CacheInvalidationBus}: a change publishes the ID of the election under
+ * {@link #NAME} in the transaction of the change, and a node that receives it queues a rebuild of its own snapshot.
+ * <p>
+ * Services fall back to the database when no snapshot is available, for example while the application starts or
+ * when the read model is disabled with {@code app.read-model.enabled=false}.
+ */
+@Component
+public class ElectionReadModel {
+    /**
+     * The name the snapshots are invalidated by through the cache registry, the key is the ID of the election.
+     */
+    public static final String NAME = "electionReadModel";
+
+    private final ElectionSnapshotRepository electionSnapshotRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final boolean enabled;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "election-read-model");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Map<String, ElectionSnapshot> snapshots = Map.of();
+
+    /**
+     * Constructor for the ElectionReadModel class.
+     *
+     * @param electionSnapshotRepository The repository that loads the snapshots.
+     * @param cacheRegistry              The registry that tells the read model when another node changed an election.
+     * @param cacheInvalidationBus       The bus that tells the other nodes when an election changed.
+     * @param enabled                    Whether the snapshots are loaded at all.
+     */
+    public ElectionReadModel(ElectionSnapshotRepository electionSnapshotRepository, CacheRegistry cacheRegistry,
+                             CacheInvalidationBus cacheInvalidationBus,
+                             @Value("${app.read-model.enabled:true}") boolean enabled) {
+        this.electionSnapshotRepository = electionSnapshotRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.enabled = enabled;
+        cacheRegistry.addListener(NAME, key -> {
+            if (key != null) {
+                queue(key);
+            } else {
+                snapshots.keySet().forEach(this::queue);
+            }
+        });
+    }
+
+    /**
+     * Gets the snapshot of the election of a year.
+     *
+     * @param year The year of the election.
+     * @return The snapshot, or null if it hasn't been published.
+     */
+    public ElectionSnapshot get(int year) {
+        return snapshots.get("TK" + year);
+    }
+
+    /**
+     * Finds the snapshot of the election a region belongs to. Region IDs are unique across elections.
+     *
+     * @param type     The type of the region.
+     * @param regionId The ID of the region.
+     * @return The snapshot, or null if no published snapshot contains the region.
+     */
+    public ElectionSnapshot find(RegionType type, int regionId) {
+        for (ElectionSnapshot snapshot : snapshots.values()) {
+            if (snapshot.getRegion(type, regionId) != null) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the snapshot of the election a party belongs to. Party IDs are unique across elections.
+     *
+     * @param partyId The ID of the party.
+     * @return The snapshot, or null if no published snapshot has votes for the party.
+     */
+    public ElectionSnapshot findByParty(int partyId) {
+        for (ElectionSnapshot snapshot : snapshots.values()) {
+            if (snapshot.hasParty(partyId)) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the snapshot of an election from the database and swaps it in, replacing the previous snapshot of the
+     * election. The previous snapshot keeps serving reads while the new one is loaded, publishers take turns so an
+     * older load can't replace a newer one. Used by the seeder and the background rebuilds, request threads use
+     * {@link #reload(String)}. Only this node is updated, see {@link #broadcast(String)}.
+     *
+     * @param electionId The ID of the election, for example TK2023.
+     */
+    public synchronized void publish(String electionId) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        ElectionSnapshot snapshot = electionSnapshotRepository.load(electionId);
+
+        Map<String, ElectionSnapshot> published = new HashMap<>(snapshots);
+        if (snapshot != null) {
+            published.put(electionId, snapshot);
+        } else {
+            published.remove(electionId);
+        }
+        snapshots = Map.copyOf(published);
+        System.out.println("Published the read model of " + electionId + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Queues a rebuild of the snapshot of an election once the current transaction has committed, so the snapshot
+     * includes the changes of the transaction. Without a transaction the rebuild is queued right away. The snapshot
+     * is published by the background thread, this method doesn't wait for it. The other nodes rebuild their
+     * snapshot too.
+     *
+     * @param electionId The ID of the election, for example TK2023.
+     */
+    public void reload(String electionId) {
+        if (!enabled) {
+            return;
+        }
+        broadcast(electionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue(electionId);
+                }
+            });
+        } else {
+            queue(electionId);
+        }
+    }
+
+    /**
+     * Queues a rebuild of the election a region belongs to once the current transaction has committed.
+     * Nothing happens if no published snapshot contains the region.
+     *
+     * @param type     The type of the region.
+     * @param regionId The ID of the region.
+     */
+    public void reload(RegionType type, int regionId) {
+        ElectionSnapshot snapshot = find(type, regionId);
+        if (snapshot != null) {
+            reload(snapshot.getElectionId());
+        }
+    }
+
+    /**
+     * Tells the other nodes to rebuild their snapshot of an election, in the current transaction.
+     *
+     * @param electionId The ID of the election, for example TK2023.
+     */
+    public void broadcast(String electionId) {
+        cacheInvalidationBus.publish(NAME, electionId);
+    }
+
+    /**
+     * Stops the background thread, rebuilds that are still queued are dropped.
+     */
+    @PreDestroy
+    public void close() {
+        publisher.shutdownNow();
+    }
+
+    /**
+     * Queues a rebuild of an election unless one is queued already. The election is taken off the queue before it
+     * is loaded, so a change that commits during the load queues a new rebuild.
+     */
+    private void queue(String electionId) {
+        if (!queued.add(electionId)) {
+            return;
+        }
+        try {
+            publisher.execute(() -> {
+                queued.remove(electionId);
+                try {
+                    publish(electionId);
+                } catch (RuntimeException e) {
+                    System.out.println("Publishing the read model of " + electionId + " failed: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(electionId);
+        }
+    }
+}
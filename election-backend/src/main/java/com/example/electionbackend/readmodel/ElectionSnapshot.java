@@ -0,0 +1,373 @@
+package com.example.electionbackend.readmodel;
+
+import com.example.electionbackend.dto.PartyVoteDetailDTO;
+import com.example.electionbackend.dto.RegionDTO;
+import com.example.electionbackend.model.Metadata;
+import com.example.electionbackend.type.RegionType;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable in-memory copy of the published results of a single election: the region hierarchy with the metadata
+ * and the party votes of every region. A snapshot is built once by the {@link Builder} and never changes afterwards,
+ * so it can be read by any number of threads without locking. When the election changes a new snapshot replaces it,
+ * see {@link ElectionReadModel}.
+ * <p>
+ * The DTOs and the metadata are mutable, so the snapshot never hands out the objects it holds: every getter returns
+ * a copy, and the lists are read-only views that copy an element when it is read. Copying only the elements that are
+ * read keeps paging through a long list cheap.
+ * <p>
+ * The party votes of a region and of a party are stored sorted by votes and then by ID, both descending, which is the
+ * default order of the party vote endpoints.
+ */
+public final class ElectionSnapshot {
+    private static final Comparator<PartyVoteDetailDTO> MOST_VOTES_FIRST = Comparator
+            .comparingInt(PartyVoteDetailDTO::getVotes)
+            .thenComparingInt(PartyVoteDetailDTO::getId)
+            .reversed();
+
+    private final String electionId;
+    private final Map<RegionType, Map<Integer, Region>> regions;
+    private final Map<RegionType, List<RegionDTO>> regionDTOs;
+    private final Map<Integer, List<PartyVoteDetailDTO>> partyVotesByParty;
+
+    private ElectionSnapshot(String electionId, Map<RegionType, Map<Integer, Region>> regions,
+                             Map<RegionType, List<RegionDTO>> regionDTOs,
+                             Map<Integer, List<PartyVoteDetailDTO>> partyVotesByParty) {
+        this.electionId = electionId;
+        this.regions = regions;
+        this.regionDTOs = regionDTOs;
+        this.partyVotesByParty = partyVotesByParty;
+    }
+
+    /**
+     * Gets the ID of the election, for example TK2023.
+     *
+     * @return the ID of the election
+     */
+    public String getElectionId() {
+        return electionId;
+    }
+
+    /**
+     * Gets a region of the election.
+     *
+     * @param type the type of the region
+     * @param id   the ID of the region
+     * @return the region, or null if the election has no such region
+     */
+    public Region getRegion(RegionType type, int id) {
+        return regions.get(type).get(id);
+    }
+
+    /**
+     * Gets all regions of a type, ordered by ID.
+     *
+     * @param type the type of the regions
+     * @return the unmodifiable list of copies of the regions
+     */
+    public List<RegionDTO> getRegions(RegionType type) {
+        return copies(regionDTOs.get(type), ElectionSnapshot::copy);
+    }
+
+    /**
+     * Gets the subregions of a region, for example the municipalities of a constituency.
+     *
+     * @param type the type of the region
+     * @param id   the ID of the region
+     * @return the unmodifiable list of subregions ordered by ID, empty if the region doesn't exist
+     */
+    public List<Region> getChildren(RegionType type, int id) {
+        Region region = getRegion(type, id);
+        if (region == null || region.childType == null) {
+            return List.of();
+        }
+        Map<Integer, Region> children = regions.get(region.childType);
+        return region.childIds.stream().map(children::get).toList();
+    }
+
+    /**
+     * Checks whether a party has votes in the election.
+     *
+     * @param partyId the ID of the party
+     * @return true if the party has votes in any region of the election
+     */
+    public boolean hasParty(int partyId) {
+        return partyVotesByParty.containsKey(partyId);
+    }
+
+    /**
+     * Gets the votes of a party in all regions of the election.
+     *
+     * @param partyId the ID of the party
+     * @return the unmodifiable list of copies of the votes with the most votes first, empty if the party has no
+     * votes
+     */
+    public List<PartyVoteDetailDTO> getPartyVotesByParty(int partyId) {
+        return copies(partyVotesByParty.getOrDefault(partyId, List.of()), ElectionSnapshot::copy);
+    }
+
+    /**
+     * Returns a read-only view of a list that copies an element each time it is read.
+     */
+    private static <T> List<T> copies(List<T> list, UnaryOperator<T> copy) {
+        return new CopyingList<>(list, copy);
+    }
+
+    private static RegionDTO copy(RegionDTO regionDTO) {
+        return new RegionDTO(regionDTO.getId(), regionDTO.getName());
+    }
+
+    private static PartyVoteDetailDTO copy(PartyVoteDetailDTO vote) {
+        return new PartyVoteDetailDTO(vote.getId(), vote.getPartyId(), vote.getVotes(), vote.getRegionType(),
+                vote.getRegionId(), vote.getPartyName(), vote.getRegionName(), vote.getSeats());
+    }
+
+    private static Metadata copy(Metadata metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        Metadata copy = new Metadata(metadata.getCast(), metadata.getTotalCounted(), metadata.getInvalid(),
+                metadata.getBlank());
+        copy.setId(metadata.getId());
+        copy.setRegionType(metadata.getRegionType());
+        copy.setRegionId(metadata.getRegionId());
+        return copy;
+    }
+
+    /**
+     * A region of the election. The region is shared by all readers, its getters return copies.
+     */
+    public static final class Region {
+        private final RegionDTO regionDTO;
+        private final String pollingStationId;
+        private final Metadata metadata;
+        private final List<PartyVoteDetailDTO> partyVotes;
+        private final RegionType childType;
+        private final List<Integer> childIds;
+
+        private Region(RegionDTO regionDTO, String pollingStationId, Metadata metadata,
+                       List<PartyVoteDetailDTO> partyVotes, RegionType childType, List<Integer> childIds) {
+            this.regionDTO = regionDTO;
+            this.pollingStationId = pollingStationId;
+            this.metadata = metadata;
+            this.partyVotes = partyVotes;
+            this.childType = childType;
+            this.childIds = childIds;
+        }
+
+        public int getId() {
+            return regionDTO.getId();
+        }
+
+        public String getName() {
+            return regionDTO.getName();
+        }
+
+        public RegionDTO getRegionDTO() {
+            return copy(regionDTO);
+        }
+
+        /**
+         * Gets the ID of the polling station as it is used in the source files, for example 0363::SB1.
+         *
+         * @return the polling station ID, or null if the region isn't a polling station
+         */
+        public String getPollingStationId() {
+            return pollingStationId;
+        }
+
+        /**
+         * Gets the metadata of the region.
+         *
+         * @return a copy of the metadata, or null if the region has no metadata
+         */
+        public Metadata getMetadata() {
+            return copy(metadata);
+        }
+
+        /**
+         * Gets the party votes of the region.
+         *
+         * @return the unmodifiable list of copies of the votes with the most votes first
+         */
+        public List<PartyVoteDetailDTO> getPartyVotes() {
+            return copies(partyVotes, ElectionSnapshot::copy);
+        }
+    }
+
+    /**
+     * Read-only view of a list of shared objects, see {@link #copies}.
+     */
+    private static final class CopyingList<T> extends AbstractList<T> implements RandomAccess {
+        private final List<T> list;
+        private final UnaryOperator<T> copy;
+
+        private CopyingList(List<T> list, UnaryOperator<T> copy) {
+            this.list = list;
+            this.copy = copy;
+        }
+
+        @Override
+        public T get(int index) {
+            return copy.apply(list.get(index));
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+    }
+
+    /**
+     * Collects the rows of an election and builds the snapshot. A builder is used by a single thread.
+     */
+    public static final class Builder {
+        private static final Map<RegionType, RegionType> CHILD_TYPES = Map.of(
+                RegionType.NATIONAL, RegionType.CONSTITUENCY,
+                RegionType.CONSTITUENCY, RegionType.MUNICIPALITY,
+                RegionType.MUNICIPALITY, RegionType.POLLING_STATION);
+
+        private final String electionId;
+        private final Map<RegionType, Map<Integer, RegionRow>> rows = new EnumMap<>(RegionType.class);
+        private final Map<Integer, String> partyNames = new HashMap<>();
+        private final Map<Integer, Integer> partySeats = new HashMap<>();
+
+        /**
+         * Constructor for the Builder class.
+         *
+         * @param electionId the ID of the election, for example TK2023
+         */
+        public Builder(String electionId) {
+            this.electionId = electionId;
+            for (RegionType type : RegionType.values()) {
+                rows.put(type, new LinkedHashMap<>());
+            }
+        }
+
+        /**
+         * Adds a region, its parent has to be added first.
+         *
+         * @param type             the type of the region
+         * @param id               the ID of the region
+         * @param name             the name of the region
+         * @param pollingStationId the polling station ID from the source files, or null
+         * @param parentId         the ID of the parent region, ignored for the national region
+         * @return this builder
+         */
+        public Builder region(RegionType type, int id, String name, String pollingStationId, int parentId) {
+            rows.get(type).put(id, new RegionRow(id, name, pollingStationId));
+            for (Map.Entry<RegionType, RegionType> level : CHILD_TYPES.entrySet()) {
+                if (level.getValue() == type) {
+                    RegionRow parent = rows.get(level.getKey()).get(parentId);
+                    if (parent != null) {
+                        parent.childIds.add(id);
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Sets the metadata of a region that was added before. The snapshot keeps a copy of the metadata.
+         *
+         * @return this builder
+         */
+        public Builder metadata(RegionType type, int regionId, Metadata metadata) {
+            RegionRow row = rows.get(type).get(regionId);
+            if (row != null) {
+                row.metadata = copy(metadata);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a party, the name and seats of the party are copied into its votes.
+         *
+         * @return this builder
+         */
+        public Builder party(int id, String name, int seats) {
+            partyNames.put(id, name);
+            partySeats.put(id, seats);
+            return this;
+        }
+
+        /**
+         * Adds a party vote of a region that was added before.
+         *
+         * @return this builder
+         */
+        public Builder partyVote(int id, int partyId, int votes, RegionType type, int regionId) {
+            RegionRow row = rows.get(type).get(regionId);
+            if (row != null) {
+                row.partyVotes.add(new int[]{id, partyId, votes});
+            }
+            return this;
+        }
+
+        /**
+         * Builds the snapshot, the builder shouldn't be used afterwards.
+         *
+         * @return the immutable snapshot
+         */
+        public ElectionSnapshot build() {
+            Map<RegionType, Map<Integer, Region>> regions = new EnumMap<>(RegionType.class);
+            Map<RegionType, List<RegionDTO>> regionDTOs = new EnumMap<>(RegionType.class);
+            Map<Integer, List<PartyVoteDetailDTO>> partyVotesByParty = new HashMap<>();
+
+            for (Map.Entry<RegionType, Map<Integer, RegionRow>> level : rows.entrySet()) {
+                RegionType type = level.getKey();
+                Map<Integer, Region> levelRegions = new HashMap<>();
+                List<RegionDTO> levelDTOs = new ArrayList<>();
+
+                for (RegionRow row : new TreeMap<>(level.getValue()).values()) {
+                    RegionDTO regionDTO = new RegionDTO(row.id, row.name);
+                    String regionName = type == RegionType.NATIONAL ? "Nederland" : row.name;
+
+                    List<PartyVoteDetailDTO> partyVotes = new ArrayList<>(row.partyVotes.size());
+                    for (int[] vote : row.partyVotes) {
+                        PartyVoteDetailDTO partyVote = new PartyVoteDetailDTO(vote[0], vote[1], vote[2], type, row.id,
+                                partyNames.get(vote[1]), regionName, partySeats.getOrDefault(vote[1], 0));
+                        partyVotes.add(partyVote);
+                        partyVotesByParty.computeIfAbsent(vote[1], id -> new ArrayList<>()).add(partyVote);
+                    }
+                    partyVotes.sort(MOST_VOTES_FIRST);
+
+                    List<Integer> childIds = new ArrayList<>(row.childIds);
+                    Collections.sort(childIds);
+                    levelRegions.put(row.id, new Region(regionDTO, row.pollingStationId, row.metadata,
+                            List.copyOf(partyVotes), CHILD_TYPES.get(type), List.copyOf(childIds)));
+                    levelDTOs.add(regionDTO);
+                }
+                regions.put(type, Collections.unmodifiableMap(levelRegions));
+                regionDTOs.put(type, List.copyOf(levelDTOs));
+            }
+
+            partyVotesByParty.replaceAll((partyId, votes) -> {
+                votes.sort(MOST_VOTES_FIRST);
+                return List.copyOf(votes);
+            });
+            return new ElectionSnapshot(electionId, Collections.unmodifiableMap(regions),
+                    Collections.unmodifiableMap(regionDTOs), Collections.unmodifiableMap(partyVotesByParty));
+        }
+    }
+
+    /**
+     * The collected row of a region, before the snapshot is built.
+     */
+    private static final class RegionRow {
+        private final int id;
+        private final String name;
+        private final String pollingStationId;
+        private final List<Integer> childIds = new ArrayList<>();
+        private final List<int[]> partyVotes = new ArrayList<>();
+        private Metadata metadata;
+
+        private RegionRow(int id, String name, String pollingStationId) {
+            this.id = id;
+            this.name = name;
+            this.pollingStationId = pollingStationId;
+        }
+    }
+}
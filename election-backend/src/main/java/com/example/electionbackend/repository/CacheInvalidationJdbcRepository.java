@@ -0,0 +1,111 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.model.CacheInvalidation;
+import com.example.electionbackend.repository.interfaces.CacheInvalidationRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the {@code cache_invalidation} outbox. The rows are written in the transaction of the change they
+ * belong to, so other nodes only see an invalidation once the change itself is visible. All times come from the
+ * clock of the database, so the lag between nodes is measured on one clock.
+ */
+@Repository
+public class CacheInvalidationJdbcRepository implements CacheInvalidationRepository {
+    private static final RowMapper<CacheInvalidation> ROW_MAPPER = (rs, rowNum) -> new CacheInvalidation(
+            rs.getLong("id"),
+            rs.getString("cache_name"),
+            rs.getString("cache_key"),
+            rs.getString("origin_node"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for the CacheInvalidationJdbcRepository class.
+     *
+     * @param jdbcTemplate The template used to run the statements.
+     */
+    public CacheInvalidationJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes an invalidation to the outbox, in the surrounding transaction.
+     *
+     * @param cacheName  the name of the cache
+     * @param cacheKey   the key of the entry, or null to invalidate the whole cache
+     * @param originNode the node that made the change
+     */
+    @Override
+    public void append(String cacheName, String cacheKey, String originNode) {
+        jdbcTemplate.update("INSERT INTO cache_invalidation (cache_name, cache_key, origin_node, created_at) "
+                + "VALUES (?, ?, ?, CURRENT_TIMESTAMP(3))", cacheName, cacheKey, originNode);
+    }
+
+    /**
+     * Finds the invalidations written after an ID.
+     *
+     * @param lastId the highest ID that was seen
+     * @param limit  the maximum number of invalidations
+     * @return the invalidations ordered by ID
+     */
+    @Override
+    public List<CacheInvalidation> findAfter(long lastId, int limit) {
+        return jdbcTemplate.query("SELECT id, cache_name, cache_key, origin_node, created_at "
+                        + "FROM cache_invalidation WHERE id > ? ORDER BY id LIMIT ?",
+                ROW_MAPPER, lastId, limit);
+    }
+
+    /**
+     * Finds the invalidations up to an ID that were written at or after a time. Reading this short window again
+     * catches rows with a lower ID that were committed after rows with a higher ID, so most of the returned
+     * invalidations were already seen.
+     *
+     * @param lastId the highest ID that was seen
+     * @param since  the earliest time of the invalidations to return again
+     * @return the invalidations ordered by ID
+     */
+    @Override
+    public List<CacheInvalidation> findRecent(long lastId, LocalDateTime since) {
+        return jdbcTemplate.query("SELECT id, cache_name, cache_key, origin_node, created_at "
+                        + "FROM cache_invalidation WHERE id <= ? AND created_at >= ? ORDER BY id",
+                ROW_MAPPER, lastId, since);
+    }
+
+    /**
+     * Finds the highest ID in the outbox.
+     *
+     * @return the highest ID, or 0 if the outbox is empty
+     */
+    @Override
+    public long findLastId() {
+        Long lastId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidation", Long.class);
+        return lastId == null ? 0 : lastId;
+    }
+
+    /**
+     * Gets the current time of the database.
+     *
+     * @return the current time
+     */
+    @Override
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(3)", LocalDateTime.class);
+    }
+
+    /**
+     * Deletes the invalidations that were written before a time.
+     *
+     * @param before the time
+     * @return the number of deleted invalidations
+     */
+    @Override
+    public int deleteBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM cache_invalidation WHERE created_at < ?", before);
+    }
+}
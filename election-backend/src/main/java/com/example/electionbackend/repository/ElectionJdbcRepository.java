@@ -0,0 +1,391 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.dto.*;
+import com.example.electionbackend.repository.interfaces.ElectionBulkRepository;
+import com.example.electionbackend.type.RegionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Repository that writes a complete election with batched JDBC statements instead of cascading it through
+ * Hibernate. With {@code GenerationType.IDENTITY} Hibernate inserts every party vote, metadata, polling station and
+ * municipality with its own statement, here every table is written with a few batches of
+ * {@code app.seeder.batch-size} rows (defaults to 1000). The generated ids of a batch are read back in one go and
+ * used as the foreign keys of the next level.
+ * <p>
+ * With {@code rewriteBatchedStatements=true} on the MySQL connection URL the driver sends every batch as a single
+ * multi-row insert.
+ * <p>
+ * The rows are the same as the ones {@link ElectionJPARepository#save} creates: party votes refer to the generated id
+ * of their party and region, and metadata refers to the generated id of its region. The methods take part in the
+ * surrounding transaction.
+ */
+@Repository
+public class ElectionJdbcRepository implements ElectionBulkRepository {
+    static final String STATE_IDS = "SELECT s.id FROM state s WHERE s.election_id = ?";
+    static final String CONSTITUENCY_IDS = "SELECT c.id FROM constituency c "
+            + "JOIN state s ON c.state_id = s.id WHERE s.election_id = ?";
+    static final String MUNICIPALITY_IDS = "SELECT m.id FROM municipality m "
+            + "JOIN constituency c ON m.constituency_id = c.id "
+            + "JOIN state s ON c.state_id = s.id WHERE s.election_id = ?";
+    static final String POLLING_STATION_IDS = "SELECT p.id FROM polling_station p "
+            + "JOIN municipality m ON p.municipality_id = m.id "
+            + "JOIN constituency c ON m.constituency_id = c.id "
+            + "JOIN state s ON c.state_id = s.id WHERE s.election_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * Constructor for the ElectionJdbcRepository class.
+     *
+     * @param jdbcTemplate The template used to run the statements.
+     * @param batchSize    The maximum number of rows per batch.
+     */
+    public ElectionJdbcRepository(JdbcTemplate jdbcTemplate, @Value("${app.seeder.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Retrieves the fingerprint of the source files an election was seeded from.
+     *
+     * @param electionId the unique identifier of the election
+     * @return the fingerprint, or null if the election hasn't been seeded or its fingerprint is unknown
+     */
+    @Override
+    public String getFingerprint(String electionId) {
+        List<String> fingerprints = jdbcTemplate.queryForList(
+                "SELECT fingerprint FROM election WHERE id = ?", String.class, electionId);
+        return fingerprints.isEmpty() ? null : fingerprints.get(0);
+    }
+
+    /**
+     * Deletes an election with its parties, candidates, regions, party votes and metadata.
+     *
+     * @param electionId the unique identifier of the election
+     */
+    @Override
+    public void delete(String electionId) {
+        List<Integer> metadataIds = new ArrayList<>();
+        for (String[] region : new String[][]{
+                {"polling_station", POLLING_STATION_IDS}, {"municipality", MUNICIPALITY_IDS},
+                {"constituency", CONSTITUENCY_IDS}, {"state", STATE_IDS}}) {
+            metadataIds.addAll(jdbcTemplate.queryForList("SELECT metadata_id FROM " + region[0]
+                    + " WHERE metadata_id IS NOT NULL AND id IN (" + region[1] + ")", Integer.class, electionId));
+        }
+
+        deletePartyVotes(RegionType.POLLING_STATION, POLLING_STATION_IDS, electionId);
+        deletePartyVotes(RegionType.MUNICIPALITY, MUNICIPALITY_IDS, electionId);
+        deletePartyVotes(RegionType.CONSTITUENCY, CONSTITUENCY_IDS, electionId);
+        deletePartyVotes(RegionType.NATIONAL, STATE_IDS, electionId);
+
+        // Delete the regions from the bottom up, each level by the ids of its parents
+        jdbcTemplate.update("DELETE FROM polling_station WHERE municipality_id IN (" + MUNICIPALITY_IDS + ")", electionId);
+        jdbcTemplate.update("DELETE FROM municipality WHERE constituency_id IN (" + CONSTITUENCY_IDS + ")", electionId);
+        jdbcTemplate.update("DELETE FROM constituency WHERE state_id IN (" + STATE_IDS + ")", electionId);
+        jdbcTemplate.update("UPDATE election SET state_id = NULL WHERE id = ?", electionId);
+        jdbcTemplate.update("DELETE FROM state WHERE election_id = ?", electionId);
+        update("DELETE FROM metadata WHERE id = ?", metadataIds.size(),
+                (ps, i) -> ps.setInt(1, metadataIds.get(i)));
+
+        jdbcTemplate.update("DELETE FROM candidate WHERE party_id IN (SELECT id FROM party WHERE election_id = ?)", electionId);
+        jdbcTemplate.update("DELETE FROM party WHERE election_id = ?", electionId);
+        jdbcTemplate.update("DELETE FROM election WHERE id = ?", electionId);
+    }
+
+    private void deletePartyVotes(RegionType type, String regionIds, String electionId) {
+        jdbcTemplate.update("DELETE FROM party_vote WHERE region_type = ? AND region_id IN (" + regionIds + ")",
+                type.name(), electionId);
+    }
+
+    /**
+     * Inserts an election with its parties, candidates, regions, party votes and metadata. The election must not
+     * exist yet.
+     *
+     * @param election    the election to store
+     * @param fingerprint the fingerprint of the source files of the election, or null if it is unknown
+     * @return the generated ids of the election, to add constituencies to it with {@link #insertConstituency}
+     * @throws IllegalStateException if a party vote refers to a party that isn't part of the election
+     */
+    @Override
+    public InsertedElectionDTO insert(ElectionDTO election, String fingerprint) {
+        String electionId = election.getId();
+        jdbcTemplate.update("INSERT INTO election (id, fingerprint) VALUES (?, ?)", electionId, fingerprint);
+
+        Map<Integer, Integer> partyIds = insertParties(electionId, election.getPartyList());
+
+        StateDTO state = election.getState();
+        if (state == null) {
+            return new InsertedElectionDTO(electionId, null, partyIds);
+        }
+        int stateId = insertRegions(RegionType.NATIONAL, List.of(state), StateDTO::getMetadata, StateDTO::getPartyVoteList, partyIds,
+                "INSERT INTO state (name, election_id, metadata_id) VALUES (?, ?, ?)",
+                (ps, i, metadataId) -> {
+                    ps.setString(1, state.getName());
+                    ps.setString(2, electionId);
+                    ps.setObject(3, metadataId, Types.INTEGER);
+                }).get(0);
+        jdbcTemplate.update("UPDATE election SET state_id = ? WHERE id = ?", stateId, electionId);
+
+        insertConstituencies(state.getConstituencyList(), stateId, partyIds);
+        return new InsertedElectionDTO(electionId, stateId, partyIds);
+    }
+
+    /**
+     * Inserts a constituency with its municipalities, polling stations, party votes and metadata into an election
+     * that was inserted before, so an election can be written one constituency at a time. The state and party ids
+     * come from the insert of the election, so they aren't read again for every constituency.
+     *
+     * @param election     the generated ids of the election, as returned by {@link #insert}
+     * @param constituency the constituency to store
+     * @throws IllegalStateException if the election has no state, or a party vote refers to a party that isn't part
+     *                               of the election
+     */
+    @Override
+    public void insertConstituency(InsertedElectionDTO election, ConstituencyDTO constituency) {
+        if (election.getStateId() == null) {
+            throw new IllegalStateException(
+                    "Election " + election.getElectionId() + " has no state to add constituencies to");
+        }
+        insertConstituencies(List.of(constituency), election.getStateId(), election.getPartyIds());
+    }
+
+    /**
+     * Inserts the constituencies of a state with their subregions, level by level.
+     */
+    private void insertConstituencies(List<ConstituencyDTO> constituencies, int stateId, Map<Integer, Integer> partyIds) {
+        List<Integer> constituencyIds = insertRegions(RegionType.CONSTITUENCY, constituencies,
+                ConstituencyDTO::getMetadata, ConstituencyDTO::getPartyVoteList, partyIds,
+                "INSERT INTO constituency (name, state_id, metadata_id) VALUES (?, ?, ?)",
+                (ps, i, metadataId) -> {
+                    ps.setString(1, constituencies.get(i).getName());
+                    ps.setInt(2, stateId);
+                    ps.setObject(3, metadataId, Types.INTEGER);
+                });
+
+        List<MunicipalityDTO> municipalities = new ArrayList<>();
+        List<Integer> municipalityParents = new ArrayList<>();
+        for (int i = 0; i < constituencies.size(); i++) {
+            for (MunicipalityDTO municipality : constituencies.get(i).getMunicipalityList()) {
+                municipalities.add(municipality);
+                municipalityParents.add(constituencyIds.get(i));
+            }
+        }
+        List<Integer> municipalityIds = insertRegions(RegionType.MUNICIPALITY, municipalities,
+                MunicipalityDTO::getMetadata, MunicipalityDTO::getPartyVoteList, partyIds,
+                "INSERT INTO municipality (name, constituency_id, metadata_id) VALUES (?, ?, ?)",
+                (ps, i, metadataId) -> {
+                    ps.setString(1, municipalities.get(i).getName());
+                    ps.setInt(2, municipalityParents.get(i));
+                    ps.setObject(3, metadataId, Types.INTEGER);
+                });
+
+        List<PollingStationDTO> pollingStations = new ArrayList<>();
+        List<Integer> pollingStationParents = new ArrayList<>();
+        for (int i = 0; i < municipalities.size(); i++) {
+            for (PollingStationDTO pollingStation : municipalities.get(i).getPollingStationList()) {
+                pollingStations.add(pollingStation);
+                pollingStationParents.add(municipalityIds.get(i));
+            }
+        }
+        insertRegions(RegionType.POLLING_STATION, pollingStations,
+                PollingStationDTO::getMetadata, PollingStationDTO::getPartyVoteList, partyIds,
+                "INSERT INTO polling_station (polling_station_id, name, municipality_id, metadata_id) VALUES (?, ?, ?, ?)",
+                (ps, i, metadataId) -> {
+                    ps.setString(1, pollingStations.get(i).getPollingStationId());
+                    ps.setString(2, pollingStations.get(i).getName());
+                    ps.setInt(3, pollingStationParents.get(i));
+                    ps.setObject(4, metadataId, Types.INTEGER);
+                });
+    }
+
+    /**
+     * Inserts the parties and their candidates.
+     *
+     * @return the generated id of each party by the id of the party in the election
+     */
+    private Map<Integer, Integer> insertParties(String electionId, List<PartyDTO> parties) {
+        List<Integer> ids = insert("INSERT INTO party (pid, name, seats, election_id) VALUES (?, ?, ?, ?)",
+                parties.size(), (ps, i) -> {
+                    ps.setInt(1, parties.get(i).getId());
+                    ps.setString(2, parties.get(i).getName());
+                    ps.setInt(3, parties.get(i).getSeats());
+                    ps.setString(4, electionId);
+                });
+
+        Map<Integer, Integer> partyIds = new HashMap<>();
+        List<CandidateDTO> candidates = new ArrayList<>();
+        List<Integer> candidateParties = new ArrayList<>();
+        for (int i = 0; i < parties.size(); i++) {
+            partyIds.putIfAbsent(parties.get(i).getId(), ids.get(i));
+            for (CandidateDTO candidate : parties.get(i).getCandidates()) {
+                candidates.add(candidate);
+                candidateParties.add(ids.get(i));
+            }
+        }
+
+        update("INSERT INTO candidate (cid, initials, first_name, last_name, gender, locality, elected, party_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                candidates.size(), (ps, i) -> {
+                    CandidateDTO candidate = candidates.get(i);
+                    ps.setInt(1, candidate.getId());
+                    ps.setString(2, candidate.getInitials());
+                    ps.setString(3, candidate.getFirstName());
+                    ps.setString(4, candidate.getLastName());
+                    ps.setString(5, candidate.getGender());
+                    ps.setString(6, candidate.getLocality());
+                    ps.setBoolean(7, candidate.isElected());
+                    ps.setInt(8, candidateParties.get(i));
+                });
+        return partyIds;
+    }
+
+    /**
+     * Inserts the regions of one level with their metadata and party votes.
+     *
+     * @return the generated ids of the regions, in the order of the list
+     */
+    private <T> List<Integer> insertRegions(RegionType type, List<T> regions, Function<T, MetadataDTO> metadata,
+                                            Function<T, List<PartyVoteDTO>> partyVotes, Map<Integer, Integer> partyIds,
+                                            String sql, RegionSetter setter) {
+        // The metadata is inserted first so the regions can refer to it, its region id is set afterwards
+        List<MetadataDTO> regionMetadata = new ArrayList<>();
+        for (T region : regions) {
+            regionMetadata.add(metadata.apply(region));
+        }
+        List<Integer> metadataIds = insertMetadata(type, regionMetadata);
+
+        List<Integer> regionIds = insert(sql, regions.size(),
+                (ps, i) -> setter.setValues(ps, i, metadataIds.get(i)));
+
+        List<Integer> withMetadata = new ArrayList<>();
+        for (int i = 0; i < regions.size(); i++) {
+            if (metadataIds.get(i) != null) {
+                withMetadata.add(i);
+            }
+        }
+        update("UPDATE metadata SET region_id = ? WHERE id = ?", withMetadata.size(), (ps, i) -> {
+            ps.setString(1, String.valueOf(regionIds.get(withMetadata.get(i))));
+            ps.setInt(2, metadataIds.get(withMetadata.get(i)));
+        });
+
+        List<PartyVoteDTO> votes = new ArrayList<>();
+        List<Integer> voteRegions = new ArrayList<>();
+        for (int i = 0; i < regions.size(); i++) {
+            List<PartyVoteDTO> regionVotes = partyVotes.apply(regions.get(i));
+            if (regionVotes != null) {
+                for (PartyVoteDTO vote : regionVotes) {
+                    votes.add(vote);
+                    voteRegions.add(regionIds.get(i));
+                }
+            }
+        }
+        update("INSERT INTO party_vote (region_type, region_id, party_id, votes) VALUES (?, ?, ?, ?)",
+                votes.size(), (ps, i) -> {
+                    Integer partyId = partyIds.get(votes.get(i).getPartyId());
+                    if (partyId == null) {
+                        throw new IllegalStateException("Party vote refers to unknown party " + votes.get(i).getPartyId());
+                    }
+                    ps.setString(1, type.name());
+                    ps.setInt(2, voteRegions.get(i));
+                    ps.setInt(3, partyId);
+                    ps.setInt(4, votes.get(i).getVotes());
+                });
+        return regionIds;
+    }
+
+    /**
+     * Inserts the metadata of the regions of one level.
+     *
+     * @return the generated id for each region, or null for a region without metadata
+     */
+    private List<Integer> insertMetadata(RegionType type, List<MetadataDTO> metadata) {
+        List<MetadataDTO> present = metadata.stream().filter(Objects::nonNull).toList();
+        List<Integer> ids = insert("INSERT INTO metadata (region_type, total_cast, total_counted, invalid, blank) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                present.size(), (ps, i) -> {
+                    ps.setString(1, type.name());
+                    ps.setInt(2, present.get(i).getTotalCast());
+                    ps.setInt(3, present.get(i).getTotalCounted());
+                    ps.setInt(4, present.get(i).getInvalid());
+                    ps.setInt(5, present.get(i).getBlank());
+                });
+
+        List<Integer> result = new ArrayList<>(metadata.size());
+        Iterator<Integer> generated = ids.iterator();
+        for (MetadataDTO regionMetadata : metadata) {
+            result.add(regionMetadata != null ? generated.next() : null);
+        }
+        return result;
+    }
+
+    /**
+     * Runs an insert for each row in batches and returns the generated ids, in the order of the rows.
+     */
+    private List<Integer> insert(String sql, int rows, RowSetter setter) {
+        List<Integer> ids = new ArrayList<>(rows);
+        for (int from = 0; from < rows; from += batchSize) {
+            int offset = from;
+            int size = Math.min(batchSize, rows - from);
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                    batch(offset, size, setter), keyHolder);
+            for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                ids.add(((Number) keys.values().iterator().next()).intValue());
+            }
+        }
+        if (ids.size() != rows) {
+            throw new IllegalStateException("Expected " + rows + " generated ids but got " + ids.size());
+        }
+        return ids;
+    }
+
+    /**
+     * Runs a statement for each row in batches.
+     */
+    private void update(String sql, int rows, RowSetter setter) {
+        for (int from = 0; from < rows; from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, batch(from, Math.min(batchSize, rows - from), setter));
+        }
+    }
+
+    private static BatchPreparedStatementSetter batch(int offset, int size, RowSetter setter) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setter.setValues(ps, offset + i);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Sets the parameters of the statement for a single row.
+     */
+    @FunctionalInterface
+    private interface RowSetter {
+        void setValues(PreparedStatement ps, int row) throws SQLException;
+    }
+
+    /**
+     * Sets the parameters of the insert of a single region, given the generated id of its metadata.
+     */
+    @FunctionalInterface
+    private interface RegionSetter {
+        void setValues(PreparedStatement ps, int row, Integer metadataId) throws SQLException;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.model.Metadata;
+import com.example.electionbackend.readmodel.ElectionSnapshot;
+import com.example.electionbackend.repository.interfaces.ElectionSnapshotRepository;
+import com.example.electionbackend.type.RegionType;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static com.example.electionbackend.repository.ElectionJdbcRepository.*;
+
+/**
+ * Repository that loads the {@link ElectionSnapshot} of an election with plain SQL. Every level of regions, its
+ * metadata and its party votes are read with a single query each, so loading an election takes a dozen queries
+ * regardless of its size and no entities are attached to a persistence context.
+ */
+@Repository
+public class ElectionSnapshotJdbcRepository implements ElectionSnapshotRepository {
+    private static final String[][] LEVELS = {
+            {RegionType.CONSTITUENCY.name(), "constituency", CONSTITUENCY_IDS},
+            {RegionType.MUNICIPALITY.name(), "municipality", MUNICIPALITY_IDS},
+            {RegionType.POLLING_STATION.name(), "polling_station", POLLING_STATION_IDS}};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for the ElectionSnapshotJdbcRepository class.
+     *
+     * @param jdbcTemplate The template used to run the queries.
+     */
+    public ElectionSnapshotJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Loads the snapshot of an election. The queries run in a single transaction, so the snapshot is
+     * consistent when the election is written at the same time.
+     *
+     * @param electionId the unique identifier of the election
+     * @return the snapshot, or null if the election has not been seeded
+     */
+    @Override
+    @Transactional
+    public ElectionSnapshot load(String electionId) {
+        List<Integer> stateIds = jdbcTemplate.queryForList(STATE_IDS, Integer.class, electionId);
+        if (stateIds.isEmpty()) {
+            return null;
+        }
+
+        ElectionSnapshot.Builder builder = new ElectionSnapshot.Builder(electionId);
+        stateIds.forEach(stateId -> builder.region(RegionType.NATIONAL, stateId, null, null, 0));
+        jdbcTemplate.query("SELECT c.id, c.name, c.state_id FROM constituency c WHERE c.id IN (" + CONSTITUENCY_IDS + ")",
+                (RowCallbackHandler) rs -> builder.region(RegionType.CONSTITUENCY, rs.getInt(1), rs.getString(2),
+                        null, rs.getInt(3)), electionId);
+        jdbcTemplate.query("SELECT m.id, m.name, m.constituency_id FROM municipality m WHERE m.id IN ("
+                        + MUNICIPALITY_IDS + ")",
+                (RowCallbackHandler) rs -> builder.region(RegionType.MUNICIPALITY, rs.getInt(1), rs.getString(2),
+                        null, rs.getInt(3)), electionId);
+        jdbcTemplate.query("SELECT p.id, p.name, p.polling_station_id, p.municipality_id FROM polling_station p "
+                        + "WHERE p.id IN (" + POLLING_STATION_IDS + ")",
+                (RowCallbackHandler) rs -> builder.region(RegionType.POLLING_STATION, rs.getInt(1), rs.getString(2),
+                        rs.getString(3), rs.getInt(4)), electionId);
+
+        loadMetadata(builder, RegionType.NATIONAL, "state", STATE_IDS, electionId);
+        for (String[] level : LEVELS) {
+            loadMetadata(builder, RegionType.valueOf(level[0]), level[1], level[2], electionId);
+        }
+
+        jdbcTemplate.query("SELECT id, name, seats FROM party",
+                (RowCallbackHandler) rs -> builder.party(rs.getInt(1), rs.getString(2), rs.getInt(3)));
+        loadPartyVotes(builder, RegionType.NATIONAL, STATE_IDS, electionId);
+        for (String[] level : LEVELS) {
+            loadPartyVotes(builder, RegionType.valueOf(level[0]), level[2], electionId);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Loads the metadata of the regions of one level.
+     */
+    private void loadMetadata(ElectionSnapshot.Builder builder, RegionType type, String table, String regionIds,
+                              String electionId) {
+        jdbcTemplate.query("SELECT r.id, md.id, md.region_id, md.total_cast, md.total_counted, md.invalid, md.blank "
+                        + "FROM metadata md JOIN " + table + " r ON r.metadata_id = md.id "
+                        + "WHERE r.id IN (" + regionIds + ")",
+                (RowCallbackHandler) rs -> {
+                    Metadata metadata = new Metadata(rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7));
+                    metadata.setId(rs.getInt(2));
+                    metadata.setRegionType(type);
+                    metadata.setRegionId(rs.getString(3));
+                    builder.metadata(type, rs.getInt(1), metadata);
+                }, electionId);
+    }
+
+    /**
+     * Loads the party votes of the regions of one level.
+     */
+    private void loadPartyVotes(ElectionSnapshot.Builder builder, RegionType type, String regionIds, String electionId) {
+        jdbcTemplate.query("SELECT pv.id, pv.party_id, pv.votes, pv.region_id FROM party_vote pv "
+                        + "WHERE pv.region_type = ? AND pv.region_id IN (" + regionIds + ")",
+                (RowCallbackHandler) rs -> builder.partyVote(rs.getInt(1), rs.getInt(2), rs.getInt(3), type,
+                        rs.getInt(4)), type.name(), electionId);
+    }
+}
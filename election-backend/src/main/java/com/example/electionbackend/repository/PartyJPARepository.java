@@ -4,10 +4,14 @@ import com.example.electionbackend.model.Party;
 import com.example.electionbackend.repository.interfaces.PartyRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import com.example.electionbackend.util.SortUtils;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -15,6 +19,12 @@ import java.util.List;
 @Repository
 @Transactional
 public class PartyJPARepository implements PartyRepository {
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "p.id",
+            "pid", "p.pid",
+            "name", "p.name",
+            "seats", "p.seats");
+
     @PersistenceContext
     EntityManager entityManager;
 
@@ -49,17 +59,51 @@ public class PartyJPARepository implements PartyRepository {
 
 
     /**
-     * Gets all parties with candidates.
+     * Finds a page of the parties of an election, with their candidates.
+     * <p>
+     * The database sorts and pages the IDs of the parties first, the candidates are fetched for the parties of the
+     * page only: paging a query that fetches a collection would make Hibernate load all rows and page in memory.
      *
-     * @return - a list of parties
+     * @param electionId - the ID of the election, no parties are returned when it is null
+     * @param pageable   - the page, sorted by id, pid, name or seats
+     * @return - the parties of the page
+     * @throws com.example.electionbackend.exception.InvalidSortPropertyException if the page is sorted by another
+     *                                                                            property
      */
-    public List<Party> getAllWithCandidates() {
-        final String jpql =
-                "SELECT DISTINCT p FROM Party p " +
-                        "LEFT JOIN FETCH p.candidates";
+    public List<Party> findByElectionId(String electionId, Pageable pageable) {
+        String orderBy = SortUtils.toOrderBy(pageable.getSort(), SORT_COLUMNS, "p.id");
+        if (electionId == null) {
+            return List.of();
+        }
 
-        return entityManager
-                .createQuery(jpql, Party.class)
+        TypedQuery<Integer> idQuery = entityManager.createQuery(
+                        "SELECT p.id FROM Party p WHERE p.election.id = :electionId" + orderBy, Integer.class)
+                .setParameter("electionId", electionId);
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Integer> ids = idQuery.getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.createQuery(
+                        "SELECT DISTINCT p FROM Party p LEFT JOIN FETCH p.candidates WHERE p.id IN :ids" + orderBy,
+                        Party.class)
+                .setParameter("ids", ids)
                 .getResultList();
     }
+
+    /**
+     * Counts the parties of an election.
+     *
+     * @param electionId - the ID of the election
+     * @return - the number of parties
+     */
+    public long countByElectionId(String electionId) {
+        return entityManager.createQuery(
+                        "SELECT COUNT(p) FROM Party p WHERE p.election.id = :electionId", Long.class)
+                .setParameter("electionId", electionId)
+                .getSingleResult();
+    }
 }
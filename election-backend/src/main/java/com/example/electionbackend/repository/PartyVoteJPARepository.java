@@ -1,89 +1,234 @@
 package com.example.electionbackend.repository;
 
+import com.example.electionbackend.dto.PartyVoteDetailDTO;
 import com.example.electionbackend.model.PartyVote;
 import com.example.electionbackend.repository.interfaces.PartyVoteRepository;
 import com.example.electionbackend.type.RegionType;
+import com.example.electionbackend.util.SortUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * JPA Repository implementation for PartyVote entity.
  */
 @Repository
 public class PartyVoteJPARepository implements PartyVoteRepository {
+    private static final String REGION_TYPE = "com.example.electionbackend.type.RegionType.";
+    private static final String DETAILS = "SELECT new com.example.electionbackend.dto.PartyVoteDetailDTO("
+            + "pv.id, pv.partyId, pv.votes, pv.regionType, pv.regionId, p.name, "
+            + "COALESCE(CASE pv.regionType"
+            + " WHEN " + REGION_TYPE + "NATIONAL THEN 'Nederland'"
+            + " WHEN " + REGION_TYPE + "CONSTITUENCY THEN c.name"
+            + " WHEN " + REGION_TYPE + "MUNICIPALITY THEN m.name"
+            + " WHEN " + REGION_TYPE + "POLLING_STATION THEN ps.name END, 'Unknown Region'), "
+            + "COALESCE(p.seats, 0)) "
+            + "FROM PartyVote pv "
+            + "LEFT JOIN Party p ON p.id = pv.partyId "
+            + "LEFT JOIN Constituency c ON pv.regionType = " + REGION_TYPE + "CONSTITUENCY AND c.id = pv.regionId "
+            + "LEFT JOIN Municipality m ON pv.regionType = " + REGION_TYPE + "MUNICIPALITY AND m.id = pv.regionId "
+            + "LEFT JOIN PollingStation ps ON pv.regionType = " + REGION_TYPE + "POLLING_STATION AND ps.id = pv.regionId";
+
     @PersistenceContext
     EntityManager entityManager;
 
     /**
-     * Finds PartyVote records by Party ID.
+     * Finds a page of PartyVote records, with the names of their region and party, by Party ID.
+     *
+     * @param id        - the Party ID
+     * @param pageable  - the page and the sort order, only sorting by votes is supported
+     * @param lastVotes - the votes of the last record of the previous page, or null to use the page number
+     * @param lastId    - the ID of the last record of the previous page, or null to only compare the votes
+     * @return - the page of PartyVote details associated with the given Party ID
+     */
+    @Transactional
+    @Override
+    public List<PartyVoteDetailDTO> findDetailsByPartyId(int id, Pageable pageable, Integer lastVotes, Integer lastId) {
+        return findPage("pv.partyId = :partyId", Map.of("partyId", id), pageable, lastVotes, lastId);
+    }
+
+    /**
+     * Counts the PartyVote records by Party ID.
+     *
+     * @param id - the Party ID
+     * @return - the number of PartyVote records associated with the given Party ID
+     */
+    @Transactional
+    @Override
+    public long countByPartyId(int id) {
+        return count("pv.partyId = :partyId", Map.of("partyId", id));
+    }
+
+    /**
+     * Finds a page of PartyVote records, with the names of their region and party, by Region Type.
      *
-     * @param id   - the Party ID
-     * @return - list of PartyVote records associated with the given Party ID
+     * @param type      - the Region Type
+     * @param pageable  - the page and the sort order, only sorting by votes is supported
+     * @param lastVotes - the votes of the last record of the previous page, or null to use the page number
+     * @param lastId    - the ID of the last record of the previous page, or null to only compare the votes
+     * @return - the page of PartyVote details associated with the given Region Type
      */
     @Transactional
     @Override
-    public List<PartyVote> findByPartyId(int id) {
-        return entityManager.createQuery(
-                        "SELECT pv FROM PartyVote pv WHERE pv.partyId = :partyId", PartyVote.class)
-                .setParameter("partyId", id)
-                .getResultList();
+    public List<PartyVoteDetailDTO> findDetailsByType(RegionType type, Pageable pageable, Integer lastVotes, Integer lastId) {
+        return findPage("pv.regionType = :regionType", Map.of("regionType", type), pageable, lastVotes, lastId);
     }
 
     /**
-     * Finds PartyVote records by Region Type.
+     * Counts the PartyVote records by Region Type.
      *
      * @param type - the Region Type
-     * @return - list of PartyVote records associated with the given Region Type
+     * @return - the number of PartyVote records associated with the given Region Type
      */
     @Transactional
     @Override
-    public List<PartyVote> findByType(RegionType type) {
-        return entityManager.createQuery(
-                        "SELECT pv FROM PartyVote pv WHERE pv.regionType = :regionType", PartyVote.class)
-                .setParameter("regionType", type)
-                .getResultList();
+    public long countByType(RegionType type) {
+        return count("pv.regionType = :regionType", Map.of("regionType", type));
     }
 
     /**
-     * Finds PartyVote records by Region Type and Region ID.
+     * Finds a page of PartyVote records, with the names of their region and party, by Region Type and Region ID.
+     *
+     * @param type      - the Region Type
+     * @param id        - the Region ID
+     * @param pageable  - the page and the sort order, only sorting by votes is supported
+     * @param lastVotes - the votes of the last record of the previous page, or null to use the page number
+     * @param lastId    - the ID of the last record of the previous page, or null to only compare the votes
+     * @return - the page of PartyVote details associated with the given Region Type and Region ID
+     */
+    @Transactional
+    @Override
+    public List<PartyVoteDetailDTO> findDetailsByTypeAndTypeId(RegionType type, int id, Pageable pageable,
+                                                               Integer lastVotes, Integer lastId) {
+        return findPage("pv.regionType = :regionType AND pv.regionId = :regionId",
+                Map.of("regionType", type, "regionId", id), pageable, lastVotes, lastId);
+    }
+
+    /**
+     * Counts the PartyVote records by Region Type and Region ID.
      *
      * @param type - the Region Type
      * @param id   - the Region ID
-     * @return - list of PartyVote records associated with the given Region Type and Region ID
+     * @return - the number of PartyVote records associated with the given Region Type and Region ID
      */
     @Transactional
     @Override
-    public List<PartyVote> findByTypeAndTypeId(RegionType type, String id) {
-        return entityManager.createQuery(
-                        "SELECT pv FROM PartyVote pv WHERE pv.regionType = :regionType AND pv.regionId = :regionId", PartyVote.class)
-                .setParameter("regionType", type)
-                .setParameter("regionId", id)
-                .getResultList();
+    public long countByTypeAndTypeId(RegionType type, int id) {
+        return count("pv.regionType = :regionType AND pv.regionId = :regionId",
+                Map.of("regionType", type, "regionId", id));
     }
 
     /**
-     * Finds PartyVote records by Region Type, Region ID, and Party ID.
+     * Finds a page of PartyVote records, with the names of their region and party, by Region Type, Region ID, and Party ID.
+     *
+     * @param type      - the Region Type
+     * @param id        - the Region ID
+     * @param partyId   - the Party ID
+     * @param pageable  - the page and the sort order, only sorting by votes is supported
+     * @param lastVotes - the votes of the last record of the previous page, or null to use the page number
+     * @param lastId    - the ID of the last record of the previous page, or null to only compare the votes
+     * @return - the page of PartyVote details associated with the given Region Type, Region ID, and Party ID
+     */
+    @Transactional
+    @Override
+    public List<PartyVoteDetailDTO> findDetailsByTypeAndTypeIdAndPartyId(RegionType type, int id, int partyId,
+                                                                         Pageable pageable, Integer lastVotes, Integer lastId) {
+        return findPage("pv.regionType = :regionType AND pv.regionId = :regionId AND pv.partyId = :partyId",
+                Map.of("regionType", type, "regionId", id, "partyId", partyId), pageable, lastVotes, lastId);
+    }
+
+    /**
+     * Counts the PartyVote records by Region Type, Region ID, and Party ID.
      *
      * @param type    - the Region Type
      * @param id      - the Region ID
      * @param partyId - the Party ID
-     * @return - list of PartyVote records associated with the given Region Type, Region ID, and Party ID
+     * @return - the number of PartyVote records associated with the given Region Type, Region ID, and Party ID
+     */
+    @Transactional
+    @Override
+    public long countByTypeAndTypeIdAndPartyId(RegionType type, int id, int partyId) {
+        return count("pv.regionType = :regionType AND pv.regionId = :regionId AND pv.partyId = :partyId",
+                Map.of("regionType", type, "regionId", id, "partyId", partyId));
+    }
+
+    /**
+     * Runs a query for a single page of PartyVote records, sorted and limited by the database.
+     * <p>
+     * The records are projected straight into PartyVoteDetailDTOs: the party and the region of the vote are joined in
+     * the same query, so a page costs a single round-trip instead of a lookup of the region and party of every vote.
+     * A vote of the NATIONAL region is named Nederland, a vote of which the region can't be found Unknown Region.
+     * <p>
+     * The records are ordered by votes and then by ID, in the direction of the votes order (descending when the page
+     * isn't sorted). When lastVotes is given the page continues after that record (keyset pagination) and the page
+     * number is ignored, so a deep page doesn't make the database skip all the rows before it.
+     *
+     * @param filter     - the JPQL condition on the alias pv
+     * @param parameters - the parameters of the condition
+     * @param pageable   - the page and the sort order
+     * @param lastVotes  - the votes of the last record of the previous page, or null
+     * @param lastId     - the ID of the last record of the previous page, or null
+     * @return - the records of the page
+     */
+    private List<PartyVoteDetailDTO> findPage(String filter, Map<String, Object> parameters, Pageable pageable,
+                                              Integer lastVotes, Integer lastId) {
+        boolean descending = SortUtils.isVotesDescending(pageable.getSort());
+        String direction = descending ? "DESC" : "ASC";
+        String after = descending ? "<" : ">";
+
+        StringBuilder query = new StringBuilder(DETAILS).append(" WHERE ").append(filter);
+        if (lastVotes != null) {
+            query.append(lastId != null
+                    ? " AND (pv.votes " + after + " :lastVotes OR (pv.votes = :lastVotes AND pv.id " + after + " :lastId))"
+                    : " AND pv.votes " + after + " :lastVotes");
+        }
+        query.append(" ORDER BY pv.votes ").append(direction).append(", pv.id ").append(direction);
+
+        TypedQuery<PartyVoteDetailDTO> typedQuery = entityManager.createQuery(query.toString(), PartyVoteDetailDTO.class);
+        parameters.forEach(typedQuery::setParameter);
+        if (lastVotes != null) {
+            typedQuery.setParameter("lastVotes", lastVotes);
+            if (lastId != null) {
+                typedQuery.setParameter("lastId", lastId);
+            }
+        } else if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+        }
+        if (pageable.isPaged()) {
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Counts the PartyVote records matching a condition.
+     *
+     * @param filter     - the JPQL condition on the alias pv
+     * @param parameters - the parameters of the condition
+     * @return - the number of matching records
+     */
+    private long count(String filter, Map<String, Object> parameters) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT COUNT(pv) FROM PartyVote pv WHERE " + filter, Long.class);
+        parameters.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    /**
+     * Finds a PartyVote by its ID.
+     *
+     * @param id - the ID of the PartyVote
+     * @return - the PartyVote entity, or null if it doesn't exist
      */
     @Override
-    public List<PartyVote> findByTypeAndTypeIdAndPartyId(RegionType type, String id, int partyId) {
-        return entityManager.createQuery(
-                        "SELECT pv FROM PartyVote pv " +
-                                "WHERE pv.regionType = :regionType " +
-                                "AND pv.regionId = :regionId " +
-                                "AND pv.partyId = :partyId", PartyVote.class)
-                .setParameter("regionType", type)
-                .setParameter("regionId", id)
-                .setParameter("partyId", partyId)
-                .getResultList();
+    public PartyVote findById(int id) {
+        return entityManager.find(PartyVote.class, id);
     }
 
     /**
@@ -0,0 +1,417 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.dto.PartyVoteTotalDTO;
+import com.example.electionbackend.repository.interfaces.PartyVoteTotalRepository;
+import com.example.electionbackend.type.RegionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+import static com.example.electionbackend.repository.ElectionJdbcRepository.*;
+
+/**
+ * Repository that maintains the {@code party_vote_total} table: the total votes of every party per national,
+ * constituency and municipality region of an election, with the share of the votes in the region and the rank of
+ * the party. Dashboards read these few thousand rows instead of summing the party votes on every request.
+ * <p>
+ * A region uses the party votes that were reported for it. When no votes were reported for a region, for example
+ * because the parser didn't emit totals for that level, the totals of its subregions are added up instead; the
+ * polling station votes are the bottom level. The totals of an election are rebuilt as a whole when it is seeded; a
+ * corrected party vote only changes the totals of its region and the regions above it. Both run in the surrounding
+ * transaction.
+ */
+@Repository
+public class PartyVoteTotalJdbcRepository implements PartyVoteTotalRepository {
+    private static final String SELECT = "SELECT t.region_type, t.region_id, t.party_id, p.name, t.votes, t.share, "
+            + "t.party_rank FROM party_vote_total t LEFT JOIN party p ON p.id = t.party_id ";
+    private static final RowMapper<PartyVoteTotalDTO> ROW_MAPPER = (rs, rowNum) -> new PartyVoteTotalDTO(
+            RegionType.valueOf(rs.getString("region_type")),
+            rs.getInt("region_id"),
+            rs.getInt("party_id"),
+            rs.getString("name"),
+            rs.getInt("votes"),
+            rs.getDouble("share"),
+            rs.getInt("party_rank"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * Constructor for the PartyVoteTotalJdbcRepository class.
+     *
+     * @param jdbcTemplate The template used to run the statements.
+     * @param batchSize    The maximum number of rows per batch.
+     */
+    public PartyVoteTotalJdbcRepository(JdbcTemplate jdbcTemplate,
+                                        @Value("${app.seeder.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Replaces the totals of an election with totals computed from its current party votes.
+     *
+     * @param electionId the unique identifier of the election
+     */
+    @Override
+    public void rebuild(String electionId) {
+        // The polling station votes are summed per municipality by the database
+        Map<Integer, Map<Integer, Integer>> pollingStations = votesByRegion(
+                "SELECT p.municipality_id, pv.party_id, SUM(pv.votes) FROM party_vote pv "
+                        + "JOIN polling_station p ON pv.region_id = p.id "
+                        + "WHERE pv.region_type = ? AND p.id IN (" + POLLING_STATION_IDS + ") "
+                        + "GROUP BY p.municipality_id, pv.party_id",
+                RegionType.POLLING_STATION.name(), electionId);
+
+        Map<Integer, Map<Integer, Integer>> municipalities = totals(RegionType.MUNICIPALITY, MUNICIPALITY_IDS,
+                pollingStations, electionId);
+        Map<Integer, Map<Integer, Integer>> constituencies = totals(RegionType.CONSTITUENCY, CONSTITUENCY_IDS,
+                rollUp(municipalities, "SELECT m.id, m.constituency_id FROM municipality m WHERE m.id IN ("
+                        + MUNICIPALITY_IDS + ")", electionId), electionId);
+        Map<Integer, Map<Integer, Integer>> national = totals(RegionType.NATIONAL, STATE_IDS,
+                rollUp(constituencies, "SELECT c.id, c.state_id FROM constituency c WHERE c.id IN ("
+                        + CONSTITUENCY_IDS + ")", electionId), electionId);
+
+        jdbcTemplate.update("DELETE FROM party_vote_total WHERE election_id = ?", electionId);
+        List<Object[]> rows = new ArrayList<>();
+        addRows(rows, electionId, RegionType.NATIONAL, national);
+        addRows(rows, electionId, RegionType.CONSTITUENCY, constituencies);
+        addRows(rows, electionId, RegionType.MUNICIPALITY, municipalities);
+        jdbcTemplate.batchUpdate("INSERT INTO party_vote_total "
+                        + "(election_id, region_type, region_id, party_id, votes, share, party_rank) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rows, batchSize, (ps, row) -> {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                });
+    }
+
+    /**
+     * Applies a change of the party votes of a region to the totals, without rebuilding the election. Called
+     * before the change is written, so the party votes in the database are still the old ones.
+     * <p>
+     * The change is added to the totals of the region, and to the totals of every parent region that is added up
+     * from its subregions, up to the first parent with reported votes of its own; a rebuild would leave the totals
+     * of that parent as they are. When the region gets its first reported vote, or loses its last one, its totals
+     * switch between the total of its subregions and its reported votes, and that difference is passed up instead.
+     * Only the totals of the changed regions are ranked again.
+     *
+     * @param type     the type of the region of the votes
+     * @param regionId the ID of the region
+     * @param votes    the change of the votes per party, negative for removed votes
+     * @param rows     the change of the number of party votes of the region: 1 for a new vote, -1 for a removed
+     *                 vote and 0 for a changed vote
+     */
+    @Override
+    public void applyChange(RegionType type, int regionId, Map<Integer, Integer> votes, int rows) {
+        String electionId = findElectionId(type, regionId);
+
+        // A vote in a region that doesn't exist isn't part of any totals
+        if (electionId == null) {
+            return;
+        }
+
+        int before = countReported(type, regionId);
+        int after = before + rows;
+        Map<Integer, Integer> change = new HashMap<>(votes);
+        if ((before == 0) != (after == 0)) {
+            int sign = before == 0 ? -1 : 1;
+            subregionTotals(electionId, type, regionId)
+                    .forEach((partyId, count) -> change.merge(partyId, sign * count, Integer::sum));
+        }
+        change.values().removeIf(delta -> delta == 0);
+        if (change.isEmpty()) {
+            return;
+        }
+
+        RegionType level = type;
+        int id = regionId;
+        while (true) {
+            if (level != RegionType.POLLING_STATION) {
+                addToRegion(electionId, level, id, change);
+            }
+            RegionType parentType = parentType(level);
+            Integer parentId = parentType != null ? findParentId(level, id) : null;
+            if (parentId == null || countReported(parentType, parentId) > 0) {
+                return;
+            }
+            level = parentType;
+            id = parentId;
+        }
+    }
+
+    /**
+     * Finds the election a region belongs to.
+     *
+     * @param type     the type of the region
+     * @param regionId the ID of the region
+     * @return the ID of the election, or null if the region doesn't exist
+     */
+    @Override
+    public String findElectionId(RegionType type, int regionId) {
+        String sql = switch (type) {
+            case NATIONAL -> "SELECT s.election_id FROM state s WHERE s.id = ?";
+            case CONSTITUENCY -> "SELECT s.election_id FROM constituency c "
+                    + "JOIN state s ON c.state_id = s.id WHERE c.id = ?";
+            case MUNICIPALITY -> "SELECT s.election_id FROM municipality m "
+                    + "JOIN constituency c ON m.constituency_id = c.id "
+                    + "JOIN state s ON c.state_id = s.id WHERE m.id = ?";
+            case POLLING_STATION -> "SELECT s.election_id FROM polling_station p "
+                    + "JOIN municipality m ON p.municipality_id = m.id "
+                    + "JOIN constituency c ON m.constituency_id = c.id "
+                    + "JOIN state s ON c.state_id = s.id WHERE p.id = ?";
+        };
+        List<String> electionIds = jdbcTemplate.queryForList(sql, String.class, regionId);
+        return electionIds.isEmpty() ? null : electionIds.get(0);
+    }
+
+    /**
+     * Finds a page of the totals of all regions of a type, ordered by region and rank.
+     *
+     * @param electionId the unique identifier of the election
+     * @param type       the type of the regions
+     * @param pageable   the page, the sort order is ignored
+     * @return the totals of the page
+     */
+    @Override
+    public List<PartyVoteTotalDTO> findByRegionType(String electionId, RegionType type, Pageable pageable) {
+        String sql = SELECT + "WHERE t.election_id = ? AND t.region_type = ? "
+                + "ORDER BY t.region_id, t.party_rank, t.party_id";
+        if (pageable.isUnpaged()) {
+            return jdbcTemplate.query(sql, ROW_MAPPER, electionId, type.name());
+        }
+        return jdbcTemplate.query(sql + " LIMIT ? OFFSET ?", ROW_MAPPER,
+                electionId, type.name(), pageable.getPageSize(), pageable.getOffset());
+    }
+
+    /**
+     * Counts the totals of all regions of a type.
+     *
+     * @param electionId the unique identifier of the election
+     * @param type       the type of the regions
+     * @return the number of totals
+     */
+    @Override
+    public long countByRegionType(String electionId, RegionType type) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM party_vote_total WHERE election_id = ? AND region_type = ?",
+                Long.class, electionId, type.name());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Finds the totals of a single region, ordered by rank.
+     *
+     * @param electionId the unique identifier of the election
+     * @param type       the type of the region
+     * @param regionId   the ID of the region
+     * @return the totals of the parties in the region
+     */
+    @Override
+    public List<PartyVoteTotalDTO> findByRegion(String electionId, RegionType type, int regionId) {
+        return jdbcTemplate.query(SELECT + "WHERE t.election_id = ? AND t.region_type = ? AND t.region_id = ? "
+                + "ORDER BY t.party_rank, t.party_id", ROW_MAPPER, electionId, type.name(), regionId);
+    }
+
+    /**
+     * Counts the party votes that were reported for a region.
+     */
+    private int countReported(RegionType type, int regionId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM party_vote WHERE region_type = ? AND region_id = ?",
+                Integer.class, type.name(), regionId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Gets the type of the parent regions of a type, null for the national level.
+     */
+    private static RegionType parentType(RegionType type) {
+        return switch (type) {
+            case POLLING_STATION -> RegionType.MUNICIPALITY;
+            case MUNICIPALITY -> RegionType.CONSTITUENCY;
+            case CONSTITUENCY -> RegionType.NATIONAL;
+            case NATIONAL -> null;
+        };
+    }
+
+    /**
+     * Finds the ID of the parent region of a region.
+     *
+     * @return the ID of the parent, or null if the region doesn't exist
+     */
+    private Integer findParentId(RegionType type, int regionId) {
+        String sql = switch (type) {
+            case POLLING_STATION -> "SELECT municipality_id FROM polling_station WHERE id = ?";
+            case MUNICIPALITY -> "SELECT constituency_id FROM municipality WHERE id = ?";
+            case CONSTITUENCY -> "SELECT state_id FROM constituency WHERE id = ?";
+            case NATIONAL -> null;
+        };
+        if (sql == null) {
+            return null;
+        }
+        List<Integer> parentIds = jdbcTemplate.queryForList(sql, Integer.class, regionId);
+        return parentIds.isEmpty() ? null : parentIds.get(0);
+    }
+
+    /**
+     * Adds up the totals of the subregions of a single region, as a rebuild would when the region has no reported
+     * votes. Polling stations have no totals, so their reported votes are added up instead.
+     */
+    private Map<Integer, Integer> subregionTotals(String electionId, RegionType type, int regionId) {
+        return switch (type) {
+            case POLLING_STATION -> Map.of();
+            case MUNICIPALITY -> votesByParty("SELECT pv.party_id, SUM(pv.votes) FROM party_vote pv "
+                            + "JOIN polling_station p ON pv.region_id = p.id "
+                            + "WHERE pv.region_type = ? AND p.municipality_id = ? GROUP BY pv.party_id",
+                    RegionType.POLLING_STATION.name(), regionId);
+            case CONSTITUENCY -> votesByParty("SELECT t.party_id, SUM(t.votes) FROM party_vote_total t "
+                            + "JOIN municipality m ON t.region_id = m.id "
+                            + "WHERE t.election_id = ? AND t.region_type = ? AND m.constituency_id = ? "
+                            + "GROUP BY t.party_id",
+                    electionId, RegionType.MUNICIPALITY.name(), regionId);
+            case NATIONAL -> votesByParty("SELECT t.party_id, SUM(t.votes) FROM party_vote_total t "
+                            + "JOIN constituency c ON t.region_id = c.id "
+                            + "WHERE t.election_id = ? AND t.region_type = ? AND c.state_id = ? "
+                            + "GROUP BY t.party_id",
+                    electionId, RegionType.CONSTITUENCY.name(), regionId);
+        };
+    }
+
+    /**
+     * Adds a change of the votes per party to the totals of a region and ranks its parties again.
+     */
+    private void addToRegion(String electionId, RegionType type, int regionId, Map<Integer, Integer> change) {
+        for (Map.Entry<Integer, Integer> party : new TreeMap<>(change).entrySet()) {
+            int updated = jdbcTemplate.update("UPDATE party_vote_total SET votes = votes + ? "
+                            + "WHERE election_id = ? AND region_type = ? AND region_id = ? AND party_id = ?",
+                    party.getValue(), electionId, type.name(), regionId, party.getKey());
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO party_vote_total "
+                                + "(election_id, region_type, region_id, party_id, votes, share, party_rank) "
+                                + "VALUES (?, ?, ?, ?, ?, 0, 0)",
+                        electionId, type.name(), regionId, party.getKey(), party.getValue());
+            }
+        }
+
+        Map<Integer, Integer> votes = votesByParty("SELECT party_id, votes FROM party_vote_total "
+                + "WHERE election_id = ? AND region_type = ? AND region_id = ?", electionId, type.name(), regionId);
+        jdbcTemplate.batchUpdate("UPDATE party_vote_total SET share = ?, party_rank = ? "
+                        + "WHERE election_id = ? AND region_type = ? AND region_id = ? AND party_id = ?",
+                rank(votes), batchSize, (ps, party) -> {
+                    ps.setDouble(1, (double) party[2]);
+                    ps.setInt(2, (int) party[3]);
+                    ps.setString(3, electionId);
+                    ps.setString(4, type.name());
+                    ps.setInt(5, regionId);
+                    ps.setInt(6, (int) party[0]);
+                });
+    }
+
+    /**
+     * Runs a query of party ID and votes, and adds up the votes per party.
+     */
+    private Map<Integer, Integer> votesByParty(String sql, Object... parameters) {
+        Map<Integer, Integer> votes = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> votes.merge(rs.getInt(1), rs.getInt(2), Integer::sum),
+                parameters);
+        return votes;
+    }
+
+    /**
+     * Computes the totals of the regions of one level: the reported votes of a region, or the totals of its
+     * subregions if no votes were reported for it.
+     *
+     * @return the votes per party by region, regions without any votes are left out
+     */
+    private Map<Integer, Map<Integer, Integer>> totals(RegionType type, String regionIds,
+                                                       Map<Integer, Map<Integer, Integer>> subregions, String electionId) {
+        Map<Integer, Map<Integer, Integer>> reported = votesByRegion(
+                "SELECT pv.region_id, pv.party_id, SUM(pv.votes) FROM party_vote pv "
+                        + "WHERE pv.region_type = ? AND pv.region_id IN (" + regionIds + ") "
+                        + "GROUP BY pv.region_id, pv.party_id",
+                type.name(), electionId);
+
+        Map<Integer, Map<Integer, Integer>> totals = new HashMap<>();
+        for (Integer regionId : jdbcTemplate.queryForList(regionIds, Integer.class, electionId)) {
+            Map<Integer, Integer> votes = reported.getOrDefault(regionId, subregions.get(regionId));
+            if (votes != null && !votes.isEmpty()) {
+                totals.put(regionId, votes);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Adds up the totals of the subregions per parent region.
+     *
+     * @param parents the query for the ID and the parent ID of every subregion
+     */
+    private Map<Integer, Map<Integer, Integer>> rollUp(Map<Integer, Map<Integer, Integer>> subregions, String parents,
+                                                       String electionId) {
+        Map<Integer, Map<Integer, Integer>> totals = new HashMap<>();
+        jdbcTemplate.query(parents, (RowCallbackHandler) rs -> {
+            Map<Integer, Integer> votes = subregions.get(rs.getInt(1));
+            if (votes != null) {
+                Map<Integer, Integer> parent = totals.computeIfAbsent(rs.getInt(2), id -> new HashMap<>());
+                votes.forEach((partyId, count) -> parent.merge(partyId, count, Integer::sum));
+            }
+        }, electionId);
+        return totals;
+    }
+
+    /**
+     * Runs a query of region ID, party ID and votes, and groups the votes per party by region.
+     */
+    private Map<Integer, Map<Integer, Integer>> votesByRegion(String sql, Object... parameters) {
+        Map<Integer, Map<Integer, Integer>> votes = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> votes
+                .computeIfAbsent(rs.getInt(1), id -> new HashMap<>())
+                .merge(rs.getInt(2), rs.getInt(3), Integer::sum), parameters);
+        return votes;
+    }
+
+    /**
+     * Adds a row for every party of every region, with its share of the votes in the region and its rank.
+     */
+    private static void addRows(List<Object[]> rows, String electionId, RegionType type,
+                                Map<Integer, Map<Integer, Integer>> totals) {
+        for (Map.Entry<Integer, Map<Integer, Integer>> region : new TreeMap<>(totals).entrySet()) {
+            for (Object[] party : rank(region.getValue())) {
+                rows.add(new Object[]{electionId, type.name(), region.getKey(), party[0], party[1], party[2],
+                        party[3]});
+            }
+        }
+    }
+
+    /**
+     * Orders the parties of a region by their votes, with their share of the votes in the region and their rank.
+     * Parties with the same number of votes get the same rank, the next party skips the ranks in between.
+     *
+     * @return the party ID, votes, share and rank of every party
+     */
+    private static List<Object[]> rank(Map<Integer, Integer> votes) {
+        List<Map.Entry<Integer, Integer>> parties = new ArrayList<>(votes.entrySet());
+        parties.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        long total = parties.stream().mapToLong(Map.Entry::getValue).sum();
+
+        List<Object[]> ranked = new ArrayList<>(parties.size());
+        int rank = 0;
+        for (int i = 0; i < parties.size(); i++) {
+            Map.Entry<Integer, Integer> party = parties.get(i);
+            if (i == 0 || !party.getValue().equals(parties.get(i - 1).getValue())) {
+                rank = i + 1;
+            }
+            double share = total > 0 ? (double) party.getValue() / total : 0;
+            ranked.add(new Object[]{party.getKey(), party.getValue(), share, rank});
+        }
+        return ranked;
+    }
+}
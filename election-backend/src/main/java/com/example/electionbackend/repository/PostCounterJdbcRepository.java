@@ -0,0 +1,77 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.dto.PostCountsDTO;
+import com.example.electionbackend.repository.interfaces.PostCounterRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Repository that maintains the {@code like_count} and {@code comment_count} columns of the {@code post} table.
+ * <p>
+ * The counts are only changed by adding a delta in the database, so nodes that flush their deltas for the same post
+ * never overwrite each other's changes.
+ */
+@Repository
+public class PostCounterJdbcRepository implements PostCounterRepository {
+    private static final int BATCH_SIZE = 1_000;
+    private static final RowMapper<PostCountsDTO> ROW_MAPPER = (rs, rowNum) -> new PostCountsDTO(
+            rs.getInt("id"),
+            rs.getInt("like_count"),
+            rs.getInt("comment_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for the PostCounterJdbcRepository class.
+     *
+     * @param jdbcTemplate The template used to run the statements.
+     */
+    public PostCounterJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds deltas to the counts of posts in one transaction. The rows are updated in the order of their IDs, so
+     * two nodes flushing the same posts lock them in the same order instead of deadlocking. A count never drops
+     * below zero, also when nodes remove the same like at the same time.
+     *
+     * @param deltas the changes of the counts, per post
+     */
+    @Override
+    @Transactional
+    public void addCounts(List<PostCountsDTO> deltas) {
+        List<PostCountsDTO> sorted = new ArrayList<>(deltas);
+        sorted.sort(Comparator.comparingInt(PostCountsDTO::getPostId));
+        jdbcTemplate.batchUpdate("UPDATE post SET like_count = GREATEST(like_count + ?, 0), "
+                        + "comment_count = GREATEST(comment_count + ?, 0) WHERE id = ?",
+                sorted, BATCH_SIZE, (ps, delta) -> {
+                    ps.setInt(1, delta.getLikeCount());
+                    ps.setInt(2, delta.getCommentCount());
+                    ps.setInt(3, delta.getPostId());
+                });
+    }
+
+    /**
+     * Finds the counts of posts. Posts that don't exist are left out.
+     *
+     * @param postIds the IDs of the posts
+     * @return the counts of the posts
+     */
+    @Override
+    public List<PostCountsDTO> findCounts(Collection<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(postIds.size(), "?"));
+        return jdbcTemplate.query("SELECT id, like_count, comment_count FROM post WHERE id IN (" + placeholders + ")",
+                ROW_MAPPER, postIds.toArray());
+    }
+}
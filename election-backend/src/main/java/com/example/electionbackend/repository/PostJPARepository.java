@@ -4,9 +4,11 @@ import com.example.electionbackend.model.Post;
 import com.example.electionbackend.repository.interfaces.PostRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,9 +16,20 @@ public class PostJPARepository implements PostRepository {
     @PersistenceContext
     EntityManager entityManager;
 
+    /**
+     * Finds a Post entity by its ID, with its user.
+     *
+     * @param id - the ID of the post
+     * @return - the Post entity, or null if it doesn't exist
+     */
     @Override
+    @Transactional
     public Post findById(int id) {
-        return null;
+        return entityManager.createQuery("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id = :id", Post.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
     }
 
     @Override
@@ -52,6 +65,49 @@ public class PostJPARepository implements PostRepository {
                 .getResultList();
     }
 
+    /**
+     * Finds a page of the post feed: the posts newest first, by ID on equal creation times, with their users.
+     * <p>
+     * When lastCreatedAt is given the page continues after that post (keyset pagination), so the database reads
+     * only the rows of the page from the (created_at, id) index, however deep the page is.
+     *
+     * @param lastCreatedAt - the creation time of the last post of the previous page, or null for the first page
+     * @param lastId        - the ID of the last post of the previous page, or null
+     * @param size          - the maximum number of posts
+     * @return - the posts of the page
+     */
+    @Override
+    @Transactional
+    public List<Post> findFeedPage(LocalDateTime lastCreatedAt, Integer lastId, int size) {
+        StringBuilder query = new StringBuilder("SELECT p FROM Post p JOIN FETCH p.user");
+        if (lastCreatedAt != null) {
+            query.append(lastId != null
+                    ? " WHERE p.createdAt < :lastCreatedAt OR (p.createdAt = :lastCreatedAt AND p.id < :lastId)"
+                    : " WHERE p.createdAt < :lastCreatedAt");
+        }
+        query.append(" ORDER BY p.createdAt DESC, p.id DESC");
+
+        TypedQuery<Post> typedQuery = entityManager.createQuery(query.toString(), Post.class);
+        if (lastCreatedAt != null) {
+            typedQuery.setParameter("lastCreatedAt", lastCreatedAt);
+            if (lastId != null) {
+                typedQuery.setParameter("lastId", lastId);
+            }
+        }
+        return typedQuery.setMaxResults(size).getResultList();
+    }
+
+    /**
+     * Counts all Post entities.
+     *
+     * @return - the number of posts
+     */
+    @Override
+    @Transactional
+    public long count() {
+        return entityManager.createQuery("SELECT COUNT(p) FROM Post p", Long.class).getSingleResult();
+    }
+
     /**
      * Finds Post entities matching the given query in their title.
      *
@@ -0,0 +1,55 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.repository.interfaces.PostLikeRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository that maintains the {@code post_like} table, which user liked which post.
+ * <p>
+ * Whether a like was added or removed is decided by the primary key of the table, so a user that likes or unlikes
+ * a post twice at the same time changes the like count only once.
+ */
+@Repository
+public class PostLikeJdbcRepository implements PostLikeRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for the PostLikeJdbcRepository class.
+     *
+     * @param jdbcTemplate The template used to run the statements.
+     */
+    public PostLikeJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records that a user likes a post.
+     *
+     * @param postId the ID of the post
+     * @param userId the ID of the user
+     * @return true if the like was added, false if the user already liked the post
+     */
+    @Override
+    public boolean add(int postId, int userId) {
+        try {
+            return jdbcTemplate.update("INSERT INTO post_like (post_id, user_id, created_at) "
+                    + "VALUES (?, ?, CURRENT_TIMESTAMP)", postId, userId) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes the like of a user from a post.
+     *
+     * @param postId the ID of the post
+     * @param userId the ID of the user
+     * @return true if the like was removed, false if the user didn't like the post
+     */
+    @Override
+    public boolean remove(int postId, int userId) {
+        return jdbcTemplate.update("DELETE FROM post_like WHERE post_id = ? AND user_id = ?", postId, userId) == 1;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.electionbackend.repository.interfaces;
+
+import com.example.electionbackend.model.CacheInvalidation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for the outbox of cache invalidations shared by all nodes.
+ */
+public interface CacheInvalidationRepository {
+    void append(String cacheName, String cacheKey, String originNode);
+    List<CacheInvalidation> findAfter(long lastId, int limit);
+    List<CacheInvalidation> findRecent(long lastId, LocalDateTime since);
+    long findLastId();
+    LocalDateTime now();
+    int deleteBefore(LocalDateTime before);
+}
@@ -0,0 +1,15 @@
+package com.example.electionbackend.repository.interfaces;
+
+import com.example.electionbackend.dto.ConstituencyDTO;
+import com.example.electionbackend.dto.ElectionDTO;
+import com.example.electionbackend.dto.InsertedElectionDTO;
+
+/**
+ * Repository interface for loading complete elections in bulk.
+ */
+public interface ElectionBulkRepository {
+    String getFingerprint(String electionId);
+    void delete(String electionId);
+    InsertedElectionDTO insert(ElectionDTO election, String fingerprint);
+    void insertConstituency(InsertedElectionDTO election, ConstituencyDTO constituency);
+}
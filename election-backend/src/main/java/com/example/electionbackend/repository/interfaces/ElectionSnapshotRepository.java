@@ -0,0 +1,10 @@
+package com.example.electionbackend.repository.interfaces;
+
+import com.example.electionbackend.readmodel.ElectionSnapshot;
+
+/**
+ * Repository interface for loading the in-memory snapshot of an election.
+ */
+public interface ElectionSnapshotRepository {
+    ElectionSnapshot load(String electionId);
+}
@@ -1,5 +1,6 @@
 package com.example.electionbackend.repository.interfaces;
 import com.example.electionbackend.model.Party;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -10,5 +11,6 @@ public interface PartyRepository {
     public Party find(int id);
     public Party save(Party party);
     public List<Party> getAll();
-    public List<Party> getAllWithCandidates();
+    public List<Party> findByElectionId(String electionId, Pageable pageable);
+    public long countByElectionId(String electionId);
 }
@@ -1,7 +1,9 @@
 package com.example.electionbackend.repository.interfaces;
 
+import com.example.electionbackend.dto.PartyVoteDetailDTO;
 import com.example.electionbackend.model.PartyVote;
 import com.example.electionbackend.type.RegionType;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -9,10 +11,17 @@ import java.util.List;
  * Repository interface for managing Party Vote entities.
  */
 public interface PartyVoteRepository {
-    List<PartyVote> findByPartyId(int id);
-    List<PartyVote> findByType(RegionType type);
-    List<PartyVote> findByTypeAndTypeId(RegionType type, String id);
-    List<PartyVote> findByTypeAndTypeIdAndPartyId(RegionType type, String id, int partyId);
+    List<PartyVoteDetailDTO> findDetailsByPartyId(int id, Pageable pageable, Integer lastVotes, Integer lastId);
+    long countByPartyId(int id);
+    List<PartyVoteDetailDTO> findDetailsByType(RegionType type, Pageable pageable, Integer lastVotes, Integer lastId);
+    long countByType(RegionType type);
+    List<PartyVoteDetailDTO> findDetailsByTypeAndTypeId(RegionType type, int id, Pageable pageable,
+                                                        Integer lastVotes, Integer lastId);
+    long countByTypeAndTypeId(RegionType type, int id);
+    List<PartyVoteDetailDTO> findDetailsByTypeAndTypeIdAndPartyId(RegionType type, int id, int partyId, Pageable pageable,
+                                                                  Integer lastVotes, Integer lastId);
+    long countByTypeAndTypeIdAndPartyId(RegionType type, int id, int partyId);
+    PartyVote findById(int id);
     PartyVote save(PartyVote partyVote);
     PartyVote delete(PartyVote partyVote);
     PartyVote deleteById(int id);
@@ -0,0 +1,20 @@
+package com.example.electionbackend.repository.interfaces;
+
+import com.example.electionbackend.dto.PartyVoteTotalDTO;
+import com.example.electionbackend.type.RegionType;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository interface for the precomputed party vote totals per region.
+ */
+public interface PartyVoteTotalRepository {
+    void rebuild(String electionId);
+    void applyChange(RegionType type, int regionId, Map<Integer, Integer> votes, int rows);
+    String findElectionId(RegionType type, int regionId);
+    List<PartyVoteTotalDTO> findByRegionType(String electionId, RegionType type, Pageable pageable);
+    long countByRegionType(String electionId, RegionType type);
+    List<PartyVoteTotalDTO> findByRegion(String electionId, RegionType type, int regionId);
+}
@@ -0,0 +1,14 @@
+package com.example.electionbackend.repository.interfaces;
+
+import com.example.electionbackend.dto.PostCountsDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the like and comment counts of the posts.
+ */
+public interface PostCounterRepository {
+    void addCounts(List<PostCountsDTO> deltas);
+    List<PostCountsDTO> findCounts(Collection<Integer> postIds);
+}
@@ -0,0 +1,9 @@
+package com.example.electionbackend.repository.interfaces;
+
+/**
+ * Repository interface for the likes of the users on the posts.
+ */
+public interface PostLikeRepository {
+    boolean add(int postId, int userId);
+    boolean remove(int postId, int userId);
+}
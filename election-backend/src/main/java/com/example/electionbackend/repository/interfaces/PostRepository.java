@@ -2,6 +2,7 @@ package com.example.electionbackend.repository.interfaces;
 
 import com.example.electionbackend.model.Post;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -14,4 +15,6 @@ public interface PostRepository {
     Post deleteById(int id);
     List<Post> findAll();
     List<Post> findByQuery(String query);
+    List<Post> findFeedPage(LocalDateTime lastCreatedAt, Integer lastId, int size);
+    long count();
 }
@@ -0,0 +1,265 @@
+package com.example.electionbackend.search;
+
+import com.example.electionbackend.cache.CacheRegistry;
+import com.example.electionbackend.dto.PostDetailDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory inverted index over the titles and contents of the posts, used by the forum search instead of a
+ * {@code LIKE} scan of the post table.
+ * <p>
+ * Titles and contents are split into words that are lowercased and stripped of accents, so {@code Café} is found by
+ * {@code cafe}. Every word of a query matches the indexed words that start with it, and a post has to match all
+ * words of the query. The indexed words are kept sorted, so the words with a prefix are found without scanning the
+ * whole index. Results are ranked by how well they match: title matches weigh more than content matches and a whole
+ * word more than a prefix, newer posts come first on equal scores.
+ * <p>
+ * The index is loaded with all posts on the first search and new posts are added once their transaction has
+ * committed. Searches that find the index unloaded share a single load, and posts that are added while the posts are
+ * read are indexed after them, so a steady stream of new posts doesn't keep the index from loading. Other nodes
+ * receive the ID of a new post as an invalidation of {@link #NAME} and add that post, an invalidation of all keys
+ * drops the index so it is loaded again on the next search.
+ */
+@Component
+public class PostSearchIndex {
+    /**
+     * The name the index is invalidated by through the cache registry.
+     */
+    public static final String NAME = "postSearchIndex";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int EXACT_BONUS = 2;
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Integer, PostDetailDTO> documents = new HashMap<>();
+    private final Object loadLock = new Object();
+    private boolean loaded;
+    private List<PostDetailDTO> addedDuringLoad;
+    private long generation;
+
+    /**
+     * Constructor for the PostSearchIndex class.
+     *
+     * @param cacheRegistry The registry that tells the index when it has to be dropped, the posts of other nodes are
+     *                      added by the service that reads them.
+     * @param enabled       Whether searches use the index, or the database.
+     */
+    public PostSearchIndex(CacheRegistry cacheRegistry,
+                           @Value("${app.search.posts.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        cacheRegistry.addListener(NAME, key -> {
+            if (key == null) {
+                clear();
+            }
+        });
+    }
+
+    /**
+     * Whether searches use the index.
+     *
+     * @return True if the index is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the index holds all posts, or has to be loaded before a search.
+     *
+     * @return True if the index is loaded.
+     */
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the index with all posts unless it is loaded already. Callers that come in during a load wait for it
+     * instead of reading the posts again. The posts that are added while the posts are read are indexed as well.
+     * When the index is dropped during the load it stays unloaded, so the next search reads the posts again.
+     *
+     * @param posts Reads all posts, called without holding the lock of the index.
+     */
+    public void load(Supplier<? extends Collection<PostDetailDTO>> posts) {
+        synchronized (loadLock) {
+            long loadGeneration;
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+                addedDuringLoad = new ArrayList<>();
+                loadGeneration = generation;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Collection<PostDetailDTO> all = null;
+            try {
+                all = posts.get();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (all != null && generation == loadGeneration) {
+                        postings.clear();
+                        documents.clear();
+                        all.forEach(this::index);
+                        addedDuringLoad.forEach(this::index);
+                        loaded = true;
+                    }
+                    addedDuringLoad = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a post once the current transaction has committed, right away without a transaction.
+     *
+     * @param post The new post.
+     */
+    public void add(PostDetailDTO post) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(post);
+                }
+            });
+        } else {
+            addNow(post);
+        }
+    }
+
+    /**
+     * Drops the contents of the index, so the next search loads all posts again.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            loaded = false;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the posts that match all words of a query.
+     *
+     * @param query The search query.
+     * @return The matching posts, best matches first.
+     */
+    public List<PostDetailDTO> search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String word : new LinkedHashSet<>(words)) {
+                Map<Integer, Integer> wordScores = score(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Integer, Integer> ranked = scores;
+            return ranked.keySet()
+                    .stream()
+                    .sorted(Comparator.<Integer, Integer>comparing(ranked::get, Comparator.reverseOrder())
+                            .thenComparing(Comparator.<Integer>reverseOrder()))
+                    .map(documents::get)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits a text into lowercase words without accents.
+     *
+     * @param text The text, may be null.
+     * @return The words in the order of the text.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private void addNow(PostDetailDTO post) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                index(post);
+            } else if (addedDuringLoad != null) {
+                addedDuringLoad.add(post);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(PostDetailDTO post) {
+        if (documents.containsKey(post.getId())) {
+            return;
+        }
+        documents.put(post.getId(), post);
+
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(post.getTitle()).forEach(word -> weights.merge(word, TITLE_WEIGHT, Integer::sum));
+        tokenize(post.getContent()).forEach(word -> weights.merge(word, CONTENT_WEIGHT, Integer::sum));
+        weights.forEach((word, weight) -> postings.computeIfAbsent(word, k -> new HashMap<>())
+                .put(post.getId(), weight));
+    }
+
+    /**
+     * Scores the posts with an indexed word that starts with a query word, by the best matching word of a post.
+     */
+    private Map<Integer, Integer> score(String prefix) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, Integer>> entry
+                : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            int bonus = entry.getKey().equals(prefix) ? EXACT_BONUS : 1;
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * bonus, Math::max));
+        }
+        return scores;
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.electionbackend.seeder;
 
-import com.example.electionbackend.dto.ElectionDTO;
 import com.example.electionbackend.model.Election;
+import com.example.electionbackend.readmodel.ElectionReadModel;
 import com.example.electionbackend.service.SeederService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
 /**
  * The ElectionDefinitionSeeder component
  */
@@ -21,48 +31,96 @@ public class ElectionDefinitionSeeder {
     private final RestTemplate restTemplate = new RestTemplate();
 
     private final SeederService seederService;
+    private final ElectionReadModel electionReadModel;
 
     /**
      * Constructor for the ElectionDefinitionSeeder class.
      *
      * @param seederService The service responsible for handling election-related operations.
+     * @param electionReadModel The read model that serves the seeded elections from memory.
      */
-    public ElectionDefinitionSeeder(SeederService seederService) {
+    public ElectionDefinitionSeeder(SeederService seederService, ElectionReadModel electionReadModel) {
         this.seederService = seederService;
+        this.electionReadModel = electionReadModel;
     }
 
     /**
-     * Retrieves election data for the specified year and saves it using the election service.
-     * Once saved, the resulting election object is logged for confirmation.
+     * Fetches the export of the election for the specified year, sending along the fingerprint of the election
+     * that was seeded before. This is the first stage of seeding a year, see {@link ElectionSeedPipeline}.
      *
-     * @param year The year of the election data to be retrieved and saved.
+     * @param year The year of the election data to be fetched.
+     * @return The export, which has no election when it is unchanged,
+     *         or null if the data could not be fetched.
      */
-    public void seedElectionDefinition(int year) {
-        ElectionDTO electionDTO = this.getElectionData(year);
-        Election response = seederService.persistElection(electionDTO);
-        System.out.println(ResponseEntity.ok(response));
+    public ElectionExport fetchElection(int year) {
+        return this.getElectionExport(year, seederService.getFingerprint("TK" + year));
     }
 
     /**
-     * Retrieves election data for the specified year by making a REST API call and mapping
-     * the response to an Election object.
+     * Saves a fetched election using the election service, unless it is unchanged. Once it is saved the snapshot of
+     * the election in the read model is replaced, on this node and on the other nodes.
+     * This is the second stage of seeding a year, see {@link ElectionSeedPipeline}.
      *
-     * @param year The year of the election data to be fetched.
-     * @return An Election object containing the data for the specified year,
-     *         or null if the data could not be fetched or mapped.
+     * @param year The year of the election.
+     * @param export The export that was fetched for the year.
+     * @return True if the election was saved, false if it was skipped.
      */
-    public ElectionDTO getElectionData(int year) {
-        String uri = UriComponentsBuilder.fromUriString(url).path("/elections/TK" + year).queryParam("folderName", "TK" + year + "_HvA_UvA").build().toUriString();
-        Object requestBody = null;
+    public boolean persistElection(int year, ElectionExport export) {
+        if (!export.isModified()) {
+            System.out.println("Election TK" + year + " is unchanged, skipping the seeder");
+            return false;
+        }
+        try (InputStream records = Files.newInputStream(export.getRecords())) {
+            Election response = seederService.persistElection(records, export.getFingerprint());
+            System.out.println(ResponseEntity.ok(response));
+            electionReadModel.publish("TK" + year);
+            electionReadModel.broadcast("TK" + year);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the export of TK" + year, e);
+        } finally {
+            export.discard();
+        }
+    }
 
-        // Make the REST API call and map the response to an Election object.
-        ResponseEntity<String> electionResponse = restTemplate.postForEntity(uri, requestBody, String.class);
-        String json = electionResponse.getBody();
-        ObjectMapper mapper = new ObjectMapper();
+    /**
+     * Retrieves the export of the election for the specified year, unless it has the fingerprint of the data
+     * that was seeded before.
+     * The response is copied to a temporary file as it is received, the caller has to
+     * {@link ElectionExport#discard() discard} the export once it has been read.
+     *
+     * @param year The year of the election data to be fetched.
+     * @param fingerprint The fingerprint of the election that was seeded before, or null to always fetch the data.
+     * @return The export, which has no election when the fingerprint is still current,
+     *         or null if the data could not be fetched.
+     */
+    public ElectionExport getElectionExport(int year, String fingerprint) {
+        String uri = UriComponentsBuilder.fromUriString(url).path("/elections/TK" + year + "/export").queryParam("folderName", "TK" + year + "_HvA_UvA").build().toUriString();
 
-        // Log the election data if it was successfully mapped.
+        // Make the REST API call and copy the records to a file while they are received.
         try {
-            return mapper.readValue(json, ElectionDTO.class);
+            return restTemplate.execute(uri, HttpMethod.GET,
+                    request -> {
+                        request.getHeaders().setAccept(List.of(MediaType.parseMediaType("application/x-ndjson")));
+                        if (fingerprint != null) {
+                            request.getHeaders().setIfNoneMatch("\"" + fingerprint + "\"");
+                        }
+                    },
+                    response -> {
+                        String eTag = response.getHeaders().getETag();
+                        String received = eTag != null ? eTag.replace("\"", "") : null;
+                        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return new ElectionExport(null, received);
+                        }
+                        Path records = Files.createTempFile("election-TK" + year + "-", ".ndjson");
+                        try {
+                            Files.copy(response.getBody(), records, StandardCopyOption.REPLACE_EXISTING);
+                        } catch (IOException | RuntimeException e) {
+                            Files.deleteIfExists(records);
+                            throw e;
+                        }
+                        return new ElectionExport(records, received);
+                    });
         } catch (Exception ex) {
             System.out.println("Election extraction failed: " +  ex.getMessage());
         }
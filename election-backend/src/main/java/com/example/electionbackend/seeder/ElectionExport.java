@@ -0,0 +1,68 @@
+package com.example.electionbackend.seeder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The result of fetching the export of an election from the parser.
+ * <p>
+ * The export is copied to a temporary file while it is received, so it can be read again with a streaming parser
+ * when it is persisted without holding the election in memory. When the backend already has the current data of the
+ * election the parser answers 304 Not Modified, the export then has no file and isn't modified.
+ */
+public class ElectionExport {
+    private final Path records;
+    private final String fingerprint;
+
+    /**
+     * Constructor for the ElectionExport class.
+     *
+     * @param records     The temporary file with the newline-delimited JSON records, or null if it hasn't been modified.
+     * @param fingerprint The fingerprint of the source files of the election, or null if the parser didn't send one.
+     */
+    public ElectionExport(Path records, String fingerprint) {
+        this.records = records;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Gets the temporary file with the records of the election.
+     *
+     * @return The file, or null if the election hasn't been modified.
+     */
+    public Path getRecords() {
+        return records;
+    }
+
+    /**
+     * Gets the fingerprint of the source files of the election.
+     *
+     * @return The fingerprint, or null if the parser didn't send one.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Checks whether the election has changed since it was seeded.
+     *
+     * @return True if the export contains the election.
+     */
+    public boolean isModified() {
+        return records != null;
+    }
+
+    /**
+     * Deletes the temporary file of the export, if it has one.
+     */
+    public void discard() {
+        if (records != null) {
+            try {
+                Files.deleteIfExists(records);
+            } catch (IOException e) {
+                System.out.println("Failed to delete election export " + records + ": " + e.getMessage());
+            }
+        }
+    }
+}
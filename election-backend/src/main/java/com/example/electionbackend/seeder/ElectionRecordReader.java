@@ -0,0 +1,328 @@
+package com.example.electionbackend.seeder;
+
+import com.example.electionbackend.dto.*;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the newline-delimited JSON export of the parser (GET /elections/{electionId}/export).
+ * <p>
+ * The records are read token by token with Jackson's streaming {@link JsonParser}, no JSON tree is built for them.
+ * The export is written top-down per constituency, so the reader hands off the election once its parties and state
+ * have been read, and then one complete constituency at a time. Only the constituency being read is held in memory,
+ * a constituency can't be extended once the next one has started. A region record is always sent before the
+ * records that refer to it.
+ */
+public class ElectionRecordReader {
+    private final ObjectMapper mapper;
+
+    private Handler handler;
+    private ElectionDTO election;
+    private boolean electionHandled;
+    private ConstituencyDTO constituency;
+    private final Map<Integer, MunicipalityDTO> municipalities = new HashMap<>();
+    private final Map<String, PollingStationDTO> pollingStations = new HashMap<>();
+
+    /**
+     * Receives the parts of the election while the export is being read.
+     */
+    public interface Handler {
+        /**
+         * Called once, before the first constituency, with the parties and the state of the election. The
+         * constituency list of the state is empty, the constituencies are passed to {@link #constituency}.
+         *
+         * @param election The election without its constituencies.
+         */
+        void election(ElectionDTO election);
+
+        /**
+         * Called for each constituency once all its municipalities, polling stations, metadata and votes are read.
+         *
+         * @param constituency The complete constituency.
+         */
+        void constituency(ConstituencyDTO constituency);
+    }
+
+    /**
+     * Constructor for the ElectionRecordReader class.
+     *
+     * @param mapper The mapper used to read the candidates of the parties.
+     */
+    public ElectionRecordReader(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Reads all the records from the stream into a single election.
+     *
+     * @param input The export of the parser, it is not closed.
+     * @return The election, or null if the stream didn't contain an election record.
+     * @throws IOException If the stream can't be read or contains invalid JSON.
+     */
+    public ElectionDTO read(InputStream input) throws IOException {
+        List<ConstituencyDTO> constituencies = new ArrayList<>();
+        ElectionDTO result = read(input, new Handler() {
+            @Override
+            public void election(ElectionDTO election) {
+            }
+
+            @Override
+            public void constituency(ConstituencyDTO constituency) {
+                constituencies.add(constituency);
+            }
+        });
+        if (result != null && result.getState() != null) {
+            result.getState().getConstituencyList().addAll(constituencies);
+        }
+        return result;
+    }
+
+    /**
+     * Reads all the records from the stream and hands the election off to the handler one constituency at a time.
+     *
+     * @param input The export of the parser, it is not closed.
+     * @param handler The handler that receives the election and its constituencies.
+     * @return The election without its constituencies, or null if the stream didn't contain an election record.
+     * @throws IOException If the stream can't be read or contains invalid JSON.
+     */
+    public ElectionDTO read(InputStream input, Handler handler) throws IOException {
+        this.handler = handler;
+        Record record = new Record();
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                record.read(parser);
+                add(record);
+            }
+        }
+        completeConstituency();
+        if (election != null && !electionHandled) {
+            handleElection();
+        }
+        return election;
+    }
+
+    /**
+     * Attaches a single record to the election.
+     *
+     * @throws IllegalStateException If the record refers to a region that hasn't been read.
+     */
+    private void add(Record record) {
+        switch (record.type) {
+            case "ELECTION" -> {
+                election = new ElectionDTO();
+                election.setId(record.id);
+            }
+            case "PARTY" -> election().getPartyList().add(
+                    new PartyDTO(record.intValue(record.id), record.name, record.candidates, record.seats));
+            case "STATE" -> election().setState(new StateDTO(record.name));
+            case "CONSTITUENCY" -> {
+                completeConstituency();
+                if (!electionHandled) {
+                    state();
+                    handleElection();
+                }
+                constituency = new ConstituencyDTO(record.intValue(record.id), record.name);
+            }
+            case "MUNICIPALITY" -> {
+                MunicipalityDTO municipality = new MunicipalityDTO(record.intValue(record.id), record.name);
+                constituency(record.constituencyId).getMunicipalityList().add(municipality);
+                municipalities.put(municipality.getId(), municipality);
+            }
+            case "POLLING_STATION" -> {
+                PollingStationDTO pollingStation = new PollingStationDTO(record.id, record.name);
+                parent(municipalities, record.municipalityId, "municipality")
+                        .getPollingStationList().add(pollingStation);
+                pollingStations.put(pollingStation.getPollingStationId(), pollingStation);
+            }
+            case "PARTY_VOTE" -> {
+                PartyVoteDTO partyVote = new PartyVoteDTO();
+                partyVote.setPartyId(record.partyId);
+                partyVote.setVotes(record.votes);
+                partyVotes(record).add(partyVote);
+            }
+            case "METADATA" -> setMetadata(record, new MetadataDTO(
+                    record.totalCast, record.totalCounted, record.invalid, record.blank));
+            default -> System.out.println("Skipping unknown election record type: " + record.type);
+        }
+    }
+
+    /**
+     * Hands off the parties and state of the election.
+     */
+    private void handleElection() {
+        electionHandled = true;
+        handler.election(election);
+    }
+
+    /**
+     * Hands off the constituency that is being read and forgets its regions.
+     */
+    private void completeConstituency() {
+        if (constituency != null) {
+            handler.constituency(constituency);
+            constituency = null;
+            municipalities.clear();
+            pollingStations.clear();
+        }
+    }
+
+    /**
+     * Finds the party vote list of the region the record belongs to.
+     */
+    private List<PartyVoteDTO> partyVotes(Record record) {
+        return switch (record.region) {
+            case "STATE" -> state().getPartyVoteList();
+            case "CONSTITUENCY" -> constituency(record.intValue(record.regionId)).getPartyVoteList();
+            case "MUNICIPALITY" -> parent(municipalities, record.intValue(record.regionId), "municipality").getPartyVoteList();
+            case "POLLING_STATION" -> parent(pollingStations, record.regionId, "polling station").getPartyVoteList();
+            default -> throw new IllegalStateException("Unknown region in election record: " + record.region);
+        };
+    }
+
+    /**
+     * Sets the metadata on the region the record belongs to.
+     */
+    private void setMetadata(Record record, MetadataDTO metadata) {
+        switch (record.region) {
+            case "STATE" -> state().setMetadata(metadata);
+            case "CONSTITUENCY" -> constituency(record.intValue(record.regionId)).setMetadata(metadata);
+            case "MUNICIPALITY" -> parent(municipalities, record.intValue(record.regionId), "municipality").setMetadata(metadata);
+            case "POLLING_STATION" -> parent(pollingStations, record.regionId, "polling station").setMetadata(metadata);
+            default -> throw new IllegalStateException("Unknown region in election record: " + record.region);
+        }
+    }
+
+    private ElectionDTO election() {
+        if (election == null) {
+            throw new IllegalStateException("Election record expected before any other record");
+        }
+        if (electionHandled) {
+            throw new IllegalStateException("Election records expected before the first constituency");
+        }
+        return election;
+    }
+
+    private StateDTO state() {
+        if (election().getState() == null) {
+            throw new IllegalStateException("State record expected before the regions and votes");
+        }
+        return election.getState();
+    }
+
+    private ConstituencyDTO constituency(int id) {
+        if (constituency == null || constituency.getId() != id) {
+            throw new IllegalStateException("Record refers to constituency " + id + " which isn't being read");
+        }
+        return constituency;
+    }
+
+    private static <K, V> V parent(Map<K, V> regions, K id, String name) {
+        V region = regions.get(id);
+        if (region == null) {
+            throw new IllegalStateException("Record refers to unknown " + name + " " + id);
+        }
+        return region;
+    }
+
+    /**
+     * The fields of a single record, reused for every record of the export.
+     */
+    private class Record {
+        private String type;
+        private String id;
+        private String name;
+        private int seats;
+        private List<CandidateDTO> candidates;
+        private int constituencyId;
+        private int municipalityId;
+        private String region;
+        private String regionId;
+        private int partyId;
+        private int votes;
+        private int totalCast;
+        private int totalCounted;
+        private int invalid;
+        private int blank;
+
+        /**
+         * Reads the fields of the record the parser is positioned at, up to and including its end.
+         */
+        private void read(JsonParser parser) throws IOException {
+            type = "";
+            id = null;
+            name = null;
+            seats = 0;
+            candidates = new ArrayList<>();
+            constituencyId = 0;
+            municipalityId = 0;
+            region = "";
+            regionId = null;
+            partyId = 0;
+            votes = 0;
+            totalCast = 0;
+            totalCounted = 0;
+            invalid = 0;
+            blank = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "type" -> type = parser.getText();
+                    case "id" -> id = parser.getText();
+                    case "name" -> name = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "seats" -> seats = parser.getValueAsInt();
+                    case "candidates" -> readCandidates(parser, token);
+                    case "constituencyId" -> constituencyId = parser.getValueAsInt();
+                    case "municipalityId" -> municipalityId = parser.getValueAsInt();
+                    case "region" -> region = parser.getText();
+                    case "regionId" -> regionId = parser.getText();
+                    case "partyId" -> partyId = parser.getValueAsInt();
+                    case "votes" -> votes = parser.getValueAsInt();
+                    case "totalCast" -> totalCast = parser.getValueAsInt();
+                    case "totalCounted" -> totalCounted = parser.getValueAsInt();
+                    case "invalid" -> invalid = parser.getValueAsInt();
+                    case "blank" -> blank = parser.getValueAsInt();
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        /**
+         * Reads the candidates of a party, the parser is positioned at the value of the field. A null value or null
+         * entries mean there are no candidates.
+         */
+        private void readCandidates(JsonParser parser, JsonToken token) throws IOException {
+            if (token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("Invalid candidates in " + type + " record: " + token);
+            }
+            for (JsonToken entry = parser.nextToken(); entry != JsonToken.END_ARRAY; entry = parser.nextToken()) {
+                if (entry == JsonToken.START_OBJECT) {
+                    candidates.add(mapper.readValue(parser, CandidateDTO.class));
+                } else if (entry != JsonToken.VALUE_NULL) {
+                    throw new IllegalStateException("Invalid candidate in " + type + " record: " + entry);
+                }
+            }
+        }
+
+        private int intValue(String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid id in " + type + " record: " + value, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.electionbackend.seeder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeds multiple election years as a pipeline of two stages: fetching the export from the parser, and persisting it
+ * in the database.
+ * <p>
+ * The exports are fetched on a small thread pool while the calling thread persists the years one by one in the
+ * given order, so fetching the next years overlaps persisting the current one. At most {@code app.seeder.concurrency}
+ * years are fetched or waiting to be persisted at the same time, which bounds the number of exports kept on disk.
+ * A year that fails in either stage is logged and skipped, the other years are still seeded.
+ */
+@Component
+public class ElectionSeedPipeline {
+    private final ElectionDefinitionSeeder electionDefinitionSeeder;
+    private final int concurrency;
+
+    /**
+     * Constructor for the ElectionSeedPipeline class.
+     *
+     * @param electionDefinitionSeeder The seeder that fetches and persists a single year.
+     * @param concurrency The number of years that are fetched ahead of the year being persisted.
+     */
+    public ElectionSeedPipeline(ElectionDefinitionSeeder electionDefinitionSeeder,
+                                @Value("${app.seeder.concurrency:2}") int concurrency) {
+        this.electionDefinitionSeeder = electionDefinitionSeeder;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Seeds the given years, and logs the time spent in each stage per year.
+     *
+     * @param years The years of the elections to seed, persisted in this order.
+     * @return The failure message of each year that couldn't be seeded, empty if all years were seeded or skipped.
+     */
+    public Map<Integer, String> run(List<Integer> years) {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        if (years.isEmpty()) {
+            return failures;
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, years.size()), runnable -> {
+            Thread thread = new Thread(runnable, "election-seeder-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<FetchResult>> fetches = new ArrayList<>();
+            for (int i = 0; i < years.size(); i++) {
+                // Keep the window of fetched years full before persisting the oldest one.
+                while (fetches.size() < years.size() && fetches.size() < i + concurrency) {
+                    int year = years.get(fetches.size());
+                    fetches.add(executor.submit(() -> fetch(year)));
+                }
+
+                int year = years.get(i);
+                String failure = persist(year, fetches.get(i));
+                fetches.set(i, null);
+                if (failure != null) {
+                    failures.put(year, failure);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("Election seeder finished " + years + " in " + millisSince(start) + " ms, failures: "
+                + failures.keySet());
+        return failures;
+    }
+
+    /**
+     * The fetch stage, runs on the thread pool.
+     */
+    private FetchResult fetch(int year) {
+        System.out.println("Running election seeder for year: " + year);
+        long start = System.nanoTime();
+        ElectionExport export = electionDefinitionSeeder.fetchElection(year);
+        return new FetchResult(export, millisSince(start));
+    }
+
+    /**
+     * The persist stage, runs on the calling thread once the fetch of the year has finished.
+     *
+     * @return The failure message, or null if the year was seeded or skipped.
+     */
+    private String persist(int year, Future<FetchResult> fetch) {
+        long waitStart = System.nanoTime();
+        FetchResult result;
+        try {
+            result = fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while fetching";
+        } catch (ExecutionException e) {
+            System.out.println("Election seeder failed to fetch TK" + year + ": " + e.getCause().getMessage());
+            return String.valueOf(e.getCause().getMessage());
+        }
+        long waitMillis = millisSince(waitStart);
+
+        if (result.export == null) {
+            return "Election extraction failed";
+        }
+
+        long persistStart = System.nanoTime();
+        try {
+            boolean persisted = electionDefinitionSeeder.persistElection(year, result.export);
+            System.out.println("Election seeder TK" + year + ": fetched in " + result.millis + " ms, waited "
+                    + waitMillis + " ms, " + (persisted ? "persisted" : "skipped") + " in "
+                    + millisSince(persistStart) + " ms");
+            return null;
+        } catch (RuntimeException e) {
+            System.out.println("Election seeder failed to persist TK" + year + ": " + e.getMessage());
+            return String.valueOf(e.getMessage());
+        }
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * The export of a year and the time it took to fetch it.
+     */
+    private static class FetchResult {
+        private final ElectionExport export;
+        private final long millis;
+
+        private FetchResult(ElectionExport export, long millis) {
+            this.export = export;
+            this.millis = millis;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.cache.BoundedCache;
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
 import com.example.electionbackend.dto.RegionDTO;
 import com.example.electionbackend.dto.RegionPartyVoteDTO;
 import com.example.electionbackend.exception.constituency.ConstituencyNotFoundException;
@@ -9,6 +12,8 @@ import com.example.electionbackend.mapper.MunicipalityMapper;
 import com.example.electionbackend.model.Constituency;
 import com.example.electionbackend.model.Municipality;
 import com.example.electionbackend.model.PartyVote;
+import com.example.electionbackend.readmodel.ElectionReadModel;
+import com.example.electionbackend.readmodel.ElectionSnapshot;
 import com.example.electionbackend.repository.interfaces.ConstituencyRepository;
 import com.example.electionbackend.type.RegionType;
 import jakarta.transaction.Transactional;
@@ -17,6 +22,8 @@ import org.springframework.stereotype.Service;
 import java.util.Comparator;
 import java.util.List;
 
+import static com.example.electionbackend.util.TransactionUtils.afterCommit;
+
 /**
  * Service class for managing Constituency-related operations.
  */
@@ -24,16 +31,33 @@ import java.util.List;
 public class ConstituencyService implements IConstituencyService {
     private final ConstituencyRepository constituencyRepository;
     private final MunicipalityMapper municipalityMapper;
+    private final ElectionReadModel electionReadModel;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * Cache of single constituencies, used when getting a constituency by ID.
+     * Cache: constituencyId -> RegionDTO
+     */
+    private final BoundedCache<Integer, RegionDTO> constituencyCache;
 
     /**
      * Constructor for ConstituencyService.
      *
      * @param constituencyRepository - the constituency repository
+     * @param electionReadModel      - the in-memory snapshots of the seeded elections, read before the repository
+     * @param cacheRegistry          - the registry that creates the bounded cache of the service
+     * @param cacheInvalidationBus   - tells the other nodes which cached constituencies were changed
      */
     public ConstituencyService(ConstituencyRepository constituencyRepository,
-                               MunicipalityMapper municipalityMapper) {
+                               MunicipalityMapper municipalityMapper,
+                               ElectionReadModel electionReadModel,
+                               CacheRegistry cacheRegistry,
+                               CacheInvalidationBus cacheInvalidationBus) {
         this.constituencyRepository = constituencyRepository;
         this.municipalityMapper = municipalityMapper;
+        this.electionReadModel = electionReadModel;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.constituencyCache = cacheRegistry.create("constituencies", 200, Integer::valueOf);
     }
 
     /**
@@ -44,13 +68,19 @@ public class ConstituencyService implements IConstituencyService {
      */
     @Transactional
     public RegionDTO getById(int id) {
-        // TODO add caching
-        Constituency c = constituencyRepository.findById(id);
-
-        if (c == null) {
-            throw new ConstituencyNotFoundException(id);
+        ElectionSnapshot snapshot = electionReadModel.find(RegionType.CONSTITUENCY, id);
+        if (snapshot != null) {
+            return snapshot.getRegion(RegionType.CONSTITUENCY, id).getRegionDTO();
         }
-        return ConstituencyMapper.toRegionDTO(c);
+
+        return constituencyCache.get(id, key -> {
+            Constituency c = constituencyRepository.findById(key);
+
+            if (c == null) {
+                throw new ConstituencyNotFoundException(key);
+            }
+            return ConstituencyMapper.toRegionDTO(c);
+        });
     }
 
 
@@ -63,6 +93,17 @@ public class ConstituencyService implements IConstituencyService {
      */
     @Transactional
     public List<RegionDTO> getAllConstituencies(int page, int size, int year) {
+        ElectionSnapshot snapshot = electionReadModel.get(year);
+        if (snapshot != null) {
+            // The same page as the repository: by ID, then sorted by name
+            return snapshot.getRegions(RegionType.CONSTITUENCY)
+                    .stream()
+                    .skip((long) (page - 1) * size)
+                    .limit(size)
+                    .sorted(Comparator.comparing(RegionDTO::getRegionName, String.CASE_INSENSITIVE_ORDER))
+                    .toList();
+        }
+
         List<Constituency> constituencies = constituencyRepository.findAll(page, size, year);
         if (constituencies == null) {
             return null;
@@ -82,6 +123,19 @@ public class ConstituencyService implements IConstituencyService {
      */
     @Transactional
     public List<RegionDTO> getAllMunicipalitiesById(int id) {
+        ElectionSnapshot snapshot = electionReadModel.find(RegionType.CONSTITUENCY, id);
+        if (snapshot != null) {
+            List<ElectionSnapshot.Region> municipalities = snapshot.getChildren(RegionType.CONSTITUENCY, id);
+            if (municipalities.isEmpty()) {
+                return null;
+            }
+            return municipalities
+                    .stream()
+                    .map(ElectionSnapshot.Region::getRegionDTO)
+                    .sorted(Comparator.comparing(RegionDTO::getRegionName, String.CASE_INSENSITIVE_ORDER))
+                    .toList();
+        }
+
         List<Municipality> municipalities = constituencyRepository.findAllMunicipalitiesById(id);
         if (municipalities == null || municipalities.isEmpty()) {
             return null;
@@ -102,7 +156,11 @@ public class ConstituencyService implements IConstituencyService {
      */
     @Transactional
     public Constituency createConstituency(Constituency constituency) {
-        return constituencyRepository.save(constituency);
+        Constituency saved = constituencyRepository.save(constituency);
+        if (saved.getState() != null && saved.getState().getElection() != null) {
+            electionReadModel.reload(saved.getState().getElection().getId());
+        }
+        return saved;
     }
 
     /**
@@ -113,7 +171,12 @@ public class ConstituencyService implements IConstituencyService {
      */
     @Transactional
     public Constituency updateConstituency(Constituency constituency) {
-        return constituencyRepository.save(constituency);
+        electionReadModel.reload(RegionType.CONSTITUENCY, constituency.getId());
+        Constituency updated = constituencyRepository.save(constituency);
+        // Invalidated after the commit, a read before that would cache the old row again
+        afterCommit(() -> constituencyCache.invalidate(constituency.getId()));
+        cacheInvalidationBus.publish(constituencyCache.getName(), constituency.getId());
+        return updated;
     }
 
     /**
@@ -123,7 +186,10 @@ public class ConstituencyService implements IConstituencyService {
      */
     @Transactional
     public void deleteConstituency(int id) {
+        electionReadModel.reload(RegionType.CONSTITUENCY, id);
         constituencyRepository.deleteById(id);
+        afterCommit(() -> constituencyCache.invalidate(id));
+        cacheInvalidationBus.publish(constituencyCache.getName(), id);
     }
 }
 
@@ -2,6 +2,8 @@ package com.example.electionbackend.service;
 
 import com.example.electionbackend.interfaces.IMetadataService;
 import com.example.electionbackend.model.Metadata;
+import com.example.electionbackend.readmodel.ElectionReadModel;
+import com.example.electionbackend.readmodel.ElectionSnapshot;
 import com.example.electionbackend.repository.interfaces.MetadataRepository;
 import com.example.electionbackend.type.RegionType;
 import org.springframework.stereotype.Service;
@@ -14,13 +16,16 @@ import java.util.List;
 @Service
 public class MetadataService implements IMetadataService {
     private final MetadataRepository metadataRepository;
+    private final ElectionReadModel electionReadModel;
 
     /**
      * Constructor for MetadataService.
      * @param metadataRepository - the metadata repository
+     * @param electionReadModel - the in-memory snapshots of the seeded elections, read before the repository
      */
-    public MetadataService(MetadataRepository metadataRepository) {
+    public MetadataService(MetadataRepository metadataRepository, ElectionReadModel electionReadModel) {
         this.metadataRepository = metadataRepository;
+        this.electionReadModel = electionReadModel;
     }
 
     /**
@@ -31,11 +36,17 @@ public class MetadataService implements IMetadataService {
      */
     @Override
     public List<Metadata> getByRegionTypeAndId(RegionType regionType, String regionId) {
+        Integer id = parseRegionId(regionId);
+        ElectionSnapshot snapshot = id != null ? electionReadModel.find(regionType, id) : null;
+        if (snapshot != null) {
+            Metadata metadata = snapshot.getRegion(regionType, id).getMetadata();
+            return metadata != null ? List.of(metadata) : List.of();
+        }
         return metadataRepository.findByRegionTypeAndId(regionType, regionId);
     }
 
     /**
-     * Get Metadata by Region Type
+     * Get Metadata by Region Type, of all elections so it is always read from the repository
      * @param regionType - the type of the Region
      * @return - the list of Metadata associated with the Region Type
      */
@@ -43,4 +54,17 @@ public class MetadataService implements IMetadataService {
     public List<Metadata> getByRegionType(RegionType regionType) {
         return metadataRepository.findByRegionType(regionType);
     }
+
+    /**
+     * Helper method to parse the region ID of a request, the snapshots only hold numeric IDs
+     * @param regionId - the region ID of the request
+     * @return - the region ID, or null if it isn't a number
+     */
+    private static Integer parseRegionId(String regionId) {
+        try {
+            return Integer.parseInt(regionId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
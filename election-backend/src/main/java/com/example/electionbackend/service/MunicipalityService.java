@@ -1,11 +1,18 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.cache.BoundedCache;
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
 import com.example.electionbackend.dto.RegionDTO;
 import com.example.electionbackend.dto.MunicipalityPollingStationDTO;
+import com.example.electionbackend.dto.PollingStationDTO;
 import com.example.electionbackend.exception.municipality.MunicipalityNotFoundException;
 import com.example.electionbackend.interfaces.IMunicipalityService;
 import com.example.electionbackend.model.Municipality;
+import com.example.electionbackend.readmodel.ElectionReadModel;
+import com.example.electionbackend.readmodel.ElectionSnapshot;
 import com.example.electionbackend.repository.interfaces.MunicipalityRepository;
+import com.example.electionbackend.type.RegionType;
 import com.example.electionbackend.util.PaginationUtils;
 import com.example.electionbackend.util.SortUtils;
 import jakarta.transaction.Transactional;
@@ -15,9 +22,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.electionbackend.util.TransactionUtils.afterCommit;
 
 /**
  * Service class for managing Municipality-related operations.
@@ -26,32 +34,40 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MunicipalityService implements IMunicipalityService {
     private final MunicipalityRepository municipalityRepository;
     private final MunicipalityMapper municipalityMapper;
-
+    private final ElectionReadModel electionReadModel;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
-     * Cache to store RegionDTOs for O(1) retrieval by election year and municipality ID.
-     * Used when getting all municipalities for a specific election year.
-     * Cache per election: election year -> (municipalityId -> RegionDTO)
+     * Cache of the municipalities of an election, used when getting all municipalities of an election year.
+     * Cache: election year -> RegionDTOs
      */
-    private final Map<Integer, Map<Integer, RegionDTO>> municipalityCacheByElection = new ConcurrentHashMap<>();
+    private final BoundedCache<Integer, List<RegionDTO>> municipalitiesByElection;
 
     /**
-     * Cache to store RegionDTOs for O(1) retrieval by ID.
-     * Used when getting a municipality by ID.
+     * Cache of single municipalities, used when getting a municipality by ID.
      * Cache: municipalityId -> RegionDTO
      */
-    private final Map<Integer, RegionDTO> municipalityCache = new ConcurrentHashMap<>();
-
+    private final BoundedCache<Integer, RegionDTO> municipalityCache;
 
     /**
      * Constructor for MunicipalityService.
      *
      * @param municipalityRepository - the municipality repository
+     * @param electionReadModel      - the in-memory snapshots of the seeded elections, read before the caches
+     * @param cacheRegistry          - the registry that creates the bounded caches of the service
+     * @param cacheInvalidationBus   - tells the other nodes which cached municipalities were changed
      */
     public MunicipalityService(MunicipalityRepository municipalityRepository,
-                               MunicipalityMapper municipalityMapper) {
+                               MunicipalityMapper municipalityMapper,
+                               ElectionReadModel electionReadModel,
+                               CacheRegistry cacheRegistry,
+                               CacheInvalidationBus cacheInvalidationBus) {
         this.municipalityRepository = municipalityRepository;
         this.municipalityMapper = municipalityMapper;
+        this.electionReadModel = electionReadModel;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.municipalitiesByElection = cacheRegistry.create("municipalitiesByElection", 10, Integer::valueOf);
+        this.municipalityCache = cacheRegistry.create("municipalities", 2_000, Integer::valueOf);
     }
 
     /**
@@ -62,28 +78,20 @@ public class MunicipalityService implements IMunicipalityService {
      */
     @Transactional
     public RegionDTO getById(int id) {
-        // O(1) lookup using the cache
-        if (municipalityCache.containsKey(id)) {
-            return municipalityCache.get(id);
-        }
-
-        // If not in cache, load from repository
-        Municipality m = municipalityRepository.findById(id);
-        if (m == null) {
-            throw new MunicipalityNotFoundException(id);
+        // Served from the snapshot of the election when it has been published
+        ElectionSnapshot snapshot = electionReadModel.find(RegionType.MUNICIPALITY, id);
+        if (snapshot != null) {
+            return snapshot.getRegion(RegionType.MUNICIPALITY, id).getRegionDTO();
         }
 
-        // Map the Municipality to RegionDTO
-        RegionDTO regionDTO = municipalityMapper.toRegionDTO(m);
-
-        // Update both caches
-        municipalityCache.put(regionDTO.getId(), regionDTO);
-        int year = Integer.parseInt(m.getConstituency().getState().getElection().getId().substring(2));
-        municipalityCacheByElection
-                .computeIfAbsent(year, k -> new ConcurrentHashMap<>())
-                .put(regionDTO.getId(), regionDTO);
-
-        return regionDTO;
+        // If not in cache, load from repository and map the Municipality to RegionDTO
+        return municipalityCache.get(id, key -> {
+            Municipality m = municipalityRepository.findById(key);
+            if (m == null) {
+                throw new MunicipalityNotFoundException(key);
+            }
+            return municipalityMapper.toRegionDTO(m);
+        });
     }
 
     /**
@@ -93,7 +101,10 @@ public class MunicipalityService implements IMunicipalityService {
      */
     @Transactional
     public Page<RegionDTO> getAll(Pageable pageable, int year) {
-        List<RegionDTO> municipalities = loadAllIntoCacheIfEmpty(year);
+        ElectionSnapshot snapshot = electionReadModel.get(year);
+        List<RegionDTO> municipalities = snapshot != null
+                ? snapshot.getRegions(RegionType.MUNICIPALITY)
+                : municipalitiesByElection.get(year, this::loadAll);
 
         // Sort the muncipalities based on pageable sort
         if (pageable.getSort().isSorted()) {
@@ -107,30 +118,15 @@ public class MunicipalityService implements IMunicipalityService {
     }
 
     /**
-     * Helper method to load all municipalities into the cache if it's empty.
+     * Helper method to load all municipalities of an election year from the repository.
      *
      * @return - List of RegionDTOs
      */
-    private List<RegionDTO> loadAllIntoCacheIfEmpty(int year) {
-        // Check if cache for the election already exists
-        if (municipalityCacheByElection.containsKey(year)) {
-            return municipalityCacheByElection.get(year).values().stream().toList();
-        }
-
-        // If not, load from repository and populate cache
-        List<Municipality> municipalities = municipalityRepository.findAll(year);
-
-        Map<Integer, RegionDTO> electionCache = new ConcurrentHashMap<>();
-        municipalities.stream()
+    private List<RegionDTO> loadAll(int year) {
+        return municipalityRepository.findAll(year)
+                .stream()
                 .map(municipalityMapper::toRegionDTO)
-                .forEach(municipality -> {
-                    // Populate both caches
-                    electionCache.put(municipality.getId(), municipality);
-                    municipalityCache.put(municipality.getId(), municipality);
-                });
-
-        municipalityCacheByElection.put(year, electionCache);
-        return electionCache.values().stream().toList();
+                .toList();
     }
 
     /**
@@ -141,6 +137,17 @@ public class MunicipalityService implements IMunicipalityService {
      */
     @Transactional
     public MunicipalityPollingStationDTO getPollingStationsById(int id) {
+        ElectionSnapshot snapshot = electionReadModel.find(RegionType.MUNICIPALITY, id);
+        if (snapshot != null) {
+            List<PollingStationDTO> pollingStations = snapshot.getChildren(RegionType.MUNICIPALITY, id)
+                    .stream()
+                    .map(ps -> new PollingStationDTO(ps.getId(), ps.getPollingStationId(), ps.getName()))
+                    .sorted(Comparator.comparing(PollingStationDTO::getName, String.CASE_INSENSITIVE_ORDER))
+                    .toList();
+            String name = snapshot.getRegion(RegionType.MUNICIPALITY, id).getName();
+            return new MunicipalityPollingStationDTO(id, name, pollingStations);
+        }
+
         Municipality m = municipalityRepository.findById(id);
 
         if (m == null) {
@@ -163,11 +170,14 @@ public class MunicipalityService implements IMunicipalityService {
         RegionDTO regionDTO = municipalityMapper.toRegionDTO(saved);
         String year = saved.getConstituency().getState().getElection().getId().substring(2);
 
-        // Update both caches
-        municipalityCache.put(regionDTO.getId(), regionDTO);
-        municipalityCacheByElection
-                .computeIfAbsent(Integer.valueOf(year), k -> new ConcurrentHashMap<>())
-                .put(regionDTO.getId(), regionDTO);
+        // Update the municipality once it is committed, the list of the election is loaded again
+        afterCommit(() -> {
+            municipalityCache.put(regionDTO.getId(), regionDTO);
+            municipalitiesByElection.invalidate(Integer.valueOf(year));
+        });
+        cacheInvalidationBus.publish(municipalityCache.getName(), regionDTO.getId());
+        cacheInvalidationBus.publish(municipalitiesByElection.getName(), year);
+        electionReadModel.reload("TK" + year);
 
         return saved;
     }
@@ -188,11 +198,14 @@ public class MunicipalityService implements IMunicipalityService {
         RegionDTO regionDTO = municipalityMapper.toRegionDTO(updated);
         String year = updated.getConstituency().getState().getElection().getId().substring(2);
 
-        // Update both caches
-        municipalityCache.put(regionDTO.getId(), regionDTO);
-        municipalityCacheByElection
-                .computeIfAbsent(Integer.valueOf(year), k -> new ConcurrentHashMap<>())
-                .put(regionDTO.getId(), regionDTO);
+        // Update the municipality once it is committed, the list of the election is loaded again
+        afterCommit(() -> {
+            municipalityCache.put(regionDTO.getId(), regionDTO);
+            municipalitiesByElection.invalidate(Integer.valueOf(year));
+        });
+        cacheInvalidationBus.publish(municipalityCache.getName(), regionDTO.getId());
+        cacheInvalidationBus.publish(municipalitiesByElection.getName(), year);
+        electionReadModel.reload("TK" + year);
 
         return updated;
     }
@@ -208,10 +221,15 @@ public class MunicipalityService implements IMunicipalityService {
             throw new MunicipalityNotFoundException(id);
         }
 
+        electionReadModel.reload(RegionType.MUNICIPALITY, id);
         municipalityRepository.deleteById(id);
 
-        // Remove from both caches
-        municipalityCache.remove(id);
-        municipalityCacheByElection.values().forEach(cache -> cache.remove(id));
+        // Remove from both caches once it is committed, the election of the municipality is no longer known
+        afterCommit(() -> {
+            municipalityCache.invalidate(id);
+            municipalitiesByElection.invalidateAll();
+        });
+        cacheInvalidationBus.publish(municipalityCache.getName(), id);
+        cacheInvalidationBus.publishAll(municipalitiesByElection.getName());
     }
 }
\ No newline at end of file
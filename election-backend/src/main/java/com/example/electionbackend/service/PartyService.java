@@ -3,13 +3,11 @@ package com.example.electionbackend.service;
 import com.example.electionbackend.model.Party;
 import com.example.electionbackend.repository.interfaces.PartyRepository;
 import com.example.electionbackend.service.interfaces.IPartyService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.lang.reflect.Field;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -51,21 +49,19 @@ public class PartyService implements IPartyService {
 
     /**
      * Get all parties with candidates using pageable + optional election filter.
+     * The election is filtered, sorted and paged by the database, so only the parties of the page are loaded.
      *
-     * @param pageable   pagination and sorting information
-     * @param electionId optional election filter
+     * @param pageable   pagination and sorting information, the first page is page 1
+     * @param electionId the election of the parties, without it no parties are returned
      * @return a page of parties
      */
     @Transactional(readOnly = true)
     public List<Party> getAllWithCandidates(Pageable pageable, String electionId) {
-        List<Party> parties = partyRepository.getAllWithCandidates();
-
-        return parties.stream()
-                .filter(party -> party.getElection().getId().equals(electionId))
-                .sorted(buildPartyComparator(pageable.getSort()))
-                .skip((long) (pageable.getPageNumber() - 1) * pageable.getPageSize())
-                .limit(pageable.getPageSize())
-                .toList();
+        Pageable page = pageable.isPaged()
+                ? PageRequest.of(Math.max(0, pageable.getPageNumber() - 1), pageable.getPageSize(),
+                pageable.getSort())
+                : pageable;
+        return partyRepository.findByElectionId(electionId, page);
     }
 
     /**
@@ -76,49 +72,6 @@ public class PartyService implements IPartyService {
      */
     @Transactional
     public Number getCountByElectionId(String electionId) {
-        List<Party> partyList =  partyRepository.getAll();
-
-        return partyList.stream()
-                .filter(party -> party.getElection().getId().equals(electionId))
-                .count();
-    }
-
-    /**
-     * Builds a Comparator<Party> based on Spring's Sort definition.
-     * Uses reflection to read the property named in Sort.Order.
-     */
-    private Comparator<Party> buildPartyComparator(Sort sort) {
-        Comparator<Party> comparator = null;
-
-        for (Sort.Order order : sort) {
-            Comparator<Party> orderComparator = Comparator.comparing(
-                    party -> getComparableFieldValue(party, order.getProperty()),
-                    Comparator.nullsLast(Comparator.naturalOrder())
-            );
-
-            if (order.isDescending()) {
-                orderComparator = orderComparator.reversed();
-            }
-
-            comparator = (comparator == null)
-                    ? orderComparator
-                    : comparator.thenComparing(orderComparator);
-        }
-
-        return comparator != null ? comparator : (p1, p2) -> 0;
-    }
-
-    /**
-     * Reads a Comparable field from Party by name using reflection.
-     */
-    @SuppressWarnings("unchecked")
-    private Comparable<Object> getComparableFieldValue(Party party, String fieldName) {
-        try {
-            Field field = Party.class.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return (Comparable<Object>) field.get(party);
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            throw new IllegalStateException("Cannot sort by field: " + fieldName, e);
-        }
+        return partyRepository.countByElectionId(electionId);
     }
 }
@@ -1,26 +1,22 @@
 package com.example.electionbackend.service;
 
 import com.example.electionbackend.dto.PartyVoteDetailDTO;
-import com.example.electionbackend.dto.RegionDTO;
 import com.example.electionbackend.exception.votes.PartyVoteNotFoundException;
-import com.example.electionbackend.interfaces.IConstituencyService;
-import com.example.electionbackend.interfaces.IMunicipalityService;
 import com.example.electionbackend.interfaces.IPartyVoteService;
-import com.example.electionbackend.interfaces.IPollingStationService;
-import com.example.electionbackend.model.Party;
 import com.example.electionbackend.model.PartyVote;
+import com.example.electionbackend.readmodel.ElectionReadModel;
+import com.example.electionbackend.readmodel.ElectionSnapshot;
 import com.example.electionbackend.repository.interfaces.PartyVoteRepository;
 import com.example.electionbackend.type.RegionType;
-import com.example.electionbackend.util.PaginationUtils;
 import com.example.electionbackend.util.SortUtils;
 import jakarta.transaction.Transactional;
-import com.example.electionbackend.mapper.PartyVoteMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing PartyVote-related operations.
@@ -28,93 +24,108 @@ import java.util.List;
 @Service
 public class PartyVoteService implements IPartyVoteService {
     private final PartyVoteRepository partyVoteRepository;
-    private final IMunicipalityService municipalityService;
-    private final IPollingStationService pollingStationService;
-    private final IConstituencyService constituencyService;
-    private final PartyService partyService;
-    private final PartyVoteMapper partyVoteMapper;
-    private final ElectionService electionService;
-
-    public PartyVoteService(PartyVoteRepository partyVoteRepository,
-                            MunicipalityService municipalityService,
-                            PollingStationService pollingStationService,
-                            PartyService partyService,
-                            PartyVoteMapper partyVoteMapper,
-                            ConstituencyService constituencyService, ElectionService electionService) {
+    private final PartyVoteTotalService partyVoteTotalService;
+    private final ElectionReadModel electionReadModel;
+
+    /**
+     * Constructor for PartyVoteService, the region and party names of the votes are resolved by the repository.
+     *
+     * @param partyVoteRepository   - the party vote repository
+     * @param partyVoteTotalService - the service that updates the party vote totals when a vote changes
+     * @param electionReadModel     - the in-memory snapshots of the seeded elections, read before the repository
+     */
+    public PartyVoteService(PartyVoteRepository partyVoteRepository, PartyVoteTotalService partyVoteTotalService,
+                            ElectionReadModel electionReadModel) {
         this.partyVoteRepository = partyVoteRepository;
-        this.municipalityService = municipalityService;
-        this.pollingStationService = pollingStationService;
-        this.partyService = partyService;
-        this.partyVoteMapper = partyVoteMapper;
-        this.constituencyService = constituencyService;
-        this.electionService = electionService;
+        this.partyVoteTotalService = partyVoteTotalService;
+        this.electionReadModel = electionReadModel;
     }
 
     /**
      * Get Party Votes by Party ID, get all the votes on all levels (NATIONAL, MUNICIPALITY, POLLING_STATION, etc.)
-     * Convert each PartyVote to PartyVoteDTO including region and party names
+     * Each PartyVoteDTO includes the region and party names, joined in the same query
      *
-     * @param partyId - the ID of the Party
-     * @return - the list of PartyVoteDTO associated with the Party ID
+     * @param partyId   - the ID of the Party
+     * @param pageable  - the page and sort order, sorted and paged by the database
+     * @param lastVotes - the votes of the last vote of the previous page for keyset pagination, or null
+     * @param lastId    - the ID of the last vote of the previous page for keyset pagination, or null
+     * @return - the page of PartyVoteDTO associated with the Party ID, with the total number of votes
      */
     @Transactional
-    public List<PartyVoteDetailDTO> getByPartyId(int partyId, Pageable pageable) {
-        List<PartyVote> votes = partyVoteRepository.findByPartyId(partyId);
+    public Page<PartyVoteDetailDTO> getByPartyId(int partyId, Pageable pageable, Integer lastVotes, Integer lastId) {
+        ElectionSnapshot snapshot = electionReadModel.findByParty(partyId);
+        if (snapshot != null) {
+            return pageOf(snapshot.getPartyVotesByParty(partyId), pageable, lastVotes, lastId);
+        }
 
-        if (votes == null || votes.isEmpty()) {
+        long total = partyVoteRepository.countByPartyId(partyId);
+
+        if (total == 0) {
             throw new PartyVoteNotFoundException("With party ID " + partyId);
         }
 
-        // Paginate and sort the list
-        List<PartyVote> pagedList = PaginationUtils.paginate(votes, pageable);
-        List<PartyVote> sortedList = SortUtils.sortPartyVotes(pagedList, pageable.getSort());
-
-        return convertToPartyVoteDetailDTOs(sortedList);
+        List<PartyVoteDetailDTO> votes = partyVoteRepository.findDetailsByPartyId(partyId, pageable, lastVotes, lastId);
+        return toPage(votes, pageable, total, lastVotes != null);
     }
 
     /**
      * Get Party Votes by Region Type, get all the votes for the specified region type
-     * Convert each PartyVote to PartyVoteDTO including region and party names
+     * The votes of all elections are requested, so they are always read from the repository
+     * Each PartyVoteDTO includes the region and party names, joined in the same query
      *
      * @param regionType - the type of the Region
-     * @return - the list of PartyVoteDTO associated with the Region Type
+     * @param pageable   - the page and sort order, sorted and paged by the database
+     * @param lastVotes  - the votes of the last vote of the previous page for keyset pagination, or null
+     * @param lastId     - the ID of the last vote of the previous page for keyset pagination, or null
+     * @return - the page of PartyVoteDTO associated with the Region Type, with the total number of votes
      */
     @Transactional
-    public List<PartyVoteDetailDTO> getByRegionType(RegionType regionType, Pageable pageable) {
-        List<PartyVote> votes = partyVoteRepository.findByType(regionType);
+    public Page<PartyVoteDetailDTO> getByRegionType(RegionType regionType, Pageable pageable, Integer lastVotes, Integer lastId) {
+        long total = partyVoteRepository.countByType(regionType);
 
-        if (votes == null || votes.isEmpty()) {
+        if (total == 0) {
             throw new PartyVoteNotFoundException("With region type " + regionType);
         }
 
-        // Paginate and sort the list
-        List<PartyVote> pagedList = PaginationUtils.paginate(votes, pageable);
-        List<PartyVote> sortedList = SortUtils.sortPartyVotes(pagedList, pageable.getSort());
-
-        return convertToPartyVoteDetailDTOs(sortedList);
+        List<PartyVoteDetailDTO> votes = partyVoteRepository.findDetailsByType(regionType, pageable, lastVotes, lastId);
+        return toPage(votes, pageable, total, lastVotes != null);
     }
 
     /**
      * Get Party Votes by Region Type and Region ID, get all the votes for the specified region type and ID
-     * Convert each PartyVote to PartyVoteDTO including region and party names
+     * Each PartyVoteDTO includes the region and party names, joined in the same query
      *
      * @param regionType - the type of the Region
      * @param regionId   - the ID of the Region
-     * @return - the list of PartyVoteDTO associated with the Region Type and ID
+     * @param pageable   - the page and sort order, sorted and paged by the database
+     * @param lastVotes  - the votes of the last vote of the previous page for keyset pagination, or null
+     * @param lastId     - the ID of the last vote of the previous page for keyset pagination, or null
+     * @return - the page of PartyVoteDTO associated with the Region Type and ID, with the total number of votes
      */
     @Transactional
-    public List<PartyVoteDetailDTO> getByRegionTypeAndId(RegionType regionType, String regionId, Pageable pageable) {
-        List<PartyVote> votes = partyVoteRepository.findByTypeAndTypeId(regionType, regionId);
+    public Page<PartyVoteDetailDTO> getByRegionTypeAndId(RegionType regionType, String regionId, Pageable pageable,
+                                                         Integer lastVotes, Integer lastId) {
+        String notFound = "With region type " + regionType + " and region ID " + regionId;
+        int id = parseRegionId(regionId, notFound);
 
-        if (votes == null || votes.isEmpty()) {
-            throw new PartyVoteNotFoundException("With region type " + regionType + " and region ID " + regionId);
+        ElectionSnapshot snapshot = electionReadModel.find(regionType, id);
+        if (snapshot != null) {
+            List<PartyVoteDetailDTO> votes = snapshot.getRegion(regionType, id).getPartyVotes();
+            if (votes.isEmpty()) {
+                throw new PartyVoteNotFoundException(notFound);
+            }
+            return pageOf(votes, pageable, lastVotes, lastId);
         }
 
-        // Paginate and sort the list
-        List<PartyVote> pagedList = PaginationUtils.paginate(votes, pageable);
-        List<PartyVote> sortedList = SortUtils.sortPartyVotes(pagedList, pageable.getSort());
+        long total = partyVoteRepository.countByTypeAndTypeId(regionType, id);
+
+        if (total == 0) {
+            throw new PartyVoteNotFoundException(notFound);
+        }
 
-        return convertToPartyVoteDetailDTOs(sortedList);
+        List<PartyVoteDetailDTO> votes = partyVoteRepository.findDetailsByTypeAndTypeId(
+                regionType, id, pageable, lastVotes, lastId);
+        return toPage(votes, pageable, total, lastVotes != null);
     }
 
     /**
@@ -123,89 +134,166 @@ public class PartyVoteService implements IPartyVoteService {
      * @param regionType - the type of the Region
      * @param regionId   - the ID of the Region
      * @param partyId    - the ID of the Party
-     * @return - the list of PartyVoteDTO associated with the Region Type, Region ID and Party ID
+     * @param pageable   - the page and sort order, sorted and paged by the database
+     * @param lastVotes  - the votes of the last vote of the previous page for keyset pagination, or null
+     * @param lastId     - the ID of the last vote of the previous page for keyset pagination, or null
+     * @return - the page of PartyVoteDTO associated with the Region Type, Region ID and Party ID
      */
     @Override
     @Transactional
-    public List<PartyVoteDetailDTO> getByRegionTypeAndIdAndPartyId(RegionType regionType, String regionId, int partyId, Pageable pageable) {
-        List<PartyVote> votes = partyVoteRepository.findByTypeAndTypeIdAndPartyId(regionType, regionId, partyId);
+    public Page<PartyVoteDetailDTO> getByRegionTypeAndIdAndPartyId(RegionType regionType, String regionId, int partyId,
+                                                                   Pageable pageable, Integer lastVotes, Integer lastId) {
+        String notFound = "With region type " + regionType + ", region ID " + regionId + " and party ID " + partyId;
+        int id = parseRegionId(regionId, notFound);
 
-        if (votes == null || votes.isEmpty()) {
-            throw new PartyVoteNotFoundException(
-                    "With region type " + regionType + ", region ID " + regionId + " and party ID " + partyId);
+        ElectionSnapshot snapshot = electionReadModel.find(regionType, id);
+        if (snapshot != null) {
+            List<PartyVoteDetailDTO> votes = snapshot.getRegion(regionType, id).getPartyVotes()
+                    .stream()
+                    .filter(vote -> vote.getPartyId() == partyId)
+                    .toList();
+            if (votes.isEmpty()) {
+                throw new PartyVoteNotFoundException(notFound);
+            }
+            return pageOf(votes, pageable, lastVotes, lastId);
         }
 
-        // Paginate and sort the list
-        List<PartyVote> pagedList = PaginationUtils.paginate(votes, pageable);
-        List<PartyVote> sortedList = SortUtils.sortPartyVotes(pagedList, pageable.getSort());
+        long total = partyVoteRepository.countByTypeAndTypeIdAndPartyId(regionType, id, partyId);
 
-        return convertToPartyVoteDetailDTOs(sortedList);
+        if (total == 0) {
+            throw new PartyVoteNotFoundException(notFound);
+        }
+
+        List<PartyVoteDetailDTO> votes = partyVoteRepository.findDetailsByTypeAndTypeIdAndPartyId(
+                regionType, id, partyId, pageable, lastVotes, lastId);
+        return toPage(votes, pageable, total, lastVotes != null);
     }
 
     /**
-     * Create a new PartyVote
+     * Create a new PartyVote, the vote is added to the party vote totals of its region in the same transaction
      *
      * @param partyVote - the PartyVote entity to be created
      * @return - the created PartyVote entity
      */
+    @Transactional
     public PartyVote create(PartyVote partyVote) {
-        return partyVoteRepository.save(partyVote);
+        partyVoteTotalService.add(partyVote);
+        PartyVote created = partyVoteRepository.save(partyVote);
+        electionReadModel.reload(created.getRegionType(), created.getRegionId());
+        return created;
     }
 
     /**
-     * Update an existing PartyVote
+     * Update an existing PartyVote, the change of its votes is applied to the party vote totals in the same
+     * transaction
      *
      * @param partyVote - the PartyVote entity to be updated
      * @return - the updated PartyVote entity
      */
+    @Transactional
     public PartyVote update(PartyVote partyVote) {
-        return partyVoteRepository.save(partyVote);
+        PartyVote current = partyVoteRepository.findById(partyVote.getId());
+        RegionType oldRegionType = current != null ? current.getRegionType() : null;
+        int oldRegionId = current != null ? current.getRegionId() : 0;
+        if (current != null) {
+            partyVoteTotalService.replace(current, partyVote);
+        } else {
+            partyVoteTotalService.add(partyVote);
+        }
+
+        PartyVote updated = partyVoteRepository.save(partyVote);
+        if (oldRegionType != null
+                && (oldRegionType != updated.getRegionType() || oldRegionId != updated.getRegionId())) {
+            electionReadModel.reload(oldRegionType, oldRegionId);
+        }
+        electionReadModel.reload(updated.getRegionType(), updated.getRegionId());
+        return updated;
     }
 
     /**
-     * Delete a PartyVote
+     * Delete a PartyVote, the vote is removed from the party vote totals of its region in the same transaction
      *
      * @param id - the ID of the PartyVote to be deleted
      */
+    @Transactional
     public void delete(int id) {
-        partyVoteRepository.deleteById(id);
+        PartyVote partyVote = partyVoteRepository.findById(id);
+        if (partyVote != null) {
+            partyVoteTotalService.remove(partyVote);
+            partyVoteRepository.delete(partyVote);
+            electionReadModel.reload(partyVote.getRegionType(), partyVote.getRegionId());
+        }
     }
 
     /**
-     * Helper method to convert a list of PartyVote entities to PartyVoteDTOs
-     * Adds region and party names to the DTOs
+     * Helper method to parse the region ID of a request, there are no votes for a region ID that isn't a number
      *
-     * @param votes - the list of PartyVote entities
-     * @return - the list of PartyVoteDTOs
+     * @param regionId - the region ID of the request
+     * @param notFound - the message of the exception when the ID isn't a number
+     * @return - the region ID
      */
-    private List<PartyVoteDetailDTO> convertToPartyVoteDetailDTOs(List<PartyVote> votes) {
-        List<PartyVoteDetailDTO> partyVoteList = new ArrayList<>();
-
-        for (PartyVote vote : votes) {
-            RegionDTO region;
-            switch (vote.getRegionType()) {
-                case MUNICIPALITY:
-                    region = municipalityService.getById(vote.getRegionId());
-                    break;
-                case POLLING_STATION:
-                    region = pollingStationService.getById(vote.getRegionId());
-                    break;
-                case CONSTITUENCY:
-                    region = constituencyService.getById(vote.getRegionId());
-                    break;
-                case NATIONAL:
-                    region = new RegionDTO("Nederland");
-                    break;
-                default:
-                    region = new RegionDTO("Unknown Region");
-            }
+    private static int parseRegionId(String regionId, String notFound) {
+        try {
+            return Integer.parseInt(regionId);
+        } catch (NumberFormatException e) {
+            throw new PartyVoteNotFoundException(notFound);
+        }
+    }
 
-            Party party = partyService.get(vote.getPartyId());
+    /**
+     * Helper method to take a page of the votes of a snapshot, in the same order as the repository
+     *
+     * @param votes     - the votes of the snapshot, with the most votes first
+     * @param pageable  - the page and sort order, only sorting by votes is supported
+     * @param lastVotes - the votes of the last vote of the previous page for keyset pagination, or null
+     * @param lastId    - the ID of the last vote of the previous page for keyset pagination, or null
+     * @return - the page of PartyVoteDTOs, with the total number of votes
+     */
+    private Page<PartyVoteDetailDTO> pageOf(List<PartyVoteDetailDTO> votes, Pageable pageable,
+                                            Integer lastVotes, Integer lastId) {
+        boolean descending = SortUtils.isVotesDescending(pageable.getSort());
+        Stream<PartyVoteDetailDTO> page = (descending ? votes : votes.reversed()).stream();
 
-            partyVoteList.add(partyVoteMapper.toPartyVoteDetailDTO(
-                    vote, region.getName(), party.getName(), party.getSeats()
-            ));
+        if (lastVotes != null) {
+            page = page.filter(vote -> isAfter(vote, lastVotes, lastId, descending));
+        } else if (pageable.isPaged()) {
+            page = page.skip(pageable.getOffset());
+        }
+        if (pageable.isPaged()) {
+            page = page.limit(pageable.getPageSize());
         }
-        return partyVoteList;
+        return toPage(page.toList(), pageable, votes.size(), lastVotes != null);
+    }
+
+    /**
+     * Helper method to check whether a vote comes after the last vote of the previous page
+     *
+     * @param vote       - the vote
+     * @param lastVotes  - the votes of the last vote of the previous page
+     * @param lastId     - the ID of the last vote of the previous page, or null to only compare the votes
+     * @param descending - whether the votes are sorted descending
+     * @return - true if the vote belongs after the last vote
+     */
+    private static boolean isAfter(PartyVoteDetailDTO vote, int lastVotes, Integer lastId, boolean descending) {
+        int order = descending ? Integer.compare(lastVotes, vote.getVotes()) : Integer.compare(vote.getVotes(), lastVotes);
+        if (order != 0 || lastId == null) {
+            return order > 0;
+        }
+        return descending ? vote.getId() < lastId : vote.getId() > lastId;
+    }
+
+    /**
+     * Helper method to wrap the PartyVoteDTOs of a page in a page with the total number of votes
+     *
+     * @param votes    - the PartyVoteDTOs of the page, with their region and party names
+     * @param pageable - the requested page
+     * @param total    - the total number of votes matching the request
+     * @param keyset   - whether the page was requested after a previous vote instead of by page number
+     * @return - the page of PartyVoteDTOs
+     */
+    private Page<PartyVoteDetailDTO> toPage(List<PartyVoteDetailDTO> votes, Pageable pageable, long total, boolean keyset) {
+        // A keyset page has no offset, so the total mustn't be derived from its page number
+        Pageable page = keyset ? Pageable.unpaged(pageable.getSort()) : pageable;
+        return new PageImpl<>(votes, page, total);
     }
 }
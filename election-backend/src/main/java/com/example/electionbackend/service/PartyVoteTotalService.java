@@ -0,0 +1,137 @@
+package com.example.electionbackend.service;
+
+import com.example.electionbackend.dto.PartyVoteTotalDTO;
+import com.example.electionbackend.exception.votes.PartyVoteNotFoundException;
+import com.example.electionbackend.interfaces.IPartyVoteTotalService;
+import com.example.electionbackend.model.PartyVote;
+import com.example.electionbackend.repository.interfaces.PartyVoteTotalRepository;
+import com.example.electionbackend.type.RegionType;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for the precomputed party vote totals per region. The totals of an election are rebuilt after it
+ * is seeded; a corrected party vote only changes the totals of its region and the regions above it, the read
+ * methods only look them up.
+ */
+@Service
+public class PartyVoteTotalService implements IPartyVoteTotalService {
+    private final PartyVoteTotalRepository partyVoteTotalRepository;
+
+    /**
+     * Constructor for PartyVoteTotalService.
+     *
+     * @param partyVoteTotalRepository - the party vote total repository
+     */
+    public PartyVoteTotalService(PartyVoteTotalRepository partyVoteTotalRepository) {
+        this.partyVoteTotalRepository = partyVoteTotalRepository;
+    }
+
+    /**
+     * Get the totals of all regions of a type, ordered by region and rank
+     *
+     * @param year       - the year of the election
+     * @param regionType - the type of the regions, polling stations have no totals
+     * @param pageable   - the page of totals
+     * @return - the page of totals, with the total number of totals
+     */
+    @Override
+    public Page<PartyVoteTotalDTO> getByRegionType(int year, RegionType regionType, Pageable pageable) {
+        String electionId = "TK" + year;
+        long total = partyVoteTotalRepository.countByRegionType(electionId, regionType);
+
+        if (total == 0) {
+            throw new PartyVoteNotFoundException("With year " + year + " and region type " + regionType);
+        }
+
+        List<PartyVoteTotalDTO> totals = partyVoteTotalRepository.findByRegionType(electionId, regionType, pageable);
+        return new PageImpl<>(totals, pageable, total);
+    }
+
+    /**
+     * Get the totals of the parties in a single region, ordered by rank
+     *
+     * @param year       - the year of the election
+     * @param regionType - the type of the region, polling stations have no totals
+     * @param regionId   - the ID of the region
+     * @return - the totals of the parties in the region
+     */
+    @Override
+    public List<PartyVoteTotalDTO> getByRegion(int year, RegionType regionType, int regionId) {
+        List<PartyVoteTotalDTO> totals = partyVoteTotalRepository.findByRegion("TK" + year, regionType, regionId);
+
+        if (totals.isEmpty()) {
+            throw new PartyVoteNotFoundException("With year " + year + ", region type " + regionType
+                    + " and region ID " + regionId);
+        }
+        return totals;
+    }
+
+    /**
+     * Rebuild the totals of an election from its party votes
+     *
+     * @param electionId - the ID of the election, for example TK2023
+     */
+    @Override
+    @Transactional
+    public void rebuild(String electionId) {
+        long start = System.nanoTime();
+        partyVoteTotalRepository.rebuild(electionId);
+        System.out.println("Rebuilt the party vote totals of " + electionId + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Add a new party vote to the totals, before the vote is written
+     *
+     * @param vote - the new party vote
+     */
+    @Override
+    @Transactional
+    public void add(PartyVote vote) {
+        partyVoteTotalRepository.applyChange(vote.getRegionType(), vote.getRegionId(),
+                Map.of(vote.getPartyId(), vote.getVotes()), 1);
+    }
+
+    /**
+     * Remove a party vote from the totals, before the vote is deleted
+     *
+     * @param vote - the party vote that is deleted
+     */
+    @Override
+    @Transactional
+    public void remove(PartyVote vote) {
+        partyVoteTotalRepository.applyChange(vote.getRegionType(), vote.getRegionId(),
+                Map.of(vote.getPartyId(), -vote.getVotes()), -1);
+    }
+
+    /**
+     * Apply a corrected party vote to the totals, before the correction is written. A vote that moved to another
+     * region is removed from the totals of the old region and added to the totals of the new one, which may belong
+     * to another election.
+     *
+     * @param old     - the party vote as it is stored
+     * @param updated - the corrected party vote
+     */
+    @Override
+    @Transactional
+    public void replace(PartyVote old, PartyVote updated) {
+        if (old.getRegionType() != updated.getRegionType() || old.getRegionId() != updated.getRegionId()) {
+            remove(old);
+            add(updated);
+            return;
+        }
+
+        Map<Integer, Integer> votes = new HashMap<>();
+        votes.merge(old.getPartyId(), -old.getVotes(), Integer::sum);
+        votes.merge(updated.getPartyId(), updated.getVotes(), Integer::sum);
+        partyVoteTotalRepository.applyChange(updated.getRegionType(), updated.getRegionId(), votes, 0);
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.cache.BoundedCache;
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
 import com.example.electionbackend.dto.RegionDTO;
 import com.example.electionbackend.exception.pollingStation.PollingStationNotFoundException;
 import com.example.electionbackend.interfaces.IPollingStationService;
 import com.example.electionbackend.model.PollingStation;
+import com.example.electionbackend.readmodel.ElectionReadModel;
+import com.example.electionbackend.readmodel.ElectionSnapshot;
 import com.example.electionbackend.repository.interfaces.PollingStationRepository;
+import com.example.electionbackend.type.RegionType;
 import com.example.electionbackend.util.PaginationUtils;
 import com.example.electionbackend.util.SortUtils;
 import jakarta.transaction.Transactional;
@@ -15,8 +21,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.electionbackend.util.TransactionUtils.afterCommit;
 
 /**
  * Service class for managing PollingStation-related operations.
@@ -25,28 +31,35 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PollingStationService implements IPollingStationService {
     private final PollingStationRepository pollingStationRepository;
     private final PollingStationMapper pollingStationMapper;
+    private final ElectionReadModel electionReadModel;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
-     * Cache to store RegionDTOs for O(1) retrieval by election year and polling station ID.
-     * Used when getting all polling stations for a specific election year.
-     * Cache per election: election year -> (municipalityId -> RegionDTO)
+     * Cache of the polling stations of an election, used when getting all polling stations of an election year.
+     * Cache: election year -> RegionDTOs
      */
-    private final Map<Integer, Map<Integer, RegionDTO>> pollingStationCacheByElection = new ConcurrentHashMap<>();
+    private final BoundedCache<Integer, List<RegionDTO>> pollingStationsByElection;
 
     /**
-     * Cache to store RegionDTOs for O(1) retrieval by ID.
-     * Used when getting a municipality by ID.
+     * Cache of single polling stations, used when getting a polling station by ID.
      * Cache: pollingStation ID -> RegionDTO
      */
-    private final Map<Integer, RegionDTO> pollingStationCache = new ConcurrentHashMap<>();
+    private final BoundedCache<Integer, RegionDTO> pollingStationCache;
 
     /**
-     * Constructor for PollingStationService.
+     * Constructor for PollingStationService, the snapshots of the read model are read before the caches.
      */
     public PollingStationService(PollingStationRepository pollingStationRepository,
-                                 PollingStationMapper pollingStationMapper) {
+                                 PollingStationMapper pollingStationMapper,
+                                 ElectionReadModel electionReadModel,
+                                 CacheRegistry cacheRegistry,
+                                 CacheInvalidationBus cacheInvalidationBus) {
         this.pollingStationMapper = pollingStationMapper;
         this.pollingStationRepository = pollingStationRepository;
+        this.electionReadModel = electionReadModel;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.pollingStationsByElection = cacheRegistry.create("pollingStationsByElection", 10, Integer::valueOf);
+        this.pollingStationCache = cacheRegistry.create("pollingStations", 10_000, Integer::valueOf);
     }
 
     /**
@@ -57,28 +70,20 @@ public class PollingStationService implements IPollingStationService {
      */
     @Transactional
     public RegionDTO getById(int id) {
-        // Check cache first O(1) lookup
-        if (pollingStationCache.containsKey(id)) {
-            return pollingStationCache.get(id);
+        // Served from the snapshot of the election when it has been published
+        ElectionSnapshot snapshot = electionReadModel.find(RegionType.POLLING_STATION, id);
+        if (snapshot != null) {
+            return snapshot.getRegion(RegionType.POLLING_STATION, id).getRegionDTO();
         }
 
         // If not in cache, retrieve from repository and map to DTO
-        PollingStation pollingStation = pollingStationRepository.findById(id);
-        if (pollingStation == null) {
-            throw new PollingStationNotFoundException(id);
-        }
-
-        // Map the polling station to RegionDTO
-        RegionDTO regionDTO = pollingStationMapper.toRegionDTO(pollingStation);
-
-        // Update both caches
-        pollingStationCache.put(id, regionDTO);
-        String year = pollingStation.getMunicipality().getConstituency().getState().getElection().getId().substring(2);
-        pollingStationCacheByElection
-                .computeIfAbsent(Integer.valueOf(year), k -> new ConcurrentHashMap<>())
-                .put(regionDTO.getId(), regionDTO);
-
-        return regionDTO;
+        return pollingStationCache.get(id, key -> {
+            PollingStation pollingStation = pollingStationRepository.findById(key);
+            if (pollingStation == null) {
+                throw new PollingStationNotFoundException(key);
+            }
+            return pollingStationMapper.toRegionDTO(pollingStation);
+        });
     }
 
     /**
@@ -88,7 +93,10 @@ public class PollingStationService implements IPollingStationService {
      */
     @Transactional
     public Page<RegionDTO> getAll(Pageable pageable, int year) {
-        List<RegionDTO> pollingStations = loadAllIntoCacheIfEmpty(year);
+        ElectionSnapshot snapshot = electionReadModel.get(year);
+        List<RegionDTO> pollingStations = snapshot != null
+                ? snapshot.getRegions(RegionType.POLLING_STATION)
+                : pollingStationsByElection.get(year, this::loadAll);
 
         // Sort the polling stations based on the pageable's sort
         if (pageable.getSort().isSorted()) {
@@ -102,28 +110,15 @@ public class PollingStationService implements IPollingStationService {
     }
 
     /**
-     * Load all Polling Stations into cache if the cache is empty
+     * Load all Polling Stations of an election year from the repository
      *
-     * @return - list of RegionDTOs from the cache
+     * @return - list of RegionDTOs
      */
-    private List<RegionDTO> loadAllIntoCacheIfEmpty(int year) {
-        if (pollingStationCacheByElection.containsKey(year)) {
-            return pollingStationCacheByElection.get(year).values().stream().toList();
-        }
-
-        List<PollingStation> pollingStations = pollingStationRepository.findAll(year);
-
-        Map<Integer, RegionDTO> electionCache = new ConcurrentHashMap<>();
-        pollingStations.stream()
+    private List<RegionDTO> loadAll(int year) {
+        return pollingStationRepository.findAll(year)
+                .stream()
                 .map(pollingStationMapper::toRegionDTO)
-                .forEach(ps -> {
-                    // Populate both caches
-                    electionCache.put(ps.getId(), ps);
-                    pollingStationCache.put(ps.getId(), ps);
-                });
-
-        pollingStationCacheByElection.put(year, electionCache);
-        return electionCache.values().stream().toList();
+                .toList();
     }
 
     /**
@@ -140,11 +135,14 @@ public class PollingStationService implements IPollingStationService {
         RegionDTO regionDTO = pollingStationMapper.toRegionDTO(saved);
         String year = saved.getMunicipality().getConstituency().getState().getElection().getId().substring(2);
 
-        // Update both caches
-        pollingStationCache.put(regionDTO.getId(), regionDTO);
-        pollingStationCacheByElection
-                .computeIfAbsent(Integer.valueOf(year), k -> new ConcurrentHashMap<>())
-                .put(regionDTO.getId(), regionDTO);
+        // Update the polling station once it is committed, the list of the election is loaded again
+        afterCommit(() -> {
+            pollingStationCache.put(regionDTO.getId(), regionDTO);
+            pollingStationsByElection.invalidate(Integer.valueOf(year));
+        });
+        cacheInvalidationBus.publish(pollingStationCache.getName(), regionDTO.getId());
+        cacheInvalidationBus.publish(pollingStationsByElection.getName(), year);
+        electionReadModel.reload("TK" + year);
 
         return saved;
     }
@@ -165,11 +163,14 @@ public class PollingStationService implements IPollingStationService {
         String year = updated.getMunicipality().getConstituency().getState().getElection().getId().substring(2);
         RegionDTO regionDTO = pollingStationMapper.toRegionDTO(updated);
 
-        // Update both caches
-        pollingStationCache.put(updated.getId(), regionDTO);
-        pollingStationCacheByElection
-                .computeIfAbsent(Integer.valueOf(year), k -> new ConcurrentHashMap<>())
-                .put(regionDTO.getId(), regionDTO);
+        // Update the polling station once it is committed, the list of the election is loaded again
+        afterCommit(() -> {
+            pollingStationCache.put(updated.getId(), regionDTO);
+            pollingStationsByElection.invalidate(Integer.valueOf(year));
+        });
+        cacheInvalidationBus.publish(pollingStationCache.getName(), regionDTO.getId());
+        cacheInvalidationBus.publish(pollingStationsByElection.getName(), year);
+        electionReadModel.reload("TK" + year);
 
         return updated;
     }
@@ -185,10 +186,15 @@ public class PollingStationService implements IPollingStationService {
             throw new PollingStationNotFoundException(id);
         }
 
+        electionReadModel.reload(RegionType.POLLING_STATION, id);
         pollingStationRepository.deleteById(id);
 
-        // Remove from both caches
-        pollingStationCache.remove(id);
-        pollingStationCacheByElection.values().forEach(cache -> cache.remove(id));
+        // Remove from both caches once it is committed
+        afterCommit(() -> {
+            pollingStationCache.invalidate(id);
+            pollingStationsByElection.invalidateAll();
+        });
+        cacheInvalidationBus.publish(pollingStationCache.getName(), id);
+        cacheInvalidationBus.publishAll(pollingStationsByElection.getName());
     }
 }
\ No newline at end of file
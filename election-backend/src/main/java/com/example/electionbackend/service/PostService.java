@@ -1,5 +1,9 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.cache.BoundedCache;
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
+import com.example.electionbackend.counter.PostCounters;
 import com.example.electionbackend.dto.PostDTO;
 import com.example.electionbackend.dto.PostDetailDTO;
 import com.example.electionbackend.exception.UserNotFoundException;
@@ -10,7 +14,10 @@ import com.example.electionbackend.interfaces.IPostService;
 import com.example.electionbackend.mapper.PostMapper;
 import com.example.electionbackend.model.Post;
 import com.example.electionbackend.model.User;
+import com.example.electionbackend.repository.interfaces.PostLikeRepository;
 import com.example.electionbackend.repository.interfaces.PostRepository;
+import com.example.electionbackend.search.PostSearchIndex;
+import com.example.electionbackend.type.PostCounter;
 import com.example.electionbackend.util.PaginationUtils;
 import com.example.electionbackend.repository.interfaces.UserRepository;
 import jakarta.transaction.Transactional;
@@ -19,13 +26,14 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -36,22 +44,74 @@ public class PostService implements IPostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final PostMapper postMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCounters postCounters;
+    private final PostLikeRepository postLikeRepository;
 
     /**
-     * Cache to store PostDetailDTOs for O(1) retrieval by ID.
+     * Key of the only entry of the cache of all posts.
      */
-    private final Map<Integer, PostDetailDTO> postCache = new ConcurrentHashMap<>();
+    private static final String ALL_POSTS = "all";
+
+    /**
+     * The maximum number of posts of a page of the feed.
+     */
+    private static final int MAX_FEED_SIZE = 100;
+
+    /**
+     * The order of the cached posts: newest first, by ID on equal creation times.
+     */
+    private static final Comparator<PostDetailDTO> NEWEST_FIRST = Comparator
+            .comparing(PostDetailDTO::getCreatedAt)
+            .thenComparing(PostDetailDTO::getId)
+            .reversed();
+
+    /**
+     * Cache to store PostDetailDTOs for retrieval by ID.
+     */
+    private final BoundedCache<Integer, PostDetailDTO> postCache;
+
+    /**
+     * Cache of all posts sorted newest first, used when getting the posts without a search query.
+     * New posts are inserted in place, also the posts of other nodes, so the posts are never sorted per request.
+     */
+    private final BoundedCache<String, List<PostDetailDTO>> allPostsCache;
+
+    /**
+     * Cache of the number of posts, counted again when it expires and incremented by new posts in between.
+     */
+    private final BoundedCache<String, Long> postCountCache;
 
     public PostService(PostRepository postRepository, UserRepository userRepository,
-                       PostMapper postMapper) {
+                       PostMapper postMapper, CacheRegistry cacheRegistry,
+                       CacheInvalidationBus cacheInvalidationBus, PostSearchIndex postSearchIndex,
+                       PostCounters postCounters, PostLikeRepository postLikeRepository) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.postMapper = postMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.postSearchIndex = postSearchIndex;
+        this.postCounters = postCounters;
+        this.postLikeRepository = postLikeRepository;
+        this.postCache = cacheRegistry.create("posts", 1_000, Integer::valueOf);
+        this.allPostsCache = cacheRegistry.create("allPosts", 1, key -> key);
+        this.postCountCache = cacheRegistry.create("postCount", 1, key -> key);
+        cacheRegistry.addListener(allPostsCache.getName(), key -> {
+            if (key != null) {
+                insertPost(Integer.parseInt(key));
+            }
+        });
+        cacheRegistry.addListener(PostSearchIndex.NAME, key -> {
+            if (key != null) {
+                indexPost(Integer.parseInt(key));
+            }
+        });
     }
 
     /**
      * Retrieves a detailed view of a post by its ID.
-     * Checks the cache first before querying the repository.
+     * Checks the cache first before querying the repository, the like and comment counts are always live.
      *
      * @param id The unique identifier of the post to retrieve.
      * @return A PostDetailDTO containing post data and aggregated details.
@@ -59,25 +119,49 @@ public class PostService implements IPostService {
      */
     @Override
     public PostDetailDTO getById(int id) {
-        // Check cache first O(1) lookup
-        if (postCache.containsKey(id)) {
-            return postCache.get(id);
-        }
+        return withLiveCounts(postCache.get(id, key -> {
+            Post post = postRepository.findById(key);
+            if (post == null) {
+                throw new PostNotFoundException(key);
+            }
+            return toPostDetailDTO(post);
+        }));
+    }
 
-        Post post = postRepository.findById(id);
-        if (post == null) {
-            throw new PostNotFoundException(id);
+    /**
+     * Adds the like of a user to a post, a user likes a post at most once. The like is recorded right away, its count
+     * is added in memory and written to the like count of the post in a batch.
+     *
+     * @param id     The unique identifier of the post.
+     * @param userId The unique identifier of the user that likes the post.
+     * @return The post with its new like count.
+     * @throws PostNotFoundException If no post exists with the given ID.
+     */
+    @Override
+    public PostDetailDTO like(int id, int userId) {
+        PostDetailDTO post = getById(id);
+        if (postLikeRepository.add(id, userId)) {
+            postCounters.add(id, PostCounter.LIKES, 1);
         }
+        return withLiveCounts(post);
+    }
 
-        // TODO: implement real data
-        int commentCount = 100;
-        int likeCount = 5;
-
-        PostDetailDTO dto = postMapper.toPostDetailDTO(post, commentCount, likeCount);
-
-        postCache.put(id, dto);
-
-        return dto;
+    /**
+     * Removes the like of a user from a post. Only a like the user added is removed, so the like count never drops
+     * below the likes of the other users.
+     *
+     * @param id     The unique identifier of the post.
+     * @param userId The unique identifier of the user that unlikes the post.
+     * @return The post with its new like count.
+     * @throws PostNotFoundException If no post exists with the given ID.
+     */
+    @Override
+    public PostDetailDTO unlike(int id, int userId) {
+        PostDetailDTO post = getById(id);
+        if (postLikeRepository.remove(id, userId)) {
+            postCounters.add(id, PostCounter.LIKES, -1);
+        }
+        return withLiveCounts(post);
     }
 
     /**
@@ -92,47 +176,140 @@ public class PostService implements IPostService {
     public Page<PostDetailDTO> getAll(Pageable pageable, String query) {
         validateQuery(query);
 
-        // Search query always goes to the db
+        // Search query goes to the search index, or to the db when the index is disabled
         if (query != null && !query.isBlank()) {
-            return getFilteredPostsFromDatabase(query, pageable);
+            return postSearchIndex.isEnabled()
+                    ? getFilteredPostsFromIndex(query, pageable)
+                    : getFilteredPostsFromDatabase(query, pageable);
         }
 
-        // No search, use cache (if empty, load from db)
-        List<PostDetailDTO> allDtos = loadAllIntoCacheIfEmpty();
+        // No search, use cache (if empty, load from db once, concurrent requests wait for that load)
+        List<PostDetailDTO> allDtos = allPostsCache.get(ALL_POSTS, key -> loadAll());
 
-        // Sorting the DTOs
-        allDtos = sortDtos(allDtos, pageable.getSort());
+        // The cached posts are newest first, oldest first is the same list backwards
+        if (isAscending(pageable.getSort())) {
+            allDtos = allDtos.reversed();
+        }
 
-        // Pagination
-        List<PostDetailDTO> pagedList = PaginationUtils.paginate(allDtos, pageable);
+        // Pagination, only the posts of the page get their live counts
+        List<PostDetailDTO> pagedList = withLiveCounts(PaginationUtils.paginate(allDtos, pageable));
 
         return new PageImpl<>(pagedList, pageable, allDtos.size());
     }
 
     /**
-     * Helper method to load all posts into the cache if it's empty.
-     * Lazy-loads from the database only if the cache is empty.
+     * Get a page of the post feed, newest first, read from the database.
+     * The page continues after the last post of the previous page, so every page costs the same as the first.
+     *
+     * @param size          - the number of posts, at most 100
+     * @param lastCreatedAt - the creation time of the last post of the previous page, or null for the first page
+     * @param lastId        - the ID of the last post of the previous page, breaks ties between equal creation times
+     * @return - the PostDetailDTOs of the page
+     */
+    @Override
+    public List<PostDetailDTO> getFeed(int size, LocalDateTime lastCreatedAt, Integer lastId) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_SIZE));
+        return postRepository.findFeedPage(lastCreatedAt, lastId, pageSize)
+                .stream()
+                .map(this::toPostDetailDTO)
+                .map(this::withLiveCounts)
+                .toList();
+    }
+
+    /**
+     * Get the number of posts. The count is cached, so it can lag behind posts created on other nodes until it
+     * expires.
      *
-     * @return - list of all PostDetailDTOs
+     * @return - the approximate number of posts
      */
-    private List<PostDetailDTO> loadAllIntoCacheIfEmpty() {
-        // If not empty, return from cache
-        if (!postCache.isEmpty()) {
-            return postCache.values().stream().toList();
+    @Override
+    public long getApproximateCount() {
+        return postCountCache.get(ALL_POSTS, key -> postRepository.count());
+    }
+
+    /**
+     * Helper method to load all posts from the database.
+     * Only called when the cache of all posts is empty or has expired.
+     *
+     * @return - list of all PostDetailDTOs, newest first
+     */
+    private List<PostDetailDTO> loadAll() {
+        return postRepository.findAll()
+                .stream()
+                .map(this::toPostDetailDTO)
+                .sorted(NEWEST_FIRST)
+                .toList();
+    }
+
+    /**
+     * Helper method to insert a post into a copy of the cached posts, at its place in the order.
+     *
+     * @param posts - the cached posts, newest first
+     * @param post  - the new post
+     * @return - a copy of the posts with the new post
+     */
+    private static List<PostDetailDTO> insert(List<PostDetailDTO> posts, PostDetailDTO post) {
+        List<PostDetailDTO> updated = new ArrayList<>(posts.size() + 1);
+        updated.addAll(posts);
+
+        int index = Collections.binarySearch(posts, post, NEWEST_FIRST);
+        if (index >= 0) {
+            updated.set(index, post);
+        } else {
+            updated.add(-index - 1, post);
         }
+        return Collections.unmodifiableList(updated);
+    }
 
-        // Else load from db
-        List<Post> posts = postRepository.findAll();
+    /**
+     * Helper method to get filtered posts from the search index, loading the index with all posts first if needed.
+     * Without a sort on createdAt the best matches come first.
+     *
+     * @param query    - The search query
+     * @param pageable - Pagination information
+     * @return - Paged list of PostDetailDTOs matching the query
+     */
+    private Page<PostDetailDTO> getFilteredPostsFromIndex(String query, Pageable pageable) {
+        if (!postSearchIndex.isLoaded()) {
+            postSearchIndex.load(() -> allPostsCache.get(ALL_POSTS, key -> loadAll()));
+        }
 
-        // Populate cache
-        posts.stream()
-                .map(post -> postMapper.toPostDetailDTO(post, 100, 5))
-                .forEach(dto -> postCache.put(dto.getId(), dto));
+        List<PostDetailDTO> dtos = postSearchIndex.search(query);
+        if (pageable.getSort().getOrderFor("createdAt") != null) {
+            dtos = sortDtos(dtos, pageable.getSort());
+        }
+        List<PostDetailDTO> paged = withLiveCounts(PaginationUtils.paginate(dtos, pageable));
 
+        return new PageImpl<>(paged, pageable, dtos.size());
+    }
 
-        // Return the cash
-        return postCache.values().stream().toList();
+    /**
+     * Helper method to insert a post that another node created into the cached posts.
+     * Nothing is read when the posts aren't cached, the next load includes the post.
+     *
+     * @param id - the ID of the new post
+     */
+    private void insertPost(int id) {
+        if (allPostsCache.get(ALL_POSTS) == null) {
+            return;
+        }
+        Post post = postRepository.findById(id);
+        if (post != null) {
+            PostDetailDTO detail = toPostDetailDTO(post);
+            allPostsCache.update(ALL_POSTS, posts -> insert(posts, detail));
+        }
+    }
 
+    /**
+     * Helper method to add a post that another node created to the search index.
+     *
+     * @param id - the ID of the new post
+     */
+    private void indexPost(int id) {
+        Post post = postRepository.findById(id);
+        if (post != null) {
+            postSearchIndex.add(toPostDetailDTO(post));
+        }
     }
 
     /**
@@ -146,18 +323,58 @@ public class PostService implements IPostService {
         List<Post> posts = postRepository.findByQuery(query);
 
         List<PostDetailDTO> dtos = posts.stream()
-                .map(post -> postMapper.toPostDetailDTO(
-                        post,
-                        100, // TODO: actual comment count
-                        5   // TODO: actual likes count
-                )).toList();
+                .map(this::toPostDetailDTO)
+                .toList();
 
         List<PostDetailDTO> sorted = sortDtos(dtos, pageable.getSort());
-        List<PostDetailDTO> paged = PaginationUtils.paginate(sorted, pageable);
+        List<PostDetailDTO> paged = withLiveCounts(PaginationUtils.paginate(sorted, pageable));
 
         return new PageImpl<>(paged, pageable, dtos.size());
     }
 
+    /**
+     * Helper method to convert a post read from the database, remembering its counts for the live counters.
+     *
+     * @param post - the post
+     * @return - the PostDetailDTO with the counts of the database
+     */
+    private PostDetailDTO toPostDetailDTO(Post post) {
+        postCounters.seed(post);
+        return postMapper.toPostDetailDTO(post, post.getCommentCount(), post.getLikeCount());
+    }
+
+    /**
+     * Helper method to copy a cached post with its live like and comment counts.
+     * The cached posts are shared, so they are never changed in place.
+     *
+     * @param post - the cached post
+     * @return - a copy of the post with the live counts
+     */
+    private PostDetailDTO withLiveCounts(PostDetailDTO post) {
+        return new PostDetailDTO(
+                post.getId(),
+                post.getUserId(),
+                post.getTitle(),
+                post.getContent(),
+                post.getCreatedAt(),
+                post.getAuthorName(),
+                postCounters.getCount(post.getId(), PostCounter.COMMENTS),
+                postCounters.getCount(post.getId(), PostCounter.LIKES)
+        );
+    }
+
+    /**
+     * Helper method to copy the posts of a page with their live like and comment counts.
+     *
+     * @param posts - the cached posts of the page
+     * @return - copies of the posts with the live counts
+     */
+    private List<PostDetailDTO> withLiveCounts(List<PostDetailDTO> posts) {
+        return posts.stream()
+                .map(this::withLiveCounts)
+                .toList();
+    }
+
     /**
      * Helper method to validate the search query.
      * Throws InvalidSearchQueryException if the query exceeds 200 characters.
@@ -178,23 +395,25 @@ public class PostService implements IPostService {
      * @return - Sorted list of PostDetailDTOs
      */
     private List<PostDetailDTO> sortDtos(List<PostDetailDTO> dtos, Sort sort) {
-        // Gets the sort order for createdAt from the Sort object
-        Sort.Order order = sort.getOrderFor("createdAt");
-        boolean ascending = order != null && order.isAscending();
-
-        // Compare based on createdAt
-        Comparator<PostDetailDTO> comparator = Comparator.comparing(PostDetailDTO::getCreatedAt);
-
-        // Reverse if descending
-        if (!ascending) {
-            comparator = comparator.reversed();
-        }
+        // Newest first, unless ascending createdAt is requested
+        Comparator<PostDetailDTO> comparator = isAscending(sort) ? NEWEST_FIRST.reversed() : NEWEST_FIRST;
 
         return dtos.stream()
                 .sorted(comparator)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Helper method to check whether the posts are requested oldest first.
+     *
+     * @param sort - Sort object containing sorting information
+     * @return - true if the sort order for createdAt is ascending
+     */
+    private boolean isAscending(Sort sort) {
+        Sort.Order order = sort.getOrderFor("createdAt");
+        return order != null && order.isAscending();
+    }
+
     /**
      * Creates a new post based on the provided PostDTO.
      *
@@ -229,11 +448,40 @@ public class PostService implements IPostService {
 
         Post saved = postRepository.save(post);
 
-        postCache.clear();
+        // Write the new post through to the caches and the search index once it has been committed,
+        // the other nodes read just the new post by its ID and insert it into theirs
+        PostDetailDTO detail = toPostDetailDTO(saved);
+        afterCommit(() -> {
+            postCache.put(detail.getId(), detail);
+            allPostsCache.update(ALL_POSTS, posts -> insert(posts, detail));
+            postCountCache.update(ALL_POSTS, count -> count + 1);
+        });
+        cacheInvalidationBus.publish(allPostsCache.getName(), saved.getId());
+        cacheInvalidationBus.publishAll(postCountCache.getName());
+        postSearchIndex.add(detail);
+        cacheInvalidationBus.publish(PostSearchIndex.NAME, saved.getId());
 
         return postMapper.toDTO(saved);
     }
 
+    /**
+     * Helper method to run an action once the current transaction has committed, right away without a transaction.
+     *
+     * @param action - the action to run
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     @Override
     public Post update(Post postDTO) {
         return null;
@@ -1,12 +1,20 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.dto.ConstituencyDTO;
 import com.example.electionbackend.dto.ElectionDTO;
-import com.example.electionbackend.mapper.ElectionMapper;
+import com.example.electionbackend.dto.InsertedElectionDTO;
 import com.example.electionbackend.model.Election;
+import com.example.electionbackend.repository.interfaces.ElectionBulkRepository;
 import com.example.electionbackend.repository.ElectionJPARepository;
+import com.example.electionbackend.seeder.ElectionRecordReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
 /**
  * The seeder service class
  */
@@ -14,26 +22,96 @@ import org.springframework.stereotype.Service;
 public class SeederService {
 
     private final ElectionJPARepository electionRepository;
-    private final ElectionMapper electionMapper;
+    private final ElectionBulkRepository electionBulkRepository;
+    private final PartyVoteTotalService partyVoteTotalService;
+    private final ObjectMapper mapper = new ObjectMapper();
 
     /**
      * Constructor method
      * @param electionRepository The election repository
-     * @param electionMapper The election mapper
+     * @param electionBulkRepository The repository that writes complete elections in batches
+     * @param partyVoteTotalService The service that rebuilds the party vote totals of a seeded election
      */
-    public SeederService(ElectionJPARepository electionRepository, ElectionMapper electionMapper) {
+    public SeederService(ElectionJPARepository electionRepository, ElectionBulkRepository electionBulkRepository,
+                         PartyVoteTotalService partyVoteTotalService) {
         this.electionRepository = electionRepository;
-        this.electionMapper = electionMapper;
+        this.electionBulkRepository = electionBulkRepository;
+        this.partyVoteTotalService = partyVoteTotalService;
+    }
+
+    /**
+     * Gets the fingerprint of the source files the election was seeded from.
+     * @param electionId The id of the election, for example TK2023
+     * @return The fingerprint, or null if the election hasn't been seeded with a known fingerprint
+     */
+    public String getFingerprint(String electionId) {
+        return electionBulkRepository.getFingerprint(electionId);
     }
 
     /**
-     * Saves an election entity to the database.
+     * Saves an election to the database, replacing the election with the same id if it was seeded before.
+     * The whole election is written with batched inserts in a single transaction, without a fingerprint, so it is
+     * seeded again the next time.
      * @param electionDTO The election DTO to save
      * @return The saved election entity
      */
     @Transactional
     public Election persistElection(ElectionDTO electionDTO) {
-        Election mappedEntity = electionMapper.toEntity(electionDTO);
-        return electionRepository.save(mappedEntity);
+        return persistElection(electionDTO, null);
+    }
+
+    /**
+     * Saves an election to the database, replacing the election with the same id if it was seeded before.
+     * The whole election is written with batched inserts in a single transaction, the fingerprint is stored with
+     * it so an unchanged election can be skipped the next time. The party vote totals of the election are rebuilt
+     * in the same transaction.
+     * @param electionDTO The election DTO to save
+     * @param fingerprint The fingerprint of the source files of the election, or null if it is unknown
+     * @return The saved election entity
+     */
+    @Transactional
+    public Election persistElection(ElectionDTO electionDTO, String fingerprint) {
+        electionBulkRepository.delete(electionDTO.getId());
+        electionBulkRepository.insert(electionDTO, fingerprint);
+        partyVoteTotalService.rebuild(electionDTO.getId());
+        return electionRepository.get(electionDTO.getId());
+    }
+
+    /**
+     * Saves an election from the export of the parser to the database, replacing the election with the same id if
+     * it was seeded before. The export is read with a streaming parser and written one constituency at a time, so
+     * only a single constituency is held in memory. Everything, including the party vote totals of the election, is
+     * written in a single transaction.
+     * @param export The newline-delimited JSON export of the election, it is not closed
+     * @param fingerprint The fingerprint of the source files of the election, or null if it is unknown
+     * @return The saved election entity
+     * @throws IllegalStateException If the export contains no election or invalid records
+     */
+    @Transactional
+    public Election persistElection(InputStream export, String fingerprint) {
+        ElectionDTO election;
+        try {
+            election = new ElectionRecordReader(mapper).read(export, new ElectionRecordReader.Handler() {
+                private InsertedElectionDTO inserted;
+
+                @Override
+                public void election(ElectionDTO election) {
+                    electionBulkRepository.delete(election.getId());
+                    inserted = electionBulkRepository.insert(election, fingerprint);
+                }
+
+                @Override
+                public void constituency(ConstituencyDTO constituency) {
+                    electionBulkRepository.insertConstituency(inserted, constituency);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the election export", e);
+        }
+        if (election == null) {
+            throw new IllegalStateException("The export contains no election");
+        }
+        partyVoteTotalService.rebuild(election.getId());
+        return electionRepository.get(election.getId());
     }
 }
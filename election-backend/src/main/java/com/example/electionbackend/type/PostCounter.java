@@ -0,0 +1,9 @@
+package com.example.electionbackend.type;
+
+/**
+ * Enum representing the counters kept per post.
+ */
+public enum PostCounter {
+    LIKES, // The number of likes of the post
+    COMMENTS // The number of comments on the post
+}
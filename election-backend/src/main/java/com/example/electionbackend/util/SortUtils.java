@@ -2,11 +2,12 @@ package com.example.electionbackend.util;
 
 import com.example.electionbackend.dto.RegionDTO;
 import com.example.electionbackend.exception.InvalidSortPropertyException;
-import com.example.electionbackend.model.PartyVote;
 import org.springframework.data.domain.Sort;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 /**
  * Utility class for sorting-related operations.
@@ -46,29 +47,47 @@ public class SortUtils {
     }
 
     /**
-     * Sorts a list of PartyVote objects based on the provided Sort object.
+     * Builds an ORDER BY clause for a query from the requested sort order. Only the properties in the given columns
+     * can be sorted by, so the clause never contains user input.
      *
-     * @param votes - the list of PartyVote objects to sort
-     * @param sort  - the Sort object containing sorting information
-     * @return - the sorted list of PartyVote objects
+     * @param sort       - the requested sort order
+     * @param columns    - the column to sort by for each property that can be sorted by
+     * @param tieBreaker - the unique column that orders rows with equal values, so pages don't overlap
+     * @return - the ORDER BY clause
+     * @throws InvalidSortPropertyException if the sort order has a property that can't be sorted by
      */
-    public static List<PartyVote> sortPartyVotes(List<PartyVote> votes, Sort sort) {
+    public static String toOrderBy(Sort sort, Map<String, String> columns, String tieBreaker) {
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        boolean hasTieBreaker = false;
         for (Sort.Order order : sort) {
-            Comparator<PartyVote> comparator = switch (order.getProperty()) {
-                case "votes" -> Comparator.comparing(PartyVote::getVotes);
-                default -> throw new InvalidSortPropertyException(order.getProperty());
-            };
-
-            // Reverse if descending
-            if (order.isDescending()) {
-                comparator = comparator.reversed();
+            String column = columns.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidSortPropertyException(order.getProperty());
             }
-
-            return votes.stream().sorted(comparator).toList();
+            orderBy.add(column + (order.isDescending() ? " DESC" : " ASC"));
+            hasTieBreaker |= column.equals(tieBreaker);
         }
+        if (!hasTieBreaker) {
+            orderBy.add(tieBreaker + " ASC");
+        }
+        return orderBy.toString();
+    }
 
-        // If no sort orders are provided, return the list as is
-        return votes;
+    /**
+     * Gets the direction of a sort order on votes, party votes can only be sorted by their votes.
+     *
+     * @param sort - the requested sort order
+     * @return - true if the votes are sorted descending or the page isn't sorted
+     * @throws InvalidSortPropertyException if the sort order has another property than votes
+     */
+    public static boolean isVotesDescending(Sort sort) {
+        boolean descending = true;
+        for (Sort.Order order : sort) {
+            if (!order.getProperty().equals("votes")) {
+                throw new InvalidSortPropertyException(order.getProperty());
+            }
+            descending = order.isDescending();
+        }
+        return descending;
     }
 }
-
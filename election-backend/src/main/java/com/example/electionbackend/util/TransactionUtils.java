@@ -0,0 +1,34 @@
+package com.example.electionbackend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for transaction-related operations.
+ */
+public class TransactionUtils {
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TransactionUtils() {}
+
+    /**
+     * Runs an action once the current transaction has been committed, or right away when there is no transaction.
+     * Local caches are changed this way, so a rollback never leaves uncommitted data in them and a concurrent read
+     * can't cache the old row again after it was invalidated.
+     *
+     * @param action the action to run, it isn't run when the transaction is rolled back
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1 @@
+ALTER TABLE election ADD COLUMN fingerprint VARCHAR(64) NULL;
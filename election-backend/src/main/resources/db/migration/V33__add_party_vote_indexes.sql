@@ -0,0 +1,3 @@
+CREATE INDEX idx_party_vote_type_votes ON party_vote (region_type, votes, id);
+CREATE INDEX idx_party_vote_region_votes ON party_vote (region_type, region_id, votes, id);
+CREATE INDEX idx_party_vote_party_votes ON party_vote (party_id, votes, id);
@@ -0,0 +1,12 @@
+CREATE TABLE party_vote_total (
+    id INT AUTO_INCREMENT PRIMARY KEY UNIQUE,
+    election_id VARCHAR(10) NOT NULL,
+    region_type ENUM('NATIONAL','CONSTITUENCY','MUNICIPALITY','POLLING_STATION') NOT NULL,
+    region_id INT NOT NULL,
+    party_id INT NOT NULL,
+    votes INT NOT NULL,
+    share DOUBLE NOT NULL,
+    party_rank INT NOT NULL,
+    UNIQUE KEY uk_party_vote_total_region_party (election_id, region_type, region_id, party_id),
+    KEY idx_party_vote_total_region_rank (election_id, region_type, region_id, party_rank)
+);
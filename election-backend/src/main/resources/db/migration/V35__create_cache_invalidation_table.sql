@@ -0,0 +1,8 @@
+CREATE TABLE cache_invalidation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY UNIQUE,
+    cache_name VARCHAR(100) NOT NULL,
+    cache_key VARCHAR(255) NULL, -- NULL invalidates the whole cache
+    origin_node VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    KEY idx_cache_invalidation_created_at (created_at)
+);
@@ -0,0 +1,3 @@
+ALTER TABLE post
+    ADD COLUMN like_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN comment_count INT NOT NULL DEFAULT 0;
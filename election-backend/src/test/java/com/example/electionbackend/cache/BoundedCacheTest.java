@@ -0,0 +1,184 @@
+package com.example.electionbackend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedCache
+ */
+public class BoundedCacheTest {
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * Verifies that the least recently used entry is evicted when the cache is full.
+     */
+    @Test
+    void put_shouldEvictLeastRecentlyUsed_whenCacheIsFull() {
+        // Arrange
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 2, null, now::get);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+
+        // Act
+        cache.put(3, "three");
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("three", cache.get(3));
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    /**
+     * Verifies that an entry is no longer returned after its time to live has passed.
+     */
+    @Test
+    void get_shouldReturnNull_whenEntryHasExpired() {
+        // Arrange
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, Duration.ofMinutes(1), now::get);
+        cache.put(1, "one");
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals("one", cache.get(1));
+
+        // Act
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        // Assert
+        assertNull(cache.get(1));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    /**
+     * Verifies that a loaded value is cached, so the loader is only called once, and that the lookups are counted.
+     */
+    @Test
+    void get_shouldLoadOnce_whenValueIsMissing() {
+        // Arrange
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, null, now::get);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String first = cache.get(1, key -> {
+            calls.incrementAndGet();
+            now.addAndGet(Duration.ofMillis(4).toNanos());
+            return "one";
+        });
+        String second = cache.get(1, key -> "other");
+
+        // Assert
+        assertEquals("one", first);
+        assertEquals("one", second);
+        assertEquals(1, calls.get());
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getLoads());
+        assertEquals(0.5, stats.getHitRate());
+        assertEquals(4.0, stats.getAverageLoadMillis());
+    }
+
+    /**
+     * Verifies that a missing value is loaded again after it was invalidated, and that null is never cached.
+     */
+    @Test
+    void invalidate_shouldLoadAgain_whenValueWasRemoved() {
+        // Arrange
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, null, now::get);
+        cache.get(1, key -> "one");
+        assertNull(cache.get(2, key -> null));
+
+        // Act
+        cache.invalidate(1);
+
+        // Assert
+        assertEquals("again", cache.get(1, key -> "again"));
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.getStats().getLoads());
+    }
+
+    /**
+     * Verifies that concurrent lookups of a missing key wait for one load instead of each loading the value.
+     */
+    @Test
+    void get_shouldLoadOnce_whenLoadedConcurrently() throws Exception {
+        // Arrange
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, null, now::get);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<String> first = executor.submit(() -> cache.get(1, key -> {
+                calls.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "one";
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+            List<Future<String>> others = List.of(
+                    executor.submit(() -> cache.get(1, key -> "other")),
+                    executor.submit(() -> cache.get(1, key -> "other")));
+            while (cache.getStats().getCoalescedLoads() < 2) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertEquals("one", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> other : others) {
+                assertEquals("one", other.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(1, cache.getStats().getLoads());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies that update replaces a cached value in place, and that a load overlapping an update isn't cached.
+     */
+    @Test
+    void update_shouldReplaceValue_andSkipOverlappingLoad() {
+        // Arrange
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, null, now::get);
+        cache.put(1, "one");
+
+        // Act
+        cache.update(1, value -> value + "!");
+        String loaded = cache.get(2, key -> {
+            cache.update(2, value -> value + "!");
+            return "two";
+        });
+
+        // Assert
+        assertEquals("one!", cache.get(1));
+        assertEquals("two", loaded);
+        assertNull(cache.get(2));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.electionbackend.cache;
+
+import com.example.electionbackend.repository.CacheInvalidationJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CacheInvalidationBus, with two nodes sharing the outbox of CacheInvalidationJdbcRepository
+ */
+@DataJpaTest
+@Import(CacheInvalidationJdbcRepository.class)
+public class CacheInvalidationBusTest {
+    @Autowired
+    private CacheInvalidationJdbcRepository cacheInvalidationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CacheInvalidationBus first;
+    private CacheInvalidationBus second;
+    private BoundedCache<Integer, String> firstCache;
+    private BoundedCache<Integer, String> secondCache;
+
+    /**
+     * Arranges two nodes that both cached municipality 1 and 2, and have polled the outbox once.
+     */
+    @BeforeEach
+    void setUp() {
+        CacheRegistry firstRegistry = new CacheRegistry(new MockEnvironment());
+        CacheRegistry secondRegistry = new CacheRegistry(new MockEnvironment());
+        firstCache = firstRegistry.create("municipalities", 10, Integer::valueOf);
+        secondCache = secondRegistry.create("municipalities", 10, Integer::valueOf);
+        for (BoundedCache<Integer, String> cache : List.of(firstCache, secondCache)) {
+            cache.put(1, "Amsterdam");
+            cache.put(2, "Rotterdam");
+        }
+
+        first = new CacheInvalidationBus(cacheInvalidationRepository, firstRegistry, "first", true,
+                "PT5S", "PT1H", "PT5S");
+        second = new CacheInvalidationBus(cacheInvalidationRepository, secondRegistry, "second", true,
+                "PT5S", "PT1H", "PT5S");
+        first.poll();
+        second.poll();
+    }
+
+    /**
+     * Verifies that an invalidation published by one node removes the key from the cache of the other node only.
+     */
+    @Test
+    void poll_shouldInvalidateKey_whenOtherNodePublished() {
+        // Arrange
+        first.publish("municipalities", 1);
+
+        // Act
+        first.poll();
+        second.poll();
+
+        // Assert
+        assertEquals("Amsterdam", firstCache.get(1));
+        assertNull(secondCache.get(1));
+        assertEquals("Rotterdam", secondCache.get(2));
+
+        CacheInvalidationStats stats = second.getStats();
+        assertEquals(1, stats.getReceived());
+        assertEquals(1, stats.getApplied());
+        assertEquals(0, first.getStats().getReceived());
+        assertEquals(1, first.getStats().getPublished());
+    }
+
+    /**
+     * Verifies that an invalidation is applied once, although the rows of the last seconds are read again.
+     */
+    @Test
+    void poll_shouldApplyOnce_whenRowIsReadAgain() {
+        // Arrange
+        first.publishAll("municipalities");
+        second.poll();
+        secondCache.put(1, "Amsterdam");
+
+        // Act
+        second.poll();
+
+        // Assert
+        assertEquals("Amsterdam", secondCache.get(1));
+        assertEquals(1, second.getStats().getReceived());
+        assertNull(secondCache.get(2));
+    }
+
+    /**
+     * Verifies that a row with a lower ID that is committed after the rows with a higher ID were polled is still
+     * applied, by the separate read of the rows of the last seconds.
+     */
+    @Test
+    void poll_shouldApplyLateRow_whenItsIdIsBelowLastId() {
+        // Arrange
+        first.publish("municipalities", 1);
+        first.publish("municipalities", 2);
+        long lateId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM cache_invalidation WHERE cache_key = '1'", Long.class);
+        jdbcTemplate.update("DELETE FROM cache_invalidation WHERE id = ?", lateId);
+        second.poll();
+        jdbcTemplate.update("INSERT INTO cache_invalidation (id, cache_name, cache_key, origin_node, created_at) "
+                + "VALUES (?, 'municipalities', '1', 'first', CURRENT_TIMESTAMP(3))", lateId);
+
+        // Act
+        second.poll();
+
+        // Assert
+        assertNull(secondCache.get(1));
+        assertNull(secondCache.get(2));
+        assertEquals(2, second.getStats().getReceived());
+    }
+
+    /**
+     * Verifies that a poll reads batch after batch until it has caught up, instead of one batch per poll.
+     */
+    @Test
+    void poll_shouldCatchUp_whenMoreRowsThanOneBatch() {
+        // Arrange
+        jdbcTemplate.batchUpdate("INSERT INTO cache_invalidation (cache_name, cache_key, origin_node, created_at) "
+                + "VALUES ('unknown', '1', 'first', CURRENT_TIMESTAMP(3))", Collections.nCopies(5_000, new Object[0]));
+        first.publish("municipalities", 1);
+
+        // Act
+        second.poll();
+
+        // Assert
+        assertNull(secondCache.get(1));
+        assertEquals(5_001, second.getStats().getReceived());
+    }
+
+    /**
+     * Verifies that the lag of an invalidation is measured on the clock of the database and warned about when it
+     * exceeds the maximum lag.
+     */
+    @Test
+    void poll_shouldMeasureLag_whenInvalidationIsLate() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO cache_invalidation (cache_name, cache_key, origin_node, created_at) "
+                + "VALUES ('municipalities', '2', 'first', DATEADD('SECOND', -3, CURRENT_TIMESTAMP(3)))");
+        jdbcTemplate.update("INSERT INTO cache_invalidation (cache_name, cache_key, origin_node, created_at) "
+                + "VALUES ('unknown', '2', 'first', DATEADD('SECOND', -10, CURRENT_TIMESTAMP(3)))");
+
+        // Act
+        second.poll();
+
+        // Assert
+        CacheInvalidationStats stats = second.getStats();
+        assertNull(secondCache.get(2));
+        assertEquals(2, stats.getReceived());
+        assertEquals(1, stats.getApplied());
+        assertTrue(stats.getMaxLagMillis() >= 10_000);
+        assertEquals(1, stats.getLagWarnings());
+    }
+}
@@ -3,8 +3,10 @@ package com.example.electionbackend.controller.api.v1;
 import com.example.electionbackend.dto.PostDetailDTO;
 import com.example.electionbackend.exception.post.InvalidSearchQueryException;
 import com.example.electionbackend.interfaces.IPostService;
+import com.example.electionbackend.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
@@ -16,6 +18,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -104,6 +107,83 @@ public class PostControllerTest {
                 .andExpect(jsonPath("$.content[0].title").value("Title 1"));
     }
 
+    /**
+     * Verifies that a search without a sort reaches the service unsorted, so the results are ordered by relevance
+     * instead of by the date.
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void shouldSearchByRelevance_whenNoSortIsGiven() throws Exception {
+        // Arrange
+        String query = "Title";
+        when(postService.getAll(any(Pageable.class), eq(query))).thenReturn(new PageImpl<>(posts));
+
+        // Act
+        mockMvc.perform(get("/v1/posts")
+                        .param("query", query))
+                .andExpect(status().isOk());
+
+        // Assert
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(postService).getAll(pageable.capture(), eq(query));
+        assertTrue(pageable.getValue().getSort().isUnsorted());
+        assertEquals(10, pageable.getValue().getPageSize());
+    }
+
+    /**
+     * Verifies that a search with a sort on createdAt reaches the service with that sort, so the results are
+     * ordered by the date.
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void shouldSearchByDate_whenSortIsGiven() throws Exception {
+        // Arrange
+        String query = "Title";
+        when(postService.getAll(any(Pageable.class), eq(query))).thenReturn(new PageImpl<>(posts));
+
+        // Act
+        mockMvc.perform(get("/v1/posts")
+                        .param("query", query)
+                        .param("sort", "createdAt,asc"))
+                .andExpect(status().isOk());
+
+        // Assert
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(postService).getAll(pageable.capture(), eq(query));
+        assertTrue(pageable.getValue().getSort().getOrderFor("createdAt").isAscending());
+    }
+
+    /**
+     * Verifies that liking a post without being logged in returns HTTP 401 and doesn't count the like.
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void shouldReturn401_whenLikingWithoutLogin() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/v1/posts/1/likes"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(postService);
+    }
+
+    /**
+     * Verifies that a like is counted for the user of the session.
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void shouldLikeAsSessionUser_whenLoggedIn() throws Exception {
+        // Arrange
+        User user = new User("mai", "mai@hva.nl", "lol123");
+        user.setId(7);
+        when(postService.like(1, 7)).thenReturn(posts.getFirst());
+
+        // Act & Assert
+        mockMvc.perform(post("/v1/posts/1/likes")
+                        .sessionAttr("user", user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        verify(postService).like(1, 7);
+    }
+
     /**
      * Verifies that getting posts with a non-matching search query returns HTTP 200 with an empty list.
      * @throws Exception if an error occurs during the test
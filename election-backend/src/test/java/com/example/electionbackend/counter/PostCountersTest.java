@@ -0,0 +1,210 @@
+package com.example.electionbackend.counter;
+
+import com.example.electionbackend.model.Post;
+import com.example.electionbackend.model.User;
+import com.example.electionbackend.repository.PostCounterJdbcRepository;
+import com.example.electionbackend.type.PostCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PostCounters, with two nodes flushing to the post table through PostCounterJdbcRepository
+ */
+@DataJpaTest
+@Import(PostCounterJdbcRepository.class)
+public class PostCountersTest {
+    @Autowired
+    private PostCounterJdbcRepository postCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private PostCounters first;
+    private PostCounters second;
+    private Post post;
+
+    /**
+     * Arranges a post with 3 likes and 1 comment, and two nodes that count its likes.
+     */
+    @BeforeEach
+    void setUp() {
+        User user = new User("mai", "mai@hva.nl", "lol123");
+        entityManager.persist(user);
+        post = new Post(0, "Title", "Content", LocalDateTime.now());
+        post.setUser(user);
+        post.setLikeCount(3);
+        post.setCommentCount(1);
+        entityManager.persist(post);
+        entityManager.flush();
+
+        first = new PostCounters(postCounterRepository, 10, "PT10M");
+        second = new PostCounters(postCounterRepository, 10, "PT10M");
+    }
+
+    /**
+     * Verifies that concurrent likes are counted right away, and written to the database in one flush.
+     */
+    @Test
+    void flush_shouldWriteConcurrentLikes_whenLikesArePending() throws Exception {
+        // Arrange
+        first.seed(post);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> likes = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                likes.add(executor.submit(() -> {
+                    for (int j = 0; j < 250; j++) {
+                        first.add(post.getId(), PostCounter.LIKES, 1);
+                    }
+                }));
+            }
+            for (Future<?> like : likes) {
+                like.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1003, first.getCount(post.getId(), PostCounter.LIKES));
+        assertEquals(3, likeCount());
+
+        // Act
+        first.flush();
+
+        // Assert
+        assertEquals(1003, likeCount());
+        assertEquals(1003, first.getCount(post.getId(), PostCounter.LIKES));
+        assertEquals(1, first.getCount(post.getId(), PostCounter.COMMENTS));
+
+        first.flush();
+        assertEquals(1003, likeCount());
+    }
+
+    /**
+     * Verifies that the deltas of two nodes add up in the database, and that a refresh shows the likes of the
+     * other node.
+     */
+    @Test
+    void refresh_shouldShowLikesOfOtherNode_whenOtherNodeFlushed() {
+        // Arrange
+        first.add(post.getId(), PostCounter.LIKES, 2);
+        second.add(post.getId(), PostCounter.LIKES, 5);
+        second.add(post.getId(), PostCounter.COMMENTS, 1);
+        first.flush();
+        second.flush();
+        assertEquals(5, first.getCount(post.getId(), PostCounter.LIKES));
+
+        // Act
+        first.refresh();
+
+        // Assert
+        assertEquals(10, likeCount());
+        assertEquals(10, first.getCount(post.getId(), PostCounter.LIKES));
+        assertEquals(2, first.getCount(post.getId(), PostCounter.COMMENTS));
+        assertEquals(10, second.getCount(post.getId(), PostCounter.LIKES));
+    }
+
+    /**
+     * Verifies that a post that doesn't exist isn't counted.
+     */
+    @Test
+    void add_shouldIgnorePost_whenPostDoesNotExist() {
+        // Act
+        first.add(post.getId() + 1, PostCounter.LIKES, 1);
+        first.flush();
+
+        // Assert
+        assertEquals(0, first.getCount(post.getId() + 1, PostCounter.LIKES));
+        assertEquals(3, likeCount());
+    }
+
+    /**
+     * Verifies that concurrent unlikes that flush more likes than the post has leave its count at zero.
+     */
+    @Test
+    void flush_shouldClampCountAtZero_whenNodesRemoveTheSameLike() {
+        // Arrange
+        first.add(post.getId(), PostCounter.LIKES, -3);
+        second.add(post.getId(), PostCounter.LIKES, -2);
+        first.flush();
+
+        // Act
+        second.flush();
+
+        // Assert
+        assertEquals(0, likeCount());
+        assertEquals(0, second.getCount(post.getId(), PostCounter.LIKES));
+    }
+
+    /**
+     * Verifies that a refresh drops the posts that weren't read within the idle time, but keeps the posts with
+     * pending deltas, and that a dropped post is read again when it is needed.
+     */
+    @Test
+    void refresh_shouldDropIdlePosts_unlessDeltasArePending() {
+        // Arrange
+        PostCounters counters = new PostCounters(postCounterRepository, 10, "PT0S");
+        Post other = new Post(0, "Other", "Content", LocalDateTime.now());
+        other.setUser(post.getUser());
+        entityManager.persist(other);
+        entityManager.flush();
+        counters.seed(post);
+        counters.seed(other);
+        counters.add(post.getId(), PostCounter.LIKES, 1);
+
+        // Act
+        counters.refresh();
+
+        // Assert
+        assertEquals(1, counters.size());
+        assertEquals(4, counters.getCount(post.getId(), PostCounter.LIKES));
+        assertEquals(0, counters.getCount(other.getId(), PostCounter.LIKES));
+        assertEquals(2, counters.size());
+    }
+
+    /**
+     * Verifies that seeding stops at the maximum number of posts, and that a refresh drops the least recently read
+     * posts beyond it.
+     */
+    @Test
+    void refresh_shouldKeepMaxSize_whenMorePostsAreRead() {
+        // Arrange
+        PostCounters counters = new PostCounters(postCounterRepository, 1, "PT10M");
+        Post other = new Post(0, "Other", "Content", LocalDateTime.now());
+        other.setUser(post.getUser());
+        entityManager.persist(other);
+        entityManager.flush();
+        counters.seed(post);
+        counters.seed(other);
+        assertEquals(1, counters.size());
+        counters.getCount(other.getId(), PostCounter.LIKES);
+
+        // Act
+        counters.refresh();
+
+        // Assert
+        assertEquals(1, counters.size());
+        assertEquals(3, counters.getCount(post.getId(), PostCounter.LIKES));
+    }
+
+    private int likeCount() {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM post WHERE id = ?", Integer.class, post.getId());
+    }
+}
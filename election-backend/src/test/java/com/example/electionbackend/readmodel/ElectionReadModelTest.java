@@ -0,0 +1,279 @@
+package com.example.electionbackend.readmodel;
+
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
+import com.example.electionbackend.dto.*;
+import com.example.electionbackend.repository.CacheInvalidationJdbcRepository;
+import com.example.electionbackend.repository.ElectionJdbcRepository;
+import com.example.electionbackend.repository.ElectionSnapshotJdbcRepository;
+import com.example.electionbackend.type.RegionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ElectionReadModel, with the snapshots loaded by ElectionSnapshotJdbcRepository
+ */
+@DataJpaTest
+@Import({ElectionJdbcRepository.class, ElectionSnapshotJdbcRepository.class, ElectionReadModel.class,
+        CacheRegistry.class, CacheInvalidationBus.class, CacheInvalidationJdbcRepository.class})
+public class ElectionReadModelTest {
+    @Autowired
+    private ElectionJdbcRepository electionJdbcRepository;
+
+    @Autowired
+    private ElectionReadModel electionReadModel;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private CacheInvalidationJdbcRepository cacheInvalidationRepository;
+
+    private ElectionDTO election;
+
+    /**
+     * Arranges an election with two parties and a constituency with one municipality and two polling stations,
+     * with metadata and party votes.
+     */
+    @BeforeEach
+    void setUp() {
+        election = new ElectionDTO();
+        election.setId("TK2025");
+        election.getPartyList().add(new PartyDTO(1, "Party A", List.of(), 1));
+        election.getPartyList().add(new PartyDTO(2, "Party B", List.of(), 0));
+
+        StateDTO state = new StateDTO("Nederland");
+        state.addPartyVote(new PartyVoteDTO(1, 200, RegionType.NATIONAL, 0));
+        election.setState(state);
+
+        ConstituencyDTO constituency = new ConstituencyDTO(9, "Amsterdam");
+        state.addConstituency(constituency);
+
+        MunicipalityDTO municipality = new MunicipalityDTO(363, "Amsterdam");
+        municipality.setMetadata(new MetadataDTO(300, 290, 5, 5));
+        constituency.addMunicipality(municipality);
+
+        PollingStationDTO first = new PollingStationDTO("0363::SB1", "Stembureau 1");
+        first.addPartyVote(new PartyVoteDTO(1, 60, RegionType.POLLING_STATION, 0));
+        first.addPartyVote(new PartyVoteDTO(2, 95, RegionType.POLLING_STATION, 0));
+        municipality.addPollingStation(first);
+
+        PollingStationDTO second = new PollingStationDTO("0363::SB2", "Stembureau 2");
+        second.addPartyVote(new PartyVoteDTO(1, 140, RegionType.POLLING_STATION, 0));
+        municipality.addPollingStation(second);
+    }
+
+    /**
+     * Verifies that a published snapshot holds the region hierarchy, the metadata and the party votes of the
+     * election, with the most votes first.
+     */
+    @Test
+    void publish_shouldLoadHierarchyMetadataAndVotes() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+        int municipalityId = jdbcTemplate.queryForObject("SELECT id FROM municipality", Integer.class);
+        int stationId = jdbcTemplate.queryForObject(
+                "SELECT id FROM polling_station WHERE polling_station_id = '0363::SB1'", Integer.class);
+
+        // Act
+        electionReadModel.publish("TK2025");
+
+        // Assert
+        ElectionSnapshot snapshot = electionReadModel.get(2025);
+        assertSame(snapshot, electionReadModel.find(RegionType.POLLING_STATION, stationId));
+        assertEquals(List.of("Amsterdam"), snapshot.getRegions(RegionType.CONSTITUENCY).stream()
+                .map(RegionDTO::getName).toList());
+        assertEquals(List.of("0363::SB1", "0363::SB2"), snapshot.getChildren(RegionType.MUNICIPALITY, municipalityId)
+                .stream().map(ElectionSnapshot.Region::getPollingStationId).toList());
+        assertEquals(290, snapshot.getRegion(RegionType.MUNICIPALITY, municipalityId).getMetadata().getTotalCounted());
+
+        List<PartyVoteDetailDTO> votes = snapshot.getRegion(RegionType.POLLING_STATION, stationId).getPartyVotes();
+        assertEquals(List.of(95, 60), votes.stream().map(PartyVoteDetailDTO::getVotes).toList());
+        assertEquals(List.of("Party B", "Party A"), votes.stream().map(PartyVoteDetailDTO::getPartyName).toList());
+        assertEquals("Stembureau 1", votes.get(0).getRegionName());
+
+        int partyId = votes.get(1).getPartyId();
+        assertEquals(List.of(200, 140, 60), snapshot.getPartyVotesByParty(partyId).stream()
+                .map(PartyVoteDetailDTO::getVotes).toList());
+        assertEquals("Nederland", snapshot.getPartyVotesByParty(partyId).get(0).getRegionName());
+    }
+
+    /**
+     * Verifies that publishing again swaps in a new snapshot with the changes, and leaves the old one untouched.
+     */
+    @Test
+    void publish_shouldReplaceSnapshot_whenElectionChanged() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+        electionReadModel.publish("TK2025");
+        ElectionSnapshot previous = electionReadModel.get(2025);
+        int municipalityId = jdbcTemplate.queryForObject("SELECT id FROM municipality", Integer.class);
+        jdbcTemplate.update("UPDATE municipality SET name = 'Amsterdam-Centrum'");
+
+        // Act
+        electionReadModel.publish("TK2025");
+
+        // Assert
+        assertNotSame(previous, electionReadModel.get(2025));
+        assertEquals("Amsterdam", previous.getRegion(RegionType.MUNICIPALITY, municipalityId).getName());
+        assertEquals("Amsterdam-Centrum", electionReadModel.find(RegionType.MUNICIPALITY, municipalityId)
+                .getRegion(RegionType.MUNICIPALITY, municipalityId).getName());
+    }
+
+    /**
+     * Verifies that an election that hasn't been seeded has no snapshot, so the services use the database.
+     */
+    @Test
+    void publish_shouldRemoveSnapshot_whenElectionIsMissing() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+        electionReadModel.publish("TK2025");
+        electionJdbcRepository.delete("TK2025");
+
+        // Act
+        electionReadModel.publish("TK2025");
+
+        // Assert
+        assertNull(electionReadModel.get(2025));
+        assertNull(electionReadModel.findByParty(1));
+    }
+
+    /**
+     * Verifies that the objects a snapshot returns are copies, so a caller that modifies them doesn't change what
+     * other readers see.
+     */
+    @Test
+    void getRegion_shouldReturnCopies_whenCallerModifiesThem() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+        electionReadModel.publish("TK2025");
+        ElectionSnapshot snapshot = electionReadModel.get(2025);
+        int municipalityId = jdbcTemplate.queryForObject("SELECT id FROM municipality", Integer.class);
+        ElectionSnapshot.Region municipality = snapshot.getRegion(RegionType.MUNICIPALITY, municipalityId);
+        int partyId = jdbcTemplate.queryForObject("SELECT id FROM party WHERE name = 'Party A'", Integer.class);
+
+        // Act
+        municipality.getMetadata().setTotalCounted(0);
+        municipality.getRegionDTO().setName("Changed");
+        snapshot.getRegions(RegionType.MUNICIPALITY).get(0).setName("Changed");
+        snapshot.getPartyVotesByParty(partyId).get(0).setVotes(0);
+
+        // Assert
+        assertEquals(290, municipality.getMetadata().getTotalCounted());
+        assertEquals("Amsterdam", municipality.getRegionDTO().getName());
+        assertEquals("Amsterdam", snapshot.getRegions(RegionType.MUNICIPALITY).get(0).getName());
+        assertEquals(200, snapshot.getPartyVotesByParty(partyId).get(0).getVotes());
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.getPartyVotesByParty(partyId).remove(0));
+    }
+
+    /**
+     * Verifies that reloads which come in while an election is being rebuilt in the background share a single
+     * rebuild after the running one, instead of loading the election once per change.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void reload_shouldCoalesceRebuilds_whenChangesComeInDuringLoad() throws InterruptedException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondLoad = new CountDownLatch(1);
+        ElectionReadModel readModel = new ElectionReadModel(electionId -> {
+            if (loads.incrementAndGet() == 1) {
+                loading.countDown();
+                awaitQuietly(release);
+            } else {
+                secondLoad.countDown();
+            }
+            return null;
+        }, new CacheRegistry(new MockEnvironment()), disabledBus(), true);
+
+        try {
+            readModel.reload("TK2025");
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Act
+            readModel.reload("TK2025");
+            readModel.reload("TK2025");
+            readModel.reload("TK2025");
+            release.countDown();
+
+            // Assert
+            assertTrue(secondLoad.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            assertEquals(2, loads.get());
+        } finally {
+            readModel.close();
+        }
+    }
+
+    /**
+     * Verifies that a reload tells the other nodes about the election in the transaction of the change.
+     */
+    @Test
+    void reload_shouldPublishElection_toOtherNodes() {
+        // Act
+        electionReadModel.reload("TK2025");
+
+        // Assert
+        assertEquals(List.of("TK2025"), jdbcTemplate.queryForList(
+                "SELECT cache_key FROM cache_invalidation WHERE cache_name = ?", String.class, ElectionReadModel.NAME));
+    }
+
+    /**
+     * Verifies that an election received from another node is rebuilt in the background.
+     */
+    @Test
+    void invalidate_shouldRebuildSnapshot_whenOtherNodeChangedElection() throws InterruptedException {
+        // Arrange
+        CacheRegistry registry = new CacheRegistry(new MockEnvironment());
+        CountDownLatch loaded = new CountDownLatch(1);
+        ElectionReadModel readModel = new ElectionReadModel(electionId -> {
+            if (electionId.equals("TK2025")) {
+                loaded.countDown();
+            }
+            return null;
+        }, registry, disabledBus(), true);
+
+        try {
+            // Act
+            registry.invalidate(ElectionReadModel.NAME, "TK2025");
+
+            // Assert
+            assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        } finally {
+            readModel.close();
+        }
+    }
+
+    private CacheInvalidationBus disabledBus() {
+        return new CacheInvalidationBus(cacheInvalidationRepository, cacheRegistry, "test", false,
+                "PT5S", "PT1H", "PT5S");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
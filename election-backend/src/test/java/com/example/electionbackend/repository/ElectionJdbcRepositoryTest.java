@@ -0,0 +1,206 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.dto.*;
+import com.example.electionbackend.type.RegionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ElectionJdbcRepository
+ */
+@DataJpaTest
+@Import(ElectionJdbcRepository.class)
+@TestPropertySource(properties = "app.seeder.batch-size=2")
+public class ElectionJdbcRepositoryTest {
+    @Autowired
+    private ElectionJdbcRepository electionJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ElectionDTO election;
+
+    /**
+     * Arranges an election with two parties and a constituency, municipality and two polling stations,
+     * each with metadata and party votes. The batch size is smaller than the number of rows of most tables.
+     */
+    @BeforeEach
+    void setUp() {
+        election = new ElectionDTO();
+        election.setId("TK2025");
+        election.getPartyList().add(new PartyDTO(1, "Party A", List.of(
+                new CandidateDTO(1, "A.", "Anna", "Jansen", "female", "Amsterdam", true),
+                new CandidateDTO(2, "B.", "Bram", "de Vries", "male", "Almere", false),
+                new CandidateDTO(3, "C.", "Cor", "Bakker", "male", "Utrecht", false)), 1));
+        election.getPartyList().add(new PartyDTO(2, "Party B", List.of(), 0));
+
+        StateDTO state = new StateDTO("Nederland");
+        state.setMetadata(new MetadataDTO(300, 290, 5, 5));
+        state.addPartyVote(new PartyVoteDTO(1, 200, RegionType.NATIONAL, 0));
+        state.addPartyVote(new PartyVoteDTO(2, 90, RegionType.NATIONAL, 0));
+        election.setState(state);
+
+        ConstituencyDTO constituency = new ConstituencyDTO(9, "Amsterdam");
+        constituency.setMetadata(new MetadataDTO(300, 290, 5, 5));
+        constituency.addPartyVote(new PartyVoteDTO(1, 200, RegionType.CONSTITUENCY, 9));
+        state.addConstituency(constituency);
+
+        MunicipalityDTO municipality = new MunicipalityDTO(363, "Amsterdam");
+        municipality.addPartyVote(new PartyVoteDTO(2, 90, RegionType.MUNICIPALITY, 363));
+        constituency.addMunicipality(municipality);
+
+        PollingStationDTO first = new PollingStationDTO("0363::SB1", "Stembureau 1");
+        first.setMetadata(new MetadataDTO(100, 95, 3, 2));
+        first.addPartyVote(new PartyVoteDTO(1, 60, RegionType.POLLING_STATION, 0));
+        first.addPartyVote(new PartyVoteDTO(2, 35, RegionType.POLLING_STATION, 0));
+        municipality.addPollingStation(first);
+
+        PollingStationDTO second = new PollingStationDTO("0363::SB2", "Stembureau 2");
+        second.setMetadata(new MetadataDTO(200, 195, 2, 3));
+        second.addPartyVote(new PartyVoteDTO(1, 140, RegionType.POLLING_STATION, 0));
+        municipality.addPollingStation(second);
+    }
+
+    /**
+     * Verifies that insert writes every row of the election and links them with the generated ids.
+     */
+    @Test
+    void insert_shouldStoreCompleteElection_withGeneratedKeys() {
+        // Act
+        electionJdbcRepository.insert(election, null);
+
+        // Assert
+        assertEquals(2, count("party"));
+        assertEquals(3, count("candidate"));
+        assertEquals(1, count("state"));
+        assertEquals(1, count("constituency"));
+        assertEquals(1, count("municipality"));
+        assertEquals(2, count("polling_station"));
+        assertEquals(4, count("metadata"));
+        assertEquals(7, count("party_vote"));
+
+        Integer stateId = jdbcTemplate.queryForObject("SELECT state_id FROM election WHERE id = 'TK2025'", Integer.class);
+        assertEquals(jdbcTemplate.queryForObject("SELECT id FROM state", Integer.class), stateId);
+
+        Integer partyId = jdbcTemplate.queryForObject("SELECT id FROM party WHERE pid = 1", Integer.class);
+        Integer stationId = jdbcTemplate.queryForObject(
+                "SELECT id FROM polling_station WHERE polling_station_id = '0363::SB2'", Integer.class);
+        assertEquals(140, jdbcTemplate.queryForObject(
+                "SELECT votes FROM party_vote WHERE region_type = 'POLLING_STATION' AND region_id = ? AND party_id = ?",
+                Integer.class, stationId, partyId));
+        assertEquals(String.valueOf(stationId), jdbcTemplate.queryForObject(
+                "SELECT m.region_id FROM metadata m JOIN polling_station p ON p.metadata_id = m.id WHERE p.id = ?",
+                String.class, stationId));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM candidate WHERE party_id = ?", Integer.class, partyId));
+    }
+
+    /**
+     * Verifies that delete removes all rows of the election, so it can be inserted again.
+     */
+    @Test
+    void delete_shouldRemoveCompleteElection_whenSeededBefore() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+
+        // Act
+        electionJdbcRepository.delete("TK2025");
+
+        // Assert
+        for (String table : List.of("election", "party", "candidate", "state", "constituency", "municipality",
+                "polling_station", "metadata", "party_vote")) {
+            assertEquals(0, count(table), table);
+        }
+        assertDoesNotThrow(() -> electionJdbcRepository.insert(election, null));
+        assertEquals(7, count("party_vote"));
+    }
+
+    /**
+     * Verifies that getFingerprint returns the fingerprint the election was inserted with.
+     */
+    @Test
+    void getFingerprint_shouldReturnFingerprint_whenElectionIsSeeded() {
+        // Arrange
+        electionJdbcRepository.insert(election, "1a2b3c4d");
+
+        // Act
+        String fingerprint = electionJdbcRepository.getFingerprint("TK2025");
+
+        // Assert
+        assertEquals("1a2b3c4d", fingerprint);
+    }
+
+    /**
+     * Verifies that getFingerprint returns null when the election hasn't been seeded.
+     */
+    @Test
+    void getFingerprint_shouldReturnNull_whenElectionIsMissing() {
+        // Act
+        String fingerprint = electionJdbcRepository.getFingerprint("TK2025");
+
+        // Assert
+        assertNull(fingerprint);
+    }
+
+    /**
+     * Verifies that an election can be written one constituency at a time, with the same rows as a single insert.
+     */
+    @Test
+    void insertConstituency_shouldStoreConstituency_whenElectionWasInsertedWithoutIt() {
+        // Arrange
+        ConstituencyDTO constituency = election.getState().getConstituencyList().remove(0);
+        InsertedElectionDTO inserted = electionJdbcRepository.insert(election, null);
+
+        // Act
+        electionJdbcRepository.insertConstituency(inserted, constituency);
+
+        // Assert
+        assertEquals(1, count("constituency"));
+        assertEquals(1, count("municipality"));
+        assertEquals(2, count("polling_station"));
+        assertEquals(4, count("metadata"));
+        assertEquals(7, count("party_vote"));
+        assertEquals(jdbcTemplate.queryForObject("SELECT id FROM state", Integer.class),
+                jdbcTemplate.queryForObject("SELECT state_id FROM constituency", Integer.class));
+    }
+
+    /**
+     * Verifies that insertConstituency fails when the election has no state to add the constituency to.
+     */
+    @Test
+    void insertConstituency_shouldThrow_whenElectionHasNoState() {
+        // Arrange
+        ConstituencyDTO constituency = election.getState().getConstituencyList().get(0);
+        election.setState(null);
+        InsertedElectionDTO inserted = electionJdbcRepository.insert(election, null);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> electionJdbcRepository.insertConstituency(inserted, constituency));
+    }
+
+    /**
+     * Verifies that insert fails when a party vote refers to a party that isn't part of the election.
+     */
+    @Test
+    void insert_shouldThrow_whenPartyIsUnknown() {
+        // Arrange
+        election.getState().addPartyVote(new PartyVoteDTO(99, 1, RegionType.NATIONAL, 0));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> electionJdbcRepository.insert(election, null));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
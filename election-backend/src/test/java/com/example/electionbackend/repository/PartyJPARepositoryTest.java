@@ -0,0 +1,104 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.exception.InvalidSortPropertyException;
+import com.example.electionbackend.model.Candidate;
+import com.example.electionbackend.model.Election;
+import com.example.electionbackend.model.Party;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PartyJPARepository
+ */
+@DataJpaTest
+@Import(PartyJPARepository.class)
+public class PartyJPARepositoryTest {
+    @Autowired
+    private PartyJPARepository partyJPARepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Arranges four parties with a candidate in election TK2023, of which two have 5 seats, and one party in
+     * election TK2021.
+     */
+    @BeforeEach
+    void setUp() {
+        Election current = new Election("TK2023");
+        Election previous = new Election("TK2021");
+        entityManager.persist(current);
+        entityManager.persist(previous);
+
+        persist(current, "Party D", 5);
+        persist(current, "Party A", 10);
+        persist(current, "Party C", 5);
+        persist(current, "Party B", 1);
+        persist(previous, "Party E", 20);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Verifies that the parties of an election are sorted and paged by the database, with their candidates.
+     */
+    @Test
+    void findByElectionId_shouldReturnSortedPage_whenElectionHasParties() {
+        // Act
+        List<Party> firstPage = partyJPARepository.findByElectionId("TK2023",
+                PageRequest.of(0, 3, Sort.by(Sort.Order.desc("seats"), Sort.Order.asc("name"))));
+        List<Party> secondPage = partyJPARepository.findByElectionId("TK2023",
+                PageRequest.of(1, 3, Sort.by(Sort.Order.desc("seats"), Sort.Order.asc("name"))));
+
+        // Assert
+        assertEquals(List.of("Party A", "Party C", "Party D"), firstPage.stream().map(Party::getName).toList());
+        assertEquals(List.of("Party B"), secondPage.stream().map(Party::getName).toList());
+        assertEquals(1, firstPage.get(0).getCandidates().size());
+    }
+
+    /**
+     * Verifies that no parties are returned without an election, instead of the parties of all elections.
+     */
+    @Test
+    void findByElectionId_shouldReturnNoParties_whenElectionIsMissing() {
+        // Act
+        List<Party> parties = partyJPARepository.findByElectionId(null, PageRequest.of(0, 3));
+
+        // Assert
+        assertTrue(parties.isEmpty());
+    }
+
+    /**
+     * Verifies that the parties are counted per election, and that an unknown sort property is rejected.
+     */
+    @Test
+    void countByElectionId_shouldCountPartiesOfElection() {
+        // Act
+        long count = partyJPARepository.countByElectionId("TK2023");
+
+        // Assert
+        assertEquals(4, count);
+        assertEquals(0, partyJPARepository.countByElectionId("unknown"));
+        assertThrows(InvalidSortPropertyException.class, () -> partyJPARepository.findByElectionId("TK2023",
+                PageRequest.of(0, 3, Sort.by("election"))));
+    }
+
+    private void persist(Election election, String name, int seats) {
+        Party party = new Party(0, name, seats);
+        party.setElection(election);
+        party.setCandidates(new ArrayList<>(List.of(new Candidate(1, "J.", "Jan", "Jansen", "male", "Amsterdam",
+                false))));
+        entityManager.persist(party);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.dto.PartyVoteDetailDTO;
+import com.example.electionbackend.exception.InvalidSortPropertyException;
+import com.example.electionbackend.model.Municipality;
+import com.example.electionbackend.model.Party;
+import com.example.electionbackend.model.PartyVote;
+import com.example.electionbackend.type.RegionType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PartyVoteJPARepository
+ */
+@DataJpaTest
+@Import(PartyVoteJPARepository.class)
+public class PartyVoteJPARepositoryTest {
+    @Autowired
+    private PartyVoteJPARepository partyVoteJPARepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Party party;
+    private Municipality municipality;
+
+    /**
+     * Arranges a party with five polling station votes, two of them with the same number of votes, and one vote
+     * in a municipality. The polling stations of the votes don't exist.
+     */
+    @BeforeEach
+    void setUp() {
+        party = new Party(0, "Party A", 3);
+        entityManager.persist(party);
+        municipality = new Municipality("Amsterdam");
+        entityManager.persist(municipality);
+
+        for (int votes : new int[]{10, 50, 30, 30, 20}) {
+            persist(RegionType.POLLING_STATION, 1, votes);
+        }
+        persist(RegionType.MUNICIPALITY, municipality.getId(), 100);
+        entityManager.flush();
+    }
+
+    /**
+     * Verifies that the names of the region and party are joined into the details of the votes.
+     */
+    @Test
+    void findDetailsByTypeAndTypeId_shouldResolveRegionAndPartyNames() {
+        // Act
+        List<PartyVoteDetailDTO> votes = partyVoteJPARepository.findDetailsByTypeAndTypeId(RegionType.MUNICIPALITY,
+                municipality.getId(), PageRequest.of(0, 10), null, null);
+
+        // Assert
+        assertEquals(1, votes.size());
+        assertEquals("Amsterdam", votes.get(0).getRegionName());
+        assertEquals("Party A", votes.get(0).getPartyName());
+        assertEquals(3, votes.get(0).getSeats());
+        assertEquals(100, votes.get(0).getVotes());
+    }
+
+    /**
+     * Verifies that a vote of which the region doesn't exist is still returned, with an unknown region.
+     */
+    @Test
+    void findDetailsByType_shouldReturnUnknownRegion_whenRegionIsMissing() {
+        // Act
+        List<PartyVoteDetailDTO> votes = partyVoteJPARepository.findDetailsByType(RegionType.POLLING_STATION,
+                PageRequest.of(0, 1), null, null);
+
+        // Assert
+        assertEquals("Unknown Region", votes.get(0).getRegionName());
+        assertEquals("Party A", votes.get(0).getPartyName());
+    }
+
+    /**
+     * Verifies that the database sorts all the matching votes before taking the page.
+     */
+    @Test
+    void findDetailsByType_shouldReturnSortedPage_whenPageIsRequested() {
+        // Act
+        List<PartyVoteDetailDTO> page = partyVoteJPARepository.findDetailsByType(RegionType.POLLING_STATION,
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "votes")), null, null);
+
+        // Assert
+        assertEquals(List.of(30, 20), page.stream().map(PartyVoteDetailDTO::getVotes).toList());
+    }
+
+    /**
+     * Verifies that keyset pagination continues after the last vote, also between votes with the same number.
+     */
+    @Test
+    void findDetailsByType_shouldContinueAfterLastVote_whenKeysetIsGiven() {
+        // Arrange
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "votes"));
+        List<PartyVoteDetailDTO> first = partyVoteJPARepository.findDetailsByType(RegionType.POLLING_STATION, pageable, null, null);
+        PartyVoteDetailDTO last = first.get(1);
+
+        // Act
+        List<PartyVoteDetailDTO> second = partyVoteJPARepository.findDetailsByType(RegionType.POLLING_STATION, pageable,
+                last.getVotes(), last.getId());
+
+        // Assert
+        assertEquals(List.of(50, 30), first.stream().map(PartyVoteDetailDTO::getVotes).toList());
+        assertEquals(List.of(30, 20), second.stream().map(PartyVoteDetailDTO::getVotes).toList());
+        assertNotEquals(last.getId(), second.get(0).getId());
+    }
+
+    /**
+     * Verifies that the count includes all the matching votes, not only the page.
+     */
+    @Test
+    void countByType_shouldCountAllMatchingVotes() {
+        // Act
+        long count = partyVoteJPARepository.countByType(RegionType.POLLING_STATION);
+
+        // Assert
+        assertEquals(5, count);
+        assertEquals(1, partyVoteJPARepository.countByTypeAndTypeId(RegionType.MUNICIPALITY, municipality.getId()));
+        assertEquals(6, partyVoteJPARepository.countByPartyId(party.getId()));
+    }
+
+    /**
+     * Verifies that sorting by another property than votes is rejected.
+     */
+    @Test
+    void findDetailsByPartyId_shouldThrow_whenSortPropertyIsInvalid() {
+        // Act & Assert
+        assertThrows(InvalidSortPropertyException.class, () -> partyVoteJPARepository.findDetailsByPartyId(party.getId(),
+                PageRequest.of(0, 2, Sort.by("name")), null, null));
+    }
+
+    private void persist(RegionType regionType, int regionId, int votes) {
+        PartyVote partyVote = new PartyVote(regionType, regionId, votes);
+        partyVote.setPartyId(party.getId());
+        entityManager.persist(partyVote);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.dto.*;
+import com.example.electionbackend.type.RegionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PartyVoteTotalJdbcRepository
+ */
+@DataJpaTest
+@Import({ElectionJdbcRepository.class, PartyVoteTotalJdbcRepository.class})
+public class PartyVoteTotalJdbcRepositoryTest {
+    @Autowired
+    private ElectionJdbcRepository electionJdbcRepository;
+
+    @Autowired
+    private PartyVoteTotalJdbcRepository partyVoteTotalJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ElectionDTO election;
+    private StateDTO state;
+
+    /**
+     * Arranges an election with two parties and a constituency with one municipality and two polling stations.
+     * Only the polling stations have party votes, the other levels have to be added up from them.
+     */
+    @BeforeEach
+    void setUp() {
+        election = new ElectionDTO();
+        election.setId("TK2025");
+        election.getPartyList().add(new PartyDTO(1, "Party A", List.of(), 1));
+        election.getPartyList().add(new PartyDTO(2, "Party B", List.of(), 0));
+
+        state = new StateDTO("Nederland");
+        election.setState(state);
+
+        ConstituencyDTO constituency = new ConstituencyDTO(9, "Amsterdam");
+        state.addConstituency(constituency);
+
+        MunicipalityDTO municipality = new MunicipalityDTO(363, "Amsterdam");
+        constituency.addMunicipality(municipality);
+
+        PollingStationDTO first = new PollingStationDTO("0363::SB1", "Stembureau 1");
+        first.addPartyVote(new PartyVoteDTO(1, 60, RegionType.POLLING_STATION, 0));
+        first.addPartyVote(new PartyVoteDTO(2, 35, RegionType.POLLING_STATION, 0));
+        municipality.addPollingStation(first);
+
+        PollingStationDTO second = new PollingStationDTO("0363::SB2", "Stembureau 2");
+        second.addPartyVote(new PartyVoteDTO(1, 140, RegionType.POLLING_STATION, 0));
+        second.addPartyVote(new PartyVoteDTO(2, 65, RegionType.POLLING_STATION, 0));
+        municipality.addPollingStation(second);
+    }
+
+    /**
+     * Verifies that the totals of a level without reported votes are added up from the level below it,
+     * with the share of the votes and the rank of every party.
+     */
+    @Test
+    void rebuild_shouldRollUpSubregions_whenLevelHasNoVotes() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+
+        // Act
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+
+        // Assert
+        for (RegionType type : List.of(RegionType.MUNICIPALITY, RegionType.CONSTITUENCY, RegionType.NATIONAL)) {
+            List<PartyVoteTotalDTO> totals = partyVoteTotalJdbcRepository.findByRegionType("TK2025", type,
+                    PageRequest.of(0, 10));
+            assertEquals(List.of("Party A", "Party B"), totals.stream().map(PartyVoteTotalDTO::getPartyName).toList());
+            assertEquals(List.of(200, 100), totals.stream().map(PartyVoteTotalDTO::getVotes).toList());
+            assertEquals(List.of(1, 2), totals.stream().map(PartyVoteTotalDTO::getRank).toList());
+            assertEquals(2.0 / 3, totals.get(0).getShare(), 1e-9);
+        }
+        assertEquals(0, partyVoteTotalJdbcRepository.countByRegionType("TK2025", RegionType.POLLING_STATION));
+    }
+
+    /**
+     * Verifies that the reported votes of a level are used instead of its subregions, and that parties with the
+     * same number of votes share a rank.
+     */
+    @Test
+    void rebuild_shouldUseReportedVotes_andShareRankOnTie() {
+        // Arrange
+        state.addPartyVote(new PartyVoteDTO(1, 150, RegionType.NATIONAL, 0));
+        state.addPartyVote(new PartyVoteDTO(2, 150, RegionType.NATIONAL, 0));
+        electionJdbcRepository.insert(election, null);
+        int stateId = jdbcTemplate.queryForObject("SELECT id FROM state", Integer.class);
+
+        // Act
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+
+        // Assert
+        List<PartyVoteTotalDTO> totals = partyVoteTotalJdbcRepository.findByRegion("TK2025", RegionType.NATIONAL, stateId);
+        assertEquals(List.of(150, 150), totals.stream().map(PartyVoteTotalDTO::getVotes).toList());
+        assertEquals(List.of(1, 1), totals.stream().map(PartyVoteTotalDTO::getRank).toList());
+        assertEquals(0.5, totals.get(1).getShare(), 1e-9);
+    }
+
+    /**
+     * Verifies that a rebuild replaces the previous totals of the election after a vote has been corrected.
+     */
+    @Test
+    void rebuild_shouldReplacePreviousTotals_whenVotesChanged() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+        jdbcTemplate.update("UPDATE party_vote SET votes = 300 WHERE votes = 65");
+        int municipalityId = jdbcTemplate.queryForObject("SELECT id FROM municipality", Integer.class);
+
+        // Act
+        partyVoteTotalJdbcRepository.rebuild(partyVoteTotalJdbcRepository.findElectionId(RegionType.MUNICIPALITY,
+                municipalityId));
+
+        // Assert
+        List<PartyVoteTotalDTO> totals = partyVoteTotalJdbcRepository.findByRegion("TK2025",
+                RegionType.MUNICIPALITY, municipalityId);
+        assertEquals(List.of("Party B", "Party A"), totals.stream().map(PartyVoteTotalDTO::getPartyName).toList());
+        assertEquals(List.of(335, 200), totals.stream().map(PartyVoteTotalDTO::getVotes).toList());
+        assertEquals(6, partyVoteTotalJdbcRepository.countByRegionType("TK2025", RegionType.MUNICIPALITY)
+                + partyVoteTotalJdbcRepository.countByRegionType("TK2025", RegionType.CONSTITUENCY)
+                + partyVoteTotalJdbcRepository.countByRegionType("TK2025", RegionType.NATIONAL));
+    }
+
+    /**
+     * Verifies that a corrected polling station vote is added to the rolled up totals above it, with the same
+     * result as a rebuild.
+     */
+    @Test
+    void applyChange_shouldMatchRebuild_whenVoteIsCorrected() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+        int pollingStationId = jdbcTemplate.queryForObject(
+                "SELECT region_id FROM party_vote WHERE votes = 65", Integer.class);
+        int partyId = jdbcTemplate.queryForObject("SELECT id FROM party WHERE name = 'Party B'", Integer.class);
+
+        // Act
+        partyVoteTotalJdbcRepository.applyChange(RegionType.POLLING_STATION, pollingStationId,
+                Map.of(partyId, 235), 0);
+        jdbcTemplate.update("UPDATE party_vote SET votes = 300 WHERE votes = 65");
+
+        // Assert
+        List<String> applied = allTotals();
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+        assertEquals(allTotals(), applied);
+        assertTrue(applied.contains("NATIONAL Party B 335 1"));
+    }
+
+    /**
+     * Verifies that the first reported vote of a level replaces the total of its subregions, and that removing it
+     * restores that total, with the same results as a rebuild.
+     */
+    @Test
+    void applyChange_shouldMatchRebuild_whenLevelGetsOrLosesReportedVotes() {
+        // Arrange
+        electionJdbcRepository.insert(election, null);
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+        int stateId = jdbcTemplate.queryForObject("SELECT id FROM state", Integer.class);
+        int partyId = jdbcTemplate.queryForObject("SELECT id FROM party WHERE name = 'Party B'", Integer.class);
+
+        // Act
+        partyVoteTotalJdbcRepository.applyChange(RegionType.NATIONAL, stateId, Map.of(partyId, 500), 1);
+        jdbcTemplate.update("INSERT INTO party_vote (region_type, region_id, party_id, votes) VALUES (?, ?, ?, ?)",
+                RegionType.NATIONAL.name(), stateId, partyId, 500);
+        List<String> added = allTotals();
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+        List<String> rebuiltAfterAdd = allTotals();
+
+        partyVoteTotalJdbcRepository.applyChange(RegionType.NATIONAL, stateId, Map.of(partyId, -500), -1);
+        jdbcTemplate.update("DELETE FROM party_vote WHERE region_type = ?", RegionType.NATIONAL.name());
+        List<String> removed = allTotals();
+        partyVoteTotalJdbcRepository.rebuild("TK2025");
+
+        // Assert
+        assertEquals(rebuiltAfterAdd, added);
+        assertEquals(allTotals(), removed);
+        assertTrue(added.contains("NATIONAL Party B 500 1"));
+        assertTrue(removed.contains("NATIONAL Party A 200 1"));
+    }
+
+    private List<String> allTotals() {
+        return jdbcTemplate.query("SELECT t.region_type, p.name, t.votes, t.party_rank FROM party_vote_total t "
+                        + "JOIN party p ON p.id = t.party_id WHERE t.votes > 0 "
+                        + "ORDER BY t.region_type, t.region_id, t.party_rank, t.party_id",
+                (rs, rowNum) -> rs.getString(1) + " " + rs.getString(2) + " " + rs.getInt(3) + " " + rs.getInt(4));
+    }
+}
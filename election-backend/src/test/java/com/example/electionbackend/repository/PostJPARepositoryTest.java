@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -100,4 +101,53 @@ public class PostJPARepositoryTest {
         assertTrue(result.stream().anyMatch(p -> p.getTitle().equals("Java")));
         assertTrue(result.stream().anyMatch(p -> p.getTitle().equals("Javascript")));
     }
+
+    /**
+     * Verifies that findFeedPage returns the newest posts first, with the ID breaking ties.
+     */
+    @Test
+    void findFeedPage_shouldReturnNewestFirst_whenNoCursorGiven() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 10, 29, 12, 0);
+        List<Post> posts = persistPosts(now.minusDays(1), now, now, now.minusDays(2));
+
+        // Act
+        List<Post> result = postJPARepository.findFeedPage(null, null, 3);
+
+        // Assert
+        assertEquals(List.of(posts.get(2).getId(), posts.get(1).getId(), posts.get(0).getId()),
+                result.stream().map(Post::getId).toList());
+    }
+
+    /**
+     * Verifies that findFeedPage continues after the last post of the previous page, including posts created at
+     * the same time with a lower ID.
+     */
+    @Test
+    void findFeedPage_shouldContinueAfterCursor_whenCursorGiven() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 10, 29, 12, 0);
+        List<Post> posts = persistPosts(now.minusDays(1), now, now, now.minusDays(2));
+        Post last = posts.get(2);
+
+        // Act
+        List<Post> result = postJPARepository.findFeedPage(last.getCreatedAt(), last.getId(), 10);
+
+        // Assert
+        assertEquals(List.of(posts.get(1).getId(), posts.get(0).getId(), posts.get(3).getId()),
+                result.stream().map(Post::getId).toList());
+        assertEquals(4, postJPARepository.count());
+    }
+
+    private List<Post> persistPosts(LocalDateTime... createdAt) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < createdAt.length; i++) {
+            Post post = new Post(0, "Title " + i, "Content " + i, createdAt[i]);
+            post.setUser(user);
+            entityManager.persist(post);
+            posts.add(post);
+        }
+        entityManager.flush();
+        return posts;
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.electionbackend.repository;
+
+import com.example.electionbackend.model.Post;
+import com.example.electionbackend.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PostLikeJdbcRepository
+ */
+@DataJpaTest
+@Import(PostLikeJdbcRepository.class)
+public class PostLikeJdbcRepositoryTest {
+    @Autowired
+    private PostLikeJdbcRepository postLikeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Post post;
+
+    /**
+     * Arranges a user and a post.
+     */
+    @BeforeEach
+    void setUp() {
+        user = new User("mai", "mai@hva.nl", "lol123");
+        entityManager.persist(user);
+        post = new Post(0, "Title", "Content", LocalDateTime.now());
+        post.setUser(user);
+        entityManager.persist(post);
+        entityManager.flush();
+    }
+
+    /**
+     * Verifies that a user likes a post only once.
+     */
+    @Test
+    void add_shouldReturnFalse_whenUserAlreadyLikesPost() {
+        // Act
+        boolean first = postLikeRepository.add(post.getId(), user.getId());
+        boolean second = postLikeRepository.add(post.getId(), user.getId());
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+    }
+
+    /**
+     * Verifies that only a like that exists is removed.
+     */
+    @Test
+    void remove_shouldReturnFalse_whenUserDoesNotLikePost() {
+        // Arrange
+        postLikeRepository.add(post.getId(), user.getId());
+
+        // Act
+        boolean removed = postLikeRepository.remove(post.getId(), user.getId());
+        boolean removedAgain = postLikeRepository.remove(post.getId(), user.getId());
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(removedAgain);
+    }
+}
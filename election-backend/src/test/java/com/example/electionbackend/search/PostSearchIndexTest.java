@@ -0,0 +1,122 @@
+package com.example.electionbackend.search;
+
+import com.example.electionbackend.cache.CacheRegistry;
+import com.example.electionbackend.dto.PostDetailDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PostSearchIndex
+ */
+public class PostSearchIndexTest {
+    private CacheRegistry cacheRegistry;
+    private PostSearchIndex postSearchIndex;
+
+    /**
+     * Sets up an index loaded with three posts
+     */
+    @BeforeEach
+    void setUp() {
+        cacheRegistry = new CacheRegistry(new MockEnvironment());
+        postSearchIndex = new PostSearchIndex(cacheRegistry, true);
+        postSearchIndex.load(() -> List.of(
+                post(1, "Verkiezingen in Zeeland", "De opkomst in Middelburg was hoog."),
+                post(2, "Café debat", "Een debat over verkiezingen en de opkomst."),
+                post(3, "Uitslag", "De uitslag van de Tweede Kamerverkiezingen.")
+        ));
+    }
+
+    /**
+     * Verifies that all words of the query have to match, case and accents ignored
+     */
+    @Test
+    void search_shouldMatchAllWords_ignoringCaseAndAccents() {
+        // Act
+        List<PostDetailDTO> result = postSearchIndex.search("CAFE Débat");
+
+        // Assert
+        assertEquals(List.of(2), result.stream().map(PostDetailDTO::getId).toList());
+        assertTrue(postSearchIndex.search("café uitslag").isEmpty());
+    }
+
+    /**
+     * Verifies that query words match as prefixes, that title matches rank above content matches and that newer
+     * posts come first on equal scores
+     */
+    @Test
+    void search_shouldRankTitleMatchesFirst_whenWordIsPrefix() {
+        // Act
+        List<PostDetailDTO> result = postSearchIndex.search("verkiez");
+
+        // Assert
+        assertEquals(List.of(1, 2), result.stream().map(PostDetailDTO::getId).toList());
+        assertEquals(List.of(2, 1), postSearchIndex.search("opkomst").stream().map(PostDetailDTO::getId).toList());
+    }
+
+    /**
+     * Verifies that an added post can be found, and that an invalidation from another node drops the index
+     */
+    @Test
+    void add_shouldIndexPost_untilIndexIsInvalidated() {
+        // Arrange
+        postSearchIndex.add(post(4, "Stembureau", "Het stembureau in Zeeland opent om 7:30."));
+
+        // Act
+        List<PostDetailDTO> result = postSearchIndex.search("zeeland");
+        cacheRegistry.invalidateAll(PostSearchIndex.NAME);
+
+        // Assert
+        assertEquals(List.of(1, 4), result.stream().map(PostDetailDTO::getId).toList());
+        assertFalse(postSearchIndex.isLoaded());
+        assertTrue(postSearchIndex.search("zeeland").isEmpty());
+    }
+
+    /**
+     * Verifies that the ID of a post from another node doesn't drop the index, the post is added by the service
+     */
+    @Test
+    void invalidate_shouldKeepIndex_whenSinglePostIsInvalidated() {
+        // Act
+        cacheRegistry.invalidate(PostSearchIndex.NAME, "4");
+
+        // Assert
+        assertTrue(postSearchIndex.isLoaded());
+        assertEquals(List.of(3), postSearchIndex.search("uitslag").stream().map(PostDetailDTO::getId).toList());
+    }
+
+    /**
+     * Verifies that a post added while the posts are read is indexed with them, and that the index is loaded once
+     */
+    @Test
+    void load_shouldIndexPostsAddedDuringLoad_andLoadOnce() {
+        // Arrange
+        PostSearchIndex index = new PostSearchIndex(cacheRegistry, true);
+        AtomicInteger reads = new AtomicInteger();
+
+        // Act
+        index.load(() -> {
+            reads.incrementAndGet();
+            index.add(post(5, "Stembureau", "Het stembureau in Zeeland opent om 7:30."));
+            return List.of(post(1, "Verkiezingen in Zeeland", "De opkomst in Middelburg was hoog."));
+        });
+        index.load(() -> {
+            reads.incrementAndGet();
+            return List.of();
+        });
+
+        // Assert
+        assertTrue(index.isLoaded());
+        assertEquals(1, reads.get());
+        assertEquals(List.of(1, 5), index.search("zeeland").stream().map(PostDetailDTO::getId).toList());
+    }
+
+    private PostDetailDTO post(int id, String title, String content) {
+        return new PostDetailDTO(id, 1, title, content, "2025-10-29T12:00", "mai", 0, 0);
+    }
+}
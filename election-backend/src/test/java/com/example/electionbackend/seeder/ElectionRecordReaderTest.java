@@ -0,0 +1,124 @@
+package com.example.electionbackend.seeder;
+
+import com.example.electionbackend.dto.ConstituencyDTO;
+import com.example.electionbackend.dto.ElectionDTO;
+import com.example.electionbackend.dto.PartyDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ElectionRecordReader
+ */
+public class ElectionRecordReaderTest {
+    private static final String EXPORT = """
+            {"type":"ELECTION","id":"TK2023"}
+            {"type":"PARTY","id":1,"name":"Party A","seats":2,"candidates":[{"id":1,"initials":"A.","firstName":"Anna","lastName":"Jansen","gender":"female","locality":"Amsterdam","elected":true}]}
+            {"type":"STATE","name":"Nederland"}
+            {"type":"METADATA","region":"STATE","totalCast":300,"totalCounted":290,"invalid":5,"blank":5}
+            {"type":"PARTY_VOTE","region":"STATE","partyId":1,"votes":290}
+            {"type":"CONSTITUENCY","id":1,"name":"Groningen"}
+            {"type":"PARTY_VOTE","region":"CONSTITUENCY","regionId":"1","partyId":1,"votes":100}
+            {"type":"MUNICIPALITY","id":14,"name":"Groningen","constituencyId":1}
+            {"type":"POLLING_STATION","id":"0014::SB1","name":"Stembureau 1","municipalityId":14}
+            {"type":"METADATA","region":"POLLING_STATION","regionId":"0014::SB1","totalCast":100,"totalCounted":98,"invalid":1,"blank":1}
+            {"type":"PARTY_VOTE","region":"POLLING_STATION","regionId":"0014::SB1","partyId":1,"votes":98}
+            {"type":"CONSTITUENCY","id":2,"name":"Leeuwarden"}
+            {"type":"PARTY_VOTE","region":"CONSTITUENCY","regionId":"2","partyId":1,"votes":190}
+            """;
+
+    private final ElectionRecordReader reader = new ElectionRecordReader(new ObjectMapper());
+
+    private InputStream export(String records) {
+        return new ByteArrayInputStream(records.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that the election is handed off before its constituencies, and each constituency once it is complete.
+     */
+    @Test
+    void read_shouldHandOffOneConstituencyAtATime_whenHandlerIsGiven() throws IOException {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        List<ConstituencyDTO> constituencies = new ArrayList<>();
+
+        // Act
+        reader.read(export(EXPORT), new ElectionRecordReader.Handler() {
+            @Override
+            public void election(ElectionDTO election) {
+                events.add("election " + election.getId() + " " + election.getState().getConstituencyList().size());
+            }
+
+            @Override
+            public void constituency(ConstituencyDTO constituency) {
+                events.add("constituency " + constituency.getId());
+                constituencies.add(constituency);
+            }
+        });
+
+        // Assert
+        assertEquals(List.of("election TK2023 0", "constituency 1", "constituency 2"), events);
+        ConstituencyDTO first = constituencies.get(0);
+        assertEquals(100, first.getPartyVoteList().get(0).getVotes());
+        assertEquals(98, first.getMunicipalityList().get(0).getPollingStationList().get(0).getMetadata().getTotalCounted());
+    }
+
+    /**
+     * Verifies that reading without a handler returns the complete election.
+     */
+    @Test
+    void read_shouldReturnCompleteElection_whenNoHandlerIsGiven() throws IOException {
+        // Act
+        ElectionDTO election = reader.read(export(EXPORT));
+
+        // Assert
+        assertEquals("TK2023", election.getId());
+        assertEquals("Anna", election.getPartyList().get(0).getCandidates().get(0).getFirstName());
+        assertEquals(2, election.getPartyList().get(0).getSeats());
+        assertEquals(290, election.getState().getMetadata().getTotalCounted());
+        assertEquals(2, election.getState().getConstituencyList().size());
+        assertEquals(190, election.getState().getConstituencyList().get(1).getPartyVoteList().get(0).getVotes());
+    }
+
+    /**
+     * Verifies that a party without candidates keeps the fields that come after its candidates.
+     */
+    @Test
+    void read_shouldReadFieldsAfterCandidates_whenCandidatesAreNull() throws IOException {
+        // Arrange
+        String records = """
+                {"type":"ELECTION","id":"TK2023"}
+                {"type":"PARTY","id":1,"candidates":null,"name":"Party A","seats":2}
+                {"type":"PARTY","id":2,"candidates":[null],"name":"Party B","seats":1}
+                """;
+
+        // Act
+        ElectionDTO election = reader.read(export(records));
+
+        // Assert
+        assertEquals(List.of("Party A", "Party B"), election.getPartyList().stream().map(PartyDTO::getName).toList());
+        assertEquals(2, election.getPartyList().get(0).getSeats());
+        assertTrue(election.getPartyList().get(0).getCandidates().isEmpty());
+        assertTrue(election.getPartyList().get(1).getCandidates().isEmpty());
+    }
+
+    /**
+     * Verifies that a record can't refer to a constituency that has already been handed off.
+     */
+    @Test
+    void read_shouldThrow_whenRecordRefersToCompletedConstituency() {
+        // Arrange
+        String records = EXPORT + "{\"type\":\"MUNICIPALITY\",\"id\":15,\"name\":\"Haren\",\"constituencyId\":1}\n";
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> reader.read(export(records)));
+    }
+}
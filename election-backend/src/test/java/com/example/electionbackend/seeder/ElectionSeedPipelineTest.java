@@ -0,0 +1,100 @@
+package com.example.electionbackend.seeder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ElectionSeedPipeline
+ */
+@ExtendWith(MockitoExtension.class)
+public class ElectionSeedPipelineTest {
+    @Mock
+    private ElectionDefinitionSeeder electionDefinitionSeeder;
+
+    private ElectionExport export(int year) {
+        return new ElectionExport(Path.of("election-TK" + year + ".ndjson"), "fingerprint" + year);
+    }
+
+    /**
+     * Verifies that every year is persisted, in the given order.
+     */
+    @Test
+    void run_shouldPersistYearsInOrder_whenAllFetchesSucceed() {
+        // Arrange
+        ElectionExport first = export(2021);
+        ElectionExport second = export(2023);
+        when(electionDefinitionSeeder.fetchElection(2021)).thenReturn(first);
+        when(electionDefinitionSeeder.fetchElection(2023)).thenReturn(second);
+        ElectionSeedPipeline pipeline = new ElectionSeedPipeline(electionDefinitionSeeder, 2);
+
+        // Act
+        Map<Integer, String> failures = pipeline.run(List.of(2021, 2023));
+
+        // Assert
+        assertTrue(failures.isEmpty());
+        InOrder inOrder = inOrder(electionDefinitionSeeder);
+        inOrder.verify(electionDefinitionSeeder).persistElection(2021, first);
+        inOrder.verify(electionDefinitionSeeder).persistElection(2023, second);
+    }
+
+    /**
+     * Verifies that the next year is fetched while the current year is being persisted.
+     */
+    @Test
+    void run_shouldFetchNextYear_whilePersistingCurrentYear() throws InterruptedException {
+        // Arrange
+        CountDownLatch nextFetched = new CountDownLatch(1);
+        when(electionDefinitionSeeder.fetchElection(2021)).thenReturn(export(2021));
+        when(electionDefinitionSeeder.fetchElection(2023)).thenAnswer(invocation -> {
+            nextFetched.countDown();
+            return export(2023);
+        });
+        when(electionDefinitionSeeder.persistElection(eq(2021), any()))
+                .thenAnswer(invocation -> nextFetched.await(5, TimeUnit.SECONDS));
+        ElectionSeedPipeline pipeline = new ElectionSeedPipeline(electionDefinitionSeeder, 2);
+
+        // Act
+        Map<Integer, String> failures = pipeline.run(List.of(2021, 2023));
+
+        // Assert
+        assertTrue(failures.isEmpty());
+        assertEquals(0, nextFetched.getCount());
+    }
+
+    /**
+     * Verifies that a year that fails doesn't stop the other years from being seeded.
+     */
+    @Test
+    void run_shouldSeedOtherYears_whenOneYearFails() {
+        // Arrange
+        ElectionExport last = export(2025);
+        when(electionDefinitionSeeder.fetchElection(2021)).thenReturn(null);
+        when(electionDefinitionSeeder.fetchElection(2023)).thenReturn(export(2023));
+        when(electionDefinitionSeeder.fetchElection(2025)).thenReturn(last);
+        when(electionDefinitionSeeder.persistElection(eq(2023), any())).thenThrow(new IllegalStateException("broken"));
+        ElectionSeedPipeline pipeline = new ElectionSeedPipeline(electionDefinitionSeeder, 1);
+
+        // Act
+        Map<Integer, String> failures = pipeline.run(List.of(2021, 2023, 2025));
+
+        // Assert
+        assertEquals(List.of(2021, 2023), List.copyOf(failures.keySet()));
+        assertEquals("broken", failures.get(2023));
+        verify(electionDefinitionSeeder, never()).persistElection(eq(2021), any());
+        verify(electionDefinitionSeeder).persistElection(2025, last);
+    }
+}
@@ -1,24 +1,34 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
 import com.example.electionbackend.dto.MunicipalityPollingStationDTO;
 import com.example.electionbackend.dto.PollingStationDTO;
 import com.example.electionbackend.dto.RegionDTO;
 import com.example.electionbackend.exception.InvalidSortPropertyException;
 import com.example.electionbackend.exception.municipality.MunicipalityNotFoundException;
 import com.example.electionbackend.mapper.MunicipalityMapper;
+import com.example.electionbackend.model.Constituency;
+import com.example.electionbackend.model.Election;
 import com.example.electionbackend.model.Municipality;
 import com.example.electionbackend.model.PollingStation;
+import com.example.electionbackend.model.State;
+import com.example.electionbackend.readmodel.ElectionReadModel;
 import com.example.electionbackend.repository.interfaces.MunicipalityRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +51,15 @@ public class MunicipalityServiceTest {
     @Mock
     private MunicipalityMapper municipalityMapper;
 
+    @Mock
+    private ElectionReadModel electionReadModel;
+
+    @Spy
+    private CacheRegistry cacheRegistry = new CacheRegistry(new MockEnvironment());
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     private Municipality municipality;
     private final List<Municipality> municipalityList = new ArrayList<>();
 
@@ -97,6 +116,39 @@ public class MunicipalityServiceTest {
         verify(municipalityRepository).findById(id);
     }
 
+    /**
+     * Verifies that an update that is rolled back doesn't leave the updated municipality in the cache.
+     */
+    @Test
+    void update_shouldNotCacheMunicipality_whenTransactionRollsBack() {
+        // Arrange
+        Election election = new Election("TK2023");
+        State state = new State();
+        state.setElection(election);
+        Constituency constituency = new Constituency("Flevoland");
+        constituency.setState(state);
+        municipality.setConstituency(constituency);
+        when(municipalityRepository.findById(1)).thenReturn(municipality);
+        when(municipalityRepository.save(municipality)).thenReturn(municipality);
+        when(municipalityMapper.toRegionDTO(municipality)).thenReturn(new RegionDTO(1, "Almere-Haven"), regionDTO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            municipalityService.update(municipality);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Act
+        RegionDTO result = municipalityService.getById(1);
+
+        // Assert
+        assertEquals("Almere", result.getName());
+        verify(municipalityRepository, times(2)).findById(1);
+    }
+
     /**
      * Verifies that getAll returns a paged list of RegionDTOs.
      */
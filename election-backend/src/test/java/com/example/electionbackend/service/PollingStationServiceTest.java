@@ -1,20 +1,25 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
 import com.example.electionbackend.dto.RegionDTO;
 import com.example.electionbackend.exception.InvalidSortPropertyException;
 import com.example.electionbackend.mapper.PollingStationMapper;
 import com.example.electionbackend.model.PollingStation;
+import com.example.electionbackend.readmodel.ElectionReadModel;
 import com.example.electionbackend.repository.interfaces.PollingStationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.mock.env.MockEnvironment;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,6 +42,15 @@ public class PollingStationServiceTest {
     @Mock
     private PollingStationMapper pollingStationMapper;
 
+    @Mock
+    private ElectionReadModel electionReadModel;
+
+    @Spy
+    private CacheRegistry cacheRegistry = new CacheRegistry(new MockEnvironment());
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     private PollingStation pollingStation;
     private final List<PollingStation> pollingStationList = new ArrayList<>();
 
@@ -1,21 +1,31 @@
 package com.example.electionbackend.service;
 
+import com.example.electionbackend.cache.CacheInvalidationBus;
+import com.example.electionbackend.cache.CacheRegistry;
+import com.example.electionbackend.counter.PostCounters;
+import com.example.electionbackend.dto.PostDTO;
 import com.example.electionbackend.dto.PostDetailDTO;
 import com.example.electionbackend.exception.post.InvalidSearchQueryException;
 import com.example.electionbackend.mapper.PostMapper;
 import com.example.electionbackend.model.Post;
 import com.example.electionbackend.model.User;
+import com.example.electionbackend.repository.interfaces.PostLikeRepository;
 import com.example.electionbackend.repository.interfaces.PostRepository;
+import com.example.electionbackend.repository.interfaces.UserRepository;
+import com.example.electionbackend.search.PostSearchIndex;
+import com.example.electionbackend.type.PostCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.mock.env.MockEnvironment;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -33,9 +43,27 @@ public class PostServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private PostMapper postMapper;
 
+    @Spy
+    private CacheRegistry cacheRegistry = new CacheRegistry(new MockEnvironment());
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Spy
+    private PostSearchIndex postSearchIndex = new PostSearchIndex(new CacheRegistry(new MockEnvironment()), true);
+
+    @Mock
+    private PostCounters postCounters;
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
     private User user;
     private Post post;
     private PostDetailDTO postDetailDTO;
@@ -63,6 +91,42 @@ public class PostServiceTest {
         );
     }
 
+    /**
+     * Verifies that a user who likes a post twice is counted once, and that the post is read only once per like.
+     */
+    @Test
+    void like_shouldCountOnce_whenUserLikesPostTwice() {
+        // Arrange
+        when(postRepository.findById(1)).thenReturn(post);
+        when(postMapper.toPostDetailDTO(post, 0, 0)).thenReturn(postDetailDTO);
+        when(postLikeRepository.add(1, 2)).thenReturn(true, false);
+
+        // Act
+        postService.like(1, 2);
+        postService.like(1, 2);
+
+        // Assert
+        verify(postCounters, times(1)).add(1, PostCounter.LIKES, 1);
+        verify(postRepository, times(1)).findById(1);
+    }
+
+    /**
+     * Verifies that a user who didn't like a post can't remove the likes of other users.
+     */
+    @Test
+    void unlike_shouldKeepCount_whenUserDidNotLikePost() {
+        // Arrange
+        when(postRepository.findById(1)).thenReturn(post);
+        when(postMapper.toPostDetailDTO(post, 0, 0)).thenReturn(postDetailDTO);
+        when(postLikeRepository.remove(1, 2)).thenReturn(false);
+
+        // Act
+        postService.unlike(1, 2);
+
+        // Assert
+        verify(postCounters, never()).add(anyInt(), any(), anyInt());
+    }
+
     /**
      * Verifies that getAll returns a paged list of posts when posts exist
      */
@@ -123,7 +187,7 @@ public class PostServiceTest {
     }
 
     /**
-     * Verifies that getAll searches by query when a query is provided
+     * Verifies that getAll searches the post index by query when a query is provided, loading the index once
      */
     @Test
     void getAll_shouldSearchByQuery_whenQueryProvided() {
@@ -138,8 +202,7 @@ public class PostServiceTest {
 
         Pageable pageable = PageRequest.of(0, 5);
 
-        when(postRepository.findByQuery(query))
-                .thenReturn(new ArrayList<>(List.of(posts.get(0))));
+        when(postRepository.findAll()).thenReturn(posts);
         when(postMapper.toPostDetailDTO(any(Post.class), anyInt(), anyInt()))
                 .thenAnswer(invocation -> {
                     Post p = invocation.getArgument(0);
@@ -157,14 +220,16 @@ public class PostServiceTest {
 
         // Act
         Page<PostDetailDTO> result = postService.getAll(pageable, query);
+        Page<PostDetailDTO> second = postService.getAll(pageable, "content 2");
 
         // Assert
         assertEquals(1, result.getTotalElements());
         assertEquals(1, result.getContent().size());
         assertEquals(query, result.getContent().get(0).getTitle());
+        assertEquals("Title 2", second.getContent().get(0).getTitle());
 
-        verify(postRepository, times(1)).findByQuery(query);
-        verify(postRepository, never()).findAll();
+        verify(postRepository, times(1)).findAll();
+        verify(postRepository, never()).findByQuery(anyString());
     }
 
     /**
@@ -288,4 +353,129 @@ public class PostServiceTest {
         // Assert
         verify(postRepository, times(1)).findAll();
     }
+
+    /**
+     * Verifies that create writes the new post through to the cached posts, in order, without loading them again
+     */
+    @Test
+    void create_shouldInsertPostIntoCachedPosts_whenPostsAreCached() {
+        // Arrange
+        List<Post> posts = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 3; i++) {
+            Post p = new Post(i, "Title " + i, "Content " + i, now.minusDays(3 - i));
+            p.setUser(user);
+            posts.add(p);
+        }
+        Post created = new Post(4, "Title 4", "Content 4", now.plusMinutes(1));
+        created.setUser(user);
+        PostDTO dto = new PostDTO(0, 1, "Title 4", "Content 4", null);
+
+        Pageable pageable = PageRequest.of(0, 5);
+        when(postRepository.findAll()).thenReturn(posts);
+        when(postRepository.save(any(Post.class))).thenReturn(created);
+        when(userRepository.findById(1)).thenReturn(user);
+        when(postMapper.toEntity(dto)).thenReturn(new Post());
+        when(postMapper.toDTO(created)).thenReturn(dto);
+        when(postMapper.toPostDetailDTO(any(Post.class), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    Post p = invocation.getArgument(0);
+                    return new PostDetailDTO(p.getId(), p.getUser().getId(), p.getTitle(), p.getContent(),
+                            p.getCreatedAt().toString(), p.getUser().getUsername(), 0, 0);
+                });
+        postService.getAll(pageable, null);
+
+        // Act
+        postService.create(dto);
+        Page<PostDetailDTO> result = postService.getAll(pageable, null);
+
+        // Assert
+        assertEquals(List.of(4, 3, 2, 1), result.getContent().stream().map(PostDetailDTO::getId).toList());
+        verify(postRepository, times(1)).findAll();
+        verify(cacheInvalidationBus).publish("allPosts", 4);
+        verify(cacheInvalidationBus).publish(PostSearchIndex.NAME, 4);
+    }
+
+    /**
+     * Verifies that a post created on another node is read by its ID and inserted into the cached posts, without
+     * loading all posts again
+     */
+    @Test
+    void getAll_shouldInsertPostOfOtherNode_whenItsIdIsReceived() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Post other = new Post(5, "Title 5", "Content 5", now.plusMinutes(1));
+        other.setUser(user);
+        Pageable pageable = PageRequest.of(0, 5);
+        when(postRepository.findAll()).thenReturn(List.of(post));
+        when(postRepository.findById(5)).thenReturn(other);
+        when(postMapper.toPostDetailDTO(any(Post.class), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    Post p = invocation.getArgument(0);
+                    return new PostDetailDTO(p.getId(), p.getUser().getId(), p.getTitle(), p.getContent(),
+                            p.getCreatedAt().toString(), p.getUser().getUsername(), 0, 0);
+                });
+        postService.getAll(pageable, null);
+
+        // Act
+        cacheRegistry.invalidate("allPosts", "5");
+        Page<PostDetailDTO> result = postService.getAll(pageable, null);
+
+        // Assert
+        assertEquals(List.of(5, 1), result.getContent().stream().map(PostDetailDTO::getId).toList());
+        verify(postRepository, times(1)).findAll();
+    }
+
+    /**
+     * Verifies that a post created on another node is read by its ID and added to the loaded search index,
+     * without loading all posts again
+     */
+    @Test
+    void getAll_shouldFindPostOfOtherNode_whenItsIdIsReceived() {
+        // Arrange
+        Post other = new Post(5, "Stembureau Zeeland", "Content 5", LocalDateTime.now());
+        other.setUser(user);
+        Pageable pageable = PageRequest.of(0, 5);
+        when(postRepository.findAll()).thenReturn(List.of(post));
+        when(postRepository.findById(5)).thenReturn(other);
+        when(postMapper.toPostDetailDTO(any(Post.class), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    Post p = invocation.getArgument(0);
+                    return new PostDetailDTO(p.getId(), p.getUser().getId(), p.getTitle(), p.getContent(),
+                            p.getCreatedAt().toString(), p.getUser().getUsername(), 0, 0);
+                });
+        postService.getAll(pageable, "example");
+
+        // Act
+        cacheRegistry.invalidate(PostSearchIndex.NAME, "5");
+        Page<PostDetailDTO> result = postService.getAll(pageable, "zeeland");
+
+        // Assert
+        assertEquals(List.of(5), result.getContent().stream().map(PostDetailDTO::getId).toList());
+        verify(postRepository, times(1)).findAll();
+    }
+
+    /**
+     * Verifies that getById serves the cached post with the live like count of the counters
+     */
+    @Test
+    void getById_shouldReturnLiveLikeCount_whenPostIsCached() {
+        // Arrange
+        when(postRepository.findById(1)).thenReturn(post);
+        when(postMapper.toPostDetailDTO(post, 0, 0)).thenReturn(postDetailDTO);
+        when(postCounters.getCount(1, PostCounter.LIKES)).thenReturn(7, 8);
+        when(postCounters.getCount(1, PostCounter.COMMENTS)).thenReturn(2);
+
+        // Act
+        PostDetailDTO first = postService.getById(1);
+        PostDetailDTO second = postService.getById(1);
+
+        // Assert
+        assertEquals(7, first.getLikeCount());
+        assertEquals(8, second.getLikeCount());
+        assertEquals(2, second.getCommentCount());
+        assertEquals(0, postDetailDTO.getLikeCount());
+        verify(postRepository, times(1)).findById(1);
+        verify(postCounters).seed(post);
+    }
 }
@@ -3,5 +3,5 @@ import {IPageResponse} from "@/interfaces/IPageResponse";
 
 export interface IPostService {
     getById(id: number): Promise<IPost>;
-    getAll(sort: string, page: number, size: number, query?: string): Promise<IPageResponse<IPost>>;
+    getAll(sort: string | null, page: number, size: number, query?: string): Promise<IPageResponse<IPost>>;
 }
\ No newline at end of file
@@ -33,7 +33,8 @@ export default {
             this.currentQuery = query;
 
             try {
-                const pageResponse = await service.getAll("desc", page, this.pageSize, query);
+                // Search results are ordered by relevance, the other posts newest first
+                const pageResponse = await service.getAll(query ? null : "desc", page, this.pageSize, query);
 
                 // Update posts and pagination info
                 this.posts = pageResponse.content;
@@ -11,11 +11,13 @@ export class PostService implements IPostService {
 
     /**
      * Fetches all posts.
+     * @param sort - The direction of the creation date, or null to order search results by relevance.
      * @returns A promise that resolves to an array of posts.
      */
-    public async getAll(sort: string = "desc", page: number = 0, size: number = 0, query?: string): Promise<IPageResponse<IPost>> {
+    public async getAll(sort: string | null = "desc", page: number = 0, size: number = 0, query?: string): Promise<IPageResponse<IPost>> {
         const q: string = query ? `&query=${encodeURIComponent(query)}` : '';
-        const url: string = `${this.url}/posts?sort=createdAt,${sort}&page=${page}&size=${size}${q}`;
+        const s: string = sort ? `sort=createdAt,${sort}&` : '';
+        const url: string = `${this.url}/posts?${s}page=${page}&size=${size}${q}`;
 
         const response: Response = await fetch(`${url}`, {
             method: 'GET',